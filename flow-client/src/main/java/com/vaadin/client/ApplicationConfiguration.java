@@ -46,6 +46,8 @@ public class ApplicationConfiguration {
     private String[] exportedWebComponents;
 
     private boolean devToolsEnabled;
+    private boolean uidlTimeSlicing;
+    private boolean clientMetricsEnabled;
     private String liveReloadUrl;
     private String liveReloadBackend;
     private String springBootLiveReloadPort;
@@ -340,6 +342,52 @@ public class ApplicationConfiguration {
         this.requestTiming = requestTiming;
     }
 
+    /**
+     * Checks if large messages from the server should be processed in chunks
+     * spread over several animation frames.
+     *
+     * @return {@code true} if time-sliced message processing is enabled,
+     *         {@code false} otherwise
+     */
+    public boolean isUidlTimeSlicing() {
+        return uidlTimeSlicing;
+    }
+
+    /**
+     * Sets whether large messages from the server should be processed in
+     * chunks spread over several animation frames.
+     *
+     * @param uidlTimeSlicing
+     *            {@code true} if time-sliced message processing is enabled,
+     *            {@code false} otherwise
+     */
+    public void setUidlTimeSlicing(boolean uidlTimeSlicing) {
+        this.uidlTimeSlicing = uidlTimeSlicing;
+    }
+
+    /**
+     * Checks if rendering performance metrics should be collected and
+     * reported to the server.
+     *
+     * @return {@code true} if client metrics are enabled, {@code false}
+     *         otherwise
+     */
+    public boolean isClientMetricsEnabled() {
+        return clientMetricsEnabled;
+    }
+
+    /**
+     * Sets whether rendering performance metrics should be collected and
+     * reported to the server.
+     *
+     * @param clientMetricsEnabled
+     *            {@code true} if client metrics are enabled, {@code false}
+     *            otherwise
+     */
+    public void setClientMetricsEnabled(boolean clientMetricsEnabled) {
+        this.clientMetricsEnabled = clientMetricsEnabled;
+    }
+
     /**
      * Sets the exported web components.
      *
@@ -15,6 +15,7 @@
  */
 package com.vaadin.client;
 
+import com.vaadin.client.communication.ClientMetrics;
 import com.vaadin.client.communication.ConnectionStateHandler;
 import com.vaadin.client.communication.DefaultConnectionStateHandler;
 import com.vaadin.client.communication.Heartbeat;
@@ -106,6 +107,7 @@ public class DefaultRegistry extends Registry {
         set(ConstantPool.class, new ConstantPool());
         set(ExistingElementMap.class, new ExistingElementMap());
         set(InitialPropertiesHandler.class, new InitialPropertiesHandler(this));
+        set(ClientMetrics.class, new ClientMetrics(this));
 
         // Classes with dependencies, in correct order
         set(Heartbeat.class, new Heartbeat(this));
@@ -49,6 +49,8 @@ public class Profiler {
 
     private static ProfilerResultConsumer consumer;
 
+    private static final Map<String, Integer> counters = new HashMap<>();
+
     /**
      * Enables the profiling via deferred binding.
      *
@@ -375,6 +377,34 @@ public class Profiler {
         }
     }
 
+    /**
+     * Increments a named counter. Calls to this method will be removed by the
+     * compiler unless profiling is enabled.
+     *
+     * @param name
+     *            the name of the counter
+     */
+    public static void count(String name) {
+        if (GWT.isScript() && isEnabled()) {
+            Integer count = counters.get(name);
+            counters.put(name, count == null ? 1 : count + 1);
+        }
+    }
+
+    /**
+     * Gets the value of a named counter incremented using
+     * {@link #count(String)}.
+     *
+     * @param name
+     *            the name of the counter
+     * @return the number of times the counter has been incremented since the
+     *         profiler was last reset, or 0 if profiling is not enabled
+     */
+    public static int getCount(String name) {
+        Integer count = counters.get(name);
+        return count == null ? 0 : count;
+    }
+
     /**
      * Returns time relative to the particular page load time. The value should
      * not be used directly but rather difference between two values returned by
@@ -414,6 +444,7 @@ public class Profiler {
             initialize();
 
             clearEventsList();
+            counters.clear();
         }
     }
 
@@ -549,6 +580,11 @@ public class Profiler {
         if (getConsumer() != null) {
             getConsumer().addProfilerData(stack.getFirst(), totalList);
         }
+
+        for (Map.Entry<String, Integer> counter : counters.entrySet()) {
+            Console.log("Counter " + counter.getKey() + ": "
+                    + counter.getValue());
+        }
     }
 
     /**
@@ -15,6 +15,7 @@
  */
 package com.vaadin.client;
 
+import com.vaadin.client.communication.ClientMetrics;
 import com.vaadin.client.communication.ConnectionStateHandler;
 import com.vaadin.client.communication.Heartbeat;
 import com.vaadin.client.communication.MessageHandler;
@@ -303,4 +304,13 @@ public class Registry {
     public Poller getPoller() {
         return get(Poller.class);
     }
+
+    /**
+     * Gets the {@link ClientMetrics} singleton.
+     *
+     * @return the {@link ClientMetrics} singleton
+     */
+    public ClientMetrics getClientMetrics() {
+        return get(ClientMetrics.class);
+    }
 }
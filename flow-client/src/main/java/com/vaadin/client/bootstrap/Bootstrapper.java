@@ -163,6 +163,10 @@ public class Bootstrapper implements EntryPoint {
         conf.setProductionMode(!jsoConfiguration.getConfigBoolean("debug"));
         conf.setRequestTiming(
                 jsoConfiguration.getConfigBoolean("requestTiming"));
+        conf.setUidlTimeSlicing(jsoConfiguration
+                .getConfigBoolean(ApplicationConstants.UIDL_TIME_SLICING));
+        conf.setClientMetricsEnabled(jsoConfiguration
+                .getConfigBoolean(ApplicationConstants.CLIENT_METRICS));
         conf.setExportedWebComponents(
                 jsoConfiguration.getConfigStringArray("webcomponents"));
 
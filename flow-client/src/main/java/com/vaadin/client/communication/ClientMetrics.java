@@ -0,0 +1,225 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.client.communication;
+
+import com.google.gwt.core.client.JavaScriptObject;
+
+import com.vaadin.client.Registry;
+import com.vaadin.client.flow.collection.JsCollections;
+import com.vaadin.client.flow.collection.JsMap;
+import com.vaadin.flow.shared.JsonConstants;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+/**
+ * Collects rendering performance metrics in the browser and batches them for
+ * reporting to the server.
+ * <p>
+ * Durations are aggregated per metric into a count, a total and a maximum, and
+ * counters are summed, so the size of a report does not depend on the number
+ * of measurements. A report is added to a message sent to the server at most
+ * once per {@link #REPORT_INTERVAL_MILLIS}; no requests are made only for
+ * reporting metrics.
+ * <p>
+ * If enabled in the application configuration, long tasks are observed using
+ * the browser's <code>PerformanceObserver</code>. Nodes inserted into the
+ * document are counted using a <code>MutationObserver</code> that is only
+ * connected while the changes from the server are being rendered, see
+ * {@link #startObservingInserts()}, so that mutations made by other code on
+ * the page do not cause any overhead.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class ClientMetrics {
+
+    /**
+     * The minimum time between two reports to the server.
+     */
+    public static final double REPORT_INTERVAL_MILLIS = 30000;
+
+    private static class Timing {
+        private int count;
+        private double total;
+        private double max;
+    }
+
+    private final JsMap<String, Timing> timings = JsCollections.map();
+    private final JsMap<String, Double> counters = JsCollections.map();
+
+    private double lastReport;
+
+    private JavaScriptObject insertObserver;
+
+    /**
+     * Creates a new instance connected to the given registry.
+     *
+     * @param registry
+     *            the global registry
+     */
+    public ClientMetrics(Registry registry) {
+        if (registry.getApplicationConfiguration().isClientMetricsEnabled()) {
+            observeBrowser();
+        }
+    }
+
+    /**
+     * Records a duration for the given metric.
+     *
+     * @param metric
+     *            the name of the metric
+     * @param millis
+     *            the duration in milliseconds
+     */
+    public void recordTime(String metric, double millis) {
+        Timing timing = timings.get(metric);
+        if (timing == null) {
+            timing = new Timing();
+            timings.set(metric, timing);
+        }
+        timing.count++;
+        timing.total += millis;
+        timing.max = Math.max(timing.max, millis);
+    }
+
+    /**
+     * Increments the given counter.
+     *
+     * @param metric
+     *            the name of the counter
+     * @param amount
+     *            the amount to add
+     */
+    public void increment(String metric, int amount) {
+        Double value = counters.get(metric);
+        counters.set(metric, (value == null ? 0 : value) + amount);
+    }
+
+    /**
+     * Starts counting the nodes inserted into the document. Should be
+     * followed by {@link #stopObservingInserts()} once the changes to observe
+     * have been made.
+     */
+    public void startObservingInserts() {
+        if (insertObserver == null) {
+            insertObserver = createInsertObserver();
+        }
+        if (insertObserver != null) {
+            observeInserts(insertObserver);
+        }
+    }
+
+    /**
+     * Stops counting the nodes inserted into the document and adds the nodes
+     * inserted since {@link #startObservingInserts()} to the
+     * {@link JsonConstants#CLIENT_METRIC_DOM_INSERTS} counter.
+     */
+    public void stopObservingInserts() {
+        if (insertObserver != null) {
+            disconnectInserts(insertObserver);
+        }
+    }
+
+    /**
+     * Gets the metrics collected since the previous report, if it is time to
+     * report them, and starts collecting new metrics.
+     *
+     * @param now
+     *            the current time in milliseconds
+     * @return the report to send to the server, or <code>null</code> if there
+     *         is nothing to report yet
+     */
+    public JsonObject collectReport(double now) {
+        if (now - lastReport < REPORT_INTERVAL_MILLIS
+                || (timings.isEmpty() && counters.isEmpty())) {
+            return null;
+        }
+        lastReport = now;
+
+        JsonObject timingsJson = Json.createObject();
+        timings.forEach((timing, metric) -> {
+            JsonArray timingJson = Json.createArray();
+            timingJson.set(0, timing.count);
+            timingJson.set(1, timing.total);
+            timingJson.set(2, timing.max);
+            timingsJson.put(metric, timingJson);
+        });
+        JsonObject countersJson = Json.createObject();
+        counters.forEach((value, metric) -> countersJson.put(metric, value));
+        timings.clear();
+        counters.clear();
+
+        JsonObject report = Json.createObject();
+        report.put(JsonConstants.CLIENT_METRICS_TIMINGS, timingsJson);
+        report.put(JsonConstants.CLIENT_METRICS_COUNTERS, countersJson);
+        return report;
+    }
+
+    private native void observeBrowser()
+    /*-{
+        var self = this;
+        var observer = $wnd.PerformanceObserver;
+        if (observer && observer.supportedEntryTypes
+                && observer.supportedEntryTypes.indexOf('longtask') !== -1) {
+            new observer($entry(function(list) {
+                list.getEntries().forEach(function(entry) {
+                    self.@com.vaadin.client.communication.ClientMetrics::recordTime(*)(
+                        @com.vaadin.flow.shared.JsonConstants::CLIENT_METRIC_LONG_TASK,
+                        entry.duration);
+                });
+            })).observe({ type: 'longtask' });
+        }
+    }-*/;
+
+    private static native int countAddedNodes(JavaScriptObject records)
+    /*-{
+        var inserted = 0;
+        for (var i = 0; i < records.length; i++) {
+            inserted += records[i].addedNodes.length;
+        }
+        return inserted;
+    }-*/;
+
+    private native JavaScriptObject createInsertObserver()
+    /*-{
+        if (!$wnd.MutationObserver) {
+            return null;
+        }
+        var self = this;
+        return new $wnd.MutationObserver($entry(function(records) {
+            self.@com.vaadin.client.communication.ClientMetrics::increment(*)(
+                @com.vaadin.flow.shared.JsonConstants::CLIENT_METRIC_DOM_INSERTS,
+                @com.vaadin.client.communication.ClientMetrics::countAddedNodes(*)(records));
+        }));
+    }-*/;
+
+    private static native void observeInserts(JavaScriptObject observer)
+    /*-{
+        observer.observe($doc, { childList: true, subtree: true });
+    }-*/;
+
+    private native void disconnectInserts(JavaScriptObject observer)
+    /*-{
+        // Records not yet delivered to the callback would be lost on disconnect
+        this.@com.vaadin.client.communication.ClientMetrics::increment(*)(
+            @com.vaadin.flow.shared.JsonConstants::CLIENT_METRIC_DOM_INSERTS,
+            @com.vaadin.client.communication.ClientMetrics::countAddedNodes(*)(
+                observer.takeRecords()));
+        observer.disconnect();
+    }-*/;
+}
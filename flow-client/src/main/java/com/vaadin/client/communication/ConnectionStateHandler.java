@@ -118,7 +118,8 @@ public interface ConnectionStateHandler {
      * @param pushConnection
      *            The push connection where the error occurred
      * @param response
-     *            An object containing response data
+     *            An object containing response data, or <code>null</code> if
+     *            the connection does not provide any
      */
     void pushError(PushConnection pushConnection, JavaScriptObject response);
 
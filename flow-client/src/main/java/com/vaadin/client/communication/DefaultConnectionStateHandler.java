@@ -494,9 +494,11 @@ public class DefaultConnectionStateHandler implements ConnectionStateHandler {
     public void pushError(PushConnection pushConnection,
             JavaScriptObject response) {
         debug("pushError()");
-        handleCommunicationError("Push connection using "
-                + ((AtmosphereResponse) response).getTransport() + " failed!",
-                -1);
+        String transport = response == null
+                ? pushConnection.getTransportType()
+                : ((AtmosphereResponse) response).getTransport();
+        handleCommunicationError(
+                "Push connection using " + transport + " failed!", -1);
     }
 
     @Override
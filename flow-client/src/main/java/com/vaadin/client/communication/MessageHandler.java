@@ -29,6 +29,7 @@ import com.vaadin.client.ValueMap;
 import com.vaadin.client.WidgetUtil;
 import com.vaadin.client.communication.MessageSender.ResynchronizationState;
 import com.vaadin.client.flow.ConstantPool;
+import com.vaadin.client.flow.IncrementalTreeChangeProcessor;
 import com.vaadin.client.flow.StateNode;
 import com.vaadin.client.flow.StateTree;
 import com.vaadin.client.flow.TreeChangeProcessor;
@@ -67,6 +68,39 @@ public class MessageHandler {
      */
     private static final int UNDEFINED_SYNC_ID = -1;
 
+    /**
+     * The number of changes in a message from which on the changes are applied
+     * in slices when time slicing is enabled.
+     */
+    private static final int TIME_SLICING_MIN_CHANGES = 1000;
+
+    /**
+     * The time budget of one slice, leaving the rest of a 60 fps frame for
+     * rendering.
+     */
+    private static final double TIME_SLICE_MILLIS = 8;
+
+    /**
+     * The number of changes applied between checking the time.
+     */
+    private static final int TIME_SLICE_CHUNK_SIZE = 200;
+
+    /**
+     * Slices taking at least this long are reported as long tasks, using the
+     * same threshold as the browser Long Tasks API.
+     */
+    private static final double LONG_TASK_MILLIS = 50;
+
+    /**
+     * The delay after which the next slice is applied even if no animation
+     * frame has been rendered, as animation frames are suspended while the
+     * document is hidden.
+     */
+    private static final int TIME_SLICE_FALLBACK_DELAY = 100;
+
+    private static final String TIME_SLICE_COUNTER = "MessageHandler.timeSlice";
+    private static final String LONG_TASK_COUNTER = "MessageHandler.longTask";
+
     /**
      * If responseHandlingLocks contains any objects, response handling is
      * suspended until the collection is empty or a timeout has occurred.
@@ -145,6 +179,18 @@ public class MessageHandler {
     };
     private Command nextResponseSessionExpiredHandler;
 
+    /**
+     * The next slice of the changes being applied in slices, or
+     * <code>null</code> if no message is being applied in slices.
+     */
+    private Command nextSlice;
+
+    /**
+     * Applies all remaining changes of the message being applied in slices,
+     * or <code>null</code> if no message is being applied in slices.
+     */
+    private Command remainingSlices;
+
     /**
      * Data structure holding information about pending UIDL messages.
      */
@@ -396,11 +442,10 @@ public class MessageHandler {
         assert getServerId(valueMap) == -1
                 || getServerId(valueMap) == lastSeenServerSyncId;
 
+        double processUidlStart = Duration.currentTimeMillis();
+        JsonObject json = valueMap.cast();
+        IncrementalTreeChangeProcessor slicedProcessor = null;
         try {
-            double processUidlStart = Duration.currentTimeMillis();
-
-            JsonObject json = valueMap.cast();
-
             if (json.hasKey("constants")) {
                 ConstantPool constantPool = registry.getConstantPool();
                 JsonObject constants = json.getObject("constants");
@@ -408,8 +453,56 @@ public class MessageHandler {
             }
 
             if (json.hasKey("changes")) {
-                processChanges(json);
+                JsonArray changes = json.getArray("changes");
+                if (registry.getApplicationConfiguration().isUidlTimeSlicing()
+                        && changes.length() >= TIME_SLICING_MIN_CHANGES) {
+                    slicedProcessor = new IncrementalTreeChangeProcessor(
+                            registry.getStateTree(), changes);
+                } else {
+                    // Measured like the slices, without the constants import
+                    double applyStart = Duration.currentTimeMillis();
+                    processChanges(json);
+                    recordClientMetric(JsonConstants.CLIENT_METRIC_TREE_APPLY,
+                            Duration.currentTimeMillis() - applyStart);
+                }
             }
+        } catch (RuntimeException | Error e) {
+            finishMessage(valueMap, lock);
+            throw e;
+        }
+
+        if (slicedProcessor != null) {
+            /*
+             * The response handling lock is kept until the last slice has
+             * been processed, so that no other message is handled in between.
+             * Bindings are not run and server RPCs are not sent on the
+             * partially updated tree between the slices.
+             */
+            Reactive.setFlushDeferred(true);
+            processChangesInSlices(slicedProcessor, 0, TIME_SLICE_MILLIS,
+                    () -> {
+                        Reactive.setFlushDeferred(false);
+                        completeMessage(valueMap, lock, start,
+                                processUidlStart);
+                        sendDeferredInvocations();
+                    }, () -> {
+                        Reactive.setFlushDeferred(false);
+                        finishMessage(valueMap, lock);
+                        sendDeferredInvocations();
+                    });
+        } else {
+            completeMessage(valueMap, lock, start, processUidlStart);
+        }
+    }
+
+    /**
+     * Processes the rest of a message after its state changes have been
+     * applied.
+     */
+    private void completeMessage(ValueMap valueMap, Object lock, double start,
+            double processUidlStart) {
+        try {
+            JsonObject json = valueMap.cast();
 
             if (json.hasKey(JsonConstants.UIDL_KEY_EXECUTE)) {
                 // Invoke JS only after all tree changes have been
@@ -422,12 +515,37 @@ public class MessageHandler {
                                 .execute(json.getArray(
                                         JsonConstants.UIDL_KEY_EXECUTE))));
             }
+            if (json.hasKey(JsonConstants.UIDL_KEY_BROADCAST)) {
+                // Dispatched after the JS invocations of the same message
+                JsonArray broadcasts = json
+                        .getArray(JsonConstants.UIDL_KEY_BROADCAST);
+                Reactive.addPostFlushListener(() -> Reactive
+                        .addPostFlushListener(() -> dispatchBroadcasts(
+                                broadcasts)));
+            }
 
             Console.log("handleUIDLMessage: "
                     + (Duration.currentTimeMillis() - processUidlStart)
                     + " ms");
 
-            Reactive.flush();
+            boolean clientMetrics = registry.getApplicationConfiguration()
+                    .isClientMetricsEnabled();
+            if (clientMetrics) {
+                // The bindings insert the DOM nodes of the changes
+                registry.getClientMetrics().startObservingInserts();
+            }
+            double flushStart = Duration.currentTimeMillis();
+            double flushTime;
+            try {
+                Reactive.flush();
+                flushTime = Duration.currentTimeMillis() - flushStart;
+            } finally {
+                if (clientMetrics) {
+                    registry.getClientMetrics().stopObservingInserts();
+                }
+            }
+            recordClientMetric(JsonConstants.CLIENT_METRIC_BINDING_FLUSH,
+                    flushTime);
 
             ValueMap meta = valueMap.getValueMap("meta");
 
@@ -478,27 +596,164 @@ public class MessageHandler {
             }
 
         } finally {
-            Console.log(" Processing time was "
-                    + String.valueOf(lastProcessingTime) + "ms");
+            finishMessage(valueMap, lock);
+        }
 
-            endRequestIfResponse(valueMap);
-            resumeResponseHandling(lock);
+    }
 
-            if (Profiler.isEnabled()) {
-                Scheduler.get().scheduleDeferred(() -> {
-                    Profiler.logTimings();
-                    Profiler.reset();
-                });
-            }
+    private static void dispatchBroadcasts(JsonArray broadcasts) {
+        for (int i = 0; i < broadcasts.length(); i++) {
+            dispatchBroadcast(broadcasts.getArray(i));
         }
+    }
+
+    /*
+     * The array holds the topic and the published value. The value is read in
+     * JS so that primitive values are not boxed.
+     */
+    private static native void dispatchBroadcast(JsonArray broadcast)
+    /*-{
+        $wnd.dispatchEvent(new CustomEvent('vaadin-broadcast', {
+            detail: { topic: broadcast[0], data: broadcast[1] }
+        }));
+    }-*/;
+
+    private void finishMessage(ValueMap valueMap, Object lock) {
+        Console.log(" Processing time was " + String.valueOf(lastProcessingTime)
+                + "ms");
 
+        endRequestIfResponse(valueMap);
+        resumeResponseHandling(lock);
+
+        if (Profiler.isEnabled()) {
+            Scheduler.get().scheduleDeferred(() -> {
+                Profiler.logTimings();
+                Profiler.reset();
+            });
+        }
+    }
+
+    private void sendDeferredInvocations() {
+        if (registry.getServerRpcQueue().isFlushPending()) {
+            registry.getMessageSender().sendInvocationsToServer();
+        }
+    }
+
+    /**
+     * Checks whether the state changes of a message are being applied in
+     * slices, so that the state tree is only partially updated.
+     *
+     * @return <code>true</code> if a message is being applied in slices,
+     *         <code>false</code> otherwise
+     */
+    public boolean isApplyingChangesInSlices() {
+        return remainingSlices != null;
+    }
+
+    /**
+     * Applies state changes a slice at a time, yielding to the browser
+     * between the slices so that it can render and handle user input.
+     *
+     * @param processor
+     *            the processor with the changes to apply
+     * @param applyMillis
+     *            the time spent in previous slices of the same message
+     * @param sliceMillis
+     *            the time budget of this slice
+     * @param onComplete
+     *            the command to run once all changes have been applied
+     * @param onFailure
+     *            the command to run if applying a change fails
+     */
+    private void processChangesInSlices(
+            IncrementalTreeChangeProcessor processor, double applyMillis,
+            double sliceMillis, Command onComplete, Command onFailure) {
+        nextSlice = null;
+        remainingSlices = null;
+
+        double sliceStart = Duration.currentTimeMillis();
+        double deadline = sliceStart + sliceMillis;
+        Profiler.enter("MessageHandler.processChangesInSlices");
+        try {
+            boolean done;
+            do {
+                done = processor.process(TIME_SLICE_CHUNK_SIZE);
+            } while (!done && Duration.currentTimeMillis() < deadline);
+        } catch (RuntimeException | Error e) {
+            Profiler.leave("MessageHandler.processChangesInSlices");
+            onFailure.execute();
+            throw e;
+        }
+        Profiler.leave("MessageHandler.processChangesInSlices");
+
+        double sliceTime = Duration.currentTimeMillis() - sliceStart;
+        Profiler.count(TIME_SLICE_COUNTER);
+        if (sliceTime >= LONG_TASK_MILLIS) {
+            Profiler.count(LONG_TASK_COUNTER);
+            Console.debug("Processing changes took " + sliceTime
+                    + " ms in one slice");
+        }
+
+        if (!processor.isDone()) {
+            double elapsed = applyMillis + sliceTime;
+            remainingSlices = () -> processChangesInSlices(processor, elapsed,
+                    Double.POSITIVE_INFINITY, onComplete, onFailure);
+            Command slice = new Command() {
+                @Override
+                public void execute() {
+                    // Only the first of the scheduled callbacks applies the
+                    // slice
+                    if (nextSlice == this) {
+                        processChangesInSlices(processor, elapsed,
+                                TIME_SLICE_MILLIS, onComplete, onFailure);
+                    }
+                }
+            };
+            nextSlice = slice;
+            scheduleSlice(slice, TIME_SLICE_FALLBACK_DELAY);
+            return;
+        }
+
+        try {
+            afterChangesProcessed(processor.getUpdatedNodes());
+        } catch (RuntimeException | Error e) {
+            onFailure.execute();
+            throw e;
+        }
+        recordClientMetric(JsonConstants.CLIENT_METRIC_TREE_APPLY,
+                applyMillis + sliceTime);
+        onComplete.execute();
     }
 
+    /*
+     * Animation frames are not rendered while the document is hidden, so a
+     * timeout is used instead. A timeout is also scheduled along with the
+     * animation frame in case the document is hidden before it is rendered.
+     */
+    private static native void scheduleSlice(Command command,
+            int fallbackDelay)
+    /*-{
+        var callback = $entry(function() {
+            command.@com.vaadin.client.Command::execute()();
+        });
+        if ($doc.hidden || !$wnd.requestAnimationFrame) {
+            $wnd.setTimeout(callback, 0);
+        } else {
+            $wnd.requestAnimationFrame(callback);
+            $wnd.setTimeout(callback, fallbackDelay);
+        }
+    }-*/;
+
     private void processChanges(JsonObject json) {
         StateTree tree = registry.getStateTree();
         JsSet<StateNode> updatedNodes = TreeChangeProcessor.processChanges(tree,
                 json.getArray("changes"));
 
+        afterChangesProcessed(updatedNodes);
+    }
+
+    private void afterChangesProcessed(JsSet<StateNode> updatedNodes) {
+        StateTree tree = registry.getStateTree();
         if (!registry.getApplicationConfiguration().isProductionMode()) {
             try {
                 JsonObject debugJson = tree.getRootNode().getDebugJson();
@@ -578,6 +833,18 @@ public class MessageHandler {
     }
 
     private void forceMessageHandling() {
+        if (remainingSlices != null) {
+            // The next message can't be applied on top of a partially
+            // updated tree
+            Console.warn(
+                    "Applying the remaining changes of the previous message before handling the next one");
+            remainingSlices.execute();
+            if (responseHandlingLocks.isEmpty()
+                    && pendingUIDLMessages.isEmpty()) {
+                // Pending messages were handled when the lock was released
+                return;
+            }
+        }
         if (!responseHandlingLocks.isEmpty()) {
             // Lock which was never release -> bug in locker or things just
             // too slow
@@ -775,6 +1042,31 @@ public class MessageHandler {
                 jsonWithWrapping.length() - JSON_COMMUNICATION_SUFFIX.length());
     }
 
+    /**
+     * Unwraps and parses the given JSON, received from the server, and records
+     * the time spent parsing it if client metrics are enabled.
+     *
+     * @param wrappedJsonText
+     *            the json, wrapped as done by the server
+     * @return a ValueMap, or null if the wrapping was incorrect or json could
+     *         not be parsed
+     */
+    ValueMap parseWrappedMessage(String wrappedJsonText) {
+        double parseStart = Duration.currentTimeMillis();
+        ValueMap json = parseWrappedJson(wrappedJsonText);
+        if (json != null) {
+            recordClientMetric(JsonConstants.CLIENT_METRIC_MESSAGE_PARSE,
+                    Duration.currentTimeMillis() - parseStart);
+        }
+        return json;
+    }
+
+    private void recordClientMetric(String metric, double millis) {
+        if (registry.getApplicationConfiguration().isClientMetricsEnabled()) {
+            registry.getClientMetrics().recordTime(metric, millis);
+        }
+    }
+
     /**
      * Unwraps and parses the given JSON, originating from the server.
      *
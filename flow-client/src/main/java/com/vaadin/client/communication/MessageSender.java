@@ -15,6 +15,7 @@
  */
 package com.vaadin.client.communication;
 
+import com.google.gwt.core.client.Duration;
 import com.google.gwt.core.client.GWT;
 import com.vaadin.client.Console;
 import com.vaadin.client.ConnectionIndicator;
@@ -78,9 +79,11 @@ public class MessageSender {
         }
 
         if (registry.getRequestResponseTracker().hasActiveRequest()
-                || (push != null && !push.isActive())) {
-            // There is an active request or push is enabled but not active
-            // -> send when current request completes or push becomes active
+                || (push != null && !push.isActive())
+                || registry.getMessageHandler().isApplyingChangesInSlices()) {
+            // There is an active request, push is enabled but not active or
+            // a message is being applied -> send when current request
+            // completes, push becomes active or the message is applied
         } else {
             doSendInvocationsToServer();
         }
@@ -147,6 +150,14 @@ public class MessageSender {
         payload.put(ApplicationConstants.CLIENT_TO_SERVER_ID,
                 clientToServerMessageId++);
 
+        if (registry.getApplicationConfiguration().isClientMetricsEnabled()) {
+            JsonObject metrics = registry.getClientMetrics()
+                    .collectReport(Duration.currentTimeMillis());
+            if (metrics != null) {
+                payload.put(ApplicationConstants.CLIENT_METRICS_ID, metrics);
+            }
+        }
+
         if (extraJson != null) {
             for (String key : extraJson.keys()) {
                 JsonValue value = extraJson.get(key);
@@ -182,7 +193,7 @@ public class MessageSender {
      */
     public void setPushEnabled(boolean enabled) {
         if (enabled && push == null) {
-            push = pushConnectionFactory.create(registry);
+            push = getPushConnectionFactory().create(registry);
         } else if (!enabled && push != null && push.isActive()) {
             push.disconnect(() -> {
                 push = null;
@@ -206,6 +217,15 @@ public class MessageSender {
         }
     }
 
+    private PushConnectionFactory getPushConnectionFactory() {
+        // A custom factory chooses the transport by itself
+        if (pushConnectionFactory instanceof AtmospherePushConnection.Factory
+                && SsePushConnection.isUsed(registry.getPushConfiguration())) {
+            return new SsePushConnection.Factory();
+        }
+        return pushConnectionFactory;
+    }
+
     /**
      * Returns a human readable string representation of the method used to
      * communicate with the server.
@@ -17,10 +17,17 @@ package com.vaadin.client.communication;
 
 import com.google.gwt.core.client.Scheduler;
 import com.vaadin.client.Console;
+import com.vaadin.client.Profiler;
 import com.vaadin.client.Registry;
+import com.vaadin.client.flow.collection.JsArray;
+import com.vaadin.client.flow.collection.JsCollections;
+import com.vaadin.client.flow.collection.JsSet;
+import com.vaadin.flow.shared.JsonConstants;
 
 import elemental.json.Json;
 import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonType;
 import elemental.json.JsonValue;
 
 /**
@@ -32,6 +39,12 @@ import elemental.json.JsonValue;
  */
 public class ServerRpcQueue {
 
+    /**
+     * The name of the profiler counter for invocations that have been dropped
+     * because a later invocation in the queue supersedes them.
+     */
+    public static final String COALESCED_COUNTER = "ServerRpcQueue.coalesced";
+
     private static final Runnable NO_OP = () -> {
         // NOOP
     };
@@ -132,14 +145,102 @@ public class ServerRpcQueue {
 
     /**
      * Returns the current invocations as JSON.
+     * <p>
+     * Invocations that are superseded by a later invocation in the queue are
+     * left out:
+     * <ul>
+     * <li>a property sync when the same property of the same node is synced
+     * again without any event in between
+     * <li>a throttled event in its intermediate phase when the same event of
+     * the same node is sent again in its intermediate phase without any other
+     * invocation than property syncs in between
+     * </ul>
+     * The queue fills up with such invocations while waiting for a response
+     * from the server, e.g. when dragging a slider.
      *
      * @return the current invocations in a JSON format ready to be sent to the
      *         server
      */
     public JsonArray toJson() {
+        pendingInvocations = coalesce(pendingInvocations);
         return pendingInvocations;
     }
 
+    private static JsonArray coalesce(JsonArray invocations) {
+        // Go through the invocations from the last to the first one to find
+        // the ones that are superseded by a later invocation
+        JsSet<String> laterSyncs = JsCollections.set();
+        JsSet<String> laterEvents = JsCollections.set();
+        JsArray<JsonValue> kept = JsCollections.array();
+        for (int i = invocations.length() - 1; i >= 0; i--) {
+            JsonValue invocation = invocations.get(i);
+            String syncKey = getSyncKey(invocation);
+            String eventKey = getIntermediateEventKey(invocation);
+            if (syncKey != null) {
+                if (laterSyncs.has(syncKey)) {
+                    Profiler.count(COALESCED_COUNTER);
+                    continue;
+                }
+                laterSyncs.add(syncKey);
+            } else if (eventKey != null) {
+                if (laterEvents.has(eventKey)) {
+                    Profiler.count(COALESCED_COUNTER);
+                    continue;
+                }
+                laterEvents.add(eventKey);
+                // The event must see the values synced before it
+                laterSyncs.clear();
+            } else {
+                laterSyncs.clear();
+                laterEvents.clear();
+            }
+            kept.push(invocation);
+        }
+
+        if (kept.length() == invocations.length()) {
+            return invocations;
+        }
+        JsonArray coalesced = Json.createArray();
+        for (int i = kept.length() - 1; i >= 0; i--) {
+            coalesced.set(coalesced.length(), kept.get(i));
+        }
+        return coalesced;
+    }
+
+    private static String getSyncKey(JsonValue invocation) {
+        if (invocation.getType() != JsonType.OBJECT) {
+            return null;
+        }
+        JsonObject object = (JsonObject) invocation;
+        if (!JsonConstants.RPC_TYPE_MAP_SYNC
+                .equals(object.getString(JsonConstants.RPC_TYPE))) {
+            return null;
+        }
+        return (int) object.getNumber(JsonConstants.RPC_NODE) + ":"
+                + (int) object.getNumber(JsonConstants.RPC_FEATURE) + ":"
+                + object.getString(JsonConstants.RPC_PROPERTY);
+    }
+
+    private static String getIntermediateEventKey(JsonValue invocation) {
+        if (invocation.getType() != JsonType.OBJECT) {
+            return null;
+        }
+        JsonObject object = (JsonObject) invocation;
+        if (!JsonConstants.RPC_TYPE_EVENT
+                .equals(object.getString(JsonConstants.RPC_TYPE))
+                || !object.hasKey(JsonConstants.RPC_EVENT_DATA)) {
+            return null;
+        }
+        JsonObject data = object.getObject(JsonConstants.RPC_EVENT_DATA);
+        if (!data.hasKey(JsonConstants.EVENT_DATA_PHASE)
+                || !JsonConstants.EVENT_PHASE_INTERMEDIATE.equals(
+                        data.getString(JsonConstants.EVENT_DATA_PHASE))) {
+            return null;
+        }
+        return (int) object.getNumber(JsonConstants.RPC_NODE) + ":"
+                + object.getString(JsonConstants.RPC_EVENT_TYPE);
+    }
+
     private boolean isFlushScheduled() {
         return NO_OP != doFlushStrategy;
     }
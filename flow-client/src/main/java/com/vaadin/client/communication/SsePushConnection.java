@@ -0,0 +1,234 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.client.communication;
+
+import com.google.gwt.core.client.JavaScriptObject;
+import com.google.gwt.core.client.Scheduler;
+
+import com.vaadin.client.Command;
+import com.vaadin.client.Console;
+import com.vaadin.client.Registry;
+import com.vaadin.client.ValueMap;
+import com.vaadin.flow.internal.nodefeature.PushConfigurationMap;
+import com.vaadin.flow.shared.ApplicationConstants;
+import com.vaadin.flow.shared.ui.Transport;
+import com.vaadin.flow.shared.util.SharedUtil;
+
+import elemental.json.JsonObject;
+
+/**
+ * A {@link PushConnection} that receives messages from the server as
+ * server-sent events using the browser's <code>EventSource</code>. Messages to
+ * the server are sent using XHR, so the connection is never bidirectional.
+ * <p>
+ * The browser reconnects automatically whenever the event stream is closed,
+ * e.g. when the server ends it after a timeout.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class SsePushConnection implements PushConnection {
+
+    private enum State {
+        CONNECT_PENDING, CONNECTED, DISCONNECTED;
+    }
+
+    /**
+     * Value of <code>EventSource.readyState</code> when the browser has given
+     * up reconnecting.
+     */
+    private static final int READY_STATE_CLOSED = 2;
+
+    private final Registry registry;
+
+    private State state = State.CONNECT_PENDING;
+
+    private JavaScriptObject eventSource;
+
+    /**
+     * Creates a new instance connected to the given registry.
+     *
+     * @param registry
+     *            the global registry
+     */
+    public SsePushConnection(Registry registry) {
+        this.registry = registry;
+        registry.getUILifecycle().addHandler(event -> {
+            if (event.getUiLifecycle().isTerminated()
+                    && state != State.DISCONNECTED) {
+                disconnect(() -> {
+                });
+            }
+        });
+        Scheduler.get().scheduleDeferred(this::connect);
+    }
+
+    /**
+     * Checks whether the given push configuration uses server-sent events.
+     *
+     * @param pushConfiguration
+     *            the push configuration to check
+     * @return <code>true</code> if server-sent events should be used,
+     *         <code>false</code> otherwise
+     */
+    public static boolean isUsed(PushConfiguration pushConfiguration) {
+        return Transport.SSE.getIdentifier().equals(pushConfiguration
+                .getParameters().get(PushConfigurationMap.TRANSPORT_KEY));
+    }
+
+    private ConnectionStateHandler getConnectionStateHandler() {
+        return registry.getConnectionStateHandler();
+    }
+
+    private void connect() {
+        if (state == State.DISCONNECTED) {
+            // Disconnected before the deferred connect was run
+            return;
+        }
+        String url = registry.getPushConfiguration().getPushUrl();
+        if (url == null) {
+            url = registry.getApplicationConfiguration().getServiceUrl();
+        }
+        url = registry.getURIResolver().resolveVaadinUri(url);
+        url = SharedUtil.addGetParameter(url,
+                ApplicationConstants.REQUEST_TYPE_PARAMETER,
+                ApplicationConstants.REQUEST_TYPE_SSE);
+        url = SharedUtil.addGetParameter(url,
+                ApplicationConstants.UI_ID_PARAMETER,
+                registry.getApplicationConfiguration().getUIId());
+
+        String pushId = registry.getMessageHandler().getPushId();
+        if (pushId != null) {
+            url = SharedUtil.addGetParameter(url,
+                    ApplicationConstants.PUSH_ID_PARAMETER, pushId);
+        }
+
+        Console.log("Establishing push connection");
+        eventSource = doConnect(url);
+    }
+
+    private native JavaScriptObject doConnect(String url)
+    /*-{
+        var self = this;
+        var eventSource = new $wnd.EventSource(url, { withCredentials: true });
+        eventSource.onopen = $entry(function() {
+            self.@com.vaadin.client.communication.SsePushConnection::onOpen()();
+        });
+        eventSource.onmessage = $entry(function(e) {
+            self.@com.vaadin.client.communication.SsePushConnection::onMessage(*)(e.data);
+        });
+        eventSource.onerror = $entry(function() {
+            self.@com.vaadin.client.communication.SsePushConnection::onError(*)(eventSource.readyState);
+        });
+        return eventSource;
+    }-*/;
+
+    private static native void doDisconnect(JavaScriptObject eventSource)
+    /*-{
+        eventSource.close();
+    }-*/;
+
+    private void onOpen() {
+        if (state == State.DISCONNECTED) {
+            return;
+        }
+        Console.log(
+                "Push connection established using " + getTransportType());
+        state = State.CONNECTED;
+        getConnectionStateHandler().pushOk(this);
+    }
+
+    private void onMessage(String message) {
+        if (state == State.DISCONNECTED) {
+            return;
+        }
+        ValueMap json = registry.getMessageHandler()
+                .parseWrappedMessage(message);
+        if (json == null) {
+            // Invalid string (not wrapped as expected)
+            getConnectionStateHandler().pushInvalidContent(this, message);
+        } else {
+            Console.log("Received push (" + getTransportType() + ") message: "
+                    + message);
+            registry.getMessageHandler().handleMessage(json);
+        }
+    }
+
+    private void onError(int readyState) {
+        if (state == State.DISCONNECTED) {
+            return;
+        }
+        if (readyState == READY_STATE_CLOSED) {
+            // The browser does not retry e.g. after an error status code
+            state = State.DISCONNECTED;
+            getConnectionStateHandler().pushError(this, null);
+        } else {
+            // The browser reconnects on its own
+            state = State.CONNECT_PENDING;
+            getConnectionStateHandler().pushReconnectPending(this);
+        }
+    }
+
+    @Override
+    public void push(JsonObject payload) {
+        throw new IllegalStateException(
+                "This server to client push connection should not be used to send client to server messages");
+    }
+
+    @Override
+    public boolean isActive() {
+        return state != State.DISCONNECTED;
+    }
+
+    @Override
+    public void disconnect(Command command) {
+        if (state == State.DISCONNECTED) {
+            throw new IllegalStateException(
+                    "Can not disconnect more than once");
+        }
+        state = State.DISCONNECTED;
+        if (eventSource != null) {
+            doDisconnect(eventSource);
+            eventSource = null;
+        }
+        // Nothing is ever sent through this connection, so nothing can be
+        // pending
+        command.execute();
+    }
+
+    @Override
+    public String getTransportType() {
+        return Transport.SSE.getIdentifier();
+    }
+
+    @Override
+    public boolean isBidirectional() {
+        return false;
+    }
+
+    /**
+     * The {@link PushConnectionFactory} implementation that provides
+     * {@link SsePushConnection} instances. Used instead of the default factory
+     * when the push configuration uses server-sent events.
+     */
+    static class Factory implements PushConnectionFactory {
+
+        @Override
+        public PushConnection create(Registry registry) {
+            return new SsePushConnection(registry);
+        }
+    }
+}
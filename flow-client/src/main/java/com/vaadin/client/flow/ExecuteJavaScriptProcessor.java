@@ -24,13 +24,16 @@ import com.vaadin.client.flow.collection.JsCollections;
 import com.vaadin.client.flow.collection.JsMap;
 import com.vaadin.client.flow.reactive.Reactive;
 import com.vaadin.client.flow.util.ClientJsonCodec;
+import com.vaadin.client.flow.util.CompiledFunctionCache;
 import com.vaadin.client.flow.util.NativeFunction;
 import com.vaadin.flow.component.page.Page;
 import com.vaadin.flow.internal.nodefeature.NodeFeatures;
 import com.vaadin.flow.internal.nodefeature.NodeProperties;
+import com.vaadin.flow.shared.JsonConstants;
 
 import elemental.json.JsonArray;
 import elemental.json.JsonObject;
+import elemental.json.JsonType;
 import elemental.json.JsonValue;
 
 /**
@@ -100,12 +103,25 @@ public class ExecuteJavaScriptProcessor {
         }
 
         // Set the script source as the last parameter
-        String expression = invocation.getString(invocation.length() - 1);
+        String expression = getExpression(
+                invocation.get(invocation.length() - 1));
         parameterNamesAndCode[parameterNamesAndCode.length - 1] = expression;
 
         invoke(parameterNamesAndCode, parameters, map);
     }
 
+    private String getExpression(JsonValue script) {
+        if (script.getType() == JsonType.OBJECT) {
+            // Repeated scripts are sent once through the constant pool
+            String scriptId = ((JsonObject) script)
+                    .getString(JsonConstants.UIDL_KEY_EXECUTE_SCRIPT_ID);
+            ConstantPool constantPool = registry.getConstantPool();
+            assert constantPool.has(scriptId);
+            return ((JsonValue) constantPool.get(scriptId)).asString();
+        }
+        return script.asString();
+    }
+
     private boolean isVirtualChildAwaitingInitialization(StateNode node) {
         if (node.getDomNode() != null
                 || node.getTree().getNode(node.getId()) == null) {
@@ -152,7 +168,8 @@ public class ExecuteJavaScriptProcessor {
         assert parameterNamesAndCode.length == parameters.length() + 1;
 
         try {
-            NativeFunction function = new NativeFunction(parameterNamesAndCode);
+            NativeFunction function = CompiledFunctionCache.get()
+                    .getFunction(parameterNamesAndCode);
 
             function.apply(getContextExecutionObject(nodeParameters, () -> {
                 if (!registry.getUILifecycle().isTerminated()) {
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.client.flow;
+
+import com.vaadin.client.flow.collection.JsCollections;
+import com.vaadin.client.flow.collection.JsSet;
+
+import elemental.json.JsonArray;
+
+/**
+ * Updates a state tree based on changes in JSON format a chunk at a time, so
+ * that applying a large message can be spread over several animation frames.
+ * <p>
+ * The changes are applied in the same way as
+ * {@link TreeChangeProcessor#processChanges(StateTree, JsonArray)} does. The
+ * tree is marked as being updated until the last change has been applied, so
+ * nothing is bound to the DOM while the tree is only partially updated.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class IncrementalTreeChangeProcessor {
+
+    private final StateTree tree;
+    private final JsonArray changes;
+    private final JsSet<StateNode> nodes = JsCollections.set();
+    private final JsSet<StateNode> pendingNodes = JsCollections.set();
+
+    private int index = 0;
+    private boolean started = false;
+    private boolean done = false;
+
+    /**
+     * Creates a processor for the given changes. No changes are applied until
+     * {@link #process(int)} is called.
+     *
+     * @param tree
+     *            the tree to update
+     * @param changes
+     *            the JSON array of changes
+     */
+    public IncrementalTreeChangeProcessor(StateTree tree, JsonArray changes) {
+        this.tree = tree;
+        this.changes = changes;
+    }
+
+    /**
+     * Applies at most the given number of changes.
+     *
+     * @param maxChanges
+     *            the maximum number of changes to apply
+     * @return <code>true</code> if all changes have been applied,
+     *         <code>false</code> if there are changes left
+     */
+    public boolean process(int maxChanges) {
+        assert !done : "All changes have already been processed";
+
+        if (!started) {
+            assert !tree.isUpdateInProgress()
+                    : "Previous tree change processing has not completed";
+            tree.setUpdateInProgress(true);
+            started = true;
+        }
+
+        boolean completed = false;
+        try {
+            int length = changes.length();
+            int end = Math.min(length, index + maxChanges);
+            for (; index < end; index++) {
+                TreeChangeProcessor.applyChange(tree, changes.getObject(index),
+                        nodes, pendingNodes);
+            }
+            if (index == length) {
+                TreeChangeProcessor.unregisterPendingNodes(tree, nodes,
+                        pendingNodes);
+                done = true;
+            }
+            completed = true;
+        } finally {
+            if (done || !completed) {
+                // Leave the tree in a consistent state also after a failure
+                done = true;
+                tree.setUpdateInProgress(false);
+                tree.setResync(false);
+            }
+        }
+        return done;
+    }
+
+    /**
+     * Checks whether all changes have been applied.
+     *
+     * @return <code>true</code> if all changes have been applied,
+     *         <code>false</code> otherwise
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Gets the nodes addressed by the changes applied so far.
+     *
+     * @return a set of updated nodes
+     */
+    public JsSet<StateNode> getUpdatedNodes() {
+        return nodes;
+    }
+}
@@ -42,6 +42,10 @@ public class TreeChangeProcessor {
 
     /**
      * Update a state tree based on a JSON array of changes.
+     * <p>
+     * The changes are applied in a single pass. A change may refer to a node
+     * that is attached by a later change in the same array, so such nodes are
+     * registered as soon as they are first referred to.
      *
      * @param tree
      *            the tree to update
@@ -56,20 +60,13 @@ public class TreeChangeProcessor {
         try {
             tree.setUpdateInProgress(true);
 
-            // Attach all nodes before doing anything else
-            JsSet<StateNode> nodes = processAttachChanges(tree, changes);
-
-            // Then process all non-attach changes
+            JsSet<StateNode> nodes = JsCollections.set();
+            JsSet<StateNode> pendingNodes = JsCollections.set();
             int length = changes.length();
             for (int i = 0; i < length; i++) {
-                JsonObject change = changes.getObject(i);
-                if (!isAttach(change)) {
-                    final StateNode value = processChange(tree, change);
-                    if (value != null) {
-                        nodes.add(value);
-                    }
-                }
+                applyChange(tree, changes.getObject(i), nodes, pendingNodes);
             }
+            unregisterPendingNodes(tree, nodes, pendingNodes);
             return nodes;
         } finally {
             tree.setUpdateInProgress(false);
@@ -77,28 +74,105 @@ public class TreeChangeProcessor {
         }
     }
 
-    private static JsSet<StateNode> processAttachChanges(StateTree tree,
-            JsonArray changes) {
-        JsSet<StateNode> nodes = JsCollections.set();
-        int length = changes.length();
-        for (int i = 0; i < length; i++) {
-            JsonObject change = changes.getObject(i);
-            if (isAttach(change)) {
-                int nodeId = (int) change.getNumber(JsonConstants.CHANGE_NODE);
-
-                if (nodeId != tree.getRootNode().getId()) {
-                    StateNode node = new StateNode(nodeId, tree);
-                    tree.registerNode(node);
-                    nodes.add(node);
-                }
+    /**
+     * Applies one change of a change array.
+     *
+     * @param tree
+     *            the tree to update
+     * @param change
+     *            the JSON change
+     * @param nodes
+     *            the set to collect the updated nodes into
+     * @param pendingNodes
+     *            the nodes that have been registered because they were
+     *            referred to before their attach change
+     */
+    static void applyChange(StateTree tree, JsonObject change,
+            JsSet<StateNode> nodes, JsSet<StateNode> pendingNodes) {
+        int type = getTypeCode(change);
+        int nodeId = (int) change.getNumber(JsonConstants.CHANGE_NODE);
+
+        if (type == JsonConstants.CHANGE_TYPE_CODE_ATTACH) {
+            if (nodeId != tree.getRootNode().getId()) {
+                nodes.add(attachNode(tree, nodeId, pendingNodes));
             }
+            return;
+        }
+
+        StateNode node = tree.getNode(nodeId);
+        if (node == null) {
+            if (type == JsonConstants.CHANGE_TYPE_CODE_DETACH) {
+                // Resync should not stop handling changes
+                assert tree.isResync() : "No attached node found";
+                return;
+            }
+            node = getOrRegisterNode(tree, nodeId, pendingNodes);
+        }
+        applyChange(type, change, node, pendingNodes);
+        nodes.add(node);
+    }
+
+    /**
+     * Unregisters the nodes that were referred to by the changes but never
+     * attached.
+     *
+     * @param tree
+     *            the updated tree
+     * @param nodes
+     *            the set of updated nodes
+     * @param pendingNodes
+     *            the nodes that have been registered because they were
+     *            referred to before their attach change
+     */
+    static void unregisterPendingNodes(StateTree tree, JsSet<StateNode> nodes,
+            JsSet<StateNode> pendingNodes) {
+        if (pendingNodes.isEmpty()) {
+            return;
         }
-        return nodes;
+        // Only expected for changes to nodes that are gone after a resync
+        assert tree.isResync() : "No attach change found for "
+                + pendingNodes.size() + " nodes";
+        pendingNodes.forEach(node -> {
+            nodes.delete(node);
+            tree.unregisterNode(node);
+        });
+        pendingNodes.clear();
     }
 
-    private static boolean isAttach(JsonObject change) {
-        return JsonConstants.CHANGE_TYPE_ATTACH
-                .equals(change.getString(JsonConstants.CHANGE_TYPE));
+    private static StateNode attachNode(StateTree tree, int nodeId,
+            JsSet<StateNode> pendingNodes) {
+        StateNode node = tree.getNode(nodeId);
+        if (node != null && pendingNodes.delete(node)) {
+            // Already registered by a change referring to it
+            return node;
+        }
+        node = new StateNode(nodeId, tree);
+        tree.registerNode(node);
+        return node;
+    }
+
+    private static StateNode getOrRegisterNode(StateTree tree, int nodeId,
+            JsSet<StateNode> pendingNodes) {
+        StateNode node = tree.getNode(nodeId);
+        if (node == null) {
+            assert pendingNodes != null : "No node found with id " + nodeId;
+            node = new StateNode(nodeId, tree);
+            tree.registerNode(node);
+            pendingNodes.add(node);
+        }
+        return node;
+    }
+
+    /**
+     * Gets the type of a change as one of the
+     * {@code JsonConstants.CHANGE_TYPE_CODE_*} values.
+     *
+     * @param change
+     *            the JSON change
+     * @return the type code of the change
+     */
+    static int getTypeCode(JsonObject change) {
+        return (int) change.getNumber(JsonConstants.CHANGE_TYPE_CODE);
     }
 
     /**
@@ -112,7 +186,6 @@ public class TreeChangeProcessor {
      * @return the updated node addressed by the provided {@code change}
      */
     public static StateNode processChange(StateTree tree, JsonObject change) {
-        String type = change.getString(JsonConstants.CHANGE_TYPE);
         int nodeId = (int) change.getNumber(JsonConstants.CHANGE_NODE);
 
         StateNode node = tree.getNode(nodeId);
@@ -122,29 +195,34 @@ public class TreeChangeProcessor {
         }
         assert node != null : "No attached node found";
 
+        applyChange(getTypeCode(change), change, node, null);
+        return node;
+    }
+
+    private static void applyChange(int type, JsonObject change,
+            StateNode node, JsSet<StateNode> pendingNodes) {
         switch (type) {
-        case JsonConstants.CHANGE_TYPE_NOOP:
+        case JsonConstants.CHANGE_TYPE_CODE_NOOP:
             populateFeature(change, node);
             break;
-        case JsonConstants.CHANGE_TYPE_SPLICE:
-            processSpliceChange(change, node);
+        case JsonConstants.CHANGE_TYPE_CODE_SPLICE:
+            processSpliceChange(change, node, pendingNodes);
             break;
-        case JsonConstants.CHANGE_TYPE_PUT:
-            processPutChange(change, node);
+        case JsonConstants.CHANGE_TYPE_CODE_PUT:
+            processPutChange(change, node, pendingNodes);
             break;
-        case JsonConstants.CHANGE_TYPE_REMOVE:
+        case JsonConstants.CHANGE_TYPE_CODE_REMOVE:
             processRemoveChange(change, node);
             break;
-        case JsonConstants.CHANGE_TYPE_DETACH:
+        case JsonConstants.CHANGE_TYPE_CODE_DETACH:
             processDetachChange(node);
             break;
-        case JsonConstants.CHANGE_TYPE_CLEAR:
+        case JsonConstants.CHANGE_TYPE_CODE_CLEAR:
             processClearChange(change, node);
             break;
         default:
             assert false : "Unsupported change type: " + type;
         }
-        return node;
     }
 
     private static void processDetachChange(StateNode node) {
@@ -164,7 +242,8 @@ public class TreeChangeProcessor {
         }
     }
 
-    private static void processPutChange(JsonObject change, StateNode node) {
+    private static void processPutChange(JsonObject change, StateNode node,
+            JsSet<StateNode> pendingNodes) {
         MapProperty property = findProperty(change, node);
 
         if (change.hasKey(JsonConstants.CHANGE_PUT_VALUE)) {
@@ -174,8 +253,8 @@ public class TreeChangeProcessor {
         } else if (change.hasKey(JsonConstants.CHANGE_PUT_NODE_VALUE)) {
             int childId = (int) change
                     .getNumber(JsonConstants.CHANGE_PUT_NODE_VALUE);
-            StateNode child = node.getTree().getNode(childId);
-            assert child != null;
+            StateNode child = getOrRegisterNode(node.getTree(), childId,
+                    pendingNodes);
             child.setParent(node);
 
             property.setValue(child);
@@ -200,7 +279,8 @@ public class TreeChangeProcessor {
         return map.getProperty(key);
     }
 
-    private static void processSpliceChange(JsonObject change, StateNode node) {
+    private static void processSpliceChange(JsonObject change, StateNode node,
+            JsSet<StateNode> pendingNodes) {
         int nsId = (int) change.getNumber(JsonConstants.CHANGE_FEATURE);
 
         NodeList list = node.getList(nsId);
@@ -230,8 +310,8 @@ public class TreeChangeProcessor {
             StateTree tree = node.getTree();
             for (int i = 0; i < length; i++) {
                 int childId = (int) addNodes.getNumber(i);
-                StateNode child = tree.getNode(childId);
-                assert child != null : "No child node found with id " + childId;
+                StateNode child = getOrRegisterNode(tree, childId,
+                        pendingNodes);
                 child.setParent(node);
 
                 add.set(i, child);
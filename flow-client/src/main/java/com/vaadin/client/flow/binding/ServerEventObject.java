@@ -23,9 +23,7 @@ import com.vaadin.client.WidgetUtil;
 import com.vaadin.client.flow.ConstantPool;
 import com.vaadin.client.flow.StateNode;
 import com.vaadin.client.flow.collection.JsArray;
-import com.vaadin.client.flow.collection.JsCollections;
-import com.vaadin.client.flow.collection.JsMap;
-import com.vaadin.client.flow.util.NativeFunction;
+import com.vaadin.client.flow.util.CompiledFunctionCache;
 import com.vaadin.flow.internal.nodefeature.NodeFeatures;
 import com.vaadin.flow.shared.JsonConstants;
 
@@ -69,9 +67,6 @@ public final class ServerEventObject extends JavaScriptObject {
         JsonObject evaluate(Event event, ServerEventObject serverEventObject);
     }
 
-    private static final JsMap<String, ServerEventDataExpression> expressionCache = JsCollections
-            .map();
-
     /**
      * JSO constructor.
      */
@@ -300,16 +295,8 @@ public final class ServerEventObject extends JavaScriptObject {
 
     protected static ServerEventDataExpression getOrCreateExpression(
             String expressionString) {
-        ServerEventDataExpression expression = expressionCache
-                .get(expressionString);
-
-        if (expression == null) {
-            expression = NativeFunction.create(EVENT_PREFIX, "element",
-                    "return (" + expressionString + ")");
-            expressionCache.set(expressionString, expression);
-        }
-
-        return expression;
+        return CompiledFunctionCache.get().getFunction(EVENT_PREFIX,
+                "element", "return (" + expressionString + ")");
     }
 
     /**
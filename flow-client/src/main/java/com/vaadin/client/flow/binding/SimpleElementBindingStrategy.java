@@ -51,6 +51,7 @@ import com.vaadin.client.flow.nodefeature.NodeList;
 import com.vaadin.client.flow.nodefeature.NodeMap;
 import com.vaadin.client.flow.reactive.Computation;
 import com.vaadin.client.flow.reactive.Reactive;
+import com.vaadin.client.flow.util.CompiledFunctionCache;
 import com.vaadin.client.flow.util.NativeFunction;
 import com.vaadin.flow.internal.nodefeature.NodeFeatures;
 import com.vaadin.flow.internal.nodefeature.NodeProperties;
@@ -58,6 +59,7 @@ import com.vaadin.flow.shared.JsonConstants;
 
 import elemental.client.Browser;
 import elemental.css.CSSStyleDeclaration;
+import elemental.dom.DocumentFragment;
 import elemental.dom.Element;
 import elemental.dom.Node;
 import elemental.events.Event;
@@ -84,6 +86,12 @@ public class SimpleElementBindingStrategy implements BindingStrategy<Element> {
 
     private static final String ELEMENT_ATTACH_ERROR_PREFIX = "Element addressed by the ";
 
+    /**
+     * The number of children added in one splice from which on the children
+     * are inserted through a document fragment.
+     */
+    private static final int FRAGMENT_INSERT_THRESHOLD = 20;
+
     @FunctionalInterface
     private interface PropertyUser {
         void use(MapProperty property);
@@ -110,8 +118,6 @@ public class SimpleElementBindingStrategy implements BindingStrategy<Element> {
         JsonValue evaluate(Event event, Element element);
     }
 
-    private static JsMap<String, EventExpression> expressionCache;
-
     /**
      * This is used as a weak set. Only keys are important so that they are
      * weakly referenced
@@ -551,7 +557,8 @@ public class SimpleElementBindingStrategy implements BindingStrategy<Element> {
         StateNode shadowRootNode = (StateNode) map
                 .getProperty(NodeProperties.SHADOW_ROOT).getValue();
         if (shadowRootNode != null) {
-            NativeFunction function = NativeFunction.create("element",
+            NativeFunction function = CompiledFunctionCache.get().getFunction(
+                    "element",
                     "if ( element.shadowRoot ) { return element.shadowRoot; } "
                             + "else { return element.attachShadow({'mode' : 'open'});}");
             Node shadowRoot = (Node) function.call(null, context.htmlNode);
@@ -1098,6 +1105,15 @@ public class SimpleElementBindingStrategy implements BindingStrategy<Element> {
             beforeRef = null;
         }
 
+        /*
+         * Large splices are collected into a detached fragment which is
+         * inserted at once, so that the live DOM is updated only once instead
+         * of once per child.
+         */
+        DocumentFragment fragment = add.length() >= FRAGMENT_INSERT_THRESHOLD
+                ? Browser.getDocument().createDocumentFragment()
+                : null;
+
         for (int i = 0; i < add.length(); i++) {
             Object newChildObject = add.get(i);
             StateNode newChild = (StateNode) newChildObject;
@@ -1106,17 +1122,35 @@ public class SimpleElementBindingStrategy implements BindingStrategy<Element> {
                     .getRegistry().getExistingElementMap();
             Node childNode = existingElementMap.getElement(newChild.getId());
             if (childNode != null) {
+                // Keep the order of the new children around the existing one
+                insertFragment(fragment, context.htmlNode, beforeRef);
+
                 existingElementMap.remove(newChild.getId());
                 newChild.setDomNode(childNode);
                 context.binderContext.createAndBind(newChild);
+
+                beforeRef = DomApi.wrap(childNode).getNextSibling();
             } else {
                 childNode = context.binderContext.createAndBind(newChild);
 
-                DomApi.wrap(context.htmlNode).insertBefore(childNode,
-                        beforeRef);
+                if (fragment != null) {
+                    DomApi.wrap(fragment).appendChild(childNode);
+                } else {
+                    DomApi.wrap(context.htmlNode).insertBefore(childNode,
+                            beforeRef);
+                    beforeRef = DomApi.wrap(childNode).getNextSibling();
+                }
             }
+        }
+
+        insertFragment(fragment, context.htmlNode, beforeRef);
+    }
 
-            beforeRef = DomApi.wrap(childNode).getNextSibling();
+    private static void insertFragment(DocumentFragment fragment,
+            Node htmlNode, Node beforeRef) {
+        if (fragment != null && DomApi.wrap(fragment).getFirstChild() != null) {
+            // Moves the children of the fragment, leaving it empty for reuse
+            DomApi.wrap(htmlNode).insertBefore(fragment, beforeRef);
         }
     }
 
@@ -1473,18 +1507,8 @@ public class SimpleElementBindingStrategy implements BindingStrategy<Element> {
 
     private static EventExpression getOrCreateExpression(
             String expressionString) {
-        if (expressionCache == null) {
-            expressionCache = JsCollections.map();
-        }
-        EventExpression expression = expressionCache.get(expressionString);
-
-        if (expression == null) {
-            expression = NativeFunction.create("event", "element",
-                    "return (" + expressionString + ")");
-            expressionCache.set(expressionString, expression);
-        }
-
-        return expression;
+        return CompiledFunctionCache.get().getFunction("event", "element",
+                "return (" + expressionString + ")");
     }
 
     // This method could be moved somewhere to be reusable
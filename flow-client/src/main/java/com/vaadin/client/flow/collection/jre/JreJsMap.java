@@ -16,7 +16,7 @@
 
 package com.vaadin.client.flow.collection.jre;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -36,7 +36,8 @@ import com.vaadin.client.flow.collection.JsMap;
  */
 @Deprecated
 public class JreJsMap<K, V> extends JsMap<K, V> {
-    private Map<K, V> values = new HashMap<>();
+    // Iterates in insertion order like a native Map
+    private Map<K, V> values = new LinkedHashMap<>();
 
     @Override
     public JsMap<K, V> set(K key, V value) {
@@ -52,6 +52,8 @@ public class Reactive {
 
     private static boolean flushing = false;
 
+    private static boolean flushDeferred = false;
+
     private Reactive() {
         // Only static stuff in this class
     }
@@ -97,7 +99,7 @@ public class Reactive {
      * @see #addPostFlushListener(FlushListener)
      */
     public static void flush() {
-        if (flushing) {
+        if (flushing || flushDeferred) {
             return;
         }
         try {
@@ -122,6 +124,33 @@ public class Reactive {
         }
     }
 
+    /**
+     * Sets whether {@link #flush()} should be deferred. While flushing is
+     * deferred, invoking {@link #flush()} does nothing and all listeners are
+     * kept until the next flush after flushing is no longer deferred.
+     * <p>
+     * Used while the state tree is only partially updated, so that no bindings
+     * are run against it.
+     *
+     * @param deferred
+     *            <code>true</code> to defer flushing, <code>false</code> to
+     *            allow flushing again
+     */
+    public static void setFlushDeferred(boolean deferred) {
+        flushDeferred = deferred;
+    }
+
+    /**
+     * Checks whether {@link #flush()} is currently deferred.
+     *
+     * @return <code>true</code> if flushing is deferred, <code>false</code>
+     *         otherwise
+     * @see #setFlushDeferred(boolean)
+     */
+    public static boolean isFlushDeferred() {
+        return flushDeferred;
+    }
+
     private static boolean hasPostFlushListeners() {
         return postFlushListeners != null && !postFlushListeners.isEmpty();
     }
@@ -232,6 +261,7 @@ public class Reactive {
         eventCollectors = null;
         currentComputation = null;
         postFlushListeners = null;
+        flushDeferred = false;
     }
 
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.client.flow.util;
+
+import com.vaadin.client.Profiler;
+import com.vaadin.client.flow.collection.JsArray;
+import com.vaadin.client.flow.collection.JsCollections;
+import com.vaadin.client.flow.collection.JsMap;
+
+/**
+ * Bounded cache of functions compiled from code sent by the server, so that
+ * the browser does not need to parse and compile the same code again every
+ * time it is executed.
+ * <p>
+ * The least recently used functions are evicted when the cache is full. Hits
+ * and misses are counted in the {@link Profiler} as {@value #HIT_COUNTER} and
+ * {@value #MISS_COUNTER}.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class CompiledFunctionCache {
+
+    /**
+     * The name of the profiler counter for cache hits.
+     */
+    public static final String HIT_COUNTER = "CompiledFunctionCache.hit";
+
+    /**
+     * The name of the profiler counter for cache misses.
+     */
+    public static final String MISS_COUNTER = "CompiledFunctionCache.miss";
+
+    private static final int DEFAULT_MAX_SIZE = 500;
+
+    private static CompiledFunctionCache instance;
+
+    private final int maxSize;
+
+    // Native maps iterate in insertion order, so the first entry is the least
+    // recently used one when entries are re-inserted on every hit
+    private final JsMap<String, NativeFunction> functions = JsCollections
+            .map();
+
+    /**
+     * Creates a new cache holding at most the given number of functions.
+     *
+     * @param maxSize
+     *            the maximum number of cached functions, at least 1
+     */
+    public CompiledFunctionCache(int maxSize) {
+        assert maxSize > 0;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the cache shared by the whole client engine.
+     *
+     * @return the shared cache, not <code>null</code>
+     */
+    public static CompiledFunctionCache get() {
+        if (instance == null) {
+            instance = new CompiledFunctionCache(DEFAULT_MAX_SIZE);
+        }
+        return instance;
+    }
+
+    /**
+     * Gets a function with the given parameters and implementation, compiling
+     * it if it is not in the cache. The return value of this method is
+     * intended to be used either as a {@link NativeFunction} or as a type
+     * annotated with {@link jsinterop.annotations.JsFunction @JsFunction}.
+     *
+     * @param paramsAndCode
+     *            parameter names followed by the code of the function
+     * @param <T>
+     *            the function type
+     * @return the compiled function
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getFunction(String... paramsAndCode) {
+        String key = getKey(paramsAndCode);
+        NativeFunction function = functions.get(key);
+        if (function != null) {
+            Profiler.count(HIT_COUNTER);
+            // Move to the end as the most recently used
+            functions.delete(key);
+        } else {
+            Profiler.count(MISS_COUNTER);
+            if (functions.size() >= maxSize) {
+                evict();
+            }
+            function = new NativeFunction(paramsAndCode);
+        }
+        functions.set(key, function);
+        return (T) function;
+    }
+
+    /**
+     * Gets the number of cached functions.
+     *
+     * @return the number of cached functions
+     */
+    public int size() {
+        return functions.size();
+    }
+
+    private void evict() {
+        // Evict a quarter at a time to keep eviction cheap with a map that can
+        // only be iterated from the start
+        int evictCount = Math.max(1, maxSize / 4);
+        JsArray<String> evicted = JsCollections.array();
+        functions.forEach((function, key) -> {
+            if (evicted.length() < evictCount) {
+                evicted.push(key);
+            }
+        });
+        for (int i = 0; i < evicted.length(); i++) {
+            functions.delete(evicted.get(i));
+        }
+    }
+
+    private static String getKey(String[] paramsAndCode) {
+        // Parameter names cannot contain commas or line breaks, so the key is
+        // unambiguous
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < paramsAndCode.length - 1; i++) {
+            key.append(paramsAndCode[i]).append(',');
+        }
+        return key.append('\n').append(paramsAndCode[paramsAndCode.length - 1])
+                .toString();
+    }
+}
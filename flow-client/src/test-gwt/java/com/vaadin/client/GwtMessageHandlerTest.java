@@ -25,8 +25,10 @@ import com.google.gwt.user.client.Timer;
 import com.vaadin.client.communication.MessageHandler;
 import com.vaadin.client.communication.MessageSender;
 import com.vaadin.client.communication.RequestResponseTracker;
+import com.vaadin.client.communication.ServerRpcQueue;
 import com.vaadin.client.flow.ExecuteJavaScriptProcessor;
 import com.vaadin.client.flow.StateTree;
+import com.vaadin.client.flow.reactive.Reactive;
 import com.vaadin.flow.shared.JsonConstants;
 import com.vaadin.flow.shared.ui.Dependency;
 import com.vaadin.flow.shared.ui.LoadMode;
@@ -177,6 +179,7 @@ public class GwtMessageHandlerTest extends ClientEngineTestBase {
     @Override
     protected void gwtSetUp() throws Exception {
         super.gwtSetUp();
+        Reactive.reset();
         registry = new Registry() {
             {
                 set(RequestResponseTracker.class,
@@ -189,6 +192,7 @@ public class GwtMessageHandlerTest extends ClientEngineTestBase {
                         new TestApplicationConfiguration());
                 set(EventsOrder.class, new EventsOrder());
                 set(MessageSender.class, new TestMessageSender(this));
+                set(ServerRpcQueue.class, new ServerRpcQueue(this));
                 set(SystemErrorHandler.class, new TestSystemErrorHandler(this));
                 set(ExecuteJavaScriptProcessor.class,
                         new TestExecuteJavaScriptProcessor(this));
@@ -287,6 +291,83 @@ public class GwtMessageHandlerTest extends ClientEngineTestBase {
         doAssert(() -> assertTrue(getResyncState()), 300);
     }
 
+    public void testForceHandleMessage_slicedMessageInProgress_remainingChangesAppliedFirst() {
+        resetInternalEvents();
+        registry.getApplicationConfiguration().setUidlTimeSlicing(true);
+        registry.getApplicationConfiguration().setMaxMessageSuspendTimeout(1);
+
+        // given animation frames are not rendered, as in a hidden document
+        suspendAnimationFrames();
+
+        // when a message large enough to be applied in slices is handled
+        int nodeCount = 5000;
+        JsonArray changes = Json.createArray();
+        for (int i = 0; i < nodeCount; i++) {
+            changes.set(i, attachChange(i + 2));
+        }
+        JavaScriptObject object1 = JavaScriptObject.createObject();
+        JsonObject obj1 = object1.cast();
+        obj1.put("syncId", 0);
+        obj1.put("changes", changes);
+        handler.handleJSON(object1.cast());
+
+        // when the next message is forced before the slices are done
+        JsonArray nextChanges = Json.createArray();
+        nextChanges.set(0, attachChange(nodeCount + 2));
+        JavaScriptObject object2 = JavaScriptObject.createObject();
+        JsonObject obj2 = object2.cast();
+        obj2.put("syncId", 1);
+        obj2.put("changes", nextChanges);
+        handler.handleJSON(object2.cast());
+
+        // then both messages are applied before the slice fallback timeout
+        doAssert(() -> {
+            resumeAnimationFrames();
+            StateTree tree = registry.getStateTree();
+            assertNotNull(tree.getNode(nodeCount + 1));
+            assertNotNull(tree.getNode(nodeCount + 2));
+            assertEquals(1, handler.getLastSeenServerSyncId());
+        }, 50);
+    }
+
+    public void testHandleMessage_flushBetweenSlices_deferredUntilMessageApplied() {
+        resetInternalEvents();
+        registry.getApplicationConfiguration().setUidlTimeSlicing(true);
+
+        // given animation frames are not rendered, as in a hidden document
+        suspendAnimationFrames();
+
+        // when a message large enough to be applied in slices is handled
+        int nodeCount = 5000;
+        JsonArray changes = Json.createArray();
+        for (int i = 0; i < nodeCount; i++) {
+            changes.set(i, attachChange(i + 2));
+        }
+        JavaScriptObject object = JavaScriptObject.createObject();
+        JsonObject obj = object.cast();
+        obj.put("syncId", 0);
+        obj.put("changes", changes);
+        handler.handleJSON(object.cast());
+        assertTrue(handler.isApplyingChangesInSlices());
+
+        // when a DOM event handler flushes between the slices
+        StateTree tree = registry.getStateTree();
+        List<Boolean> flushes = new ArrayList<>();
+        Reactive.addFlushListener(
+                () -> flushes.add(tree.getNode(nodeCount + 1) != null));
+        Reactive.flush();
+
+        // then the bindings are only run once all changes are applied
+        assertTrue(flushes.isEmpty());
+        doAssert(() -> {
+            resumeAnimationFrames();
+            assertFalse(handler.isApplyingChangesInSlices());
+            assertFalse(Reactive.isFlushDeferred());
+            assertEquals(1, flushes.size());
+            assertTrue(flushes.get(0));
+        }, 300);
+    }
+
     public void testHandleJSON_uiTerminated_sessionExpiredMessageNotShown() {
         resetInternalEvents();
 
@@ -435,6 +516,25 @@ public class GwtMessageHandlerTest extends ClientEngineTestBase {
         }.schedule(assertDelayInMillis);
     }
 
+    private static JsonObject attachChange(int nodeId) {
+        JsonObject change = Json.createObject();
+        change.put(JsonConstants.CHANGE_NODE, nodeId);
+        change.put(JsonConstants.CHANGE_TYPE_CODE,
+                JsonConstants.CHANGE_TYPE_CODE_ATTACH);
+        return change;
+    }
+
+    private static native void suspendAnimationFrames()
+    /*-{
+        $wnd.testRequestAnimationFrame = $wnd.requestAnimationFrame;
+        $wnd.requestAnimationFrame = function() {};
+    }-*/;
+
+    private static native void resumeAnimationFrames()
+    /*-{
+        $wnd.requestAnimationFrame = $wnd.testRequestAnimationFrame;
+    }-*/;
+
     private static native void resetInternalEvents()
     /*-{
          window.testEvents = [];
@@ -24,6 +24,7 @@ import com.vaadin.client.PolymerUtils;
 import com.vaadin.client.WidgetUtil;
 import com.vaadin.client.flow.binding.Binder;
 import com.vaadin.client.flow.binding.SimpleElementBindingStrategy;
+import com.vaadin.client.flow.collection.JsArray;
 import com.vaadin.client.flow.collection.JsCollections;
 import com.vaadin.client.flow.nodefeature.MapProperty;
 import com.vaadin.client.flow.nodefeature.NodeList;
@@ -953,6 +954,58 @@ public class GwtBasicElementBinderTest extends GwtPropertyElementBinderTest {
         assertNull(existingElementMap.getElement(childNode.getId()));
     }
 
+    public void testAddManyChildren_insertedIntoDomOnce() {
+        Binder.bind(node, element);
+        countInsertions(element);
+
+        JsArray<StateNode> newChildren = JsCollections.array();
+        for (int i = 0; i < 1000; i++) {
+            newChildren.push(createChildNode("child" + i));
+        }
+        children.splice(0, 0, newChildren);
+
+        Reactive.flush();
+
+        assertEquals(1000, element.getChildElementCount());
+        assertEquals("child0", element.getFirstElementChild().getId());
+        assertEquals("child999", element.getLastElementChild().getId());
+        for (int i = 0; i < 1000; i++) {
+            assertSame(newChildren.get(i).getDomNode(),
+                    element.getChildren().at(i));
+        }
+        // One insertion instead of one per child, so the live DOM is only
+        // updated (and styles and observers triggered) once
+        assertEquals(1, getInsertionCount(element));
+    }
+
+    public void testAddManyChildren_existingElementReused_orderKept() {
+        Binder.bind(node, element);
+
+        StateNode existingChild = createChildNode("existing");
+        Element span = Browser.getDocument().createElement("span");
+        element.appendChild(span);
+        node.getTree().getRegistry().getExistingElementMap()
+                .add(existingChild.getId(), span);
+
+        JsArray<StateNode> newChildren = JsCollections.array();
+        newChildren.push(existingChild);
+        for (int i = 1; i < 100; i++) {
+            newChildren.push(createChildNode("child" + i));
+        }
+        countInsertions(element);
+        children.splice(0, 0, newChildren);
+
+        Reactive.flush();
+
+        assertEquals(100, element.getChildElementCount());
+        assertSame(span, element.getFirstElementChild());
+        assertEquals("existing", span.getId());
+        assertEquals("child1",
+                ((Element) element.getChildren().at(1)).getId());
+        assertEquals("child99", element.getLastElementChild().getId());
+        assertEquals(1, getInsertionCount(element));
+    }
+
     public void testPropertyValueHasPrototypeMethods() {
         NodeMap map = new NodeMap(0, new StateNode(0, new StateTree(null)));
         JsonObject object = Json.createObject();
@@ -1944,6 +1997,26 @@ public class GwtBasicElementBinderTest extends GwtPropertyElementBinderTest {
         return shadowRoot;
     }-*/;
 
+    private native void countInsertions(Element element)
+    /*-{
+        element.insertionCount = 0;
+        var insertBefore = element.insertBefore;
+        var appendChild = element.appendChild;
+        element.insertBefore = function(newChild, refChild) {
+            element.insertionCount++;
+            return insertBefore.call(element, newChild, refChild);
+        };
+        element.appendChild = function(newChild) {
+            element.insertionCount++;
+            return appendChild.call(element, newChild);
+        };
+    }-*/;
+
+    private native int getInsertionCount(Element element)
+    /*-{
+        return element.insertionCount;
+    }-*/;
+
     private native String getToString(Object value)
     /*-{
         return value.toString();
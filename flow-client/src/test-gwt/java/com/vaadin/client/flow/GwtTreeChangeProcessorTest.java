@@ -30,7 +30,8 @@ public class GwtTreeChangeProcessorTest extends ClientEngineTestBase {
         int nsId = 1;
 
         JsonObject change = Json.createObject();
-        change.put(JsonConstants.CHANGE_TYPE, JsonConstants.CHANGE_TYPE_SPLICE);
+        change.put(JsonConstants.CHANGE_TYPE_CODE,
+                JsonConstants.CHANGE_TYPE_CODE_SPLICE);
         change.put(JsonConstants.CHANGE_NODE, root.getId());
         change.put(JsonConstants.CHANGE_FEATURE, nsId);
         change.put(JsonConstants.CHANGE_SPLICE_INDEX, 0);
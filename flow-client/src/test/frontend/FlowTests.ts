@@ -27,14 +27,14 @@ const stubVaadinPushSrc = '/src/test/frontend/stubVaadinPush.js';
 const changesResponse = `[
   {
     "node":1,
-    "type":"put",
+    "t":4,
     "key":"tag",
     "feat":0,
     "value":"body"
   },
   {
     "node":1,
-    "type":"splice",
+    "t":3,
     "feat":2,
     "index":0,
     "addNodes":[
@@ -43,18 +43,18 @@ const changesResponse = `[
   },
   {
     "node":2,
-    "type":"attach"
+    "t":1
   },
   {
     "node":2,
-    "type":"put",
+    "t":4,
     "key":"tag",
     "feat":0,
     "value":"div"
   },
   {
     "node":2,
-    "type":"splice",
+    "t":3,
     "feat":2,
     "index":0,
     "addNodes":[
@@ -63,11 +63,11 @@ const changesResponse = `[
   },
   {
     "node":3,
-    "type":"attach"
+    "t":1
   },
   {
     "node":3,
-    "type":"put",
+    "t":4,
     "key":"text",
     "feat":7,
     "value":"Foo"
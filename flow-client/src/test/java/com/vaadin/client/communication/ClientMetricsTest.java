@@ -0,0 +1,86 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.client.communication;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.client.ApplicationConfiguration;
+import com.vaadin.client.Registry;
+import com.vaadin.flow.shared.JsonConstants;
+
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+public class ClientMetricsTest {
+
+    private final Registry registry = new Registry() {
+        {
+            set(ApplicationConfiguration.class,
+                    new ApplicationConfiguration());
+        }
+    };
+
+    private ClientMetrics metrics = new ClientMetrics(registry);
+
+    @Test
+    public void collectReport_timingsAndCountersAggregated() {
+        metrics.recordTime(JsonConstants.CLIENT_METRIC_TREE_APPLY, 10);
+        metrics.recordTime(JsonConstants.CLIENT_METRIC_TREE_APPLY, 30);
+        metrics.recordTime(JsonConstants.CLIENT_METRIC_TREE_APPLY, 2.5);
+        metrics.increment(JsonConstants.CLIENT_METRIC_DOM_INSERTS, 100);
+        metrics.increment(JsonConstants.CLIENT_METRIC_DOM_INSERTS, 20);
+
+        JsonObject report = metrics
+                .collectReport(ClientMetrics.REPORT_INTERVAL_MILLIS);
+
+        JsonArray treeApply = report
+                .getObject(JsonConstants.CLIENT_METRICS_TIMINGS)
+                .getArray(JsonConstants.CLIENT_METRIC_TREE_APPLY);
+        Assert.assertEquals(3, treeApply.getNumber(0), 0);
+        Assert.assertEquals(42.5, treeApply.getNumber(1), 0);
+        Assert.assertEquals(30, treeApply.getNumber(2), 0);
+        Assert.assertEquals(120,
+                report.getObject(JsonConstants.CLIENT_METRICS_COUNTERS)
+                        .getNumber(JsonConstants.CLIENT_METRIC_DOM_INSERTS),
+                0);
+    }
+
+    @Test
+    public void collectReport_withinInterval_collectedUntilNextReport() {
+        double now = ClientMetrics.REPORT_INTERVAL_MILLIS;
+        metrics.recordTime(JsonConstants.CLIENT_METRIC_MESSAGE_PARSE, 1);
+        Assert.assertNotNull(metrics.collectReport(now));
+
+        metrics.recordTime(JsonConstants.CLIENT_METRIC_MESSAGE_PARSE, 2);
+        Assert.assertNull(metrics.collectReport(now + 1000));
+
+        metrics.recordTime(JsonConstants.CLIENT_METRIC_MESSAGE_PARSE, 3);
+        JsonArray parse = metrics
+                .collectReport(now + ClientMetrics.REPORT_INTERVAL_MILLIS)
+                .getObject(JsonConstants.CLIENT_METRICS_TIMINGS)
+                .getArray(JsonConstants.CLIENT_METRIC_MESSAGE_PARSE);
+        // Only the measurements since the previous report
+        Assert.assertEquals(2, parse.getNumber(0), 0);
+        Assert.assertEquals(5, parse.getNumber(1), 0);
+    }
+
+    @Test
+    public void collectReport_nothingCollected_noReport() {
+        Assert.assertNull(
+                metrics.collectReport(ClientMetrics.REPORT_INTERVAL_MILLIS));
+    }
+}
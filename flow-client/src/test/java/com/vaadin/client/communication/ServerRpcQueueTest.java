@@ -0,0 +1,124 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.client.communication;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.client.Registry;
+import com.vaadin.client.UILifecycle;
+import com.vaadin.client.UILifecycle.UIState;
+import com.vaadin.flow.shared.JsonConstants;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+public class ServerRpcQueueTest {
+
+    private final Registry registry = new Registry() {
+        {
+            set(UILifecycle.class, new UILifecycle());
+        }
+    };
+
+    private ServerRpcQueue queue = new ServerRpcQueue(registry);
+
+    @Before
+    public void setUp() {
+        registry.getUILifecycle().setState(UIState.RUNNING);
+    }
+
+    @Test
+    public void toJson_repeatedPropertySync_onlyLastValueSent() {
+        queue.add(sync(1, "value", 1));
+        queue.add(sync(2, "value", 1));
+        queue.add(sync(1, "value", 2));
+        queue.add(sync(1, "value", 3));
+
+        JsonArray json = queue.toJson();
+
+        Assert.assertEquals(2, json.length());
+        assertSync(json.getObject(0), 2, 1);
+        assertSync(json.getObject(1), 1, 3);
+    }
+
+    @Test
+    public void toJson_eventBetweenPropertySyncs_allSyncsSent() {
+        queue.add(sync(1, "value", 1));
+        queue.add(event(1, "change", null));
+        queue.add(sync(1, "value", 2));
+
+        Assert.assertEquals(3, queue.toJson().length());
+    }
+
+    @Test
+    public void toJson_repeatedIntermediateEvent_onlyLastEventAndSyncSent() {
+        queue.add(sync(1, "value", 1));
+        queue.add(event(1, "input", JsonConstants.EVENT_PHASE_INTERMEDIATE));
+        queue.add(sync(1, "value", 2));
+        queue.add(event(1, "input", JsonConstants.EVENT_PHASE_INTERMEDIATE));
+
+        JsonArray json = queue.toJson();
+
+        Assert.assertEquals(2, json.length());
+        assertSync(json.getObject(0), 1, 2);
+        Assert.assertEquals(JsonConstants.RPC_TYPE_EVENT,
+                json.getObject(1).getString(JsonConstants.RPC_TYPE));
+    }
+
+    @Test
+    public void toJson_otherEventBetweenIntermediateEvents_allEventsSent() {
+        queue.add(event(1, "input", JsonConstants.EVENT_PHASE_INTERMEDIATE));
+        queue.add(event(2, "click", null));
+        queue.add(event(1, "input", JsonConstants.EVENT_PHASE_INTERMEDIATE));
+        queue.add(event(1, "input", JsonConstants.EVENT_PHASE_TRAILING));
+        queue.add(event(1, "input", JsonConstants.EVENT_PHASE_TRAILING));
+
+        Assert.assertEquals(5, queue.toJson().length());
+    }
+
+    private static JsonObject sync(int node, String property, int value) {
+        JsonObject message = Json.createObject();
+        message.put(JsonConstants.RPC_TYPE, JsonConstants.RPC_TYPE_MAP_SYNC);
+        message.put(JsonConstants.RPC_NODE, node);
+        message.put(JsonConstants.RPC_FEATURE, 1);
+        message.put(JsonConstants.RPC_PROPERTY, property);
+        message.put(JsonConstants.RPC_PROPERTY_VALUE, value);
+        return message;
+    }
+
+    private static JsonObject event(int node, String type, String phase) {
+        JsonObject message = Json.createObject();
+        message.put(JsonConstants.RPC_TYPE, JsonConstants.RPC_TYPE_EVENT);
+        message.put(JsonConstants.RPC_NODE, node);
+        message.put(JsonConstants.RPC_EVENT_TYPE, type);
+        if (phase != null) {
+            JsonObject data = Json.createObject();
+            data.put(JsonConstants.EVENT_DATA_PHASE, phase);
+            message.put(JsonConstants.RPC_EVENT_DATA, data);
+        }
+        return message;
+    }
+
+    private static void assertSync(JsonObject message, int node, int value) {
+        Assert.assertEquals(node, message.getNumber(JsonConstants.RPC_NODE),
+                0);
+        Assert.assertEquals(value,
+                message.getNumber(JsonConstants.RPC_PROPERTY_VALUE), 0);
+    }
+}
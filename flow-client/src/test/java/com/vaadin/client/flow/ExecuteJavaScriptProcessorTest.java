@@ -31,6 +31,7 @@ import com.vaadin.flow.internal.JsonCodec;
 import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.internal.nodefeature.NodeFeatures;
 import com.vaadin.flow.internal.nodefeature.NodeProperties;
+import com.vaadin.flow.shared.JsonConstants;
 
 import elemental.js.dom.JsElement;
 import elemental.json.Json;
@@ -132,6 +133,31 @@ public class ExecuteJavaScriptProcessorTest {
         Assert.assertEquals(0, processor.nodeParametersList.get(1).size());
     }
 
+    @Test
+    public void execute_scriptFromConstantPool_codeFromConstant() {
+        ConstantPool constantPool = new ConstantPool();
+        Registry registry = new Registry() {
+            {
+                set(StateTree.class, new StateTree(this));
+                set(ConstantPool.class, constantPool);
+            }
+        };
+        JsonObject constants = Json.createObject();
+        constants.put("scriptId1", "console.log($0)");
+        constantPool.importFromJson(constants);
+        CollectingExecuteJavaScriptProcessor processor = new CollectingExecuteJavaScriptProcessor(
+                registry);
+
+        JsonObject script = Json.createObject();
+        script.put(JsonConstants.UIDL_KEY_EXECUTE_SCRIPT_ID, "scriptId1");
+        processor.execute(JsonUtils.createArray(
+                JsonUtils.createArray(Json.create("param1"), script)));
+
+        Assert.assertArrayEquals(new String[] { "$0", "console.log($0)" },
+                processor.parameterNamesAndCodeList.get(0));
+        Assert.assertEquals("param1", processor.parametersList.get(0).get(0));
+    }
+
     @Test
     public void execute_nodeParametersAreCorrectlyPassed() {
         Registry registry = new Registry() {
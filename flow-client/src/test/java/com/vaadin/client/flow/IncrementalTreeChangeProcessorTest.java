@@ -0,0 +1,117 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.client.flow;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.client.InitialPropertiesHandler;
+import com.vaadin.client.Registry;
+import com.vaadin.flow.internal.JsonUtils;
+import com.vaadin.flow.shared.JsonConstants;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+
+public class IncrementalTreeChangeProcessorTest {
+    private Registry registry = new Registry() {
+        {
+            set(StateTree.class, new StateTree(this));
+            set(InitialPropertiesHandler.class,
+                    new InitialPropertiesHandler(this));
+        }
+    };
+    private StateTree tree = registry.getStateTree();
+    private int ns = 0;
+
+    @Test
+    public void processInChunks_putBeforeAttach_allChangesApplied() {
+        JsonArray changes = toArray(putChange(2, "a", "foo"),
+                putChange(3, "b", "bar"), attachChange(2), attachChange(3),
+                putChange(2, "c", "baz"));
+        IncrementalTreeChangeProcessor processor = new IncrementalTreeChangeProcessor(
+                tree, changes);
+
+        Assert.assertFalse(processor.process(2));
+        Assert.assertTrue(tree.isUpdateInProgress());
+        Assert.assertFalse(processor.process(2));
+        Assert.assertTrue(tree.isUpdateInProgress());
+        Assert.assertFalse(processor.isDone());
+
+        Assert.assertTrue(processor.process(2));
+        Assert.assertTrue(processor.isDone());
+        Assert.assertFalse(tree.isUpdateInProgress());
+
+        Assert.assertEquals("foo", getValue(2, "a"));
+        Assert.assertEquals("bar", getValue(3, "b"));
+        Assert.assertEquals("baz", getValue(2, "c"));
+        Assert.assertEquals(2, processor.getUpdatedNodes().size());
+        Assert.assertTrue(processor.getUpdatedNodes().has(tree.getNode(2)));
+        Assert.assertTrue(processor.getUpdatedNodes().has(tree.getNode(3)));
+    }
+
+    @Test
+    public void processInChunks_failingChange_treeNotLeftInUpdateMode() {
+        // Put for a node that is never attached
+        JsonArray changes = toArray(attachChange(2), putChange(2, "a", "foo"),
+                putChange(5, "a", "foo"));
+        IncrementalTreeChangeProcessor processor = new IncrementalTreeChangeProcessor(
+                tree, changes);
+
+        Assert.assertFalse(processor.process(2));
+        boolean failed = false;
+        try {
+            processor.process(2);
+        } catch (AssertionError expected) {
+            failed = true;
+        }
+
+        Assert.assertTrue("Change for an unknown node should fail", failed);
+        Assert.assertTrue(processor.isDone());
+        Assert.assertFalse(tree.isUpdateInProgress());
+    }
+
+    private Object getValue(int node, String key) {
+        return tree.getNode(node).getMap(ns).getProperty(key).getValue();
+    }
+
+    private static JsonArray toArray(JsonValue... changes) {
+        return Arrays.stream(changes).collect(JsonUtils.asArray());
+    }
+
+    private static JsonObject attachChange(int node) {
+        JsonObject json = Json.createObject();
+        json.put(JsonConstants.CHANGE_TYPE_CODE,
+                JsonConstants.CHANGE_TYPE_CODE_ATTACH);
+        json.put(JsonConstants.CHANGE_NODE, node);
+        return json;
+    }
+
+    private JsonObject putChange(int node, String key, String value) {
+        JsonObject json = Json.createObject();
+        json.put(JsonConstants.CHANGE_TYPE_CODE,
+                JsonConstants.CHANGE_TYPE_CODE_PUT);
+        json.put(JsonConstants.CHANGE_NODE, node);
+        json.put(JsonConstants.CHANGE_FEATURE, ns);
+        json.put(JsonConstants.CHANGE_MAP_KEY, key);
+        json.put(JsonConstants.CHANGE_PUT_VALUE, value);
+        return json;
+    }
+}
@@ -327,19 +327,53 @@ public class TreeChangeProcessorTest {
         Assert.assertNull(child.getParent());
     }
 
+    @Test
+    public void processChanges_childAttachedAfterReference_childRegistered() {
+        JsonArray changes = toArray(
+                putNodeChange(rootId, ns, myKey, 2),
+                nodeSpliceChange(2, ns, 0, 0, 3), attachChange(3),
+                attachChange(2));
+
+        JsSet<StateNode> updatedNodes = TreeChangeProcessor.processChanges(tree,
+                changes);
+
+        StateNode child = tree.getNode(2);
+        StateNode grandChild = tree.getNode(3);
+        Assert.assertSame(child, tree.getRootNode().getMap(ns)
+                .getProperty(myKey).getValue());
+        Assert.assertSame(tree.getRootNode(), child.getParent());
+        Assert.assertSame(grandChild, child.getList(ns).get(0));
+        Assert.assertSame(child, grandChild.getParent());
+
+        Assert.assertEquals(3, updatedNodes.size());
+        Assert.assertTrue(updatedNodes.has(child));
+        Assert.assertTrue(updatedNodes.has(grandChild));
+    }
+
+    @Test
+    public void resync_changeForNeverAttachedNode_nodeNotRegistered() {
+        tree.prepareForResync();
+
+        JsSet<StateNode> updatedNodes = TreeChangeProcessor.processChanges(tree,
+                toArray(putChange(5, ns, myKey, Json.create(myValue))));
+
+        Assert.assertNull(tree.getNode(5));
+        Assert.assertTrue(updatedNodes.isEmpty());
+    }
+
     private static JsonArray toArray(JsonValue... changes) {
         return Arrays.stream(changes).collect(JsonUtils.asArray());
     }
 
-    private static JsonObject baseChange(int node, String type) {
+    private static JsonObject baseChange(int node, int type) {
         JsonObject json = Json.createObject();
 
-        json.put(JsonConstants.CHANGE_TYPE, type);
+        json.put(JsonConstants.CHANGE_TYPE_CODE, type);
         json.put(JsonConstants.CHANGE_NODE, node);
         return json;
     }
 
-    private static JsonObject mapBaseChange(int node, int ns, String type,
+    private static JsonObject mapBaseChange(int node, int ns, int type,
             String key) {
         JsonObject json = baseChange(node, type);
         json.put(JsonConstants.CHANGE_FEATURE, ns);
@@ -348,38 +382,40 @@ public class TreeChangeProcessorTest {
     }
 
     private static JsonObject attachChange(int node) {
-        return baseChange(node, JsonConstants.CHANGE_TYPE_ATTACH);
+        return baseChange(node, JsonConstants.CHANGE_TYPE_CODE_ATTACH);
     }
 
     private static JsonObject populateChange(int node, boolean isList,
             int featureId) {
-        JsonObject object = baseChange(node, JsonConstants.CHANGE_TYPE_NOOP);
+        JsonObject object = baseChange(node,
+                JsonConstants.CHANGE_TYPE_CODE_NOOP);
         object.put(JsonConstants.CHANGE_FEATURE, featureId);
         object.put(JsonConstants.CHANGE_FEATURE_TYPE, isList);
         return object;
     }
 
     private static JsonObject detachChange(int node) {
-        return baseChange(node, JsonConstants.CHANGE_TYPE_DETACH);
+        return baseChange(node, JsonConstants.CHANGE_TYPE_CODE_DETACH);
     }
 
     private static JsonObject putChange(int node, int ns, String key,
             JsonValue value) {
-        JsonObject json = mapBaseChange(node, ns, JsonConstants.CHANGE_TYPE_PUT,
-                key);
+        JsonObject json = mapBaseChange(node, ns,
+                JsonConstants.CHANGE_TYPE_CODE_PUT, key);
         json.put(JsonConstants.CHANGE_PUT_VALUE, value);
 
         return json;
     }
 
     private static JsonObject removeChange(int node, int ns, String key) {
-        return mapBaseChange(node, ns, JsonConstants.CHANGE_TYPE_REMOVE, key);
+        return mapBaseChange(node, ns, JsonConstants.CHANGE_TYPE_CODE_REMOVE,
+                key);
     }
 
     private static JsonObject putNodeChange(int node, int ns, String key,
             int child) {
-        JsonObject json = mapBaseChange(node, ns, JsonConstants.CHANGE_TYPE_PUT,
-                key);
+        JsonObject json = mapBaseChange(node, ns,
+                JsonConstants.CHANGE_TYPE_CODE_PUT, key);
 
         json.put(JsonConstants.CHANGE_PUT_NODE_VALUE, child);
 
@@ -388,7 +424,8 @@ public class TreeChangeProcessorTest {
 
     private static JsonObject spliceBaseChange(int node, int ns, int index,
             int remove) {
-        JsonObject json = baseChange(node, JsonConstants.CHANGE_TYPE_SPLICE);
+        JsonObject json = baseChange(node,
+                JsonConstants.CHANGE_TYPE_CODE_SPLICE);
 
         json.put(JsonConstants.CHANGE_FEATURE, ns);
         json.put(JsonConstants.CHANGE_SPLICE_INDEX, index);
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.client.flow.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompiledFunctionCacheTest {
+
+    private CompiledFunctionCache cache = new CompiledFunctionCache(4);
+
+    @Test
+    public void sameParametersAndCode_sameFunction() {
+        NativeFunction function = cache.getFunction("$0", "$0.focus()");
+
+        Assert.assertSame(function, cache.getFunction("$0", "$0.focus()"));
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void differentParameters_differentFunction() {
+        NativeFunction function = cache.getFunction("$0", "$0.focus()");
+
+        Assert.assertNotSame(function,
+                cache.getFunction("$0", "$1", "$0.focus()"));
+        Assert.assertNotSame(function, cache.getFunction("$0.focus()"));
+        Assert.assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void cacheFull_leastRecentlyUsedEvicted() {
+        NativeFunction first = cache.getFunction("first()");
+        NativeFunction second = cache.getFunction("second()");
+        cache.getFunction("third()");
+        cache.getFunction("fourth()");
+
+        // Use the first function so that the second one is the oldest
+        Assert.assertSame(first, cache.getFunction("first()"));
+        cache.getFunction("fifth()");
+
+        Assert.assertEquals(4, cache.size());
+        Assert.assertSame(first, cache.getFunction("first()"));
+        Assert.assertNotSame(second, cache.getFunction("second()"));
+    }
+}
@@ -71,7 +71,13 @@ internal class GradlePluginAdapter(val project: Project, private val isBeforePro
             check(it.exists()) { "$it doesn't exist" }
         }
 
-        val classFinder = BuildFrontendUtil.getClassFinder(apis.map { it.absolutePath })
+        val classpathElements: List<String> = apis.map { it.absolutePath }
+        val classFinder: ClassFinder = if (extension.jandexClassFinder) {
+            BuildFrontendUtil.getClassFinder(classpathElements,
+                File(extension.projectBuildDir, BuildFrontendUtil.CLASS_INDEX_CACHE_FOLDER))
+        } else {
+            BuildFrontendUtil.getClassFinder(classpathElements)
+        }
 
         // sanity check that the project has flow-server.jar as a dependency
         try {
@@ -72,10 +72,12 @@ public open class VaadinBuildFrontendTask : DefaultTask() {
 
         if (adapter.generateBundle()) {
             BuildFrontendUtil.runFrontendBuild(adapter)
+            BuildFrontendUtil.generateAssetManifest(adapter)
         } else {
             logger.info("Not running webpack since generateBundle is false")
         }
 
         BuildFrontendUtil.updateBuildFile(adapter)
+        BuildFrontendUtil.generateStartupSnapshot(adapter)
     }
 }
@@ -192,6 +192,14 @@ public open class VaadinFlowPluginExtension(project: Project) {
      */
     public var postinstallPackages: List<String> = listOf()
 
+    /**
+     * Whether to look up classes from Jandex indexes instead of scanning the
+     * class path with reflections. The indexes built for jars are cached in
+     * the build directory. Defaults to `false`.
+     * Responds to the `-Pvaadin.jandexClassFinder` property.
+     */
+    public var jandexClassFinder: Boolean = false
+
     public companion object {
         public fun get(project: Project): VaadinFlowPluginExtension =
                 project.extensions.getByType(VaadinFlowPluginExtension::class.java)
@@ -227,6 +235,11 @@ public open class VaadinFlowPluginExtension(project: Project) {
         if (useGlobalPnpmProperty != null) {
             useGlobalPnpm = useGlobalPnpmProperty
         }
+
+        val jandexClassFinderProperty: Boolean? = project.getBooleanProperty("vaadin.jandexClassFinder")
+        if (jandexClassFinderProperty != null) {
+            jandexClassFinder = jandexClassFinderProperty
+        }
     }
 
     override fun toString(): String = "VaadinFlowPluginExtension(" +
@@ -255,6 +268,7 @@ public open class VaadinFlowPluginExtension(project: Project) {
             "nodeAutoUpdate=$nodeAutoUpdate" +
             "resourceOutputDirectory=$resourceOutputDirectory" +
             "postinstallPackages=$postinstallPackages" +
+            "jandexClassFinder=$jandexClassFinder" +
             ")"
 }
 
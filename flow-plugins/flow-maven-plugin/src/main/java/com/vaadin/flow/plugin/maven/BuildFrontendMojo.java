@@ -106,6 +106,7 @@ public class BuildFrontendMojo extends FlowModeAbstractMojo
         if (generateBundle()) {
             try {
                 BuildFrontendUtil.runFrontendBuild(this);
+                BuildFrontendUtil.generateAssetManifest(this);
             } catch (URISyntaxException | TimeoutException exception) {
                 throw new MojoExecutionException(exception.getMessage(),
                         exception);
@@ -113,6 +114,7 @@ public class BuildFrontendMojo extends FlowModeAbstractMojo
         }
 
         BuildFrontendUtil.updateBuildFile(this);
+        BuildFrontendUtil.generateStartupSnapshot(this);
 
         long ms = (System.nanoTime() - start) / 1000000;
         getLog().info("Build frontend completed in " + ms + " ms.");
@@ -212,6 +212,14 @@ public abstract class FlowModeAbstractMojo extends AbstractMojo
     @Parameter(property = "build.folder", defaultValue = "${project.build.directory}")
     private String projectBuildDir;
 
+    /**
+     * Whether to look up classes from Jandex indexes instead of scanning the
+     * class path with reflections. The indexes built for jars are cached in
+     * the build directory.
+     */
+    @Parameter(property = "vaadin.jandexClassFinder", defaultValue = "false")
+    private boolean jandexClassFinder;
+
     /**
      * Additional npm packages to run post install scripts for.
      * <p>
@@ -279,7 +287,12 @@ public abstract class FlowModeAbstractMojo extends AbstractMojo
 
         List<String> classpathElements = getClasspathElements(project);
 
-        return BuildFrontendUtil.getClassFinder(classpathElements);
+        if (!jandexClassFinder) {
+            return BuildFrontendUtil.getClassFinder(classpathElements);
+        }
+        return BuildFrontendUtil.getClassFinder(classpathElements,
+                new File(projectBuildDir,
+                        BuildFrontendUtil.CLASS_INDEX_CACHE_FOLDER));
 
     }
 
@@ -38,6 +38,7 @@ import java.util.jar.Manifest;
 
 import com.vaadin.experimental.FeatureFlags;
 import com.vaadin.flow.di.Lookup;
+import com.vaadin.flow.server.AssetManifest;
 import com.vaadin.flow.server.Constants;
 import com.vaadin.flow.server.ExecutionFailedException;
 import com.vaadin.flow.server.InitParameters;
@@ -47,7 +48,9 @@ import com.vaadin.flow.server.frontend.FrontendToolsSettings;
 import com.vaadin.flow.server.frontend.FrontendUtils;
 import com.vaadin.flow.server.frontend.NodeTasks;
 import com.vaadin.flow.server.frontend.scanner.ClassFinder;
+import com.vaadin.flow.server.scanner.JandexClassFinder;
 import com.vaadin.flow.server.scanner.ReflectionsClassFinder;
+import com.vaadin.flow.server.startup.StartupSnapshot;
 import com.vaadin.flow.utils.FlowFileUtils;
 import com.vaadin.pro.licensechecker.BuildType;
 import com.vaadin.pro.licensechecker.LicenseChecker;
@@ -88,6 +91,12 @@ import static com.vaadin.flow.server.frontend.FrontendUtils.TOKEN_FILE;
  */
 public class BuildFrontendUtil {
 
+    /**
+     * Name of the folder inside the build directory where the class indexes
+     * of jars are cached.
+     */
+    public static final String CLASS_INDEX_CACHE_FOLDER = "vaadin-class-index";
+
     /**
      * Hide public constructor.
      */
@@ -104,10 +113,31 @@ public class BuildFrontendUtil {
      */
     public static ClassFinder getClassFinder(List<String> classpathElements) {
 
-        URL[] urls = classpathElements.stream().distinct().map(File::new)
-                .map(FlowFileUtils::convertToUrl).toArray(URL[]::new);
+        return new ReflectionsClassFinder(toUrls(classpathElements));
+    }
+
+    /**
+     * creates a {@link ClassFinder} from a List of classpathElements that looks
+     * up classes from Jandex indexes, caching the class indexes built for jars
+     * in the given directory.
+     *
+     * @param classpathElements
+     *            the list of classpath elements
+     * @param indexCacheDirectory
+     *            the directory to cache the class indexes of jars in, or
+     *            {@code null} to not cache them
+     * @return the {@link ClassFinder} that uses the classpathElements
+     */
+    public static ClassFinder getClassFinder(List<String> classpathElements,
+            File indexCacheDirectory) {
 
-        return new ReflectionsClassFinder(urls);
+        return new JandexClassFinder(indexCacheDirectory,
+                toUrls(classpathElements));
+    }
+
+    private static URL[] toUrls(List<String> classpathElements) {
+        return classpathElements.stream().distinct().map(File::new)
+                .map(FlowFileUtils::convertToUrl).toArray(URL[]::new);
     }
 
     /**
@@ -617,4 +647,55 @@ public class BuildFrontendUtil {
             adapter.logWarn("Unable to read token file", e);
         }
     }
+
+    /**
+     * Writes the snapshot of the classes handled by the startup initializers,
+     * so that a production application does not need the servlet container
+     * to scan for them.
+     *
+     * @param adapter
+     *            - the PluginAdapterBuild.
+     * @see StartupSnapshot
+     */
+    public static void generateStartupSnapshot(PluginAdapterBuild adapter) {
+        long start = System.nanoTime();
+        File snapshotFile = new File(adapter.servletResourceOutputDirectory(),
+                StartupSnapshot.SNAPSHOT_FILE);
+        try {
+            JsonObject snapshot = StartupSnapshot
+                    .create(adapter.getClassFinder());
+            FileUtils.write(snapshotFile,
+                    JsonUtil.stringify(snapshot, 2) + "\n",
+                    StandardCharsets.UTF_8.name());
+        } catch (IOException e) {
+            adapter.logWarn("Unable to write startup snapshot", e);
+        }
+        long ms = (System.nanoTime() - start) / 1000000;
+        adapter.logInfo("Startup snapshot generated in " + ms + " ms.");
+    }
+
+    /**
+     * Writes the manifest of the assets in the built bundle,
+     * adding gzip compressed variants for the assets that do not have one, so
+     * that a production application can serve them without looking them up.
+     *
+     * @param adapter
+     *            - the PluginAdapterBase.
+     * @see AssetManifest
+     */
+    public static void generateAssetManifest(PluginAdapterBase adapter) {
+        File manifestFile = new File(adapter.servletResourceOutputDirectory(),
+                AssetManifest.MANIFEST_FILE);
+        try {
+            JsonObject manifest = AssetManifest
+                    .create(adapter.webpackOutputDirectory());
+            FileUtils.write(manifestFile,
+                    JsonUtil.stringify(manifest, 2) + "\n",
+                    StandardCharsets.UTF_8.name());
+            adapter.logInfo("Asset manifest generated for "
+                    + manifest.keys().length + " assets.");
+        } catch (IOException e) {
+            adapter.logWarn("Unable to write asset manifest", e);
+        }
+    }
 }
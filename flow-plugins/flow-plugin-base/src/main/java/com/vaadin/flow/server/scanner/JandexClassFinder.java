@@ -0,0 +1,434 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Repeatable;
+import java.lang.ref.SoftReference;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.AnnotationTarget;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.CompositeIndex;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexView;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.jandex.Indexer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.server.frontend.scanner.ClassFinder;
+
+/**
+ * A class finder using Jandex indexes.
+ * <p>
+ * Jars that contain a prebuilt index in {@code META-INF/jandex.idx} are not
+ * scanned at all. Other jars are indexed once and the index is stored in the
+ * given cache directory keyed by the checksum of the jar, so that following
+ * builds only need to read the index. The checksum is only computed again when
+ * the size or the modification time of the jar changes. Directories are always
+ * indexed since their contents change between builds.
+ * <p>
+ * The class path entries are indexed concurrently. The indexes of jars are
+ * also kept in memory, so that the goals run in the same build, such as
+ * {@code prepare-frontend} and {@code build-frontend}, index each jar only
+ * once.
+ * <p>
+ * Annotated classes and subtypes are looked up from the indexes, so only the
+ * matching classes are loaded.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class JandexClassFinder implements ClassFinder {
+
+    static final String JANDEX_INDEX = "META-INF/jandex.idx";
+
+    private static final String CLASS_EXTENSION = ".class";
+
+    private static final String STAMP_EXTENSION = ".stamp";
+
+    // Jar indexes by path, shared by the finders created in the same build.
+    // Holds at most one index for each jar path.
+    private static final Map<Path, MemoizedIndex> JAR_INDEXES = new ConcurrentHashMap<>();
+
+    private final transient ClassLoader classLoader;
+
+    private final transient IndexView index;
+
+    /**
+     * Creates a class finder for the given urls without caching the indexes
+     * built for jars.
+     *
+     * @param urls
+     *            the list of urls for finding classes.
+     */
+    public JandexClassFinder(URL... urls) {
+        this(null, urls);
+    }
+
+    /**
+     * Creates a class finder for the given urls.
+     *
+     * @param indexCacheDirectory
+     *            the directory to store the indexes built for jars in, or
+     *            {@code null} to not cache them
+     * @param urls
+     *            the list of urls for finding classes.
+     */
+    public JandexClassFinder(File indexCacheDirectory, URL... urls) {
+        classLoader = new URLClassLoader(urls,
+                Thread.currentThread().getContextClassLoader());
+        List<IndexView> indexes = Stream.of(urls).parallel().map(url -> {
+            try {
+                return getIndex(toPath(url), indexCacheDirectory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to index " + url, e);
+            }
+        }).collect(Collectors.toList());
+        index = CompositeIndex.create(indexes);
+    }
+
+    @Override
+    public Set<Class<?>> getAnnotatedClasses(
+            Class<? extends Annotation> clazz) {
+        Set<String> classNames = new TreeSet<>();
+        collectAnnotatedClasses(DotName.createSimple(clazz.getName()),
+                clazz.isAnnotationPresent(Inherited.class), classNames);
+        Repeatable repeatable = clazz.getAnnotation(Repeatable.class);
+        if (repeatable != null) {
+            collectAnnotatedClasses(
+                    DotName.createSimple(repeatable.value().getName()),
+                    clazz.isAnnotationPresent(Inherited.class), classNames);
+        }
+        return loadClasses(classNames);
+    }
+
+    @Override
+    public URL getResource(String name) {
+        return classLoader.getResource(name);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> Class<T> loadClass(String name) throws ClassNotFoundException {
+        return (Class<T>) classLoader.loadClass(name);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Set<Class<? extends T>> getSubTypesOf(Class<T> type) {
+        DotName name = DotName.createSimple(type.getName());
+        Set<String> classNames = new TreeSet<>();
+        if (type.isInterface()) {
+            addNames(index.getAllKnownImplementors(name), classNames);
+            addNames(index.getAllKnownSubinterfaces(name), classNames);
+        } else {
+            addNames(index.getAllKnownSubclasses(name), classNames);
+        }
+        return loadClasses(classNames).stream()
+                .map(clazz -> (Class<? extends T>) clazz)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    private void collectAnnotatedClasses(DotName annotation, boolean inherited,
+            Set<String> classNames) {
+        for (AnnotationInstance instance : index.getAnnotations(annotation)) {
+            if (instance.target() == null || instance.target()
+                    .kind() != AnnotationTarget.Kind.CLASS) {
+                continue;
+            }
+            ClassInfo annotated = instance.target().asClass();
+            classNames.add(annotated.name().toString());
+            if (inherited && !Modifier.isInterface(annotated.flags())) {
+                addNames(index.getAllKnownSubclasses(annotated.name()),
+                        classNames);
+            }
+        }
+    }
+
+    private static void addNames(Collection<ClassInfo> classes,
+            Set<String> classNames) {
+        classes.forEach(info -> classNames.add(info.name().toString()));
+    }
+
+    private Set<Class<?>> loadClasses(Set<String> classNames) {
+        // class names are sorted to get a deterministic order
+        Set<Class<?>> classes = new LinkedHashSet<>();
+        for (String className : classNames) {
+            try {
+                classes.add(classLoader.loadClass(className));
+            } catch (ClassNotFoundException | LinkageError e) {
+                getLogger().debug("Unable to load class {}", className, e);
+            }
+        }
+        return classes;
+    }
+
+    private static IndexView getIndex(Path path, File cacheDirectory)
+            throws IOException {
+        if (Files.isDirectory(path)) {
+            return indexDirectory(path);
+        }
+        if (!Files.isRegularFile(path)) {
+            return new Indexer().complete();
+        }
+        Path key = path.toAbsolutePath();
+        long size = Files.size(path);
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        MemoizedIndex memoized = JAR_INDEXES.get(key);
+        IndexView jarIndex = memoized == null ? null
+                : memoized.get(size, lastModified);
+        if (jarIndex == null) {
+            jarIndex = getJarIndex(path, size, lastModified, cacheDirectory);
+            JAR_INDEXES.put(key,
+                    new MemoizedIndex(size, lastModified, jarIndex));
+            // Drop the entries of indexes collected under memory pressure
+            JAR_INDEXES.values().removeIf(MemoizedIndex::isCleared);
+        }
+        return jarIndex;
+    }
+
+    private static IndexView getJarIndex(Path path, long size,
+            long lastModified, File cacheDirectory) throws IOException {
+        try (JarFile jar = new JarFile(path.toFile())) {
+            JarEntry prebuilt = jar.getJarEntry(JANDEX_INDEX);
+            if (prebuilt != null) {
+                try (InputStream in = jar.getInputStream(prebuilt)) {
+                    return new IndexReader(in).read();
+                } catch (IOException | IllegalArgumentException e) {
+                    getLogger().debug(
+                            "Ignoring unreadable Jandex index in {}", path, e);
+                }
+            }
+
+            Path cached = cacheDirectory == null ? null
+                    : getCachedIndexPath(path, size, lastModified,
+                            cacheDirectory.toPath());
+            if (cached != null && Files.isRegularFile(cached)) {
+                try (InputStream in = Files.newInputStream(cached)) {
+                    return new IndexReader(in).read();
+                } catch (IOException | IllegalArgumentException e) {
+                    getLogger().debug("Ignoring unreadable cached index {}",
+                            cached, e);
+                }
+            }
+
+            Indexer indexer = new Indexer();
+            jar.stream().filter(entry -> isIndexable(entry.getName()))
+                    .forEach(entry -> {
+                        try (InputStream in = jar.getInputStream(entry)) {
+                            index(indexer, in, entry.getName());
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+            Index index = indexer.complete();
+            if (cached != null) {
+                writeIndex(index, cached);
+            }
+            return index;
+        }
+    }
+
+    private static Index indexDirectory(Path directory) throws IOException {
+        Indexer indexer = new Indexer();
+        try (Stream<Path> files = Files.walk(directory)) {
+            List<Path> classFiles = files
+                    .filter(file -> isIndexable(
+                            directory.relativize(file).toString()))
+                    .collect(Collectors.toList());
+            for (Path classFile : classFiles) {
+                try (InputStream in = Files.newInputStream(classFile)) {
+                    index(indexer, in, classFile.toString());
+                }
+            }
+        }
+        return indexer.complete();
+    }
+
+    private static void index(Indexer indexer, InputStream in, String name)
+            throws IOException {
+        try {
+            indexer.index(in);
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            // Same as the reflections based finder: skip broken classes
+            getLogger().debug("Unable to index class {}", name, e);
+        }
+    }
+
+    private static boolean isIndexable(String name) {
+        String normalized = name.replace(File.separatorChar, '/');
+        return normalized.endsWith(CLASS_EXTENSION)
+                && !normalized.endsWith("module-info.class")
+                && !normalized.startsWith("META-INF/");
+    }
+
+    private static Path getCachedIndexPath(Path jar, long size,
+            long lastModified, Path cacheDirectory) throws IOException {
+        /*
+         * The stamp of a jar path records the checksum computed for the last
+         * seen size and modification time, so an unchanged jar is not read
+         * to compute the checksum again.
+         */
+        MessageDigest pathDigest = createDigest();
+        pathDigest.update(jar.toAbsolutePath().toString()
+                .getBytes(StandardCharsets.UTF_8));
+        Path stamp = cacheDirectory.resolve(jar.getFileName() + "-"
+                + toHex(pathDigest) + STAMP_EXTENSION);
+        String stampPrefix = size + "|" + lastModified + "|";
+
+        String hash = null;
+        if (Files.isRegularFile(stamp)) {
+            String content = Files.readString(stamp, StandardCharsets.UTF_8);
+            if (content.startsWith(stampPrefix)) {
+                hash = content.substring(stampPrefix.length());
+            }
+        }
+        if (hash == null) {
+            MessageDigest digest = createDigest();
+            try (InputStream in = Files.newInputStream(jar)) {
+                byte[] buffer = new byte[65536];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                }
+            }
+            String checksum = toHex(digest);
+            writeAtomically(stamp, out -> out.write(
+                    (stampPrefix + checksum).getBytes(StandardCharsets.UTF_8)));
+            hash = checksum;
+        }
+        return cacheDirectory.resolve(jar.getFileName() + "-" + hash + ".idx");
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(
+                    "Java Runtime does not support SHA-256", e);
+        }
+    }
+
+    private static String toHex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest(), 0, 12);
+    }
+
+    private static void writeIndex(Index index, Path target) {
+        writeAtomically(target, out -> new IndexWriter(out).write(index));
+    }
+
+    private static void writeAtomically(Path target, CacheWriter writer) {
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(),
+                    target.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    writer.write(out);
+                }
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            getLogger().debug("Unable to write the index cache file {}",
+                    target, e);
+        }
+    }
+
+    private static Path toPath(URL url) {
+        try {
+            return Paths.get(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid classpath url " + url,
+                    e);
+        }
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(JandexClassFinder.class);
+    }
+
+    @FunctionalInterface
+    private interface CacheWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * A softly referenced index of a jar with the size and modification time
+     * of the jar it was built for.
+     */
+    private static final class MemoizedIndex {
+        private final long size;
+        private final long lastModified;
+        private final SoftReference<IndexView> index;
+
+        private MemoizedIndex(long size, long lastModified, IndexView index) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.index = new SoftReference<>(index);
+        }
+
+        private IndexView get(long currentSize, long currentLastModified) {
+            if (size != currentSize || lastModified != currentLastModified) {
+                return null;
+            }
+            return index.get();
+        }
+
+        private boolean isCleared() {
+            return index.get() == null;
+        }
+    }
+}
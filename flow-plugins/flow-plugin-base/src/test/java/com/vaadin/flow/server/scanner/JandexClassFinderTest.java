@@ -0,0 +1,237 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.scanner;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.jandex.Indexer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.dependency.NpmPackage;
+import com.vaadin.flow.server.frontend.scanner.ClassFinder;
+
+public class JandexClassFinderTest {
+
+    private static final String CLASS_TEMPLATE = "package %s;\n" + "\n"
+            + "import com.vaadin.flow.component.dependency.NpmPackage;\n" + "\n"
+            + "import com.vaadin.flow.component.Component;\n" + "\n"
+            + "@NpmPackage(value = \"@vaadin/something\", version = \"%s\")\n"
+            + "public class %s extends Component {\n" + "}\n";
+    @Rule
+    public TemporaryFolder externalModules = new TemporaryFolder();
+
+    URL[] urls;
+    private ClassFinder.DefaultClassFinder defaultClassFinder;
+
+    @Before
+    public void setUp() throws Exception {
+        urls = new URL[] {
+                createTestModule("module-1", "com.vaadin.flow.test.last",
+                        "ComponentN", "3.0.0"),
+                createTestModule("module-2", "com.vaadin.flow.test.first",
+                        "ComponentX", "1.0.0"),
+                createTestModule("module-3", "com.vaadin.flow.test.middle",
+                        "ComponentA", "2.0.0") };
+
+        ClassLoader classLoader = new URLClassLoader(urls,
+                Thread.currentThread().getContextClassLoader());
+        defaultClassFinder = new ClassFinder.DefaultClassFinder(Set.of(
+                classLoader.loadClass("com.vaadin.flow.test.last.ComponentN"),
+                classLoader.loadClass("com.vaadin.flow.test.first.ComponentX"),
+                classLoader
+                        .loadClass("com.vaadin.flow.test.middle.ComponentA")));
+    }
+
+    @Test
+    public void getSubTypesOf_order_sameAsDefaultClassFinder() {
+        Assert.assertEquals(
+                toList(defaultClassFinder.getSubTypesOf(Component.class)),
+                toList(new JandexClassFinder(urls)
+                        .getSubTypesOf(Component.class)));
+        Assert.assertEquals(
+                toList(defaultClassFinder.getSubTypesOf(Component.class)),
+                toList(new JandexClassFinder(urls[2], urls[0], urls[1])
+                        .getSubTypesOf(Component.class)));
+    }
+
+    @Test
+    public void getAnnotatedClasses_order_sameAsDefaultClassFinder() {
+        Assert.assertEquals(
+                toList(defaultClassFinder
+                        .getAnnotatedClasses(NpmPackage.class)),
+                toList(new JandexClassFinder(urls)
+                        .getAnnotatedClasses(NpmPackage.class)));
+        Assert.assertEquals(
+                toList(defaultClassFinder
+                        .getAnnotatedClasses(NpmPackage.class)),
+                toList(new JandexClassFinder(urls[1], urls[2], urls[0])
+                        .getAnnotatedClasses(NpmPackage.class)));
+    }
+
+    @Test
+    public void jarWithoutIndex_indexCached() throws Exception {
+        File cacheDirectory = externalModules.newFolder("index-cache");
+        URL jar = createJar("module-1.jar", urls[0], false);
+
+        List<String> found = toList(new JandexClassFinder(cacheDirectory, jar)
+                .getSubTypesOf(Component.class));
+        Assert.assertEquals(List.of("com.vaadin.flow.test.last.ComponentN"),
+                found);
+        Assert.assertEquals(1, countIndexes(cacheDirectory));
+
+        Assert.assertEquals(found,
+                toList(new JandexClassFinder(cacheDirectory, jar)
+                        .getSubTypesOf(Component.class)));
+        Assert.assertEquals(1, countIndexes(cacheDirectory));
+    }
+
+    @Test
+    public void jarWithoutIndex_sameContentInAnotherPath_cachedIndexReused()
+            throws Exception {
+        File cacheDirectory = externalModules.newFolder("index-cache");
+        URL jar = createJar("module-3.jar", urls[2], false);
+        new JandexClassFinder(cacheDirectory, jar);
+        Assert.assertEquals(1, countIndexes(cacheDirectory));
+
+        File copy = new File(externalModules.newFolder("other-repository"),
+                "module-3.jar");
+        Files.copy(Path.of(jar.toURI()), copy.toPath());
+
+        Assert.assertEquals(List.of("com.vaadin.flow.test.middle.ComponentA"),
+                toList(new JandexClassFinder(cacheDirectory,
+                        copy.toURI().toURL()).getSubTypesOf(Component.class)));
+        Assert.assertEquals(
+                "Index of a jar with the same checksum should be reused", 1,
+                countIndexes(cacheDirectory));
+    }
+
+    @Test
+    public void jarWithoutIndex_jarChanged_indexedAgain() throws Exception {
+        File cacheDirectory = externalModules.newFolder("index-cache");
+        URL jar = createJar("module-1.jar", urls[0], false);
+        Assert.assertEquals(List.of("com.vaadin.flow.test.last.ComponentN"),
+                toList(new JandexClassFinder(cacheDirectory, jar)
+                        .getSubTypesOf(Component.class)));
+
+        File jarFile = new File(jar.toURI());
+        long lastModified = jarFile.lastModified();
+        createJar("module-1.jar", urls[2], false);
+        jarFile.setLastModified(lastModified + 2000);
+
+        Assert.assertEquals(List.of("com.vaadin.flow.test.middle.ComponentA"),
+                toList(new JandexClassFinder(cacheDirectory, jar)
+                        .getSubTypesOf(Component.class)));
+        Assert.assertEquals(2, countIndexes(cacheDirectory));
+    }
+
+    @Test
+    public void jarWithIndex_prebuiltIndexUsed() throws Exception {
+        File cacheDirectory = externalModules.newFolder("index-cache");
+        URL jar = createJar("module-2.jar", urls[1], true);
+
+        Assert.assertEquals(List.of("com.vaadin.flow.test.first.ComponentX"),
+                toList(new JandexClassFinder(cacheDirectory, jar)
+                        .getAnnotatedClasses(NpmPackage.class)));
+        Assert.assertEquals("Jar with an index should not be indexed again",
+                0, countIndexes(cacheDirectory));
+    }
+
+    private static int countIndexes(File cacheDirectory) {
+        return cacheDirectory.listFiles(
+                (dir, name) -> name.endsWith(".idx")).length;
+    }
+
+    private <X extends Class<?>> List<String> toList(Set<X> classes) {
+        return classes.stream().map(Class::getName)
+                .collect(Collectors.toList());
+    }
+
+    private URL createJar(String name, URL classesDirectory,
+            boolean withIndex) throws Exception {
+        Path classes = Path.of(classesDirectory.toURI());
+        File jarFile = new File(externalModules.getRoot(), name);
+        Indexer indexer = new Indexer();
+        try (JarOutputStream jar = new JarOutputStream(
+                Files.newOutputStream(jarFile.toPath()));
+                Stream<Path> files = Files.walk(classes)) {
+            for (Path file : files.filter(Files::isRegularFile)
+                    .collect(Collectors.toList())) {
+                jar.putNextEntry(new JarEntry(classes.relativize(file)
+                        .toString().replace(File.separatorChar, '/')));
+                jar.write(Files.readAllBytes(file));
+                jar.closeEntry();
+                try (InputStream in = Files.newInputStream(file)) {
+                    indexer.index(in);
+                }
+            }
+            if (withIndex) {
+                jar.putNextEntry(
+                        new JarEntry(JandexClassFinder.JANDEX_INDEX));
+                writeIndex(indexer.complete(), jar);
+                jar.closeEntry();
+            }
+        }
+        return jarFile.toURI().toURL();
+    }
+
+    private void writeIndex(Index index, OutputStream out) throws IOException {
+        new IndexWriter(out).write(index);
+    }
+
+    private URL createTestModule(String moduleName, String pkg,
+            String className, String npmPackageVersion) throws IOException {
+        File sources = externalModules.newFolder(moduleName + "/src");
+        File sourcePkg = externalModules
+                .newFolder(moduleName + "/src/" + pkg.replace('.', '/'));
+        File buildDir = externalModules.newFolder(moduleName + "/target");
+
+        Path sourceFile = sourcePkg.toPath().resolve(className + ".java");
+        Files.writeString(sourceFile, String.format(CLASS_TEMPLATE, pkg,
+                npmPackageVersion, className), StandardCharsets.UTF_8);
+        compile(sourceFile.toFile(), sources, buildDir);
+        return buildDir.toURI().toURL();
+    }
+
+    private void compile(File sourceFile, File sourcePath, File outputPath) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int result = compiler.run(null, null, null, "-d", outputPath.getPath(),
+                "-sourcepath", sourcePath.getPath(), sourceFile.getPath());
+        Assert.assertEquals("Failed to compile " + sourceFile, 0, result);
+    }
+}
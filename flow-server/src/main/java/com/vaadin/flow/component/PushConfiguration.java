@@ -25,6 +25,7 @@ import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.server.communication.AtmospherePushConnection;
 import com.vaadin.flow.server.communication.PushConnection;
 import com.vaadin.flow.server.communication.PushConnectionFactory;
+import com.vaadin.flow.server.communication.SsePushConnection;
 import com.vaadin.flow.shared.communication.PushMode;
 import com.vaadin.flow.shared.ui.Transport;
 
@@ -77,7 +78,9 @@ public interface PushConfiguration extends Serializable {
      * Sets the primary transport type for push.
      * <p>
      * Note that the new transport type will not be used until the push channel
-     * is disconnected and reconnected if already active.
+     * is disconnected and reconnected if already active. Switching to or from
+     * {@link Transport#SSE} only takes effect when push is enabled the next
+     * time.
      *
      * @param transport
      *            The primary transport type
@@ -179,11 +182,11 @@ public interface PushConfiguration extends Serializable {
  */
 class PushConfigurationImpl implements PushConfiguration {
     private UI ui;
+    // null to use a connection matching the transport
     private PushConnectionFactory pushConnectionFactory;
 
     PushConfigurationImpl(UI ui) {
         this.ui = ui;
-        this.pushConnectionFactory = AtmospherePushConnection::new;
         getPushConfigurationMap().setTransport(Transport.WEBSOCKET_XHR);
         getPushConfigurationMap().setFallbackTransport(Transport.LONG_POLLING);
         getPushConfigurationMap().setPushMode(PushMode.DISABLED);
@@ -214,7 +217,7 @@ class PushConfigurationImpl implements PushConfiguration {
 
         session.checkHasLock();
 
-        if (pushMode.isEnabled()
+        if (pushMode.isEnabled() && getTransport() != Transport.SSE
                 && !session.getService().ensurePushAvailable()) {
             throw new IllegalStateException(
                     "Push is not available. See previous log messages for more information.");
@@ -227,14 +230,23 @@ class PushConfigurationImpl implements PushConfiguration {
             if (!oldMode.isEnabled() && pushMode.isEnabled()) {
                 // The push connection is initially in a disconnected state;
                 // the client will establish the connection
-                ui.getInternals()
-                        .setPushConnection(pushConnectionFactory.apply(ui));
+                ui.getInternals().setPushConnection(createPushConnection());
             }
             // Nothing to do here if disabling push;
             // the client will close the connection
         }
     }
 
+    private PushConnection createPushConnection() {
+        if (pushConnectionFactory != null) {
+            return pushConnectionFactory.apply(ui);
+        } else if (getTransport() == Transport.SSE) {
+            return new SsePushConnection(ui);
+        } else {
+            return new AtmospherePushConnection(ui);
+        }
+    }
+
     @Override
     public void setPushUrl(String pushUrl) {
         getPushConfigurationMap().setPushUrl(pushUrl);
@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -162,10 +163,20 @@ public class UIInternals implements Serializable {
      * Updated to the current time whenever the application receives a heartbeat
      * or UIDL request from the client for the related UI.
      */
-    private long lastHeartbeatTimestamp = System.currentTimeMillis();
+    private final AtomicLong lastHeartbeatTimestamp = new AtomicLong(
+            System.currentTimeMillis());
+
+    /**
+     * The number of registered heartbeat listeners, so that heartbeats received
+     * without holding the session lock only need to lock the session when
+     * there is a listener to notify.
+     */
+    private volatile int heartbeatListenerCount;
 
     private List<PendingJavaScriptInvocation> pendingJsInvocations = new ArrayList<>();
 
+    private List<String> pendingBroadcasts = new ArrayList<>();
+
     /**
      * The related UI.
      */
@@ -331,7 +342,7 @@ public class UIInternals implements Serializable {
      *         since the epoch.
      */
     public long getLastHeartbeatTimestamp() {
-        return lastHeartbeatTimestamp;
+        return lastHeartbeatTimestamp.get();
     }
 
     /**
@@ -348,8 +359,32 @@ public class UIInternals implements Serializable {
      *            since the epoch.
      */
     public void setLastHeartbeatTimestamp(long lastHeartbeat) {
-        lastHeartbeatTimestamp = lastHeartbeat;
-        HeartbeatEvent heartbeatEvent = new HeartbeatEvent(ui, lastHeartbeat);
+        lastHeartbeatTimestamp.set(lastHeartbeat);
+        fireHeartbeatEvent(lastHeartbeat);
+    }
+
+    /**
+     * Records a heartbeat request received for the related UI. Unlike
+     * {@link #setLastHeartbeatTimestamp(long)}, this method does not require
+     * the session lock, so that heartbeats do not contend with other requests
+     * for the session. Heartbeat listeners, if any, are notified later while
+     * holding the session lock.
+     *
+     * @param timestamp
+     *            The time the heartbeat request occurred, in milliseconds since
+     *            the epoch.
+     */
+    public void receiveHeartbeat(long timestamp) {
+        // Heartbeats may be handled concurrently, keep the latest one
+        lastHeartbeatTimestamp.accumulateAndGet(timestamp, Math::max);
+        VaadinSession uiSession = session;
+        if (heartbeatListenerCount > 0 && uiSession != null) {
+            uiSession.access(() -> fireHeartbeatEvent(timestamp));
+        }
+    }
+
+    private void fireHeartbeatEvent(long timestamp) {
+        HeartbeatEvent heartbeatEvent = new HeartbeatEvent(ui, timestamp);
         getListeners(HeartbeatListener.class)
                 .forEach(listener -> listener.heartbeat(heartbeatEvent));
     }
@@ -502,7 +537,14 @@ public class UIInternals implements Serializable {
     }
 
     public Registration addHeartbeatListener(HeartbeatListener listener) {
-        return addListener(HeartbeatListener.class, listener);
+        Registration registration = addListener(HeartbeatListener.class,
+                listener);
+        // Only modified while holding the session lock
+        heartbeatListenerCount++; // NOSONAR
+        return Registration.once(() -> {
+            registration.remove();
+            heartbeatListenerCount--; // NOSONAR
+        });
     }
 
     private <E> Registration addListener(Class<E> handler, E listener) {
@@ -584,6 +626,33 @@ public class UIInternals implements Serializable {
         return currentList;
     }
 
+    /**
+     * Adds a message published through a
+     * {@link com.vaadin.flow.server.BroadcastTopic} to be sent to the client
+     * with the next message.
+     *
+     * @param broadcast
+     *            the serialized message, not <code>null</code>
+     */
+    public void addPendingBroadcast(String broadcast) {
+        session.checkHasLock();
+        pendingBroadcasts.add(broadcast);
+    }
+
+    /**
+     * Gets all the pending broadcast messages and clears the queue.
+     *
+     * @return a list of serialized broadcast messages, not <code>null</code>
+     */
+    public List<String> dumpPendingBroadcasts() {
+        if (pendingBroadcasts.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> currentList = pendingBroadcasts;
+        pendingBroadcasts = new ArrayList<>();
+        return currentList;
+    }
+
     /**
      * Gets the pending javascript invocations added with
      * {@link #addJavaScriptInvocation(PendingJavaScriptInvocation)} after last
@@ -1023,7 +1092,8 @@ public class UIInternals implements Serializable {
      */
     public boolean isDirty() {
         return getStateTree().isDirty()
-                || getPendingJavaScriptInvocations().count() != 0;
+                || getPendingJavaScriptInvocations().count() != 0
+                || !pendingBroadcasts.isEmpty();
     }
 
     /**
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.vaadin.flow.function.SerializableConsumer;
+
+/**
+ * A thread safe cache for the results of looking up resources, keyed by a
+ * request path or a URL.
+ * <p>
+ * The cache holds at most {@link #MAX_ENTRIES} entries. When it is full, the
+ * cached entries are evicted before a new one is added, so that requests for
+ * arbitrary paths cannot use up memory. The eviction listener is notified of
+ * each entry that is actually removed.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @param <V>
+ *            the type of the cached values
+ * @author Vaadin Ltd
+ * @since
+ */
+public class BoundedResourceCache<V> implements Serializable {
+
+    /**
+     * Maximum number of entries in a cache.
+     */
+    public static final int MAX_ENTRIES = 2048;
+
+    private final Map<String, V> entries = new ConcurrentHashMap<>();
+    private final SerializableConsumer<V> evictionListener;
+
+    /**
+     * Creates an empty cache.
+     */
+    public BoundedResourceCache() {
+        this(value -> {
+        });
+    }
+
+    /**
+     * Creates an empty cache notifying the given listener of the evicted
+     * values.
+     *
+     * @param evictionListener
+     *            the listener to notify of each evicted value, not
+     *            <code>null</code>
+     */
+    public BoundedResourceCache(SerializableConsumer<V> evictionListener) {
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * Gets the value cached for the given key.
+     *
+     * @param key
+     *            the key to look up
+     * @return the cached value, or <code>null</code> if there is none
+     */
+    public V get(String key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Caches the value for the given key unless a value is already cached for
+     * it. The cache is emptied first if it is full.
+     *
+     * @param key
+     *            the key to cache the value for
+     * @param value
+     *            the value to cache, not <code>null</code>
+     * @return the value that was already cached for the key, or
+     *         <code>null</code> if the given value was cached
+     */
+    public V putIfAbsent(String key, V value) {
+        if (entries.size() >= MAX_ENTRIES) {
+            evictAll();
+        }
+        return entries.putIfAbsent(key, value);
+    }
+
+    private void evictAll() {
+        for (Map.Entry<String, V> entry : entries.entrySet()) {
+            // Only entries removed by this thread are reported, so that
+            // concurrent evictions do not report the same value twice
+            if (entries.remove(entry.getKey(), entry.getValue())) {
+                evictionListener.accept(entry.getValue());
+            }
+        }
+    }
+}
@@ -38,6 +38,14 @@ public class ConstantPool implements Serializable {
 
     private Set<ConstantPoolKey> newKeys = new HashSet<>();
 
+    /**
+     * Maximum number of ids kept while waiting for a second occurrence in
+     * {@link #getRepeatedConstantId(ConstantPoolKey)}.
+     */
+    private static final int MAX_CANDIDATES = 1000;
+
+    private Set<String> candidateValues = new HashSet<>();
+
     /**
      * Gets the id of a given constant, registering the constant with this
      * constant pool if it hasn't already been encountered.
@@ -60,6 +68,32 @@ public class ConstantPool implements Serializable {
         return id;
     }
 
+    /**
+     * Gets the id of a given constant if it has already been registered or if
+     * this is the second time it is encountered, in which case it is
+     * registered. This is meant for values that are only worth sending as
+     * constants if they are sent repeatedly.
+     *
+     * @param constant
+     *            the constant reference to get an id for, not <code>null</code>
+     * @return the constant id of the given constant, or <code>null</code> if
+     *         the constant was encountered for the first time
+     */
+    public String getRepeatedConstantId(ConstantPoolKey constant) {
+        assert constant != null;
+
+        String id = constant.getId();
+
+        if (knownValues.contains(id) || candidateValues.remove(id)) {
+            return getConstantId(constant);
+        }
+        if (candidateValues.size() >= MAX_CANDIDATES) {
+            candidateValues.clear();
+        }
+        candidateValues.add(id);
+        return null;
+    }
+
     /**
      * Checks if any new constants have been added to this constant pool since
      * the last time {@link #dumpConstants()} was called.
@@ -30,8 +30,10 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.List;
+import java.util.Set;
 import java.util.Stack;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -71,8 +73,39 @@ public class ResponseWriter implements Serializable {
      */
     private static final int MAX_OVERLAPPING_RANGE_COUNT = 2;
 
+    /**
+     * Maximum size of a single resource kept in memory when caching is
+     * enabled.
+     */
+    private static final int MAX_CACHED_CONTENT_SIZE = 256 * 1024;
+
+    /**
+     * Maximum total size of the resources kept in memory when caching is
+     * enabled.
+     */
+    private static final long MAX_TOTAL_CACHED_CONTENT_SIZE = 32L * 1024
+            * 1024;
+
     private final int bufferSize;
     private final boolean brotliEnabled;
+    private final BoundedResourceCache<CachedResource> resourceCache;
+    private final AtomicLong cachedContentSize = new AtomicLong();
+
+    /**
+     * A resource looked up when caching is enabled. Small resources are kept
+     * in memory.
+     */
+    private static final class CachedResource implements Serializable {
+        private final URL url;
+        private final long contentLength;
+        private final byte[] content;
+
+        private CachedResource(URL url, long contentLength, byte[] content) {
+            this.url = url;
+            this.contentLength = contentLength;
+            this.content = content;
+        }
+    }
 
     /**
      * Create a response writer with the given deployment configuration.
@@ -81,12 +114,36 @@ public class ResponseWriter implements Serializable {
      *            the deployment configuration to use, not <code>null</code>
      */
     public ResponseWriter(DeploymentConfiguration deploymentConfiguration) {
-        this(DEFAULT_BUFFER_SIZE, deploymentConfiguration.isBrotli());
+        this(deploymentConfiguration, false);
     }
 
-    private ResponseWriter(int bufferSize, boolean brotliEnabled) {
+    /**
+     * Create a response writer with the given deployment configuration.
+     * <p>
+     * When caching is enabled, the location, size and precompressed variants
+     * of each written resource are only looked up once and the contents of
+     * small resources are kept in memory. Caching must only be used when the
+     * resources cannot change, i.e. in production mode.
+     *
+     * @param deploymentConfiguration
+     *            the deployment configuration to use, not <code>null</code>
+     * @param cacheResources
+     *            <code>true</code> to cache the written resources,
+     *            <code>false</code> to read them on every request
+     */
+    public ResponseWriter(DeploymentConfiguration deploymentConfiguration,
+            boolean cacheResources) {
+        this(DEFAULT_BUFFER_SIZE, deploymentConfiguration.isBrotli(),
+                cacheResources);
+    }
+
+    private ResponseWriter(int bufferSize, boolean brotliEnabled,
+            boolean cacheResources) {
         this.brotliEnabled = brotliEnabled;
         this.bufferSize = bufferSize;
+        resourceCache = cacheResources
+                ? new BoundedResourceCache<>(this::releaseContent)
+                : null;
     }
 
     /**
@@ -115,13 +172,57 @@ public class ResponseWriter implements Serializable {
     public void writeResponseContents(String filenameWithPath, URL resourceUrl,
             HttpServletRequest request, HttpServletResponse response)
             throws IOException {
+        writeResponseContents(filenameWithPath, resourceUrl, null, request,
+                response);
+    }
+
+    /**
+     * Writes the contents and content type (if available) of the given
+     * resourceUrl to the response, looking up only the precompressed variants
+     * that are known to exist.
+     *
+     * @param filenameWithPath
+     *            the name of the file being sent
+     * @param resourceUrl
+     *            the URL to the file, reported by the servlet container
+     * @param encodings
+     *            the content encodings of the precompressed variants of the
+     *            file, or {@code null} to look up all supported variants
+     * @param request
+     *            the request object to read from
+     * @param response
+     *            the response object to write to
+     * @throws IOException
+     *             if the servlet container threw an exception while locating
+     *             the resource
+     * @see #writeResponseContents(String, URL, HttpServletRequest,
+     *      HttpServletResponse)
+     */
+    public void writeResponseContents(String filenameWithPath, URL resourceUrl,
+            Set<String> encodings, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
         writeContentType(filenameWithPath, request, response);
+        if (encodings != null && !encodings.isEmpty()) {
+            // The response depends on the header even when the uncompressed
+            // file is sent
+            response.setHeader("Vary", "Accept-Encoding");
+        }
+        boolean brotli = brotliEnabled && hasVariant(encodings, "br")
+                && acceptsBrotliResource(request);
+        boolean gzip = hasVariant(encodings, "gzip")
+                && acceptsGzippedResource(request);
+
+        if (resourceCache != null && request.getHeader("Range") == null) {
+            writeCachedContents(filenameWithPath, resourceUrl, brotli, gzip,
+                    request, response);
+            return;
+        }
 
         URL url = null;
         URLConnection connection = null;
         InputStream dataStream = null;
 
-        if (brotliEnabled && acceptsBrotliResource(request)) {
+        if (brotli) {
             String brotliFilenameWithPath = filenameWithPath + ".br";
             try {
                 url = getResource(request, brotliFilenameWithPath);
@@ -137,7 +238,7 @@ public class ResponseWriter implements Serializable {
             }
         }
 
-        if (dataStream == null && acceptsGzippedResource(request)) {
+        if (dataStream == null && gzip) {
             // try to serve a gzipped version if available
             String gzippedFilenameWithPath = filenameWithPath + ".gz";
             try {
@@ -186,6 +287,127 @@ public class ResponseWriter implements Serializable {
         }
     }
 
+    private void writeCachedContents(String filenameWithPath, URL resourceUrl,
+            boolean brotli, boolean gzip, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        CachedResource resource = null;
+        if (brotli) {
+            resource = getCachedVariant(request, filenameWithPath + ".br");
+            if (resource != null) {
+                response.setHeader("Content-Encoding", "br");
+            }
+        }
+        if (resource == null && gzip) {
+            // try to serve a gzipped version if available
+            resource = getCachedVariant(request, filenameWithPath + ".gz");
+            if (resource != null) {
+                response.setHeader("Content-Encoding", "gzip");
+            }
+        }
+
+        if (resource == null) {
+            // compressed resource not available, get non compressed
+            resource = getCachedResource(resourceUrl);
+        } else {
+            response.setHeader("Vary", "Accept-Encoding");
+        }
+
+        try {
+            if (0 <= resource.contentLength) {
+                setContentLength(response, resource.contentLength);
+            }
+            if (resource.content != null) {
+                response.getOutputStream().write(resource.content);
+            } else {
+                InputStream dataStream = resource.url.openStream();
+                try {
+                    writeStream(response.getOutputStream(), dataStream,
+                            Long.MAX_VALUE);
+                } finally {
+                    closeStream(dataStream);
+                }
+            }
+        } catch (IOException e) {
+            getLogger().debug("Error writing static file to user", e);
+        }
+    }
+
+    private static boolean hasVariant(Set<String> encodings,
+            String encoding) {
+        return encodings == null || encodings.contains(encoding);
+    }
+
+    private CachedResource getCachedVariant(HttpServletRequest request,
+            String filenameWithPath) {
+        CachedResource resource = resourceCache.get(filenameWithPath);
+        if (resource == null) {
+            try {
+                URL url = getResource(request, filenameWithPath);
+                resource = url == null ? new CachedResource(null, -1L, null)
+                        : readResource(url);
+                cacheResource(filenameWithPath, resource);
+            } catch (Exception e) {
+                getLogger().debug(
+                        "Unexpected exception looking for precompressed resource {}",
+                        filenameWithPath, e);
+                return null;
+            }
+        }
+        return resource.url == null ? null : resource;
+    }
+
+    private CachedResource getCachedResource(URL resourceUrl)
+            throws IOException {
+        // Keyed by URL which cannot clash with the request paths used for
+        // the precompressed variants
+        String key = resourceUrl.toExternalForm();
+        CachedResource resource = resourceCache.get(key);
+        if (resource == null) {
+            resource = cacheResource(key, readResource(resourceUrl));
+        }
+        return resource;
+    }
+
+    private CachedResource cacheResource(String key, CachedResource resource) {
+        CachedResource existing = resourceCache.putIfAbsent(key, resource);
+        if (existing == null) {
+            return resource;
+        }
+        // Read concurrently by another request for the same resource
+        releaseContent(resource);
+        return existing;
+    }
+
+    private void releaseContent(CachedResource resource) {
+        if (resource.content != null) {
+            cachedContentSize.addAndGet(-resource.content.length);
+        }
+    }
+
+    private CachedResource readResource(URL url) throws IOException {
+        URLConnection connection = url.openConnection();
+        long contentLength = connection.getContentLengthLong();
+        InputStream dataStream = connection.getInputStream();
+        try {
+            if (0 <= contentLength && contentLength <= MAX_CACHED_CONTENT_SIZE
+                    && cachedContentSize.addAndGet(
+                            contentLength) <= MAX_TOTAL_CACHED_CONTENT_SIZE) {
+                byte[] content = dataStream.readNBytes((int) contentLength);
+                // Only what was actually read is released on eviction
+                cachedContentSize.addAndGet(content.length - contentLength);
+                return new CachedResource(url, content.length, content);
+            }
+            if (0 <= contentLength
+                    && contentLength <= MAX_CACHED_CONTENT_SIZE) {
+                // Memory budget exceeded, serve from the URL
+                cachedContentSize.addAndGet(-contentLength);
+            }
+            return new CachedResource(url, contentLength, null);
+        } finally {
+            closeStream(dataStream);
+        }
+    }
+
     private void closeStream(Closeable stream) {
         try {
             stream.close();
@@ -1053,6 +1053,19 @@ public class StateNode implements Serializable {
         return beforeClientResponseEntries != null;
     }
 
+    /**
+     * Gets the number of pending execution entries for this node.
+     *
+     * @see StateTree#beforeClientResponse(StateNode,
+     *      com.vaadin.flow.function.SerializableConsumer)
+     *
+     * @return the number of pending execution entries
+     */
+    public int getBeforeClientResponseEntryCount() {
+        return beforeClientResponseEntries == null ? 0
+                : beforeClientResponseEntries.size();
+    }
+
     /**
      * Gets the current list of pending execution entries for this node and
      * clears the current list.
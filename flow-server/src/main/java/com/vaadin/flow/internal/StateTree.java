@@ -32,6 +32,7 @@ import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.internal.UIInternals;
 import com.vaadin.flow.function.SerializableConsumer;
 import com.vaadin.flow.internal.change.NodeChange;
+import com.vaadin.flow.internal.nodefeature.ElementListenerMap;
 import com.vaadin.flow.internal.nodefeature.NodeFeature;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.server.communication.UidlWriter;
@@ -164,6 +165,8 @@ public class StateTree implements NodeOwner {
 
     private int nextBeforeClientResponseIndex = 1;
 
+    private int domListenerCount;
+
     private final StateNode rootNode;
 
     private final UIInternals uiInternals;
@@ -218,6 +221,7 @@ public class StateTree implements NodeOwner {
         }
 
         idToNode.put(nodeId, node);
+        domListenerCount += getDomListenerCount(node);
 
         if (node.hasBeforeClientResponseEntries()) {
             pendingExecutionNodes.add(node);
@@ -244,6 +248,7 @@ public class StateTree implements NodeOwner {
                     "Unregistered node was not found based on its id. The tree is most likely corrupted.");
         }
 
+        domListenerCount -= getDomListenerCount(node);
         pendingExecutionNodes.remove(node);
     }
 
@@ -266,6 +271,70 @@ public class StateTree implements NodeOwner {
         return idToNode.get(id);
     }
 
+    /**
+     * Gets the number of nodes currently registered with this tree, including
+     * the root node.
+     *
+     * @return the number of registered nodes
+     */
+    public int getNodeCount() {
+        return idToNode.size();
+    }
+
+    /**
+     * Gets the number of DOM event listeners registered for the nodes that are
+     * currently attached to this tree.
+     * <p>
+     * The value is maintained incrementally as nodes are attached and detached
+     * and as listeners are added and removed, so calling this method is cheap.
+     *
+     * @return the number of DOM event listeners of attached nodes
+     */
+    public int getDomListenerCount() {
+        return domListenerCount;
+    }
+
+    /**
+     * Updates the DOM event listener count after a listener has been added to
+     * or removed from a node registered with this tree.
+     * <p>
+     * For internal use only. May be renamed or removed in a future release.
+     *
+     * @param node
+     *            the node whose listeners changed, not <code>null</code>
+     * @param delta
+     *            the change in the number of listeners
+     */
+    public void updateDomListenerCount(StateNode node, int delta) {
+        assert node.getOwner() == this;
+        if (hasNode(node)) {
+            domListenerCount += delta;
+        }
+    }
+
+    /**
+     * Gets the number of tasks registered using
+     * {@link #beforeClientResponse(StateNode, SerializableConsumer)} that are
+     * still waiting to be run for attached nodes.
+     *
+     * @return the number of pending before client response tasks
+     */
+    public int getPendingBeforeClientResponseCount() {
+        int count = 0;
+        for (StateNode node : pendingExecutionNodes) {
+            count += node.getBeforeClientResponseEntryCount();
+        }
+        return count;
+    }
+
+    private static int getDomListenerCount(StateNode node) {
+        if (!node.hasFeature(ElementListenerMap.class)) {
+            return 0;
+        }
+        return node.getFeatureIfInitialized(ElementListenerMap.class)
+                .map(ElementListenerMap::getListenerCount).orElse(0);
+    }
+
     /**
      * Collects all changes made to this tree since the last time
      * {@link #collectChanges(Consumer)} has been called.
@@ -46,7 +46,8 @@ public class EmptyChange extends NodeFeatureChange {
 
     @Override
     protected void populateJson(JsonObject json, ConstantPool constantPool) {
-        json.put(JsonConstants.CHANGE_TYPE, JsonConstants.CHANGE_TYPE_NOOP);
+        json.put(JsonConstants.CHANGE_TYPE_CODE,
+                JsonConstants.CHANGE_TYPE_CODE_NOOP);
         if (NodeList.class.isAssignableFrom(getFeature())) {
             json.put(JsonConstants.CHANGE_FEATURE_TYPE, true);
         } else {
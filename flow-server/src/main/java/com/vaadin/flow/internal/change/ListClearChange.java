@@ -55,7 +55,8 @@ public class ListClearChange<T extends Serializable>
 
     @Override
     protected void populateJson(JsonObject json, ConstantPool constantPool) {
-        json.put(JsonConstants.CHANGE_TYPE, JsonConstants.CHANGE_TYPE_CLEAR);
+        json.put(JsonConstants.CHANGE_TYPE_CODE,
+                JsonConstants.CHANGE_TYPE_CODE_CLEAR);
         super.populateJson(json, constantPool);
     }
 
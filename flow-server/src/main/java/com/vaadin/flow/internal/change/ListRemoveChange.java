@@ -73,7 +73,8 @@ public class ListRemoveChange<T extends Serializable>
 
     @Override
     protected void populateJson(JsonObject json, ConstantPool constantPool) {
-        json.put(JsonConstants.CHANGE_TYPE, JsonConstants.CHANGE_TYPE_SPLICE);
+        json.put(JsonConstants.CHANGE_TYPE_CODE,
+                JsonConstants.CHANGE_TYPE_CODE_SPLICE);
 
         super.populateJson(json, constantPool);
 
@@ -79,7 +79,8 @@ public class MapPutChange extends NodeFeatureChange {
     protected void populateJson(JsonObject json, ConstantPool constantPool) {
         // Set the type and key before calling super to make the keys appear in
         // a more logical order
-        json.put(JsonConstants.CHANGE_TYPE, JsonConstants.CHANGE_TYPE_PUT);
+        json.put(JsonConstants.CHANGE_TYPE_CODE,
+                JsonConstants.CHANGE_TYPE_CODE_PUT);
         json.put(JsonConstants.CHANGE_MAP_KEY, key);
 
         super.populateJson(json, constantPool);
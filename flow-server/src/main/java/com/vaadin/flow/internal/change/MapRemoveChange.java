@@ -61,7 +61,8 @@ public class MapRemoveChange extends NodeFeatureChange {
     protected void populateJson(JsonObject json, ConstantPool constantPool) {
         // Set the type before calling super to make the keys appear in a more
         // logical order
-        json.put(JsonConstants.CHANGE_TYPE, JsonConstants.CHANGE_TYPE_REMOVE);
+        json.put(JsonConstants.CHANGE_TYPE_CODE,
+                JsonConstants.CHANGE_TYPE_CODE_REMOVE);
 
         super.populateJson(json, constantPool);
 
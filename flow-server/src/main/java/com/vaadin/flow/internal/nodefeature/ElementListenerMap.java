@@ -38,6 +38,7 @@ import com.vaadin.flow.function.SerializableRunnable;
 import com.vaadin.flow.internal.ConstantPoolKey;
 import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.internal.StateTree;
 import com.vaadin.flow.shared.JsonConstants;
 
 import elemental.json.Json;
@@ -314,6 +315,7 @@ public class ElementListenerMap extends NodeMap {
                 this, eventType, listener);
 
         listeners.get(eventType).add(listenerWrapper);
+        updateTreeListenerCount(1);
 
         updateEventSettings(eventType);
 
@@ -400,7 +402,9 @@ public class ElementListenerMap extends NodeMap {
         Collection<DomEventListenerWrapper> listenerList = listeners
                 .get(eventType);
         if (listenerList != null) {
-            listenerList.remove(wrapper);
+            if (listenerList.remove(wrapper)) {
+                updateTreeListenerCount(-1);
+            }
 
             // No more listeners of this type?
             if (listenerList.isEmpty()) {
@@ -417,6 +421,30 @@ public class ElementListenerMap extends NodeMap {
         }
     }
 
+    private void updateTreeListenerCount(int delta) {
+        StateNode node = getNode();
+        if (node.getOwner() instanceof StateTree) {
+            ((StateTree) node.getOwner()).updateDomListenerCount(node, delta);
+        }
+    }
+
+    /**
+     * Gets the number of DOM event listeners registered in this map.
+     *
+     * @return the number of listeners
+     */
+    public int getListenerCount() {
+        if (listeners == null) {
+            return 0;
+        }
+        int count = 0;
+        for (List<DomEventListenerWrapper> typeListeners : listeners
+                .values()) {
+            count += typeListeners.size();
+        }
+        return count;
+    }
+
     /**
      * Fires an event to all listeners registered for the given type.
      *
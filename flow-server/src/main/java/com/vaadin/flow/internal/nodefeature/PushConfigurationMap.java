@@ -110,9 +110,10 @@ public class PushConfigurationMap extends NodeMap implements PushConfiguration {
 
     @Override
     public void setFallbackTransport(Transport fallbackTransport) {
-        if (fallbackTransport == Transport.WEBSOCKET_XHR) {
-            throw new IllegalArgumentException(
-                    "WEBSOCKET_XHR can only be used as primary transport");
+        if (fallbackTransport == Transport.WEBSOCKET_XHR
+                || fallbackTransport == Transport.SSE) {
+            throw new IllegalArgumentException(fallbackTransport
+                    + " can only be used as primary transport");
         }
         getParameters().put(FALLBACK_TRANSPORT_KEY,
                 fallbackTransport.getIdentifier());
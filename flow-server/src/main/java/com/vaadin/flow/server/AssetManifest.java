@@ -0,0 +1,330 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonException;
+import elemental.json.JsonObject;
+
+/**
+ * The assets of the production bundle together with their entity tags and
+ * precompressed variants.
+ * <p>
+ * The manifest is generated by the {@code build-frontend} goal into
+ * {@link #MANIFEST_FILE} after the bundle has been built. It lists the files
+ * in {@link #ASSETS_FOLDER}, so {@link StaticFileServer} can answer the
+ * conditional requests and the content encoding negotiation for them without
+ * looking up anything from the class path. Browsers may cache the assets that
+ * have the hash of their content in their name forever, see
+ * {@link Asset#isHashed()}.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public final class AssetManifest implements Serializable {
+
+    /**
+     * Location of the manifest relative to the servlet resources folder
+     * {@code META-INF/VAADIN}.
+     */
+    public static final String MANIFEST_FILE = Constants.VAADIN_CONFIGURATION
+            + "asset-manifest.json";
+
+    /**
+     * The folder of the content hashed assets relative to the web application
+     * resources folder.
+     */
+    public static final String ASSETS_FOLDER = Constants.VAADIN_MAPPING
+            + "build/";
+
+    /**
+     * The content encoding of Brotli compressed variants.
+     */
+    public static final String BROTLI = "br";
+
+    /**
+     * The content encoding of gzip compressed variants.
+     */
+    public static final String GZIP = "gzip";
+
+    private static final Map<String, String> VARIANT_EXTENSIONS = Map
+            .of(BROTLI, ".br", GZIP, ".gz");
+
+    /**
+     * Files smaller than this are not worth compressing.
+     */
+    private static final long MIN_COMPRESSED_SIZE = 1024;
+
+    private static final Set<String> COMPRESSIBLE_EXTENSIONS = Set.of("js",
+            "mjs", "css", "html", "json", "svg", "map", "txt", "xml");
+
+    /**
+     * The hash added to a file name by the bundler, e.g.
+     * {@code index-5b8c0d9e.js} or {@code vendor.5f3c2a1b9d.js}.
+     */
+    private static final Pattern HASHED_NAME = Pattern
+            .compile(".*[-.]([A-Za-z0-9_]{8,})\\.[^/]+$");
+
+    private static final String ETAG_KEY = "etag";
+    private static final String ENCODINGS_KEY = "encodings";
+
+    private static final AssetManifest EMPTY = new AssetManifest(
+            Collections.emptyMap());
+
+    private final Map<String, Asset> assets;
+
+    /**
+     * An asset listed in the manifest.
+     */
+    public static final class Asset implements Serializable {
+        private final String etag;
+        private final Set<String> encodings;
+        private final boolean hashed;
+
+        private Asset(String etag, Set<String> encodings, boolean hashed) {
+            this.etag = etag;
+            this.encodings = encodings;
+            this.hashed = hashed;
+        }
+
+        /**
+         * Gets the entity tag of the asset, derived from its content.
+         *
+         * @return the quoted entity tag
+         */
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * Gets the content encodings of the precompressed variants of the
+         * asset.
+         *
+         * @return the encodings, e.g. {@link #BROTLI} and {@link #GZIP}
+         */
+        public Set<String> getEncodings() {
+            return encodings;
+        }
+
+        /**
+         * Checks whether the name of the asset contains a hash of its
+         * content, so that the content behind the name never changes.
+         *
+         * @return {@code true} if the asset name is content hashed,
+         *         {@code false} otherwise
+         */
+        public boolean isHashed() {
+            return hashed;
+        }
+    }
+
+    private AssetManifest(Map<String, Asset> assets) {
+        this.assets = assets;
+    }
+
+    /**
+     * Gets the asset for the given request path.
+     *
+     * @param filenameWithPath
+     *            the requested path, relative to the context path
+     * @return the asset or {@code null} if the path is not in the manifest
+     */
+    public Asset getAsset(String filenameWithPath) {
+        String path = filenameWithPath.startsWith("/")
+                ? filenameWithPath.substring(1)
+                : filenameWithPath;
+        return assets.get(path);
+    }
+
+    /**
+     * Collects the assets of the built bundle, writing gzip compressed
+     * variants of the compressible assets that do not have one yet.
+     *
+     * @param webappResourcesDirectory
+     *            the folder the bundle is built into, containing
+     *            {@link #ASSETS_FOLDER}
+     * @return the manifest as JSON
+     * @throws IOException
+     *             if the assets cannot be read or compressed
+     */
+    public static JsonObject create(File webappResourcesDirectory)
+            throws IOException {
+        JsonObject manifest = Json.createObject();
+        Path root = webappResourcesDirectory.toPath();
+        Path assetsFolder = root.resolve(ASSETS_FOLDER);
+        if (!Files.isDirectory(assetsFolder)) {
+            return manifest;
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(assetsFolder)) {
+            files = stream.filter(Files::isRegularFile).filter(
+                    file -> !isVariant(file.getFileName().toString()))
+                    .sorted().collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            byte[] content = Files.readAllBytes(file);
+            if (isCompressible(file, content.length)) {
+                writeGzipVariant(file, content);
+            }
+            JsonObject asset = Json.createObject();
+            asset.put(ETAG_KEY, "\"" + HexFormat.of()
+                    .formatHex(digest.digest(content), 0, 16) + "\"");
+            JsonArray encodings = Json.createArray();
+            for (Map.Entry<String, String> variant : VARIANT_EXTENSIONS
+                    .entrySet()) {
+                Path variantFile = file.resolveSibling(
+                        file.getFileName() + variant.getValue());
+                if (Files.isRegularFile(variantFile)) {
+                    encodings.set(encodings.length(), variant.getKey());
+                }
+            }
+            asset.put(ENCODINGS_KEY, encodings);
+            manifest.put(root.relativize(file).toString()
+                    .replace(File.separatorChar, '/'), asset);
+        }
+        return manifest;
+    }
+
+    /**
+     * Reads the manifest from the class path.
+     *
+     * @param classLoader
+     *            the class loader to read the manifest with
+     * @return the manifest, empty if there is none or it cannot be read
+     */
+    static AssetManifest load(ClassLoader classLoader) {
+        String resource = Constants.VAADIN_SERVLET_RESOURCES + MANIFEST_FILE;
+        URL url = classLoader.getResource(resource);
+        if (url == null) {
+            return EMPTY;
+        }
+        try (InputStream stream = url.openStream()) {
+            JsonObject manifest = Json
+                    .parse(IOUtils.toString(stream, StandardCharsets.UTF_8));
+            Map<String, Asset> assets = new HashMap<>();
+            for (String path : manifest.keys()) {
+                JsonObject asset = manifest.getObject(path);
+                JsonArray encodings = asset.getArray(ENCODINGS_KEY);
+                Set<String> variants = new LinkedHashSet<>();
+                for (int i = 0; i < encodings.length(); i++) {
+                    variants.add(encodings.getString(i));
+                }
+                assets.put(path, new Asset(asset.getString(ETAG_KEY),
+                        Collections.unmodifiableSet(variants),
+                        isHashed(path)));
+            }
+            return new AssetManifest(assets);
+        } catch (IOException | JsonException | ClassCastException
+                | NullPointerException e) {
+            getLogger().warn("Unable to read the asset manifest {}", resource,
+                    e);
+            return EMPTY;
+        }
+    }
+
+    /**
+     * Checks whether the given asset path has a content hash added by the
+     * bundler in its file name. A hash is expected to contain digits or upper
+     * case letters, so that e.g. {@code sw-runtime-resources-precache.js} is
+     * not treated as hashed.
+     *
+     * @param path
+     *            the asset path
+     * @return {@code true} if the file name is content hashed,
+     *         {@code false} otherwise
+     */
+    static boolean isHashed(String path) {
+        Matcher matcher = HASHED_NAME.matcher(path);
+        return matcher.matches() && matcher.group(1).chars().anyMatch(
+                c -> Character.isDigit(c) || Character.isUpperCase(c));
+    }
+
+    private static boolean isVariant(String fileName) {
+        return VARIANT_EXTENSIONS.values().stream()
+                .anyMatch(fileName::endsWith);
+    }
+
+    private static boolean isCompressible(Path file, long size) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return size >= MIN_COMPRESSED_SIZE && dot >= 0
+                && COMPRESSIBLE_EXTENSIONS.contains(name.substring(dot + 1));
+    }
+
+    private static void writeGzipVariant(Path file, byte[] content)
+            throws IOException {
+        Path gzipFile = file.resolveSibling(
+                file.getFileName() + VARIANT_EXTENSIONS.get(GZIP));
+        if (Files.isRegularFile(gzipFile)) {
+            return;
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".gz.tmp");
+        try {
+            try (OutputStream out = new GZIPOutputStream(
+                    Files.newOutputStream(temp))) {
+                out.write(content);
+            }
+            if (Files.size(temp) < content.length) {
+                Files.move(temp, gzipFile,
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(AssetManifest.class);
+    }
+}
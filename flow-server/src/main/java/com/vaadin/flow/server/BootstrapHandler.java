@@ -87,6 +87,7 @@ import com.vaadin.flow.shared.VaadinUriResolver;
 import com.vaadin.flow.shared.communication.PushMode;
 import com.vaadin.flow.shared.ui.Dependency;
 import com.vaadin.flow.shared.ui.LoadMode;
+import com.vaadin.flow.shared.ui.Transport;
 
 import elemental.json.Json;
 import elemental.json.JsonArray;
@@ -347,7 +348,7 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                             .getPushMode();
                 }
 
-                if (pushMode.isEnabled()
+                if (pushMode.isEnabled() && !isSsePush()
                         && !getService().ensurePushAvailable()) {
                     /*
                      * Fall back if not supported (ensurePushAvailable will log
@@ -359,6 +360,23 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
             return pushMode;
         }
 
+        /**
+         * Checks whether the Atmosphere push client script needs to be loaded,
+         * i.e. whether push is enabled with a transport other than
+         * {@link Transport#SSE}.
+         *
+         * @return {@code true} if the push script is needed, {@code false}
+         *         otherwise
+         */
+        public boolean isPushScriptNeeded() {
+            return getPushMode().isEnabled() && !isSsePush();
+        }
+
+        private boolean isSsePush() {
+            return getUI().getPushConfiguration()
+                    .getTransport() == Transport.SSE;
+        }
+
         /**
          * Gets the application id.
          *
@@ -980,7 +998,7 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                         "Unable to read webpack stats file.", e);
             }
 
-            if (context.getPushMode().isEnabled()) {
+            if (context.isPushScriptNeeded()) {
                 head.appendChild(
                         createJavaScriptElement(getPushScript(context)));
             }
@@ -1450,6 +1468,16 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
                 appConfig.put("requestTiming", true);
             }
 
+            if (deploymentConfiguration.getBooleanProperty(
+                    InitParameters.UIDL_TIME_SLICING, false)) {
+                appConfig.put(ApplicationConstants.UIDL_TIME_SLICING, true);
+            }
+
+            if (deploymentConfiguration.getBooleanProperty(
+                    InitParameters.CLIENT_METRICS, false)) {
+                appConfig.put(ApplicationConstants.CLIENT_METRICS, true);
+            }
+
             appConfig.put("heartbeatInterval",
                     deploymentConfiguration.getHeartbeatInterval());
 
@@ -1524,9 +1552,10 @@ public class BootstrapHandler extends SynchronizedRequestHandler {
         PushMode pushMode = push.map(Push::value)
                 .orElseGet(deploymentConfiguration::getPushMode);
         setupPushConnectionFactory(pushConfiguration, context);
+        // The transport decides the type of the push connection
+        push.map(Push::transport).ifPresent(pushConfiguration::setTransport);
         pushConfiguration.setPushMode(pushMode);
         pushConfiguration.setPushUrl(deploymentConfiguration.getPushURL());
-        push.map(Push::transport).ifPresent(pushConfiguration::setTransport);
 
         // Set thread local here so it is available in init
         UI.setCurrent(ui);
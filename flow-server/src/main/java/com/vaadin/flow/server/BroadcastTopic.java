@@ -0,0 +1,152 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.internal.JsonUtils;
+import com.vaadin.flow.shared.Registration;
+
+import elemental.json.Json;
+import elemental.json.JsonValue;
+
+/**
+ * A named topic for publishing the same data to many UIs. A published value is
+ * serialized only once and then delivered to every subscribed UI as part of the
+ * next message sent to it, in order with the other changes of that UI.
+ * <p>
+ * On the client side, each delivered value is dispatched as a
+ * <code>vaadin-broadcast</code> DOM event on the window, with the topic name
+ * and the published value in the <code>topic</code> and <code>data</code>
+ * properties of the event detail:
+ *
+ * <pre>
+ * window.addEventListener('vaadin-broadcast', e =&gt; {
+ *     if (e.detail.topic === 'ticker') {
+ *         updateTicker(e.detail.data);
+ *     }
+ * });
+ * </pre>
+ * <p>
+ * With push enabled, values are pushed as soon as they are published.
+ * Otherwise, they are delivered with the next response to the client.
+ * Subscriptions are removed when the UI is detached. Subscriptions are not
+ * serialized, so UIs must subscribe again after their session has been
+ * deserialized.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class BroadcastTopic implements Serializable {
+
+    private final String name;
+
+    private transient Set<UI> subscribers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a new topic with the given name.
+     *
+     * @param name
+     *            the name of the topic, used to identify published values on
+     *            the client side, not <code>null</code>
+     */
+    public BroadcastTopic(String name) {
+        this.name = Objects.requireNonNull(name, "Name cannot be null");
+    }
+
+    /**
+     * Gets the name of this topic.
+     *
+     * @return the name of the topic, not <code>null</code>
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Subscribes the given UI to values published to this topic. The session
+     * of the UI must be locked.
+     *
+     * @param ui
+     *            the UI to subscribe, not <code>null</code>
+     * @return a handle that can be used for unsubscribing
+     */
+    public Registration subscribe(UI ui) {
+        Objects.requireNonNull(ui, "UI cannot be null");
+        VaadinSession session = ui.getSession();
+        if (session == null) {
+            throw new UIDetachedException("Cannot subscribe a detached UI");
+        }
+        session.checkHasLock();
+
+        subscribers.add(ui);
+        Registration detachRegistration = ui
+                .addDetachListener(event -> subscribers.remove(ui));
+        return Registration.once(() -> {
+            subscribers.remove(ui);
+            detachRegistration.remove();
+        });
+    }
+
+    /**
+     * Gets the number of UIs currently subscribed to this topic.
+     *
+     * @return the number of subscribed UIs
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Publishes a value to all UIs subscribed to this topic. The value is
+     * serialized once and then queued for each UI using
+     * {@link UI#access(com.vaadin.flow.server.Command)}, so this method does
+     * not wait for any session lock.
+     *
+     * @param data
+     *            the value to publish, or <code>null</code> to publish a JSON
+     *            <code>null</code>
+     */
+    public void publish(JsonValue data) {
+        String message = JsonUtils.createArray(Json.create(name),
+                data == null ? Json.createNull() : data).toJson();
+
+        for (UI ui : subscribers) {
+            try {
+                ui.access(() -> {
+                    if (subscribers.contains(ui)) {
+                        ui.getInternals().addPendingBroadcast(message);
+                    }
+                });
+            } catch (UIDetachedException e) {
+                subscribers.remove(ui);
+            }
+        }
+    }
+
+    private void readObject(ObjectInputStream stream)
+            throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        subscribers = ConcurrentHashMap.newKeySet();
+    }
+}
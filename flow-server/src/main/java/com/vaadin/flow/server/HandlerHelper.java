@@ -78,7 +78,11 @@ public class HandlerHelper implements Serializable {
         /**
          * Push requests (any transport).
          */
-        PUSH(ApplicationConstants.REQUEST_TYPE_PUSH);
+        PUSH(ApplicationConstants.REQUEST_TYPE_PUSH),
+        /**
+         * Server-sent events push requests.
+         */
+        SSE(ApplicationConstants.REQUEST_TYPE_SSE);
 
         private String identifier;
 
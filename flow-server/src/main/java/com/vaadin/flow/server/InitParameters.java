@@ -221,4 +221,133 @@ public class InitParameters implements Serializable {
      * @since
      */
     public static final String ADDITIONAL_POSTINSTALL_PACKAGES = "npm.postinstallPackages";
+
+    /**
+     * Configuration name for the parameter that determines whether session
+     * memory footprints are exposed through JMX.
+     *
+     * @since
+     */
+    public static final String FOOTPRINT_JMX = "footprint.jmx";
+
+    /**
+     * Configuration name for the soft limit of state nodes attached to a single
+     * UI. Non-positive values disable the limit.
+     *
+     * @since
+     */
+    public static final String FOOTPRINT_MAX_STATE_NODES = "footprint.maxStateNodes";
+
+    /**
+     * Configuration name for the soft limit of DOM event listeners registered
+     * in a single UI. Non-positive values disable the limit.
+     *
+     * @since
+     */
+    public static final String FOOTPRINT_MAX_DOM_LISTENERS = "footprint.maxDomListeners";
+
+    /**
+     * Configuration name for the soft limit of tasks waiting to be run before
+     * the next client response in a single UI. Non-positive values disable the
+     * limit.
+     *
+     * @since
+     */
+    public static final String FOOTPRINT_MAX_PENDING_BEFORE_CLIENT_RESPONSE = "footprint.maxPendingBeforeClientResponse";
+
+    /**
+     * Configuration name for the soft limit of stream resources registered in
+     * a single session. Non-positive values disable the limit.
+     *
+     * @since
+     */
+    public static final String FOOTPRINT_MAX_STREAM_RESOURCES = "footprint.maxStreamResources";
+
+    /**
+     * Configuration name for the action taken when a footprint soft limit is
+     * exceeded: {@code log} (default) or {@code close}.
+     *
+     * @since
+     */
+    public static final String FOOTPRINT_LIMIT_ACTION = "footprint.limitAction";
+
+    /**
+     * Configuration name for the parameter that enables collecting request
+     * pipeline timings in memory, see
+     * {@link com.vaadin.flow.server.metrics.InMemoryRequestMetrics}.
+     *
+     * @since
+     */
+    public static final String REQUEST_METRICS = "requestMetrics";
+
+    /**
+     * Configuration name for the time in milliseconds after which waiting for
+     * or holding a session lock is logged together with the relevant stack
+     * trace. Disabled by default.
+     *
+     * @since
+     */
+    public static final String SESSION_LOCK_SLOW_THRESHOLD = "sessionLock.slowThreshold";
+
+    /**
+     * Configuration name for the parameter that determines whether static
+     * resources served by {@link StaticFileServer} are looked up only once and
+     * small resources kept in memory in production mode. Enabled by default.
+     *
+     * @since
+     */
+    public static final String STATIC_RESOURCE_CACHE = "staticResourceCache";
+
+    /**
+     * Configuration name for the parameter that determines whether compiled
+     * classes and local frontend resources are watched in development mode,
+     * so that the generated frontend files are updated when they change.
+     * Enabled by default.
+     *
+     * @since
+     */
+    public static final String FRONTEND_WATCHER = "devmode.frontendWatcher";
+
+    /**
+     * Configuration name for the parameter that determines whether the client
+     * applies the state changes of large messages from the server in chunks
+     * spread over several animation frames, instead of blocking the browser
+     * until the whole message has been processed. Disabled by default.
+     *
+     * @since
+     */
+    public static final String UIDL_TIME_SLICING = "uidlTimeSlicing";
+
+    /**
+     * Configuration name for the parameter that determines whether UIDL
+     * responses and stream resource downloads are written using servlet
+     * non-blocking I/O, so that no container thread is held while the data is
+     * transferred to a slow client. Disabled by default.
+     *
+     * @since
+     */
+    public static final String ASYNC_RESPONSE_WRITES = "asyncResponseWrites";
+
+    /**
+     * Configuration name for the parameter that determines whether the client
+     * collects rendering performance metrics and periodically reports them to
+     * the server, where they are passed to the listeners added using
+     * {@link VaadinService#addClientMetricsListener(com.vaadin.flow.server.metrics.ClientMetricsListener)}.
+     * Disabled by default.
+     *
+     * @since
+     */
+    public static final String CLIENT_METRICS = "clientMetrics";
+
+    /**
+     * Configuration name for the parameter that determines whether the startup
+     * initializers are given the classes listed in the startup snapshot
+     * generated by the {@code build-frontend} goal, instead of the classes
+     * found by the servlet container, in production mode. A snapshot that is
+     * not regenerated when the application classes change lists outdated
+     * classes. Disabled by default.
+     *
+     * @since
+     */
+    public static final String STARTUP_SNAPSHOT = "startupSnapshot";
 }
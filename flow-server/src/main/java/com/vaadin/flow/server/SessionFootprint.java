@@ -0,0 +1,143 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+import com.vaadin.flow.component.UI;
+
+/**
+ * A snapshot of the server side memory footprint of a {@link VaadinSession}
+ * and the UIs it contains.
+ *
+ * @author Vaadin Ltd
+ * @since
+ * @see VaadinService#getSessionFootprint(VaadinSession)
+ */
+public class SessionFootprint implements Serializable {
+
+    private final String sessionId;
+    private final int streamResourceCount;
+    private final List<UIFootprint> uis;
+
+    /**
+     * Creates a new footprint snapshot.
+     *
+     * @param sessionId
+     *            the id of the underlying HTTP session, or an empty string if
+     *            not known
+     * @param streamResourceCount
+     *            the number of registered stream resources
+     * @param uis
+     *            the footprints of the UIs in the session, not
+     *            <code>null</code>
+     */
+    public SessionFootprint(String sessionId, int streamResourceCount,
+            List<UIFootprint> uis) {
+        this.sessionId = sessionId;
+        this.streamResourceCount = streamResourceCount;
+        this.uis = Collections.unmodifiableList(new ArrayList<>(uis));
+    }
+
+    /**
+     * Creates a footprint snapshot of the given session. The session must be
+     * locked.
+     *
+     * @param session
+     *            the session to create a snapshot for, not <code>null</code>
+     * @return the footprint of the session, not <code>null</code>
+     */
+    public static SessionFootprint of(VaadinSession session) {
+        session.checkHasLock();
+        List<UIFootprint> uis = new ArrayList<>();
+        for (UI ui : session.getUIs()) {
+            uis.add(UIFootprint.of(ui));
+        }
+        WrappedSession wrappedSession = session.getSession();
+        return new SessionFootprint(
+                wrappedSession == null ? "" : wrappedSession.getId(),
+                session.getResourceRegistry().getResourceCount(), uis);
+    }
+
+    /**
+     * Gets the id of the underlying HTTP session.
+     *
+     * @return the session id, or an empty string if not known
+     */
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Gets the number of stream resources registered in the session.
+     *
+     * @return the number of stream resources
+     */
+    public int getStreamResourceCount() {
+        return streamResourceCount;
+    }
+
+    /**
+     * Gets the footprints of the UIs in the session.
+     *
+     * @return an unmodifiable list of UI footprints
+     */
+    public List<UIFootprint> getUis() {
+        return uis;
+    }
+
+    /**
+     * Gets the total number of state nodes in all UIs of the session.
+     *
+     * @return the number of state nodes
+     */
+    public int getStateNodeCount() {
+        return sum(UIFootprint::getStateNodeCount);
+    }
+
+    /**
+     * Gets the total number of DOM event listeners in all UIs of the session.
+     *
+     * @return the number of DOM event listeners
+     */
+    public int getDomListenerCount() {
+        return sum(UIFootprint::getDomListenerCount);
+    }
+
+    /**
+     * Gets the total number of pending before client response tasks in all
+     * UIs of the session.
+     *
+     * @return the number of pending before client response tasks
+     */
+    public int getPendingBeforeClientResponseCount() {
+        return sum(UIFootprint::getPendingBeforeClientResponseCount);
+    }
+
+    private int sum(ToIntFunction<UIFootprint> counter) {
+        return uis.stream().mapToInt(counter).sum();
+    }
+
+    @Override
+    public String toString() {
+        return "Session " + sessionId + " [streamResources="
+                + streamResourceCount + ", uis=" + uis + "]";
+    }
+}
@@ -0,0 +1,294 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.function.DeploymentConfiguration;
+
+/**
+ * Keeps track of the latest memory footprint of each session of a service and
+ * enforces the configured soft limits.
+ * <p>
+ * Footprints are recorded by {@link VaadinService} at the end of each request
+ * while the session is still locked, so reading them through JMX never
+ * touches the session state from a foreign thread.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+class SessionFootprintMonitor implements SessionFootprintMonitorMXBean {
+
+    /**
+     * The action taken when a UI or session exceeds a soft limit.
+     */
+    enum LimitAction {
+        LOG, CLOSE;
+    }
+
+    private final Map<VaadinSession, SessionFootprint> footprints = Collections
+            .synchronizedMap(new WeakHashMap<>());
+
+    private final Set<UI> reportedUIs = Collections
+            .synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final int maxStateNodes;
+    private final int maxDomListeners;
+    private final int maxPendingBeforeClientResponse;
+    private final int maxStreamResources;
+    private final LimitAction limitAction;
+
+    private ObjectName objectName;
+
+    /**
+     * Creates a new monitor using the limits of the given configuration.
+     *
+     * @param configuration
+     *            the deployment configuration to read the limits from
+     */
+    SessionFootprintMonitor(DeploymentConfiguration configuration) {
+        maxStateNodes = getLimit(configuration,
+                InitParameters.FOOTPRINT_MAX_STATE_NODES);
+        maxDomListeners = getLimit(configuration,
+                InitParameters.FOOTPRINT_MAX_DOM_LISTENERS);
+        maxPendingBeforeClientResponse = getLimit(configuration,
+                InitParameters.FOOTPRINT_MAX_PENDING_BEFORE_CLIENT_RESPONSE);
+        maxStreamResources = getLimit(configuration,
+                InitParameters.FOOTPRINT_MAX_STREAM_RESOURCES);
+        String action = configuration.getStringProperty(
+                InitParameters.FOOTPRINT_LIMIT_ACTION, LimitAction.LOG.name());
+        try {
+            limitAction = LimitAction
+                    .valueOf(action.trim().toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format(
+                    "Property named '%s' must be either 'log' or 'close', but contains '%s'",
+                    InitParameters.FOOTPRINT_LIMIT_ACTION, action), e);
+        }
+    }
+
+    /**
+     * Checks whether footprint monitoring is needed for the given
+     * configuration, i.e. if JMX exposure or any of the soft limits is
+     * enabled.
+     *
+     * @param configuration
+     *            the deployment configuration to check
+     * @return <code>true</code> if a monitor should be created,
+     *         <code>false</code> otherwise
+     */
+    static boolean isEnabled(DeploymentConfiguration configuration) {
+        return configuration.getBooleanProperty(InitParameters.FOOTPRINT_JMX,
+                false)
+                || getLimit(configuration,
+                        InitParameters.FOOTPRINT_MAX_STATE_NODES) > 0
+                || getLimit(configuration,
+                        InitParameters.FOOTPRINT_MAX_DOM_LISTENERS) > 0
+                || getLimit(configuration,
+                        InitParameters.FOOTPRINT_MAX_PENDING_BEFORE_CLIENT_RESPONSE) > 0
+                || getLimit(configuration,
+                        InitParameters.FOOTPRINT_MAX_STREAM_RESOURCES) > 0;
+    }
+
+    /**
+     * Records the current footprint of the given session and applies the soft
+     * limits to it. The session must be locked.
+     *
+     * @param session
+     *            the session to update
+     * @return the recorded footprint
+     */
+    SessionFootprint update(VaadinSession session) {
+        SessionFootprint footprint = SessionFootprint.of(session);
+        footprints.put(session, footprint);
+
+        if (maxStreamResources > 0
+                && footprint.getStreamResourceCount() > maxStreamResources) {
+            getLogger().warn(
+                    "Session {} has {} registered stream resources which exceeds the limit of {}",
+                    footprint.getSessionId(),
+                    footprint.getStreamResourceCount(), maxStreamResources);
+        }
+
+        for (UIFootprint uiFootprint : footprint.getUis()) {
+            String exceeded = getExceededLimit(uiFootprint);
+            if (exceeded == null) {
+                continue;
+            }
+            UI ui = session.getUIById(uiFootprint.getUiId());
+            if (ui == null || ui.isClosing()) {
+                continue;
+            }
+            if (limitAction == LimitAction.CLOSE) {
+                getLogger().warn("Closing UI #{} in session {}: {}",
+                        uiFootprint.getUiId(), footprint.getSessionId(),
+                        exceeded);
+                ui.close();
+            } else if (reportedUIs.add(ui)) {
+                getLogger().warn("UI #{} in session {} ({}): {}",
+                        uiFootprint.getUiId(), footprint.getSessionId(),
+                        uiFootprint.getLocation(), exceeded);
+            }
+        }
+        return footprint;
+    }
+
+    /**
+     * Forgets the footprint of the given session.
+     *
+     * @param session
+     *            the session to remove
+     */
+    void remove(VaadinSession session) {
+        footprints.remove(session);
+    }
+
+    /**
+     * Registers this monitor to the platform MBean server using a name derived
+     * from the given service name.
+     *
+     * @param serviceName
+     *            the name of the service this monitor belongs to
+     */
+    void registerMBean(String serviceName) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(
+                    "com.vaadin.flow:type=SessionFootprint,service="
+                            + ObjectName.quote(serviceName + "@" + Integer
+                                    .toHexString(System.identityHashCode(this))));
+            server.registerMBean(this, name);
+            objectName = name;
+        } catch (JMException e) {
+            getLogger().warn("Unable to register session footprint MBean", e);
+        }
+    }
+
+    /**
+     * Unregisters this monitor from the platform MBean server if it has been
+     * registered.
+     */
+    void unregisterMBean() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .unregisterMBean(objectName);
+        } catch (JMException e) {
+            getLogger().debug("Unable to unregister session footprint MBean",
+                    e);
+        }
+        objectName = null;
+    }
+
+    @Override
+    public int getSessionCount() {
+        return footprints.size();
+    }
+
+    @Override
+    public long getTotalStateNodeCount() {
+        return sum(SessionFootprint::getStateNodeCount);
+    }
+
+    @Override
+    public long getTotalDomListenerCount() {
+        return sum(SessionFootprint::getDomListenerCount);
+    }
+
+    @Override
+    public long getTotalStreamResourceCount() {
+        return sum(SessionFootprint::getStreamResourceCount);
+    }
+
+    @Override
+    public List<SessionFootprint> getSessionFootprints() {
+        synchronized (footprints) {
+            return new ArrayList<>(footprints.values());
+        }
+    }
+
+    @Override
+    public List<SessionFootprint> getLargestSessions(int count) {
+        return getSessionFootprints().stream()
+                .sorted(Comparator
+                        .comparingInt(SessionFootprint::getStateNodeCount)
+                        .reversed())
+                .limit(Math.max(0, count)).collect(Collectors.toList());
+    }
+
+    private long sum(ToLongFunction<SessionFootprint> counter) {
+        return getSessionFootprints().stream().mapToLong(counter).sum();
+    }
+
+    private String getExceededLimit(UIFootprint footprint) {
+        if (maxStateNodes > 0 && footprint.getStateNodeCount() > maxStateNodes) {
+            return String.format("%d state nodes exceeds the limit of %d",
+                    footprint.getStateNodeCount(), maxStateNodes);
+        }
+        if (maxDomListeners > 0
+                && footprint.getDomListenerCount() > maxDomListeners) {
+            return String.format("%d DOM listeners exceeds the limit of %d",
+                    footprint.getDomListenerCount(), maxDomListeners);
+        }
+        if (maxPendingBeforeClientResponse > 0 && footprint
+                .getPendingBeforeClientResponseCount() > maxPendingBeforeClientResponse) {
+            return String.format(
+                    "%d pending before client response tasks exceeds the limit of %d",
+                    footprint.getPendingBeforeClientResponseCount(),
+                    maxPendingBeforeClientResponse);
+        }
+        return null;
+    }
+
+    private static int getLimit(DeploymentConfiguration configuration,
+            String propertyName) {
+        String value = configuration.getStringProperty(propertyName, null);
+        if (value == null || value.trim().isEmpty()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format(
+                    "Property named '%s' is an integer, but contains incorrect value '%s'",
+                    propertyName, value), e);
+        }
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(SessionFootprintMonitor.class);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.List;
+
+/**
+ * JMX management interface exposing the latest known memory footprints of the
+ * sessions of a {@link VaadinService}.
+ * <p>
+ * The footprints are snapshots taken at the end of the latest request of each
+ * session.
+ *
+ * @author Vaadin Ltd
+ * @since
+ * @see InitParameters#FOOTPRINT_JMX
+ */
+public interface SessionFootprintMonitorMXBean {
+
+    /**
+     * Gets the number of sessions with a known footprint.
+     *
+     * @return the number of sessions
+     */
+    int getSessionCount();
+
+    /**
+     * Gets the total number of state nodes in all known sessions.
+     *
+     * @return the number of state nodes
+     */
+    long getTotalStateNodeCount();
+
+    /**
+     * Gets the total number of DOM event listeners in all known sessions.
+     *
+     * @return the number of DOM event listeners
+     */
+    long getTotalDomListenerCount();
+
+    /**
+     * Gets the total number of stream resources in all known sessions.
+     *
+     * @return the number of stream resources
+     */
+    long getTotalStreamResourceCount();
+
+    /**
+     * Gets the footprints of all known sessions.
+     *
+     * @return the session footprints
+     */
+    List<SessionFootprint> getSessionFootprints();
+
+    /**
+     * Gets the footprints of the sessions with most state nodes.
+     *
+     * @param count
+     *            the maximum number of sessions to return
+     * @return the session footprints, largest first
+     */
+    List<SessionFootprint> getLargestSessions(int count);
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.server.metrics.RequestMetrics;
+
+/**
+ * The lock used by {@link VaadinService} to lock a {@link VaadinSession}.
+ * <p>
+ * In addition to being a regular {@link ReentrantLock}, the lock keeps track
+ * of when it was acquired by the current holder and reports the time spent
+ * waiting for and holding the lock to the {@link RequestMetrics} of the
+ * service. When a slow threshold is configured using
+ * {@link InitParameters#SESSION_LOCK_SLOW_THRESHOLD}, a thread that has to
+ * wait longer than the threshold logs the stack trace of the thread holding
+ * the lock, and a holder that keeps the lock longer than the threshold logs
+ * the stack trace where the lock was acquired.
+ * <p>
+ * Only a couple of {@link System#nanoTime()} calls are added to the regular
+ * locking in the uncontended case. The acquisition site is only recorded when
+ * a slow threshold is configured.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class SessionLock extends ReentrantLock {
+
+    private transient VaadinService service;
+
+    private transient volatile long acquiredNanos;
+
+    private transient volatile Exception acquiredAt;
+
+    /**
+     * Creates a new session lock reporting to the given service.
+     *
+     * @param service
+     *            the service that uses the lock, or <code>null</code> to not
+     *            collect any metrics
+     */
+    public SessionLock(VaadinService service) {
+        this.service = service;
+    }
+
+    @Override
+    public void lock() {
+        long start = System.nanoTime();
+        long threshold = getSlowThresholdNanos();
+        if (threshold <= 0) {
+            super.lock();
+        } else if (!super.tryLock()) {
+            boolean interrupted = false;
+            boolean acquired;
+            try {
+                acquired = super.tryLock(threshold, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+                acquired = false;
+            }
+            if (!acquired) {
+                if (!interrupted) {
+                    reportSlowWait(System.nanoTime() - start);
+                }
+                super.lock();
+            }
+            if (interrupted) {
+                // lock() is not interruptible, preserve the status
+                Thread.currentThread().interrupt();
+            }
+        }
+        acquired(start);
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        long start = System.nanoTime();
+        super.lockInterruptibly();
+        acquired(start);
+    }
+
+    @Override
+    public boolean tryLock() {
+        long start = System.nanoTime();
+        if (super.tryLock()) {
+            acquired(start);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean tryLock(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        if (super.tryLock(timeout, unit)) {
+            acquired(start);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void unlock() {
+        long acquired = acquiredNanos;
+        if (acquired != 0 && getHoldCount() == 1) {
+            long holdTime = System.nanoTime() - acquired;
+            acquiredNanos = 0;
+            Exception acquisitionSite = acquiredAt;
+            acquiredAt = null;
+            RequestMetrics.get(service)
+                    .recordTime(RequestMetrics.SESSION_LOCK_HOLD, holdTime);
+            long threshold = getSlowThresholdNanos();
+            if (threshold > 0 && holdTime > threshold) {
+                reportSlowHold(holdTime, acquisitionSite);
+            }
+        }
+        super.unlock();
+    }
+
+    /**
+     * Gets the thread that currently holds the lock.
+     *
+     * @return the holder thread, or <code>null</code> if the lock is not held
+     */
+    public Thread getHolder() {
+        return getOwner();
+    }
+
+    /**
+     * Gets for how long the lock has been held by the current holder.
+     *
+     * @return the hold time in nanoseconds, or 0 if the lock is not held
+     */
+    public long getHoldTimeNanos() {
+        long acquired = acquiredNanos;
+        return acquired == 0 ? 0 : System.nanoTime() - acquired;
+    }
+
+    /**
+     * Sets the service to report to if it has not been set, e.g. after the
+     * lock has been deserialized together with the HTTP session.
+     *
+     * @param service
+     *            the service that uses the lock
+     */
+    void attach(VaadinService service) {
+        if (this.service == null) {
+            this.service = service;
+        }
+    }
+
+    private void acquired(long start) {
+        if (getHoldCount() == 1) {
+            long now = System.nanoTime();
+            // 0 is used as "not held" marker
+            acquiredNanos = now == 0 ? 1 : now;
+            if (getSlowThresholdNanos() > 0) {
+                acquiredAt = new Exception(
+                        "Stack trace of session lock acquisition");
+            }
+            RequestMetrics.get(service)
+                    .recordTime(RequestMetrics.SESSION_LOCK_WAIT, now - start);
+        }
+    }
+
+    private long getSlowThresholdNanos() {
+        return service == null ? 0 : service.getSessionLockSlowThresholdNanos();
+    }
+
+    private void reportSlowWait(long waitTime) {
+        Thread holder = getOwner();
+        if (holder == null) {
+            // Released just now
+            return;
+        }
+        Exception holderStack = new Exception(
+                "Stack trace of session lock holder " + holder.getName());
+        holderStack.setStackTrace(holder.getStackTrace());
+        getLogger().warn(
+                "Thread {} has waited {} ms for a session lock held by thread {} for {} ms",
+                Thread.currentThread().getName(),
+                TimeUnit.NANOSECONDS.toMillis(waitTime), holder.getName(),
+                TimeUnit.NANOSECONDS.toMillis(getHoldTimeNanos()),
+                holderStack);
+    }
+
+    private void reportSlowHold(long holdTime, Exception acquisitionSite) {
+        // The acquisition site is null if the lock was acquired before the
+        // service was attached
+        getLogger().warn("Thread {} held a session lock for {} ms",
+                Thread.currentThread().getName(),
+                TimeUnit.NANOSECONDS.toMillis(holdTime), acquisitionSite);
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(SessionLock.class);
+    }
+}
@@ -21,6 +21,7 @@ import jakarta.servlet.http.HttpServletResponse;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Serializable;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
@@ -40,6 +41,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.internal.BoundedResourceCache;
 import com.vaadin.flow.internal.DevModeHandler;
 import com.vaadin.flow.internal.DevModeHandlerManager;
 import com.vaadin.flow.internal.ResponseWriter;
@@ -67,6 +69,9 @@ public class StaticFileServer implements StaticFileHandler {
             .compile("^/frontend[-\\w/]*/webjars/");
 
     private final ResponseWriter responseWriter;
+    private final BoundedResourceCache<ResolvedResource> resourceCache;
+    private final BoundedResourceCache<Long> lastModifiedCache;
+    private final AssetManifest assetManifest;
     private final VaadinService vaadinService;
     private DeploymentConfiguration deploymentConfiguration;
     private DevModeHandler devModeHandler;
@@ -79,6 +84,18 @@ public class StaticFileServer implements StaticFileHandler {
     static final Map<URI, Integer> openFileSystems = new HashMap<>();
     private static final Object fileSystemLock = new Object();
 
+    /**
+     * The result of resolving a request path to a resource, cached in
+     * production mode.
+     */
+    private static final class ResolvedResource implements Serializable {
+        private final URL url;
+
+        private ResolvedResource(URL url) {
+            this.url = url;
+        }
+    }
+
     /**
      * Constructs a file server.
      *
@@ -88,7 +105,18 @@ public class StaticFileServer implements StaticFileHandler {
     public StaticFileServer(VaadinService vaadinService) {
         this.vaadinService = vaadinService;
         deploymentConfiguration = vaadinService.getDeploymentConfiguration();
-        responseWriter = new ResponseWriter(deploymentConfiguration);
+        boolean cacheResources = deploymentConfiguration.isProductionMode()
+                && deploymentConfiguration.getBooleanProperty(
+                        InitParameters.STATIC_RESOURCE_CACHE, true);
+        resourceCache = cacheResources ? new BoundedResourceCache<>() : null;
+        lastModifiedCache = cacheResources ? new BoundedResourceCache<>()
+                : null;
+        responseWriter = new ResponseWriter(deploymentConfiguration,
+                cacheResources);
+        ClassLoader classLoader = vaadinService.getClassLoader();
+        assetManifest = deploymentConfiguration.isProductionMode()
+                && classLoader != null ? AssetManifest.load(classLoader)
+                        : null;
 
         this.devModeHandler = DevModeHandlerManager
                 .getDevModeHandler(vaadinService).orElse(null);
@@ -246,6 +274,86 @@ public class StaticFileServer implements StaticFileHandler {
             return true;
         }
 
+        URL resourceUrl;
+        if (resourceCache != null) {
+            // Production mode resources do not change, so avoid looking them
+            // up from the class path on every request
+            resourceUrl = resolveCached(filenameWithPath).url;
+        } else {
+            resourceUrl = findResource(filenameWithPath);
+        }
+
+        if (resourceUrl == null) {
+            // Not found in webcontent or in META-INF/resources in some JAR or
+            // is a directory
+            return false;
+        }
+
+        // There is a resource!
+
+        AssetManifest.Asset asset = assetManifest == null ? null
+                : assetManifest.getAsset(filenameWithPath);
+        if (asset != null) {
+            // Bundle asset, everything needed is in memory
+            if (asset.isHashed()) {
+                response.setHeader("Cache-Control",
+                        "public, max-age=31536000, immutable");
+            } else {
+                writeCacheHeaders(filenameWithPath, response);
+            }
+            response.setHeader("ETag", asset.getEtag());
+            if (!asset.getEncodings().isEmpty()) {
+                // Also for 304 responses, which must repeat the header
+                response.setHeader("Vary", "Accept-Encoding");
+            }
+            if (matchesEtag(request, asset.getEtag())) {
+                response.setStatus(HttpStatusCode.NOT_MODIFIED.getCode());
+                return true;
+            }
+            responseWriter.writeResponseContents(filenameWithPath,
+                    resourceUrl, asset.getEncodings(), request, response);
+            return true;
+        }
+
+        // Intentionally writing cache headers also for 304 responses
+        writeCacheHeaders(filenameWithPath, response);
+
+        long timestamp = writeModificationTimestamp(resourceUrl, request,
+                response);
+        if (browserHasNewestVersion(request, timestamp)) {
+            // Browser is up to date, nothing further to do than set the
+            // response code
+            response.setStatus(HttpStatusCode.NOT_MODIFIED.getCode());
+            return true;
+        }
+        responseWriter.writeResponseContents(filenameWithPath, resourceUrl,
+                request, response);
+        return true;
+    }
+
+    private ResolvedResource resolveCached(String filenameWithPath) {
+        ResolvedResource resolved = resourceCache.get(filenameWithPath);
+        if (resolved == null) {
+            URL url = findResource(filenameWithPath);
+            resolved = new ResolvedResource(url);
+            if (url != null) {
+                lastModifiedCache.putIfAbsent(url.toExternalForm(),
+                        getLastModified(url));
+            }
+            resourceCache.putIfAbsent(filenameWithPath, resolved);
+        }
+        return resolved;
+    }
+
+    /**
+     * Finds the resource to serve for the given path.
+     *
+     * @param filenameWithPath
+     *            the requested path
+     * @return the URL of the resource, or <code>null</code> if there is no
+     *         resource to serve for the path
+     */
+    private URL findResource(String filenameWithPath) {
         URL resourceUrl = null;
         if (APP_THEME_PATTERN.matcher(filenameWithPath).find()) {
             resourceUrl = vaadinService.getClassLoader()
@@ -269,34 +377,13 @@ public class StaticFileServer implements StaticFileHandler {
                     fixIncorrectWebjarPath(filenameWithPath));
         }
 
-        if (resourceUrl == null) {
-            // Not found in webcontent or in META-INF/resources in some JAR
-            return false;
-        }
-
-        if (resourceIsDirectory(resourceUrl)) {
+        if (resourceUrl != null && resourceIsDirectory(resourceUrl)) {
             // Directories are not static resources although
             // servletContext.getResource will return a URL for them, at
             // least with Jetty
-            return false;
+            return null;
         }
-
-        // There is a resource!
-
-        // Intentionally writing cache headers also for 304 responses
-        writeCacheHeaders(filenameWithPath, response);
-
-        long timestamp = writeModificationTimestamp(resourceUrl, request,
-                response);
-        if (browserHasNewestVersion(request, timestamp)) {
-            // Browser is up to date, nothing further to do than set the
-            // response code
-            response.setStatus(HttpStatusCode.NOT_MODIFIED.getCode());
-            return true;
-        }
-        responseWriter.writeResponseContents(filenameWithPath, resourceUrl,
-                request, response);
-        return true;
+        return resourceUrl;
     }
 
     /**
@@ -357,6 +444,8 @@ public class StaticFileServer implements StaticFileHandler {
 
     /**
      * Writes the modification timestamp info for the file into the response.
+     * When resources are cached, the timestamp read when the resource was
+     * first resolved is used.
      *
      * @param resourceUrl
      *            the internal URL of the file
@@ -368,6 +457,18 @@ public class StaticFileServer implements StaticFileHandler {
      */
     protected long writeModificationTimestamp(URL resourceUrl,
             HttpServletRequest request, HttpServletResponse response) {
+        Long cachedTime = lastModifiedCache == null ? null
+                : lastModifiedCache.get(resourceUrl.toExternalForm());
+        long lastModifiedTime = cachedTime == null
+                ? getLastModified(resourceUrl)
+                : cachedTime;
+        if (lastModifiedTime != -1L) {
+            response.setDateHeader("Last-Modified", lastModifiedTime);
+        }
+        return lastModifiedTime;
+    }
+
+    private long getLastModified(URL resourceUrl) {
         // Find the modification timestamp
         long lastModifiedTime;
         URLConnection connection = null;
@@ -377,9 +478,7 @@ public class StaticFileServer implements StaticFileHandler {
             // Remove milliseconds to avoid comparison problems (milliseconds
             // are not returned by the browser in the "If-Modified-Since"
             // header).
-            lastModifiedTime = lastModifiedTime - lastModifiedTime % 1000;
-            response.setDateHeader("Last-Modified", lastModifiedTime);
-            return lastModifiedTime;
+            return lastModifiedTime - lastModifiedTime % 1000;
         } catch (Exception e) {
             getLogger().trace(
                     "Failed to find out last modified timestamp. Continuing without it.",
@@ -402,6 +501,24 @@ public class StaticFileServer implements StaticFileHandler {
         return -1L;
     }
 
+    private static boolean matchesEtag(HttpServletRequest request,
+            String etag) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Writes cache headers for the file into the response.
      *
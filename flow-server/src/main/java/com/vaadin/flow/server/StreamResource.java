@@ -185,6 +185,21 @@ public class StreamResource extends AbstractStreamResource {
         return writer;
     }
 
+    /**
+     * Returns the input stream factory that provides the data of this resource,
+     * if the resource was created using
+     * {@link #StreamResource(String, InputStreamFactory)}.
+     *
+     * @return the input stream factory, or an empty optional if the data is
+     *         written by a custom {@link StreamResourceWriter}
+     */
+    public Optional<InputStreamFactory> getInputStreamFactory() {
+        if (writer instanceof Pipe) {
+            return Optional.of(((Pipe) writer).factory);
+        }
+        return Optional.empty();
+    }
+
     /**
      * Sets the resolver which is used to lookup the content type of the
      * resource.
@@ -35,9 +35,28 @@ public abstract class SynchronizedRequestHandler implements RequestHandler {
             return false;
         }
 
+        return handleWithSessionLock(session,
+                () -> synchronizedHandleRequest(session, request, response));
+    }
+
+    /**
+     * Runs the given handling with the session locked and unlocks the session
+     * once it has completed. Subclasses that do part of the handling before
+     * the session is locked use this for the part that needs the lock.
+     *
+     * @param session
+     *            The session to lock
+     * @param handling
+     *            The handling to run with the session locked
+     * @return the value returned by the handling
+     * @throws IOException
+     *             If an IO error occurred
+     */
+    protected boolean handleWithSessionLock(VaadinSession session,
+            LockedHandling handling) throws IOException {
         session.lock();
         try {
-            return synchronizedHandleRequest(session, request, response);
+            return handling.handle();
         } finally {
             session.unlock();
         }
@@ -85,4 +104,23 @@ public abstract class SynchronizedRequestHandler implements RequestHandler {
         return true;
     }
 
+    /**
+     * The part of handling a request that is run with the session locked.
+     *
+     * @see #handleWithSessionLock(VaadinSession, LockedHandling)
+     */
+    @FunctionalInterface
+    protected interface LockedHandling {
+
+        /**
+         * Handles the request.
+         *
+         * @return true if a response has been written and no further request
+         *         handlers should be called, otherwise false
+         * @throws IOException
+         *             If an IO error occurred
+         */
+        boolean handle() throws IOException;
+    }
+
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.internal.UIInternals;
+import com.vaadin.flow.internal.StateTree;
+
+/**
+ * A snapshot of the server side memory footprint of a single {@link UI}.
+ * <p>
+ * The values are counters that the framework maintains incrementally, so
+ * creating a snapshot does not require walking the component tree.
+ *
+ * @author Vaadin Ltd
+ * @since
+ * @see VaadinService#getSessionFootprint(VaadinSession)
+ */
+public class UIFootprint implements Serializable {
+
+    private final int uiId;
+    private final String location;
+    private final int stateNodeCount;
+    private final int domListenerCount;
+    private final int pendingBeforeClientResponseCount;
+
+    /**
+     * Creates a new footprint snapshot.
+     *
+     * @param uiId
+     *            the id of the UI
+     * @param location
+     *            the path of the active view, or an empty string if not known
+     * @param stateNodeCount
+     *            the number of state nodes attached to the UI
+     * @param domListenerCount
+     *            the number of DOM event listeners of the attached nodes
+     * @param pendingBeforeClientResponseCount
+     *            the number of pending before client response tasks
+     */
+    public UIFootprint(int uiId, String location, int stateNodeCount,
+            int domListenerCount, int pendingBeforeClientResponseCount) {
+        this.uiId = uiId;
+        this.location = location;
+        this.stateNodeCount = stateNodeCount;
+        this.domListenerCount = domListenerCount;
+        this.pendingBeforeClientResponseCount = pendingBeforeClientResponseCount;
+    }
+
+    /**
+     * Creates a footprint snapshot of the given UI. The session of the UI must
+     * be locked.
+     *
+     * @param ui
+     *            the UI to create a snapshot for, not <code>null</code>
+     * @return the footprint of the UI, not <code>null</code>
+     */
+    public static UIFootprint of(UI ui) {
+        UIInternals internals = ui.getInternals();
+        StateTree tree = internals.getStateTree();
+        String location = internals.getActiveViewLocation() == null ? ""
+                : internals.getActiveViewLocation().getPath();
+        return new UIFootprint(ui.getUIId(), location, tree.getNodeCount(),
+                tree.getDomListenerCount(),
+                tree.getPendingBeforeClientResponseCount());
+    }
+
+    /**
+     * Gets the id of the UI.
+     *
+     * @return the UI id
+     */
+    public int getUiId() {
+        return uiId;
+    }
+
+    /**
+     * Gets the path of the view that was active in the UI when the snapshot
+     * was taken.
+     *
+     * @return the view path, or an empty string if not known
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Gets the number of state nodes attached to the UI.
+     *
+     * @return the number of state nodes
+     */
+    public int getStateNodeCount() {
+        return stateNodeCount;
+    }
+
+    /**
+     * Gets the number of DOM event listeners registered for the nodes attached
+     * to the UI.
+     *
+     * @return the number of DOM event listeners
+     */
+    public int getDomListenerCount() {
+        return domListenerCount;
+    }
+
+    /**
+     * Gets the number of tasks that are waiting to be run before the next
+     * response to the client.
+     *
+     * @return the number of pending before client response tasks
+     */
+    public int getPendingBeforeClientResponseCount() {
+        return pendingBeforeClientResponseCount;
+    }
+
+    @Override
+    public String toString() {
+        return "UI #" + uiId + " [location=" + location + ", stateNodes="
+                + stateNodeCount + ", domListeners=" + domListenerCount
+                + ", pendingBeforeClientResponse="
+                + pendingBeforeClientResponseCount + "]";
+    }
+}
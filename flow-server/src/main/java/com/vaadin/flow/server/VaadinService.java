@@ -75,6 +75,10 @@ import com.vaadin.flow.server.communication.StreamRequestHandler;
 import com.vaadin.flow.server.communication.UidlRequestHandler;
 import com.vaadin.flow.server.communication.WebComponentBootstrapHandler;
 import com.vaadin.flow.server.communication.WebComponentProvider;
+import com.vaadin.flow.server.metrics.ClientMetricsEvent;
+import com.vaadin.flow.server.metrics.ClientMetricsListener;
+import com.vaadin.flow.server.metrics.InMemoryRequestMetrics;
+import com.vaadin.flow.server.metrics.RequestMetrics;
 import com.vaadin.flow.shared.ApplicationConstants;
 import com.vaadin.flow.shared.JsonConstants;
 import com.vaadin.flow.shared.Registration;
@@ -153,6 +157,7 @@ public abstract class VaadinService implements Serializable {
     private final List<SessionInitListener> sessionInitListeners = new CopyOnWriteArrayList<>();
     private final List<UIInitListener> uiInitListeners = new CopyOnWriteArrayList<>();
     private final List<SessionDestroyListener> sessionDestroyListeners = new CopyOnWriteArrayList<>();
+    private final List<ClientMetricsListener> clientMetricsListeners = new CopyOnWriteArrayList<>();
 
     private SystemMessagesProvider systemMessagesProvider = DefaultSystemMessagesProvider
             .get();
@@ -190,6 +195,12 @@ public abstract class VaadinService implements Serializable {
 
     private VaadinContext vaadinContext;
 
+    private transient SessionFootprintMonitor footprintMonitor;
+
+    private RequestMetrics requestMetrics = RequestMetrics.NO_OP;
+
+    private long sessionLockSlowThresholdNanos;
+
     /**
      * Creates a new vaadin service based on a deployment configuration.
      *
@@ -257,6 +268,11 @@ public abstract class VaadinService implements Serializable {
         });
 
         DeploymentConfiguration configuration = getDeploymentConfiguration();
+        if (requestMetrics == RequestMetrics.NO_OP && configuration
+                .getBooleanProperty(InitParameters.REQUEST_METRICS, false)) {
+            requestMetrics = new InMemoryRequestMetrics();
+        }
+        initSessionLockSlowThreshold(configuration);
         if (!configuration.isProductionMode()) {
             Logger logger = getLogger();
             logger.debug("The application has the following routes: ");
@@ -270,10 +286,25 @@ public abstract class VaadinService implements Serializable {
         if (getDeploymentConfiguration().isPnpmEnabled()) {
             UsageStatistics.markAsUsed("flow/pnpm", null);
         }
+        initFootprintMonitor(configuration);
 
         initialized = true;
     }
 
+    private void initFootprintMonitor(DeploymentConfiguration configuration) {
+        if (!SessionFootprintMonitor.isEnabled(configuration)) {
+            return;
+        }
+        SessionFootprintMonitor monitor = new SessionFootprintMonitor(
+                configuration);
+        if (configuration.getBooleanProperty(InitParameters.FOOTPRINT_JMX,
+                false)) {
+            monitor.registerMBean(getServiceName());
+            addServiceDestroyListener(event -> monitor.unregisterMBean());
+        }
+        footprintMonitor = monitor;
+    }
+
     private void addRouterUsageStatistics() {
         if (UsageStatistics.getEntries().anyMatch(
                 e -> Constants.STATISTIC_ROUTING_CLIENT.equals(e.getName()))) {
@@ -322,8 +353,9 @@ public abstract class VaadinService implements Serializable {
             throws ServiceException {
         List<RequestHandler> handlers = new ArrayList<>();
         handlers.add(new JavaScriptBootstrapHandler());
-        handlers.add(new SessionRequestHandler());
+        // Before SessionRequestHandler, which locks the session
         handlers.add(new HeartbeatHandler());
+        handlers.add(new SessionRequestHandler());
         handlers.add(new UidlRequestHandler());
         handlers.add(new UnsupportedBrowserHandler());
         handlers.add(new StreamRequestHandler());
@@ -663,10 +695,118 @@ public abstract class VaadinService implements Serializable {
                 }
             }
 
+            if (footprintMonitor != null) {
+                footprintMonitor.remove(session);
+            }
             session.setState(VaadinSessionState.CLOSED);
         });
     }
 
+    /**
+     * Gets the metrics instance that the request handling pipeline of this
+     * service reports timings and counters to.
+     *
+     * @return the request metrics, not <code>null</code>
+     * @see InitParameters#REQUEST_METRICS
+     */
+    public RequestMetrics getRequestMetrics() {
+        return requestMetrics;
+    }
+
+    /**
+     * Sets the metrics instance that the request handling pipeline of this
+     * service reports timings and counters to. Use
+     * {@link RequestMetrics#NO_OP} to disable collecting metrics.
+     *
+     * @param requestMetrics
+     *            the request metrics to use, not <code>null</code>
+     */
+    public void setRequestMetrics(RequestMetrics requestMetrics) {
+        if (requestMetrics == null) {
+            throw new IllegalArgumentException(
+                    "Request metrics cannot be null");
+        }
+        this.requestMetrics = requestMetrics;
+    }
+
+    /**
+     * Adds a listener that gets notified when a browser reports the rendering
+     * performance it has measured. Browsers only collect and report metrics if
+     * {@link InitParameters#CLIENT_METRICS} is enabled.
+     *
+     * @param listener
+     *            the client metrics listener
+     * @return a handle that can be used for removing the listener
+     * @see ClientMetricsListener
+     */
+    public Registration addClientMetricsListener(
+            ClientMetricsListener listener) {
+        return Registration.addAndRemove(clientMetricsListeners, listener);
+    }
+
+    /**
+     * Checks whether any client metrics listener has been added. Callers can
+     * use this to avoid decoding metrics that nobody would receive.
+     *
+     * @return <code>true</code> if there are client metrics listeners,
+     *         <code>false</code> otherwise
+     */
+    public boolean hasClientMetricsListeners() {
+        return !clientMetricsListeners.isEmpty();
+    }
+
+    /**
+     * Fires the given client metrics event to all registered
+     * {@link ClientMetricsListener}s. This is called internally when a client
+     * has reported metrics. An exception thrown by a listener is logged and
+     * does not prevent the other listeners or the request from being handled.
+     *
+     * @param event
+     *            the event to fire, not <code>null</code>
+     */
+    public void fireClientMetrics(ClientMetricsEvent event) {
+        for (ClientMetricsListener listener : clientMetricsListeners) {
+            try {
+                listener.clientMetricsReceived(event);
+            } catch (Exception e) {
+                getLogger().error("Client metrics listener {} failed",
+                        listener, e);
+            }
+        }
+    }
+
+    /**
+     * Gets the current memory footprint of the given session and its UIs.
+     * <p>
+     * The footprint consists of counters that are maintained incrementally,
+     * so this method is cheap enough to be called on every request. The
+     * session must be locked.
+     *
+     * @param session
+     *            the session to get the footprint for, not <code>null</code>
+     * @return the footprint of the session, not <code>null</code>
+     */
+    public SessionFootprint getSessionFootprint(VaadinSession session) {
+        return SessionFootprint.of(session);
+    }
+
+    /**
+     * Gets the footprints of the sessions of this service as recorded at the
+     * end of the latest request of each session.
+     * <p>
+     * Footprints are only recorded if {@link InitParameters#FOOTPRINT_JMX} or
+     * any of the footprint soft limits is configured. Otherwise, the returned
+     * collection is empty.
+     *
+     * @return the latest recorded footprints, not <code>null</code>
+     */
+    public Collection<SessionFootprint> getSessionFootprints() {
+        if (footprintMonitor == null) {
+            return Collections.emptyList();
+        }
+        return footprintMonitor.getSessionFootprints();
+    }
+
     /**
      * Attempts to find a Vaadin service session associated with this request.
      * <p>
@@ -696,6 +836,36 @@ public abstract class VaadinService implements Serializable {
         return vaadinSession;
     }
 
+    private void initSessionLockSlowThreshold(
+            DeploymentConfiguration configuration) {
+        String value = configuration.getStringProperty(
+                InitParameters.SESSION_LOCK_SLOW_THRESHOLD, null);
+        if (value == null || value.trim().isEmpty()) {
+            sessionLockSlowThresholdNanos = 0;
+            return;
+        }
+        try {
+            sessionLockSlowThresholdNanos = TimeUnit.MILLISECONDS
+                    .toNanos(Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format(
+                    "Property named '%s' is an integer, but contains incorrect value '%s'",
+                    InitParameters.SESSION_LOCK_SLOW_THRESHOLD, value), e);
+        }
+    }
+
+    /**
+     * Gets the time after which waiting for or holding a session lock is
+     * logged as slow.
+     *
+     * @return the threshold in nanoseconds, or 0 if slow session locking is
+     *         not logged
+     * @see InitParameters#SESSION_LOCK_SLOW_THRESHOLD
+     */
+    long getSessionLockSlowThresholdNanos() {
+        return sessionLockSlowThresholdNanos;
+    }
+
     /**
      * Associates the given lock with this service and the given wrapped
      * session. This method should not be called more than once when the lock is
@@ -744,6 +914,9 @@ public abstract class VaadinService implements Serializable {
     protected Lock getSessionLock(WrappedSession wrappedSession) {
         Object lock = wrappedSession.getAttribute(getLockAttributeName());
 
+        if (lock instanceof SessionLock) {
+            ((SessionLock) lock).attach(this);
+        }
         if (lock instanceof ReentrantLock) {
             return (ReentrantLock) lock;
         }
@@ -788,7 +961,7 @@ public abstract class VaadinService implements Serializable {
             synchronized (VaadinService.class) {
                 lock = getSessionLock(wrappedSession);
                 if (lock == null) {
-                    lock = new ReentrantLock();
+                    lock = new SessionLock(this);
                     setSessionLock(wrappedSession, lock);
                 }
             }
@@ -834,6 +1007,13 @@ public abstract class VaadinService implements Serializable {
 
     private VaadinSession findOrCreateVaadinSession(VaadinRequest request)
             throws SessionExpiredException {
+        if (isHeartbeatRequest(request)) {
+            VaadinSession session = findExistingSessionWithoutLock(request);
+            if (session != null) {
+                return session;
+            }
+        }
+
         boolean requestCanCreateSession = requestCanCreateSession(request);
         WrappedSession wrappedSession = getWrappedSession(request,
                 requestCanCreateSession);
@@ -854,6 +1034,34 @@ public abstract class VaadinService implements Serializable {
 
     }
 
+    /**
+     * Finds the existing session of a heartbeat request without locking the
+     * session, so that heartbeats are never blocked by other requests or
+     * background tasks holding the lock.
+     *
+     * @param request
+     *            the heartbeat request
+     * @return the session, or <code>null</code> if the session must be
+     *         looked up with the lock held, e.g. because it has just been
+     *         deserialized
+     * @throws SessionExpiredException
+     *             if there is no session
+     */
+    private VaadinSession findExistingSessionWithoutLock(VaadinRequest request)
+            throws SessionExpiredException {
+        WrappedSession wrappedSession = getWrappedSession(request, false);
+        VaadinSession session = readFromHttpSession(wrappedSession);
+        if (session == null) {
+            throw new SessionExpiredException();
+        }
+        // Transient fields of a deserialized session are refreshed under lock
+        return session.getService() == this ? session : null;
+    }
+
+    private static boolean isHeartbeatRequest(VaadinRequest request) {
+        return HandlerHelper.isRequestType(request, RequestType.HEARTBEAT);
+    }
+
     /**
      * Finds or creates a Vaadin session. Assumes necessary synchronization has
      * been done by the caller to ensure this is not called simultaneously by
@@ -1491,11 +1699,27 @@ public abstract class VaadinService implements Serializable {
      */
     public void requestEnd(VaadinRequest request, VaadinResponse response,
             VaadinSession session) {
-        if (session != null) {
+        if (session != null && isHeartbeatRequest(request)) {
+            /*
+             * Heartbeats must not wait for the session lock. The session is
+             * only cleaned up if nobody else is holding the lock.
+             */
+            if (session.getLockInstance().tryLock()) {
+                try {
+                    cleanupSession(session);
+                } finally {
+                    session.unlock();
+                }
+            }
+        } else if (session != null) {
             assert VaadinSession.getCurrent() == session;
             session.lock();
             try {
                 cleanupSession(session);
+                if (footprintMonitor != null
+                        && session.getState() == VaadinSessionState.OPEN) {
+                    footprintMonitor.update(session);
+                }
                 final long duration = (System.nanoTime() - (Long) request
                         .getAttribute(REQUEST_START_TIME_ATTRIBUTE)) / 1000000;
                 session.setLastRequestDuration(duration);
@@ -1552,6 +1776,9 @@ public abstract class VaadinService implements Serializable {
             throws ServiceException {
         requestStart(request, response);
 
+        RequestMetrics metrics = RequestMetrics.get(this);
+        long start = metrics.start();
+        String handledBy = "unhandled";
         VaadinSession vaadinSession = null;
         try {
             // Find out the service session this request is related to
@@ -1562,6 +1789,7 @@ public abstract class VaadinService implements Serializable {
 
             for (RequestHandler handler : getRequestHandlers()) {
                 if (handler.handleRequest(vaadinSession, request, response)) {
+                    handledBy = handler.getClass().getSimpleName();
                     return;
                 }
             }
@@ -1576,6 +1804,12 @@ public abstract class VaadinService implements Serializable {
             handleExceptionDuringRequest(request, response, vaadinSession, e);
         } finally {
             requestEnd(request, response, vaadinSession);
+            if (metrics.isEnabled()) {
+                metrics.recordSince(RequestMetrics.REQUEST + (handledBy
+                        .isEmpty() ? RequestHandler.class.getSimpleName()
+                                : handledBy),
+                        start);
+            }
         }
     }
 
@@ -2047,6 +2281,9 @@ public abstract class VaadinService implements Serializable {
         }
 
         FutureAccess pendingAccess;
+        RequestMetrics metrics = RequestMetrics.get(this);
+        long start = metrics.start();
+        int taskCount = 0;
 
         // Dump all current instances, not only the ones dumped by setCurrent
         Map<Class<?>, CurrentInstance> oldInstances = CurrentInstance
@@ -2056,6 +2293,7 @@ public abstract class VaadinService implements Serializable {
             while ((pendingAccess = session.getPendingAccessQueue()
                     .poll()) != null) {
                 if (!pendingAccess.isCancelled()) {
+                    taskCount++;
                     pendingAccess.run();
 
                     try {
@@ -2073,6 +2311,10 @@ public abstract class VaadinService implements Serializable {
         } finally {
             CurrentInstance.clearAll();
             CurrentInstance.restoreInstances(oldInstances);
+            if (metrics.isEnabled()) {
+                metrics.recordSince(RequestMetrics.ACCESS_TASKS, start);
+                metrics.increment(RequestMetrics.ACCESS_TASK_COUNT, taskCount);
+            }
         }
     }
 
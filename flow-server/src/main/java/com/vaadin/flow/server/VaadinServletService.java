@@ -38,6 +38,7 @@ import com.vaadin.flow.internal.UsageStatistics;
 import com.vaadin.flow.server.communication.FaviconHandler;
 import com.vaadin.flow.server.communication.IndexHtmlRequestHandler;
 import com.vaadin.flow.server.communication.PushRequestHandler;
+import com.vaadin.flow.server.communication.SsePushRequestHandler;
 import com.vaadin.flow.server.frontend.FallbackChunk;
 import com.vaadin.flow.server.startup.ApplicationRouteRegistry;
 import com.vaadin.flow.shared.ApplicationConstants;
@@ -102,6 +103,7 @@ public class VaadinServletService extends VaadinService {
         // PushRequestHandler should run before DevModeHandler to avoid
         // responding with html contents when dev mode server is not ready
         // (e.g. dev-mode-not-ready.html)
+        handlers.add(new SsePushRequestHandler());
         if (isAtmosphereAvailable()) {
             try {
                 handlers.add(new PushRequestHandler(this));
@@ -35,6 +35,7 @@ import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
 import java.util.concurrent.locks.Lock;
@@ -98,7 +99,7 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
     private LinkedList<RequestHandler> requestHandlers = new LinkedList<>();
 
     private int nextUIId = 0;
-    private transient Map<Integer, UI> uIs = new HashMap<>();
+    private transient Map<Integer, UI> uIs = new ConcurrentHashMap<>();
 
     protected WebBrowser browser = new WebBrowser();
 
@@ -545,6 +546,24 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
         return uIs.get(uiId);
     }
 
+    /**
+     * Returns a UI with the given id without requiring the session lock.
+     * <p>
+     * The UI may be concurrently modified or removed from the session, so only
+     * thread safe operations such as
+     * {@link com.vaadin.flow.component.internal.UIInternals#receiveHeartbeat(long)}
+     * may be used on it without locking the session.
+     * <p>
+     * This is meant for framework internal use.
+     *
+     * @param uiId
+     *            The UI id
+     * @return The UI with the given id or null if not found
+     */
+    public UI getUIByIdWithoutLock(int uiId) {
+        return uIs.get(uiId);
+    }
+
     /**
      * Checks if the current thread has exclusive access to this
      * <code>VaadinSession</code>.
@@ -1055,7 +1074,8 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
         Map<Class<?>, CurrentInstance> old = CurrentInstance.setCurrent(this);
         try {
             stream.defaultReadObject();
-            uIs = (Map<Integer, UI>) stream.readObject();
+            uIs = new ConcurrentHashMap<>(
+                    (Map<Integer, UI>) stream.readObject());
             pendingAccessQueue = new ConcurrentLinkedQueue<>();
         } finally {
             CurrentInstance.restoreInstances(old);
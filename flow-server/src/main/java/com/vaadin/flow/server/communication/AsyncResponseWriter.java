@@ -0,0 +1,216 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.server.InitParameters;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinServletRequest;
+
+/**
+ * Writes a response body using servlet non-blocking I/O, so that no container
+ * thread is occupied while the bytes are transferred to a slow client.
+ * <p>
+ * The request is put in asynchronous mode and the data is written whenever the
+ * container reports that the response can be written to without blocking. The
+ * asynchronous request is completed once all data has been written or the
+ * client has gone away. The source stream is read from container threads, so it
+ * should not block for long, e.g. a file or an in-memory buffer.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+final class AsyncResponseWriter implements WriteListener, AsyncListener {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final AsyncContext asyncContext;
+    private final ServletOutputStream out;
+    private final InputStream source;
+    private final byte[] buffer;
+    private boolean done;
+
+    private AsyncResponseWriter(AsyncContext asyncContext, InputStream source,
+            int bufferSize) throws IOException {
+        this.asyncContext = asyncContext;
+        this.source = source;
+        buffer = new byte[bufferSize];
+        out = asyncContext.getResponse().getOutputStream();
+    }
+
+    /**
+     * Checks whether the response to the given request should be written
+     * using non-blocking I/O. This is the case if enabled using
+     * {@link InitParameters#ASYNC_RESPONSE_WRITES} and supported for the
+     * request.
+     *
+     * @param request
+     *            the request to check
+     * @return <code>true</code> if the response should be written
+     *         asynchronously, <code>false</code> to write it directly
+     */
+    static boolean isEnabled(VaadinRequest request) {
+        if (!(request instanceof VaadinServletRequest)
+                || request.getService() == null) {
+            return false;
+        }
+        HttpServletRequest httpRequest = (VaadinServletRequest) request;
+        return httpRequest.isAsyncSupported() && !httpRequest.isAsyncStarted()
+                && request.getService().getDeploymentConfiguration()
+                        .getBooleanProperty(
+                                InitParameters.ASYNC_RESPONSE_WRITES, false);
+    }
+
+    /**
+     * Writes the given data as the response body of the given request. The
+     * response headers must already have been set.
+     *
+     * @param request
+     *            the request to respond to, not <code>null</code>
+     * @param data
+     *            the data to write, not <code>null</code>
+     * @throws IOException
+     *             if the response output stream cannot be opened
+     * @see #isEnabled(VaadinRequest)
+     */
+    static void write(VaadinRequest request, byte[] data) throws IOException {
+        transfer(request, new ByteArrayInputStream(data),
+                Math.max(1, data.length));
+    }
+
+    /**
+     * Writes the contents of the given stream as the response body of the
+     * given request. The stream is closed once it has been written or the
+     * transfer has failed. The response headers must already have been set.
+     *
+     * @param request
+     *            the request to respond to, not <code>null</code>
+     * @param source
+     *            the stream to read the response body from, not
+     *            <code>null</code>
+     * @throws IOException
+     *             if the response output stream cannot be opened
+     * @see #isEnabled(VaadinRequest)
+     */
+    static void transfer(VaadinRequest request, InputStream source)
+            throws IOException {
+        transfer(request, source, BUFFER_SIZE);
+    }
+
+    private static void transfer(VaadinRequest request, InputStream source,
+            int bufferSize) throws IOException {
+        AsyncContext asyncContext = ((VaadinServletRequest) request)
+                .startAsync();
+        // Stalled clients are disconnected by the connector's socket timeout
+        asyncContext.setTimeout(0);
+        AsyncResponseWriter writer;
+        try {
+            writer = new AsyncResponseWriter(asyncContext, source, bufferSize);
+        } catch (IOException e) {
+            source.close();
+            asyncContext.complete();
+            throw e;
+        }
+        asyncContext.addListener(writer);
+        writer.out.setWriteListener(writer);
+    }
+
+    @Override
+    public synchronized void onWritePossible() {
+        if (done) {
+            return;
+        }
+        try {
+            while (out.isReady()) {
+                int read = source.read(buffer);
+                if (read < 0) {
+                    finish();
+                    return;
+                }
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            getLogger().debug("Unable to write response", e);
+            finish();
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        getLogger().debug("Response could not be written", t);
+        finish();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        closeSource();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        finish();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        finish();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+        // Not restarted
+    }
+
+    private synchronized void finish() {
+        if (done) {
+            return;
+        }
+        done = true;
+        closeSource();
+        try {
+            asyncContext.complete();
+        } catch (IllegalStateException e) {
+            // Already completed by the container
+        }
+    }
+
+    private void closeSource() {
+        try {
+            source.close();
+        } catch (IOException e) {
+            getLogger().debug("Unable to close response source", e);
+        }
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(AsyncResponseWriter.class);
+    }
+}
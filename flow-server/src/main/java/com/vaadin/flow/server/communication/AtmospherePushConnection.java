@@ -33,6 +33,7 @@ import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.internal.UsageStatistics;
+import com.vaadin.flow.server.metrics.RequestMetrics;
 import com.vaadin.flow.shared.communication.PushConstants;
 
 import elemental.json.JsonObject;
@@ -193,9 +194,14 @@ public class AtmospherePushConnection implements PushConnection {
             }
         } else {
             try {
+                RequestMetrics metrics = RequestMetrics
+                        .get(getUI().getSession().getService());
+                long start = metrics.start();
                 JsonObject response = new UidlWriter().createUidl(getUI(),
                         async);
-                sendMessage("for(;;);[" + response.toJson() + "]");
+                sendMessage("for(;;);[" + UidlWriter.toJson(getUI(), response)
+                        + "]");
+                metrics.recordSince(RequestMetrics.PUSH_SEND, start);
             } catch (Exception e) {
                 throw new RuntimeException("Push failed", e);
             }
@@ -51,6 +51,34 @@ public class HeartbeatHandler extends SynchronizedRequestHandler
         return HandlerHelper.isRequestType(request, RequestType.HEARTBEAT);
     }
 
+    /**
+     * Handles a heartbeat request without locking the session, so that
+     * heartbeats never wait for other requests or background tasks holding the
+     * session lock. Otherwise works like
+     * {@link #synchronizedHandleRequest(VaadinSession, VaadinRequest, VaadinResponse)}.
+     */
+    @Override
+    public boolean handleRequest(VaadinSession session, VaadinRequest request,
+            VaadinResponse response) throws IOException {
+        if (!canHandleRequest(request)) {
+            return false;
+        }
+
+        String uiId = request
+                .getParameter(ApplicationConstants.UI_ID_PARAMETER);
+        UI ui = uiId == null ? null
+                : session.getUIByIdWithoutLock(Integer.parseInt(uiId));
+        if (ui != null) {
+            ui.getInternals().receiveHeartbeat(System.currentTimeMillis());
+            writeHeartbeatResponse(response);
+        } else {
+            response.sendError(HttpStatusCode.NOT_FOUND.getCode(),
+                    "UI not found");
+        }
+
+        return true;
+    }
+
     /**
      * Handles a heartbeat request for the given session. Reads the GET
      * parameter named {@link ApplicationConstants#UI_ID_PARAMETER} to identify
@@ -66,14 +94,7 @@ public class HeartbeatHandler extends SynchronizedRequestHandler
         if (ui != null) {
             ui.getInternals()
                     .setLastHeartbeatTimestamp(System.currentTimeMillis());
-            // Ensure that the browser does not cache heartbeat responses.
-            // iOS 6 Safari requires this
-            // (https://github.com/vaadin/framework/issues/3226)
-            response.setHeader("Cache-Control", "no-cache");
-            // If Content-Type is not set, browsers assume text/html and may
-            // complain about the empty response body
-            // (https://github.com/vaadin/framework/issues/4167)
-            response.setHeader("Content-Type", "text/plain");
+            writeHeartbeatResponse(response);
         } else {
             response.sendError(HttpStatusCode.NOT_FOUND.getCode(),
                     "UI not found");
@@ -82,6 +103,17 @@ public class HeartbeatHandler extends SynchronizedRequestHandler
         return true;
     }
 
+    private static void writeHeartbeatResponse(VaadinResponse response) {
+        // Ensure that the browser does not cache heartbeat responses.
+        // iOS 6 Safari requires this
+        // (https://github.com/vaadin/framework/issues/3226)
+        response.setHeader("Cache-Control", "no-cache");
+        // If Content-Type is not set, browsers assume text/html and may
+        // complain about the empty response body
+        // (https://github.com/vaadin/framework/issues/4167)
+        response.setHeader("Content-Type", "text/plain");
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -294,7 +294,7 @@ public class JavaScriptBootstrapHandler extends BootstrapHandler {
         appConfig.put("uidl", getInitialUidl(context.getUI()));
         initial.put("appConfig", appConfig);
 
-        if (context.getPushMode().isEnabled()) {
+        if (context.isPushScriptNeeded()) {
             initial.put("pushScript", getPushScript(context));
         }
         if (!session.getConfiguration().isProductionMode()) {
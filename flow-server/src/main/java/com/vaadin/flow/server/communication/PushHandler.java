@@ -152,7 +152,9 @@ public class PushHandler {
         assert vaadinRequest != null;
 
         try {
-            new ServerRpcHandler().handleRpc(ui, reader, vaadinRequest);
+            ServerRpcHandler rpcHandler = new ServerRpcHandler();
+            rpcHandler.handleRpc(ui,
+                    rpcHandler.decodeRpc(reader, vaadinRequest));
             connection.push(false);
         } catch (JsonException e) {
             getLogger().error("Error writing JSON to response", e);
@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -36,6 +37,7 @@ import org.slf4j.LoggerFactory;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.internal.MessageDigestUtil;
 import com.vaadin.flow.server.ErrorEvent;
+import com.vaadin.flow.server.InitParameters;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.communication.rpc.AttachExistingElementRpcHandler;
@@ -45,11 +47,15 @@ import com.vaadin.flow.server.communication.rpc.MapSyncRpcHandler;
 import com.vaadin.flow.server.communication.rpc.NavigationRpcHandler;
 import com.vaadin.flow.server.communication.rpc.PublishedServerEventHandlerRpcHandler;
 import com.vaadin.flow.server.communication.rpc.RpcInvocationHandler;
+import com.vaadin.flow.server.metrics.ClientMetricsEvent;
+import com.vaadin.flow.server.metrics.ClientTiming;
+import com.vaadin.flow.server.metrics.RequestMetrics;
 import com.vaadin.flow.shared.ApplicationConstants;
 import com.vaadin.flow.shared.JsonConstants;
 
 import elemental.json.JsonArray;
 import elemental.json.JsonObject;
+import elemental.json.JsonType;
 import elemental.json.JsonValue;
 import elemental.json.impl.JsonUtil;
 
@@ -78,6 +84,8 @@ public class ServerRpcHandler implements Serializable {
         private final JsonObject json;
         private final boolean resynchronize;
         private final int clientToServerMessageId;
+        private final byte[] messageHash;
+        private transient List<DecodedInvocation> decodedInvocations;
 
         /**
          * Creates an instance based on the given JSON received through the
@@ -125,6 +133,12 @@ public class ServerRpcHandler implements Serializable {
                 clientToServerMessageId = -1;
             }
             invocations = json.getArray(ApplicationConstants.RPC_INVOCATIONS);
+
+            String hashMessage = jsonString;
+            if (hashMessage.length() > 64 * 1024) {
+                hashMessage = jsonString.substring(0, 64 * 1024);
+            }
+            messageHash = MessageDigestUtil.sha256(hashMessage);
         }
 
         /**
@@ -175,6 +189,15 @@ public class ServerRpcHandler implements Serializable {
             return clientToServerMessageId;
         }
 
+        /**
+         * Gets the hash of the message used for detecting resent messages.
+         *
+         * @return the SHA-256 hash of the (first 64 KiB of the) message
+         */
+        public byte[] getMessageHash() {
+            return messageHash;
+        }
+
         /**
          * Gets the entire request in JSON format, as it was received from the
          * client.
@@ -191,8 +214,27 @@ public class ServerRpcHandler implements Serializable {
 
     }
 
+    /**
+     * An RPC invocation which has been matched with its handler without
+     * accessing the session.
+     */
+    private static class DecodedInvocation implements Serializable {
+        private final String type;
+        private final RpcInvocationHandler handler;
+        private final JsonObject json;
+
+        private DecodedInvocation(String type, RpcInvocationHandler handler,
+                JsonObject json) {
+            this.type = type;
+            this.handler = handler;
+            this.json = json;
+        }
+    }
+
     private static final int MAX_BUFFER_SIZE = 64 * 1024;
 
+    private static final int MAX_CLIENT_METRICS = 32;
+
     /**
      * Exception thrown then the security key sent by the client does not match
      * the expected one.
@@ -240,19 +282,72 @@ public class ServerRpcHandler implements Serializable {
      * @throws InvalidUIDLSecurityKeyException
      *             If the received security key does not match the one stored in
      *             the session.
+     * @deprecated {@link UidlRequestHandler} decodes the message with
+     *             {@link #decodeRpc(Reader, VaadinRequest)} before locking
+     *             the session and executes it with
+     *             {@link #handleRpc(UI, RpcRequest)}. If this method is
+     *             overridden, the message is instead read through it with
+     *             the session locked. Override the two other methods instead.
      */
+    @Deprecated
     public void handleRpc(UI ui, Reader reader, VaadinRequest request)
             throws IOException, InvalidUIDLSecurityKeyException {
-        ui.getSession().setLastRequestTimestamp(System.currentTimeMillis());
+        handleRpc(ui, decodeRpc(reader, request));
+    }
 
+    /**
+     * Reads and parses JSON containing zero or more serialized RPC calls and
+     * matches each call with its {@link RpcInvocationHandler}.
+     * <p>
+     * This method does not access any session or UI state, so it can and
+     * should be called before locking the session to keep the time the session
+     * is locked as short as possible. The decoded request is then executed
+     * using {@link #handleRpc(UI, RpcRequest)}.
+     *
+     * @param reader
+     *            The {@link Reader} used to read the JSON.
+     * @param request
+     *            The request through which the RPC was received
+     * @return the decoded request, or <code>null</code> if the message was
+     *         empty
+     * @throws IOException
+     *             If reading the message fails.
+     */
+    public RpcRequest decodeRpc(Reader reader, VaadinRequest request)
+            throws IOException {
         String changeMessage = getMessage(reader);
 
         if (changeMessage == null || changeMessage.equals("")) {
             // The client sometimes sends empty messages, this is probably a bug
-            return;
+            return null;
         }
 
         RpcRequest rpcRequest = new RpcRequest(changeMessage, request);
+        rpcRequest.decodedInvocations = decodeInvocations(
+                rpcRequest.getRpcInvocationsData());
+        return rpcRequest;
+    }
+
+    /**
+     * Executes the RPC calls of a request decoded using
+     * {@link #decodeRpc(Reader, VaadinRequest)}. The session must be locked.
+     *
+     * @param ui
+     *            The {@link UI} receiving the calls. Cannot be null.
+     * @param rpcRequest
+     *            The decoded request, or <code>null</code> if the message was
+     *            empty
+     * @throws InvalidUIDLSecurityKeyException
+     *             If the received security key does not match the one stored in
+     *             the session.
+     */
+    public void handleRpc(UI ui, RpcRequest rpcRequest)
+            throws InvalidUIDLSecurityKeyException {
+        ui.getSession().setLastRequestTimestamp(System.currentTimeMillis());
+
+        if (rpcRequest == null) {
+            return;
+        }
 
         // Security: double cookie submission pattern unless disabled by
         // property
@@ -260,11 +355,7 @@ public class ServerRpcHandler implements Serializable {
             throw new InvalidUIDLSecurityKeyException();
         }
 
-        String hashMessage = changeMessage;
-        if (hashMessage.length() > 64 * 1024) {
-            hashMessage = changeMessage.substring(0, 64 * 1024);
-        }
-        byte[] messageHash = MessageDigestUtil.sha256(hashMessage);
+        byte[] messageHash = rpcRequest.getMessageHash();
 
         int expectedId = ui.getInternals().getLastProcessedClientToServerId()
                 + 1;
@@ -317,7 +408,15 @@ public class ServerRpcHandler implements Serializable {
             // Message id ok, process RPCs
             ui.getInternals().setLastProcessedClientToServerId(expectedId,
                     messageHash);
-            handleInvocations(ui, rpcRequest.getRpcInvocationsData());
+            // Reported before the invocations, which might navigate away from
+            // the view the metrics were collected in
+            handleClientMetrics(ui, rpcRequest.getRawJson());
+            List<DecodedInvocation> invocations = rpcRequest.decodedInvocations;
+            if (invocations == null) {
+                invocations = decodeInvocations(
+                        rpcRequest.getRpcInvocationsData());
+            }
+            handleInvocations(ui, invocations);
         }
 
         if (rpcRequest.isResynchronize()) {
@@ -376,7 +475,7 @@ public class ServerRpcHandler implements Serializable {
      * handler using the type of the request.
      * <p>
      * Subclasses can overwrite this method to return custom invocation
-     * handlers.
+     * handlers. The method may be called without holding the session lock.
      *
      * @return invocation handlers map
      */
@@ -385,38 +484,133 @@ public class ServerRpcHandler implements Serializable {
     }
 
     /**
-     * Processes invocations data received from the client.
-     * <p>
-     * The invocations data can contain any number of RPC calls.
+     * Matches the invocations data received from the client with the
+     * invocation handlers. Does not access any session state.
      *
-     * @param ui
-     *            the UI receiving the invocations data
      * @param invocationsData
      *            JSON containing all information needed to execute all
      *            requested RPC calls.
+     * @return the decoded invocations in the order they were received
      */
-    private void handleInvocations(UI ui, JsonArray invocationsData) {
-        List<JsonObject> data = new ArrayList<>(invocationsData.length());
-        List<Runnable> pendingChangeEvents = new ArrayList<>();
-
-        RpcInvocationHandler mapSyncHandler = getInvocationHandlers()
-                .get(JsonConstants.RPC_TYPE_MAP_SYNC);
-
+    private List<DecodedInvocation> decodeInvocations(
+            JsonArray invocationsData) {
+        if (invocationsData == null) {
+            return Collections.emptyList();
+        }
+        Map<String, RpcInvocationHandler> handlers = getInvocationHandlers();
+        List<DecodedInvocation> invocations = new ArrayList<>(
+                invocationsData.length());
         for (int i = 0; i < invocationsData.length(); i++) {
             JsonObject invocationJson = invocationsData.getObject(i);
             String type = invocationJson.getString(JsonConstants.RPC_TYPE);
             assert type != null;
-            if (JsonConstants.RPC_TYPE_MAP_SYNC.equals(type)) {
+            invocations.add(new DecodedInvocation(type, handlers.get(type),
+                    invocationJson));
+        }
+        return invocations;
+    }
+
+    /**
+     * Processes invocations received from the client.
+     * <p>
+     * The invocations can contain any number of RPC calls.
+     *
+     * @param ui
+     *            the UI receiving the invocations
+     * @param invocations
+     *            the decoded RPC calls
+     */
+    private void handleInvocations(UI ui, List<DecodedInvocation> invocations) {
+        RequestMetrics metrics = RequestMetrics
+                .get(ui.getSession().getService());
+        long start = metrics.start();
+        List<DecodedInvocation> data = new ArrayList<>(invocations.size());
+        List<Runnable> pendingChangeEvents = new ArrayList<>();
+
+        for (DecodedInvocation invocation : invocations) {
+            if (metrics.isEnabled()) {
+                metrics.increment(
+                        RequestMetrics.RPC_INVOCATION_COUNT + invocation.type,
+                        1);
+            }
+            if (JsonConstants.RPC_TYPE_MAP_SYNC.equals(invocation.type)) {
                 // Handle these before any RPC invocations.
-                mapSyncHandler.handle(ui, invocationJson)
+                invocation.handler.handle(ui, invocation.json)
                         .ifPresent(pendingChangeEvents::add);
             } else {
-                data.add(invocationJson);
+                data.add(invocation);
             }
         }
 
         pendingChangeEvents.forEach(runnable -> runMapSyncTask(ui, runnable));
-        data.forEach(json -> handleInvocationData(ui, json));
+        data.forEach(invocation -> handleInvocationData(ui, invocation));
+        metrics.recordSince(RequestMetrics.RPC_INVOCATIONS, start);
+    }
+
+    /**
+     * Passes the client side performance metrics included in the message, if
+     * any, to the client metrics listeners of the service.
+     *
+     * @param ui
+     *            the UI that received the message
+     * @param json
+     *            the message from the client
+     */
+    private void handleClientMetrics(UI ui, JsonObject json) {
+        JsonValue metrics = json.get(ApplicationConstants.CLIENT_METRICS_ID);
+        if (metrics == null || metrics.getType() != JsonType.OBJECT) {
+            return;
+        }
+        VaadinService service = ui.getSession().getService();
+        if (!service.hasClientMetricsListeners()
+                || !service.getDeploymentConfiguration().getBooleanProperty(
+                        InitParameters.CLIENT_METRICS, false)) {
+            return;
+        }
+
+        JsonObject metricsJson = (JsonObject) metrics;
+        Map<String, ClientTiming> timings = new LinkedHashMap<>();
+        JsonObject timingsJson = getObject(metricsJson,
+                JsonConstants.CLIENT_METRICS_TIMINGS);
+        for (String name : limitedKeys(timingsJson)) {
+            JsonValue value = timingsJson.get(name);
+            if (value.getType() == JsonType.ARRAY
+                    && ((JsonArray) value).length() == 3) {
+                JsonArray timing = (JsonArray) value;
+                timings.put(name, new ClientTiming((long) timing.getNumber(0),
+                        timing.getNumber(1), timing.getNumber(2)));
+            }
+        }
+        Map<String, Long> counters = new LinkedHashMap<>();
+        JsonObject countersJson = getObject(metricsJson,
+                JsonConstants.CLIENT_METRICS_COUNTERS);
+        for (String name : limitedKeys(countersJson)) {
+            JsonValue value = countersJson.get(name);
+            if (value.getType() == JsonType.NUMBER) {
+                counters.put(name, (long) value.asNumber());
+            }
+        }
+
+        String location = ui.getInternals().getActiveViewLocation().getPath();
+        service.fireClientMetrics(
+                new ClientMetricsEvent(ui, location, timings, counters));
+    }
+
+    private static JsonObject getObject(JsonObject json, String key) {
+        JsonValue value = json.get(key);
+        return value != null && value.getType() == JsonType.OBJECT
+                ? (JsonObject) value
+                : null;
+    }
+
+    private static List<String> limitedKeys(JsonObject json) {
+        if (json == null) {
+            return Collections.emptyList();
+        }
+        // Guard against clients sending arbitrarily many metrics
+        String[] keys = json.keys();
+        return Arrays.asList(keys).subList(0,
+                Math.min(keys.length, MAX_CLIENT_METRICS));
     }
 
     private void runMapSyncTask(UI ui, Runnable runnable) {
@@ -427,15 +621,14 @@ public class ServerRpcHandler implements Serializable {
         }
     }
 
-    private void handleInvocationData(UI ui, JsonObject invocationJson) {
-        String type = invocationJson.getString(JsonConstants.RPC_TYPE);
-        RpcInvocationHandler handler = getInvocationHandlers().get(type);
+    private void handleInvocationData(UI ui, DecodedInvocation invocation) {
+        RpcInvocationHandler handler = invocation.handler;
         if (handler == null) {
             throw new IllegalArgumentException(
-                    "Unsupported event type: " + type);
+                    "Unsupported event type: " + invocation.type);
         }
         try {
-            Optional<Runnable> handle = handler.handle(ui, invocationJson);
+            Optional<Runnable> handle = handler.handle(ui, invocation.json);
             assert !handle.isPresent()
                     : "RPC handler " + handler.getClass().getName()
                             + " returned a Runnable even though it shouldn't";
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.metrics.RequestMetrics;
+
+import elemental.json.JsonObject;
+
+/**
+ * A {@link PushConnection} that sends messages to the client as server-sent
+ * events. The client sends its messages as regular XHR requests.
+ * <p>
+ * The event stream is a suspended servlet response that is written using
+ * non-blocking I/O, so an idle connection does not hold a thread or any buffers.
+ * The connection is opened by the client through
+ * {@link SsePushRequestHandler}.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class SsePushConnection implements PushConnection {
+
+    private final UI ui;
+    private transient volatile Channel channel;
+    private boolean pushPending;
+    private final Deque<String> pendingMessages = new ArrayDeque<>();
+
+    /**
+     * Creates a new push connection for the given UI. The connection is
+     * initially disconnected.
+     *
+     * @param ui
+     *            the UI to push changes of
+     */
+    public SsePushConnection(UI ui) {
+        this.ui = ui;
+    }
+
+    @Override
+    public void push() {
+        Channel current = channel;
+        if (current == null || !current.isOpen()
+                || !sendPendingMessages(current)) {
+            // Sent when the client connects again
+            pushPending = true;
+            return;
+        }
+        pushPending = false;
+
+        RequestMetrics metrics = RequestMetrics
+                .get(ui.getSession().getService());
+        long start = metrics.start();
+        String message = createMessage();
+        if (!current.send(message)) {
+            // The changes are already marked as sent, so the message itself
+            // is kept until the client connects again
+            getLogger().debug(
+                    "Push connection was closed while sending a message");
+            pendingMessages.add(message);
+        }
+        metrics.recordSince(RequestMetrics.PUSH_SEND, start);
+    }
+
+    String createMessage() {
+        JsonObject response = new UidlWriter().createUidl(ui, true);
+        return "for(;;);[" + UidlWriter.toJson(ui, response) + "]";
+    }
+
+    private boolean sendPendingMessages(Channel current) {
+        while (!pendingMessages.isEmpty()) {
+            if (!current.send(pendingMessages.peek())) {
+                return false;
+            }
+            pendingMessages.poll();
+        }
+        return true;
+    }
+
+    /**
+     * Closes the given channel and keeps the messages it had not yet written,
+     * so that they are sent when the client connects again.
+     */
+    private void release(Channel released) {
+        released.close();
+        List<String> unsent = released.takeUnsent();
+        // Queued on the channel before anything that failed to send later
+        for (int i = unsent.size() - 1; i >= 0; i--) {
+            pendingMessages.addFirst(unsent.get(i));
+        }
+    }
+
+    @Override
+    public void disconnect() {
+        assert isConnected();
+
+        Channel current = channel;
+        channel = null;
+        if (current != null) {
+            release(current);
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        Channel current = channel;
+        return current != null && current.isOpen();
+    }
+
+    /**
+     * Associates this connection with a newly opened event stream, closing any
+     * previous one, and sends any pending changes. Must be called while holding
+     * the session lock.
+     *
+     * @param newChannel
+     *            the opened event stream, not {@code null}
+     */
+    void connect(Channel newChannel) {
+        assert newChannel != null;
+
+        Channel previous = channel;
+        if (previous != null) {
+            release(previous);
+        }
+        channel = newChannel;
+
+        if (pushPending || !pendingMessages.isEmpty()) {
+            push();
+        }
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(SsePushConnection.class);
+    }
+
+    /**
+     * An open event stream. Events are queued and written whenever the
+     * container reports that the response can be written to without
+     * blocking. Messages that were still queued when the stream was closed
+     * can be taken back with {@link #takeUnsent()}.
+     */
+    static final class Channel implements WriteListener, AsyncListener {
+
+        private final AsyncContext asyncContext;
+        private final ServletOutputStream out;
+        private final Deque<Event> queue = new ArrayDeque<>();
+        private boolean open = true;
+
+        /**
+         * Creates a channel writing to the response of the given asynchronous
+         * request.
+         *
+         * @param asyncContext
+         *            the started asynchronous context
+         * @throws IOException
+         *             if the response output stream cannot be opened
+         */
+        Channel(AsyncContext asyncContext) throws IOException {
+            this.asyncContext = asyncContext;
+            out = asyncContext.getResponse().getOutputStream();
+            asyncContext.addListener(this);
+            out.setWriteListener(this);
+            // A comment line, to send the headers right away
+            write(new Event(null, ":\n\n"));
+        }
+
+        synchronized boolean isOpen() {
+            return open;
+        }
+
+        /**
+         * Sends a message as a single event.
+         *
+         * @param message
+         *            the message to send
+         * @return {@code true} if the message was queued for writing,
+         *         {@code false} if the channel has been closed
+         */
+        boolean send(String message) {
+            StringBuilder event = new StringBuilder(message.length() + 8);
+            for (String line : message.split("\n", -1)) {
+                event.append("data: ").append(line).append('\n');
+            }
+            return write(new Event(message, event.append('\n').toString()));
+        }
+
+        private synchronized boolean write(Event event) {
+            if (!open) {
+                return false;
+            }
+            queue.add(event);
+            drain();
+            return true;
+        }
+
+        private void drain() {
+            try {
+                while (!queue.isEmpty() && out.isReady()) {
+                    // Removed only once handed over to the container
+                    out.write(queue.peek().data);
+                    queue.poll();
+                }
+                if (queue.isEmpty() && out.isReady()) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                getLogger().debug("Unable to write to push connection", e);
+                close();
+            }
+        }
+
+        /**
+         * Closes the channel. Events not yet written are kept until taken with
+         * {@link #takeUnsent()}.
+         */
+        synchronized void close() {
+            if (!open) {
+                return;
+            }
+            open = false;
+            try {
+                asyncContext.complete();
+            } catch (IllegalStateException e) {
+                // Already completed by the container
+            }
+        }
+
+        /**
+         * Removes and returns the messages that have not been written to the
+         * response, in the order they were sent.
+         *
+         * @return the unwritten messages, not {@code null}
+         */
+        synchronized List<String> takeUnsent() {
+            List<String> unsent = new ArrayList<>(queue.size());
+            for (Event event : queue) {
+                if (event.message != null) {
+                    unsent.add(event.message);
+                }
+            }
+            queue.clear();
+            return unsent;
+        }
+
+        @Override
+        public synchronized void onWritePossible() {
+            if (open) {
+                drain();
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            getLogger().debug("Push connection failed", t);
+            close();
+        }
+
+        @Override
+        public synchronized void onComplete(AsyncEvent event) {
+            open = false;
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // The client reconnects automatically
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Not restarted
+        }
+
+        private static final class Event {
+            private final String message;
+            private final byte[] data;
+
+            private Event(String message, String data) {
+                this.message = message;
+                this.data = data.getBytes(StandardCharsets.UTF_8);
+            }
+        }
+    }
+}
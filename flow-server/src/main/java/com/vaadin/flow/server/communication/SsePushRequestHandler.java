@@ -0,0 +1,156 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.HandlerHelper;
+import com.vaadin.flow.server.HandlerHelper.RequestType;
+import com.vaadin.flow.server.HttpStatusCode;
+import com.vaadin.flow.server.RequestHandler;
+import com.vaadin.flow.server.SessionExpiredHandler;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinResponse;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinServletRequest;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.shared.ApplicationConstants;
+
+/**
+ * Handles requests to open a server-sent events stream for a UI using
+ * {@link SsePushConnection}. The request is suspended using servlet
+ * asynchronous processing and completed when the connection is closed.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class SsePushRequestHandler
+        implements RequestHandler, SessionExpiredHandler {
+
+    /**
+     * The content type of an event stream.
+     */
+    public static final String CONTENT_TYPE = "text/event-stream; charset=UTF-8";
+
+    /**
+     * How long a stream is kept open. The client opens a new one right away,
+     * which keeps intermediate proxies from treating the stream as stalled.
+     */
+    private static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    @Override
+    public boolean handleRequest(VaadinSession session, VaadinRequest request,
+            VaadinResponse response) throws IOException {
+        if (!HandlerHelper.isRequestType(request, RequestType.SSE)) {
+            return false;
+        }
+        if (!(request instanceof VaadinServletRequest)) {
+            throw new IllegalArgumentException(
+                    "Only VaadinServletRequests are supported");
+        }
+        HttpServletRequest httpRequest = (VaadinServletRequest) request;
+        if (!httpRequest.isAsyncSupported()) {
+            getLogger().warn(
+                    "Asynchronous processing is not supported by the servlet. "
+                            + "Server-sent events push will not work.");
+            response.sendError(HttpStatusCode.SERVICE_UNAVAILABLE.getCode(),
+                    "Asynchronous processing is not supported");
+            return true;
+        }
+
+        session.lock();
+        try {
+            UI ui = session.getService().findUI(request);
+            if (ui == null) {
+                response.sendError(HttpStatusCode.NOT_FOUND.getCode(),
+                        "UI not found");
+                return true;
+            }
+            if (!isPushIdValid(session, request
+                    .getParameter(ApplicationConstants.PUSH_ID_PARAMETER))) {
+                getLogger().warn(
+                        "Invalid identifier in new connection received from {}",
+                        request.getRemoteHost());
+                response.sendError(HttpStatusCode.FORBIDDEN.getCode(),
+                        "Invalid push identifier");
+                return true;
+            }
+            PushConnection connection = ui.getInternals().getPushConnection();
+            if (!(connection instanceof SsePushConnection)) {
+                response.sendError(HttpStatusCode.CONFLICT.getCode(),
+                        "Server-sent events push is not enabled for the UI");
+                return true;
+            }
+
+            setEventStreamHeaders(response);
+            AsyncContext asyncContext = httpRequest.startAsync();
+            asyncContext.setTimeout(TIMEOUT_MILLIS);
+            ((SsePushConnection) connection)
+                    .connect(new SsePushConnection.Channel(asyncContext));
+        } finally {
+            session.unlock();
+        }
+        return true;
+    }
+
+    @Override
+    public boolean handleSessionExpired(VaadinRequest request,
+            VaadinResponse response) throws IOException {
+        if (!HandlerHelper.isRequestType(request, RequestType.SSE)) {
+            return false;
+        }
+        // Sent as an event, as the client would only see a failed connection
+        // for an error response
+        setEventStreamHeaders(response);
+        PrintWriter writer = response.getWriter();
+        writer.write("data: " + VaadinService.createSessionExpiredJSON(true)
+                + "\n\n");
+        writer.flush();
+        return true;
+    }
+
+    private static void setEventStreamHeaders(VaadinResponse response) {
+        response.setContentType(CONTENT_TYPE);
+        response.setHeader("Cache-Control", "no-cache");
+        // Disable response buffering in nginx
+        response.setHeader("X-Accel-Buffering", "no");
+    }
+
+    private static boolean isPushIdValid(VaadinSession session,
+            String requestPushId) {
+        String sessionPushId = session.getPushId();
+        return requestPushId != null && MessageDigest.isEqual(
+                requestPushId.getBytes(StandardCharsets.UTF_8),
+                sessionPushId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(SsePushRequestHandler.class);
+    }
+}
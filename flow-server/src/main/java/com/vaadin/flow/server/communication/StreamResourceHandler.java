@@ -18,10 +18,12 @@ package com.vaadin.flow.server.communication;
 import jakarta.servlet.ServletContext;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
 
 import com.vaadin.flow.server.HttpStatusCode;
+import com.vaadin.flow.server.InputStreamFactory;
 import com.vaadin.flow.server.StreamResource;
 import com.vaadin.flow.server.StreamResourceWriter;
 import com.vaadin.flow.server.VaadinRequest;
@@ -60,6 +62,7 @@ public class StreamResourceHandler implements Serializable {
             throws IOException {
 
         StreamResourceWriter writer;
+        InputStream asyncSource = null;
         session.lock();
         try {
             ServletContext context = ((VaadinServletRequest) request)
@@ -74,6 +77,7 @@ public class StreamResourceHandler implements Serializable {
                 throw new IOException(
                         "Stream resource produces null input stream");
             }
+            asyncSource = createAsyncSource(request, streamResource);
         } catch (Exception exception) {
             response.setStatus(HttpStatusCode.INTERNAL_SERVER_ERROR.getCode());
             throw exception;
@@ -81,6 +85,10 @@ public class StreamResourceHandler implements Serializable {
         } finally {
             session.unlock();
         }
+        if (asyncSource != null) {
+            AsyncResponseWriter.transfer(request, asyncSource);
+            return;
+        }
         // don't use here "try resource" syntax sugar because in case there is
         // an exception the {@code outputStream} will be closed before "catch"
         // block which sets the status code and this code will not have any
@@ -99,4 +107,20 @@ public class StreamResourceHandler implements Serializable {
         }
     }
 
+    /**
+     * Opens the data of the resource to be written using non-blocking I/O, if
+     * enabled for the request. Only resources that read their data from an
+     * input stream that does not need the session lock can be written that
+     * way. Must be called while holding the session lock.
+     */
+    private static InputStream createAsyncSource(VaadinRequest request,
+            StreamResource streamResource) {
+        if (!AsyncResponseWriter.isEnabled(request)) {
+            return null;
+        }
+        InputStreamFactory factory = streamResource.getInputStreamFactory()
+                .filter(f -> !f.requiresLock()).orElse(null);
+        return factory == null ? null : factory.createInputStream();
+    }
+
 }
@@ -18,8 +18,10 @@ package com.vaadin.flow.server.communication;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -38,6 +40,7 @@ import com.vaadin.flow.server.VaadinResponse;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.server.communication.ServerRpcHandler.InvalidUIDLSecurityKeyException;
+import com.vaadin.flow.server.communication.ServerRpcHandler.RpcRequest;
 import com.vaadin.flow.server.communication.ServerRpcHandler.ResynchronizationRequiredException;
 import com.vaadin.flow.shared.JsonConstants;
 
@@ -98,13 +101,80 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
     }
 
     @Override
+    public boolean handleRequest(VaadinSession session, VaadinRequest request,
+            VaadinResponse response) throws IOException {
+        if (!canHandleRequest(request)) {
+            return false;
+        }
+        ServerRpcHandler handler = getRpcHandler(session);
+        if (overridesReaderHandleRpc(handler)) {
+            // The overridden method reads the message with the session locked
+            return super.handleRequest(session, request, response);
+        }
+
+        /*
+         * Read and parse the message before locking the session so that other
+         * requests and background threads are not blocked by the parsing of a
+         * large message.
+         */
+        RpcRequest rpcRequest;
+        try {
+            rpcRequest = handler.decodeRpc(request.getReader(), request);
+        } catch (JsonException e) {
+            getLogger().error("Error parsing JSON from request", e);
+            // Refresh on client side
+            writeRefresh(request, response);
+            return true;
+        }
+
+        return handleWithSessionLock(session,
+                () -> synchronizedHandleRequest(session, request, response,
+                        rpcRequest));
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
     public boolean synchronizedHandleRequest(VaadinSession session,
             VaadinRequest request, VaadinResponse response) throws IOException {
+        ServerRpcHandler handler = getRpcHandler(session);
+        return handleUidl(session, request, response,
+                ui -> handler.handleRpc(ui, request.getReader(), request));
+    }
+
+    /**
+     * Handles a UIDL request which has already been read and decoded using
+     * {@link ServerRpcHandler#decodeRpc(java.io.Reader, VaadinRequest)}. The
+     * session must be locked.
+     *
+     * @param session
+     *            The session for the request
+     * @param request
+     *            The request to handle
+     * @param response
+     *            The response object to which a response can be written.
+     * @param rpcRequest
+     *            the decoded RPC request, or <code>null</code> if the request
+     *            contained an empty message
+     * @return true if a response has been written and no further request
+     *         handlers should be called, otherwise false
+     * @throws IOException
+     *             If an IO error occurred
+     */
+    protected boolean synchronizedHandleRequest(VaadinSession session,
+            VaadinRequest request, VaadinResponse response,
+            RpcRequest rpcRequest) throws IOException {
+        ServerRpcHandler handler = getRpcHandler(session);
+        return handleUidl(session, request, response,
+                ui -> handler.handleRpc(ui, rpcRequest));
+    }
+
+    private boolean handleUidl(VaadinSession session, VaadinRequest request,
+            VaadinResponse response, RpcCall rpcCall) throws IOException {
         UI uI = session.getService().findUI(request);
         if (uI == null) {
             // This should not happen but it will if the UI has been closed. We
             // really don't want to see it in the server logs though
-            commitJsonResponse(response,
+            commitJsonResponse(request, response,
                     VaadinService.createUINotFoundJSON(false));
             return true;
         }
@@ -112,18 +182,18 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
         StringWriter stringWriter = new StringWriter();
 
         try {
-            getRpcHandler(session).handleRpc(uI, request.getReader(), request);
+            rpcCall.call(uI);
             writeUidl(uI, stringWriter, false);
         } catch (JsonException e) {
             getLogger().error("Error writing JSON to response", e);
             // Refresh on client side
-            writeRefresh(response);
+            writeRefresh(request, response);
             return true;
         } catch (InvalidUIDLSecurityKeyException e) {
             getLogger().warn("Invalid security key received from {}",
                     request.getRemoteHost());
             // Refresh on client side
-            writeRefresh(response);
+            writeRefresh(request, response);
             return true;
         } catch (ResynchronizationRequiredException e) { // NOSONAR
             // Resync on the client side
@@ -132,14 +202,38 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
             stringWriter.close();
         }
 
-        commitJsonResponse(response, stringWriter.toString());
+        commitJsonResponse(request, response, stringWriter.toString());
         return true;
     }
 
-    private void writeRefresh(VaadinResponse response) throws IOException {
+    /*
+     * A subclass overriding the deprecated method expects the message to be
+     * read through it, so the message is then not decoded before locking.
+     */
+    private static boolean overridesReaderHandleRpc(ServerRpcHandler handler) {
+        if (handler.getClass() == ServerRpcHandler.class) {
+            return false;
+        }
+        try {
+            return handler.getClass()
+                    .getMethod("handleRpc", UI.class, Reader.class,
+                            VaadinRequest.class)
+                    .getDeclaringClass() != ServerRpcHandler.class;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RpcCall {
+        void call(UI ui) throws IOException, InvalidUIDLSecurityKeyException;
+    }
+
+    private void writeRefresh(VaadinRequest request, VaadinResponse response)
+            throws IOException {
         String json = VaadinService.createCriticalNotificationJSON(null, null,
                 null, null);
-        commitJsonResponse(response, json);
+        commitJsonResponse(request, response, json);
     }
 
     void writeUidl(UI ui, Writer writer, boolean resync) throws IOException {
@@ -150,7 +244,8 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
         }
 
         // some dirt to prevent cross site scripting
-        String responseString = "for(;;);[" + uidl.toJson() + "]";
+        String responseString = "for(;;);["
+                + UidlWriter.toJson(uidl, dumpPendingBroadcasts(ui)) + "]";
         writer.write(responseString);
     }
 
@@ -158,6 +253,10 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
         return new UidlWriter().createUidl(ui, false, resync);
     }
 
+    List<String> dumpPendingBroadcasts(UI ui) {
+        return ui.getInternals().dumpPendingBroadcasts();
+    }
+
     private static final Logger getLogger() {
         return LoggerFactory.getLogger(UidlRequestHandler.class.getName());
     }
@@ -206,6 +305,42 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
      */
     public static void commitJsonResponse(VaadinResponse response, String json)
             throws IOException {
+        byte[] b = prepareJsonResponse(response, json);
+
+        OutputStream outputStream = response.getOutputStream();
+        outputStream.write(b);
+        // NOTE GateIn requires the buffers to be flushed to work
+        outputStream.flush();
+    }
+
+    /**
+     * Commit the JSON response for the given request. If enabled using
+     * {@link com.vaadin.flow.server.InitParameters#ASYNC_RESPONSE_WRITES}, the
+     * response body is written using non-blocking I/O after this method has
+     * returned, so that no container thread waits for a slow client.
+     * Otherwise, this is the same as
+     * {@link #commitJsonResponse(VaadinResponse, String)}.
+     *
+     * @param request
+     *            The request to respond to
+     * @param response
+     *            The response to write to
+     * @param json
+     *            The JSON to write
+     * @throws IOException
+     *             If there was an exception while writing to the output
+     */
+    public static void commitJsonResponse(VaadinRequest request,
+            VaadinResponse response, String json) throws IOException {
+        if (!AsyncResponseWriter.isEnabled(request)) {
+            commitJsonResponse(response, json);
+            return;
+        }
+        AsyncResponseWriter.write(request, prepareJsonResponse(response, json));
+    }
+
+    private static byte[] prepareJsonResponse(VaadinResponse response,
+            String json) {
         response.setContentType(JsonConstants.JSON_CONTENT_TYPE);
 
         // Ensure that the browser does not cache UIDL responses.
@@ -214,11 +349,7 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
 
         byte[] b = json.getBytes(UTF_8);
         response.setContentLength(b.length);
-
-        OutputStream outputStream = response.getOutputStream();
-        outputStream.write(b);
-        // NOTE GateIn requires the buffers to be flushed to work
-        outputStream.flush();
+        return b;
     }
 
     private void removeOffendingMprHashFragment(JsonObject uidl) {
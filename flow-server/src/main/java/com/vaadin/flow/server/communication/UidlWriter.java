@@ -43,6 +43,8 @@ import com.vaadin.flow.component.internal.DependencyList;
 import com.vaadin.flow.component.internal.PendingJavaScriptInvocation;
 import com.vaadin.flow.component.internal.UIInternals;
 import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.internal.ConstantPool;
+import com.vaadin.flow.internal.ConstantPoolKey;
 import com.vaadin.flow.internal.JsonCodec;
 import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.internal.StateNode;
@@ -57,6 +59,7 @@ import com.vaadin.flow.server.SystemMessages;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.server.WebBrowser;
+import com.vaadin.flow.server.metrics.RequestMetrics;
 import com.vaadin.flow.shared.ApplicationConstants;
 import com.vaadin.flow.shared.JsonConstants;
 import com.vaadin.flow.shared.ui.Dependency;
@@ -144,6 +147,9 @@ public class UidlWriter implements Serializable {
         // to write out
         service.runPendingAccessTasks(session);
 
+        RequestMetrics metrics = RequestMetrics.get(service);
+        long start = metrics.start();
+
         // Paints components
         getLogger().debug("* Creating response to client");
 
@@ -176,6 +182,14 @@ public class UidlWriter implements Serializable {
         populateDependencies(response, uiInternals.getDependencyList(),
                 new ResolveContext(service, session.getBrowser()));
 
+        List<PendingJavaScriptInvocation> executeJavaScriptList = uiInternals
+                .dumpPendingJavaScriptInvocations();
+        JsonArray executeJavaScript = executeJavaScriptList.isEmpty() ? null
+                : encodeExecuteJavaScriptList(executeJavaScriptList,
+                        uiInternals.getConstantPool());
+
+        // Repeated scripts are sent as constants, so the constants are dumped
+        // only after the invocations have been encoded
         if (uiInternals.getConstantPool().hasNewConstants()) {
             response.put("constants",
                     uiInternals.getConstantPool().dumpConstants());
@@ -184,16 +198,14 @@ public class UidlWriter implements Serializable {
             response.put("changes", stateChanges);
         }
 
-        List<PendingJavaScriptInvocation> executeJavaScriptList = uiInternals
-                .dumpPendingJavaScriptInvocations();
-        if (!executeJavaScriptList.isEmpty()) {
-            response.put(JsonConstants.UIDL_KEY_EXECUTE,
-                    encodeExecuteJavaScriptList(executeJavaScriptList));
+        if (executeJavaScript != null) {
+            response.put(JsonConstants.UIDL_KEY_EXECUTE, executeJavaScript);
         }
         if (service.getDeploymentConfiguration().isRequestTiming()) {
             response.put("timings", createPerformanceData(ui));
         }
         uiInternals.incrementServerId();
+        metrics.recordSince(RequestMetrics.UIDL_ENCODE, start);
         return response;
     }
 
@@ -211,6 +223,54 @@ public class UidlWriter implements Serializable {
         return createUidl(ui, async, false);
     }
 
+    /**
+     * Serializes a message created by
+     * {@link #createUidl(UI, boolean, boolean)} together with any messages
+     * published to the UI through a
+     * {@link com.vaadin.flow.server.BroadcastTopic} since the previous message.
+     * <p>
+     * The published messages have already been serialized when they were
+     * published and are included as is, so that a message published to many
+     * UIs is serialized only once.
+     *
+     * @param ui
+     *            the UI the message was created for
+     * @param uidl
+     *            the message to serialize
+     * @return the serialized message
+     */
+    public static String toJson(UI ui, JsonObject uidl) {
+        return toJson(uidl, ui.getInternals().dumpPendingBroadcasts());
+    }
+
+    /**
+     * Serializes a message created by
+     * {@link #createUidl(UI, boolean, boolean)} together with the given
+     * already serialized broadcast messages.
+     *
+     * @param uidl
+     *            the message to serialize
+     * @param broadcasts
+     *            the serialized broadcast messages to include, not
+     *            <code>null</code>
+     * @return the serialized message
+     * @see #toJson(UI, JsonObject)
+     */
+    public static String toJson(JsonObject uidl, List<String> broadcasts) {
+        String json = uidl.toJson();
+        if (broadcasts.isEmpty()) {
+            return json;
+        }
+        // The message always contains the sync id, so the broadcast key is
+        // appended after a comma before the closing brace
+        StringBuilder builder = new StringBuilder(json.length() + 32
+                + broadcasts.stream().mapToInt(String::length).sum());
+        builder.append(json, 0, json.length() - 1).append(",\"")
+                .append(JsonConstants.UIDL_KEY_BROADCAST).append("\":[");
+        builder.append(String.join(",", broadcasts));
+        return builder.append("]}").toString();
+    }
+
     private static void populateDependencies(JsonObject response,
             DependencyList dependencyList, ResolveContext context) {
         Collection<Dependency> pendingSendToClient = dependencyList
@@ -300,8 +360,15 @@ public class UidlWriter implements Serializable {
     // non-private for testing purposes
     static JsonArray encodeExecuteJavaScriptList(
             List<PendingJavaScriptInvocation> executeJavaScriptList) {
+        return encodeExecuteJavaScriptList(executeJavaScriptList, null);
+    }
+
+    static JsonArray encodeExecuteJavaScriptList(
+            List<PendingJavaScriptInvocation> executeJavaScriptList,
+            ConstantPool constantPool) {
         return executeJavaScriptList.stream()
-                .map(UidlWriter::encodeExecuteJavaScript)
+                .map(invocation -> encodeExecuteJavaScript(invocation,
+                        constantPool))
                 .collect(JsonUtils.asArray());
     }
 
@@ -322,7 +389,7 @@ public class UidlWriter implements Serializable {
     }
 
     private static JsonArray encodeExecuteJavaScript(
-            PendingJavaScriptInvocation invocation) {
+            PendingJavaScriptInvocation invocation, ConstantPool constantPool) {
         List<Object> parametersList = invocation.getInvocation()
                 .getParameters();
 
@@ -364,10 +431,26 @@ public class UidlWriter implements Serializable {
             //@formatter:on
         }
 
+        JsonValue script = Json.create(expression);
+        if (constantPool != null) {
+            /*
+             * Send scripts that are executed repeatedly by id so that the
+             * client can reuse the function it has compiled for them.
+             */
+            String scriptId = constantPool
+                    .getRepeatedConstantId(new ConstantPoolKey(script));
+            if (scriptId != null) {
+                JsonObject reference = Json.createObject();
+                reference.put(JsonConstants.UIDL_KEY_EXECUTE_SCRIPT_ID,
+                        scriptId);
+                script = reference;
+            }
+        }
+
         // [argument1, argument2, ..., script]
         return Stream
                 .concat(parameters.map(JsonCodec::encodeWithTypeInfo),
-                        Stream.of(Json.create(expression)))
+                        Stream.of(script))
                 .collect(JsonUtils.asArray());
     }
 
@@ -389,6 +472,9 @@ public class UidlWriter implements Serializable {
 
         stateTree.runExecutionsBeforeClientResponse();
 
+        RequestMetrics metrics = RequestMetrics
+                .get(ui.getSession().getService());
+        long start = metrics.start();
         Set<Class<? extends Component>> componentsWithDependencies = new LinkedHashSet<>();
         stateTree.collectChanges(change -> {
             if (attachesComponent(change)) {
@@ -401,6 +487,7 @@ public class UidlWriter implements Serializable {
             stateChanges.set(stateChanges.length(),
                     change.toJson(uiInternals.getConstantPool()));
         });
+        metrics.recordSince(RequestMetrics.COLLECT_CHANGES, start);
 
         componentsWithDependencies
                 .forEach(uiInternals::addComponentDependencies);
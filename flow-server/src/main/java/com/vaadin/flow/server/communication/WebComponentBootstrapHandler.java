@@ -131,7 +131,7 @@ public class WebComponentBootstrapHandler extends BootstrapHandler {
 
                     head.prependChild(getBootstrapScript(initialUIDL, context));
 
-                    if (context.getPushMode().isEnabled()) {
+                    if (context.isPushScriptNeeded()) {
                         head.prependChild(createJavaScriptModuleElement(
                                 getPushScript(context), true));
                     }
@@ -21,9 +21,17 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.function.BiPredicate;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.stream.Collectors;
@@ -255,7 +263,52 @@ public class JarContentsManager {
     public void copyIncludedFilesFromJarTrimmingBasePath(File jar,
             String jarDirectoryToCopyFrom, File outputDirectory,
             String... wildcardPathInclusions) {
+        copyIncludedFilesFromJarTrimmingBasePath(jar, jarDirectoryToCopyFrom,
+                outputDirectory, (path, crc) -> false, wildcardPathInclusions);
+    }
+
+    /**
+     * Copies files matching the inclusion filters from the jar file to the
+     * output directory, skipping the entries that are known to be up to date.
+     * <p>
+     * The contents of a skipped entry is not read at all, so an up to date
+     * filter based on the entry checksums avoids decompressing and comparing
+     * entries that have not changed since they were last copied.
+     *
+     * @param jar
+     *            jar file to look for files in, not {@code null}
+     * @param jarDirectoryToCopyFrom
+     *            a path relative to jar root, only files from this path will be
+     *            copied, can be {@code null}, which is treated as a root of the
+     *            jar. Files will be copied relative to this path (i.e. only
+     *            path part after this path is preserved in output directory)
+     * @param outputDirectory
+     *            the directory to copy files to, not {@code null}
+     * @param upToDate
+     *            filter receiving the path of the file relative to the output
+     *            directory and the CRC-32 checksum of the jar entry, returning
+     *            {@code true} if the file already has the entry contents
+     * @param wildcardPathInclusions
+     *            wildcard inclusions that are used to check each path against
+     *            before copying
+     * @return the paths relative to the output directory of all the included
+     *         files mapped to the CRC-32 checksums of their jar entries, or
+     *         {@code -1} if a checksum is not known
+     * @throws IllegalArgumentException
+     *             if jar file specified is not a file or does not exist or if
+     *             output directory is not a directory or does not exist
+     * @throws NullPointerException
+     *             if jar file, output directory or filter is {@code null}
+     * @throws UncheckedIOException
+     *             if {@link IOException} occurs during the operation, for
+     *             instance, when jar file specified is not a jar file
+     */
+    public Map<String, Long> copyIncludedFilesFromJarTrimmingBasePath(File jar,
+            String jarDirectoryToCopyFrom, File outputDirectory,
+            BiPredicate<String, Long> upToDate,
+            String... wildcardPathInclusions) {
         requireFileExistence(jar);
+        Objects.requireNonNull(upToDate);
 
         if (!Objects.requireNonNull(outputDirectory).isDirectory()) {
             throw new IllegalArgumentException(
@@ -265,18 +318,27 @@ public class JarContentsManager {
 
         String basePath = normalizeJarBasePath(jarDirectoryToCopyFrom);
 
+        Map<String, Long> included = new HashMap<>();
         try (JarFile jarFile = new JarFile(jar, false)) {
             jarFile.stream().filter(file -> !file.isDirectory())
                     .filter(file -> file.getName().toLowerCase(Locale.ENGLISH)
                             .startsWith(basePath.toLowerCase(Locale.ENGLISH)))
                     .filter(file -> includeFile(file, wildcardPathInclusions))
-                    .forEach(jarEntry -> copyJarEntryTrimmingBasePath(jarFile,
-                            jarEntry, basePath, outputDirectory));
+                    .forEach(jarEntry -> {
+                        String relativePath = trimBasePath(jarEntry, basePath);
+                        included.put(relativePath, jarEntry.getCrc());
+                        if (jarEntry.getCrc() == -1 || !upToDate
+                                .test(relativePath, jarEntry.getCrc())) {
+                            copyJarEntryTrimmingBasePath(jarFile, jarEntry,
+                                    basePath, outputDirectory);
+                        }
+                    });
         } catch (IOException e) {
             throw new UncheckedIOException(String.format(
                     "Failed to extract files from jarFile '%s' to directory '%s'",
                     jar, outputDirectory), e);
         }
+        return included;
     }
 
     private String normalizeJarBasePath(String rawPath) {
@@ -302,18 +364,14 @@ public class JarContentsManager {
 
     private void copyJarEntryTrimmingBasePath(JarFile jarFile,
             ZipEntry jarEntry, String basePath, File outputDirectory) {
-        String fullPath = jarEntry.getName();
-        String relativePath = fullPath
-                .substring(fullPath.toLowerCase(Locale.ENGLISH)
-                        .indexOf(basePath.toLowerCase(Locale.ENGLISH))
-                        + basePath.length());
-        File target = new File(outputDirectory, relativePath);
+        File target = new File(outputDirectory,
+                trimBasePath(jarEntry, basePath));
         try {
             if (!target.exists()
                     || !hasSameContent(jarFile.getInputStream(jarEntry),
                             target)) {
-                FileUtils.copyInputStreamToFile(
-                        jarFile.getInputStream(jarEntry), target);
+                copyInputStreamToFile(jarFile.getInputStream(jarEntry),
+                        target);
             }
         } catch (IOException e) {
             throw new UncheckedIOException(String.format(
@@ -322,6 +380,34 @@ public class JarContentsManager {
         }
     }
 
+    private String trimBasePath(ZipEntry jarEntry, String basePath) {
+        String fullPath = jarEntry.getName();
+        return fullPath.substring(fullPath.toLowerCase(Locale.ENGLISH)
+                .indexOf(basePath.toLowerCase(Locale.ENGLISH))
+                + basePath.length());
+    }
+
+    private void copyInputStreamToFile(InputStream source, File target)
+            throws IOException {
+        // Jars may be extracted concurrently into the same directory, write
+        // to a temporary file first so that a file is never seen half written
+        Path temp = new File(target.getParentFile(),
+                target.getName() + "." + UUID.randomUUID() + ".tmp").toPath();
+        try {
+            FileUtils.copyInputStreamToFile(source, temp.toFile());
+            try {
+                Files.move(temp, target.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
     private boolean hasSameContent(InputStream jarContent, File existingContent)
             throws IOException {
         try (InputStream existingContentStream = new FileInputStream(
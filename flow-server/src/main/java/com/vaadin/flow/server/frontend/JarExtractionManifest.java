@@ -0,0 +1,266 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.frontend;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import elemental.json.Json;
+import elemental.json.JsonException;
+import elemental.json.JsonObject;
+import elemental.json.impl.JsonUtil;
+
+/**
+ * Keeps track of the files extracted from jars by
+ * {@link TaskCopyFrontendFiles} between builds.
+ * <p>
+ * For each jar the size and modification time of the jar is stored together
+ * with the checksums of the extracted entries and the size and modification
+ * time of the extracted files. A jar that has not changed and whose extracted
+ * files have not been touched does not need to be opened at all, and only
+ * the changed entries of a changed jar need to be copied.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+final class JarExtractionManifest {
+
+    private static final int VERSION = 1;
+
+    private static final String VERSION_KEY = "version";
+    private static final String TARGET_KEY = "target";
+    private static final String JARS_KEY = "jars";
+    private static final String SIZE_KEY = "size";
+    private static final String LAST_MODIFIED_KEY = "lastModified";
+    private static final String FILES_KEY = "files";
+    private static final String CRC_KEY = "crc";
+
+    private final File manifestFile;
+    private final File targetDirectory;
+    private final JsonObject previousJars;
+    private final Map<String, JsonObject> jars = new ConcurrentHashMap<>();
+
+    private JarExtractionManifest(File manifestFile, File targetDirectory,
+            JsonObject previousJars) {
+        this.manifestFile = manifestFile;
+        this.targetDirectory = targetDirectory;
+        this.previousJars = previousJars;
+    }
+
+    /**
+     * Reads the manifest of the files extracted into the given directory.
+     *
+     * @param manifestFile
+     *            the manifest file, or {@code null} to not keep track of the
+     *            extracted files
+     * @param targetDirectory
+     *            the directory the files are extracted into
+     * @return the manifest, empty if the file does not exist, cannot be read
+     *         or is written for another directory
+     */
+    static JarExtractionManifest read(File manifestFile,
+            File targetDirectory) {
+        JsonObject previousJars = Json.createObject();
+        if (manifestFile != null && manifestFile.isFile()) {
+            try {
+                JsonObject manifest = Json.parse(FileUtils
+                        .readFileToString(manifestFile, StandardCharsets.UTF_8));
+                if (manifest.hasKey(VERSION_KEY)
+                        && (int) manifest.getNumber(VERSION_KEY) == VERSION
+                        && targetDirectory.getAbsolutePath()
+                                .equals(manifest.getString(TARGET_KEY))) {
+                    previousJars = manifest.getObject(JARS_KEY);
+                }
+            } catch (IOException | JsonException | ClassCastException
+                    | NullPointerException e) {
+                getLogger().debug("Ignoring unreadable manifest {}",
+                        manifestFile, e);
+            }
+        }
+        return new JarExtractionManifest(manifestFile, targetDirectory,
+                previousJars);
+    }
+
+    /**
+     * Checks whether the jar is unchanged since the files were extracted from
+     * it and the extracted files are still in place. If so, the jar is kept in
+     * the manifest without extracting it again.
+     *
+     * @param jar
+     *            the jar file
+     * @return {@code true} if the files from the jar are up to date
+     */
+    boolean keepIfUnchanged(File jar) {
+        JsonObject previous = getPreviousEntry(jar);
+        try {
+            if (previous == null
+                    || (long) previous.getNumber(SIZE_KEY) != jar.length()
+                    || (long) previous.getNumber(LAST_MODIFIED_KEY) != jar
+                            .lastModified()) {
+                return false;
+            }
+            JsonObject files = previous.getObject(FILES_KEY);
+            for (String path : files.keys()) {
+                if (!isFileUnchanged(files.getObject(path), path)) {
+                    return false;
+                }
+            }
+        } catch (JsonException | ClassCastException
+                | NullPointerException e) {
+            getLogger().debug("Ignoring malformed manifest entry for {}", jar,
+                    e);
+            return false;
+        }
+        jars.put(jar.getAbsolutePath(), previous);
+        return true;
+    }
+
+    /**
+     * Checks whether the file extracted from the jar still has the contents
+     * of the jar entry with the given checksum.
+     *
+     * @param jar
+     *            the jar file
+     * @param path
+     *            the path of the file relative to the target directory
+     * @param crc
+     *            the CRC-32 checksum of the jar entry
+     * @return {@code true} if the file is up to date
+     */
+    boolean isFileUnchanged(File jar, String path, long crc) {
+        JsonObject previous = getPreviousEntry(jar);
+        try {
+            if (previous == null
+                    || !previous.getObject(FILES_KEY).hasKey(path)) {
+                return false;
+            }
+            JsonObject file = previous.getObject(FILES_KEY).getObject(path);
+            return (long) file.getNumber(CRC_KEY) == crc
+                    && isFileUnchanged(file, path);
+        } catch (JsonException | ClassCastException
+                | NullPointerException e) {
+            getLogger().debug("Ignoring malformed manifest entry for {}", jar,
+                    e);
+            return false;
+        }
+    }
+
+    /**
+     * Records the files extracted from the jar.
+     *
+     * @param jar
+     *            the jar file
+     * @param files
+     *            the paths of the extracted files relative to the target
+     *            directory, mapped to the CRC-32 checksums of the jar entries
+     */
+    void update(File jar, Map<String, Long> files) {
+        JsonObject entry = Json.createObject();
+        entry.put(SIZE_KEY, jar.length());
+        entry.put(LAST_MODIFIED_KEY, jar.lastModified());
+        JsonObject fileEntries = Json.createObject();
+        files.forEach((path, crc) -> {
+            JsonObject file = Json.createObject();
+            file.put(CRC_KEY, crc);
+            fileEntries.put(path, file);
+        });
+        entry.put(FILES_KEY, fileEntries);
+        jars.put(jar.getAbsolutePath(), entry);
+    }
+
+    /**
+     * Gets the files recorded for the jar since the manifest was read, either
+     * kept by {@link #keepIfUnchanged(File)} or recorded by
+     * {@link #update(File, Map)}.
+     *
+     * @param jar
+     *            the jar file
+     * @return the paths of the files relative to the target directory, empty
+     *         if nothing is recorded for the jar
+     */
+    Set<String> getFiles(File jar) {
+        JsonObject entry = jars.get(jar.getAbsolutePath());
+        if (entry == null) {
+            return Collections.emptySet();
+        }
+        return new HashSet<>(
+                Arrays.asList(entry.getObject(FILES_KEY).keys()));
+    }
+
+    /**
+     * Writes the manifest with the jars kept or updated since it was read.
+     * <p>
+     * The sizes and modification times of the extracted files are recorded
+     * only now, since a file may have been written by several jars.
+     */
+    void write() {
+        if (manifestFile == null) {
+            return;
+        }
+        JsonObject jarEntries = Json.createObject();
+        jars.forEach((jar, entry) -> {
+            JsonObject files = entry.getObject(FILES_KEY);
+            for (String path : files.keys()) {
+                File file = new File(targetDirectory, path);
+                files.getObject(path).put(SIZE_KEY, file.length());
+                files.getObject(path).put(LAST_MODIFIED_KEY,
+                        file.lastModified());
+            }
+            jarEntries.put(jar, entry);
+        });
+        JsonObject manifest = Json.createObject();
+        manifest.put(VERSION_KEY, VERSION);
+        manifest.put(TARGET_KEY, targetDirectory.getAbsolutePath());
+        manifest.put(JARS_KEY, jarEntries);
+        try {
+            FileUtils.write(manifestFile, JsonUtil.stringify(manifest),
+                    StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            getLogger().debug("Unable to write manifest {}", manifestFile, e);
+        }
+    }
+
+    private JsonObject getPreviousEntry(File jar) {
+        return previousJars.hasKey(jar.getAbsolutePath())
+                ? previousJars.getObject(jar.getAbsolutePath())
+                : null;
+    }
+
+    private boolean isFileUnchanged(JsonObject entry, String path) {
+        File file = new File(targetDirectory, path);
+        return entry.hasKey(SIZE_KEY) && file.isFile()
+                && (long) entry.getNumber(SIZE_KEY) == file.length()
+                && (long) entry.getNumber(LAST_MODIFIED_KEY) == file
+                        .lastModified();
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(JarExtractionManifest.class);
+    }
+}
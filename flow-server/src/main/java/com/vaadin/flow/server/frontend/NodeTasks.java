@@ -24,8 +24,14 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.IntStream;
 
 import com.vaadin.experimental.FeatureFlags;
@@ -163,6 +169,8 @@ public class NodeTasks implements FallibleCommand {
          */
         private List<String> postinstallPackages;
 
+        private boolean parallelExecution = true;
+
         /**
          * Create a builder instance given an specific npm folder.
          *
@@ -683,8 +691,29 @@ public class NodeTasks implements FallibleCommand {
         public File getFlowResourcesFolder() {
             return flowResourcesFolder;
         }
+
+        /**
+         * Sets whether commands that do not depend on each other may be
+         * executed concurrently. Default is <code>true</code>.
+         *
+         * @param parallelExecution
+         *            <code>true</code> to execute independent commands
+         *            concurrently, <code>false</code> to execute all commands
+         *            one after another
+         * @return the builder, for chaining
+         */
+        public Builder enableParallelExecution(boolean parallelExecution) {
+            this.parallelExecution = parallelExecution;
+            return this;
+        }
     }
 
+    private static final String SCAN_CACHE_FILE = "flow-frontend-scan-cache.bin";
+
+    private static final String JAR_EXTRACTION_MANIFEST_FILE = "flow-frontend-jar-manifest.json";
+
+    private static final String PACKAGES_FINGERPRINT_FILE = "flow-frontend-packages.hash";
+
     //@formatter:off
     private static final String V14_BOOTSTRAPPING_VITE_ERROR_MESSAGE =
             "\n\n************************************************************************************"
@@ -730,9 +759,53 @@ public class NodeTasks implements FallibleCommand {
         ));
     // @formatter:on
 
+    // Commands that clean the generated frontend folder before writing their
+    // files to it
+    private static final List<Class<? extends FallibleCommand>> frontendGeneratedCleaners =
+        List.of(TaskGenerateOpenAPI.class, TaskGenerateEndpoint.class,
+                TaskGenerateHilla.class);
+
+    // @formatter:off
+    // Commands whose outputs are disjoint from the files written or read by
+    // any other command, except for the listed ones, mapped to those
+    // commands. Commands not listed here wait for all the commands before
+    // them in commandOrder.
+    private static final Map<Class<? extends FallibleCommand>, List<Class<? extends FallibleCommand>>> independentCommands =
+        Map.ofEntries(
+            Map.entry(TaskNotifyWebpackConfExistenceWhileUsingVite.class, List.of()),
+            Map.entry(TaskGenerateIndexHtml.class, List.of()),
+            Map.entry(TaskGenerateIndexTs.class, frontendGeneratedCleaners),
+            Map.entry(TaskGenerateViteDevMode.class, frontendGeneratedCleaners),
+            Map.entry(TaskGenerateTsConfig.class, List.of()),
+            // only generated if there is a tsconfig.json
+            Map.entry(TaskGenerateTsDefinitions.class, List.of(
+                TaskGenerateTsConfig.class)),
+            Map.entry(TaskGenerateServiceWorker.class, List.of()),
+            Map.entry(TaskGenerateBootstrap.class, frontendGeneratedCleaners),
+            Map.entry(TaskGenerateWebComponentHtml.class, List.of()),
+            Map.entry(TaskGenerateWebComponentBootstrap.class,
+                frontendGeneratedCleaners),
+            Map.entry(TaskGenerateFeatureFlags.class, frontendGeneratedCleaners),
+            // npm install may clean up the folder the resources are copied to
+            Map.entry(TaskCopyFrontendFiles.class, List.of(
+                TaskGeneratePackageJson.class,
+                TaskUpdatePackages.class,
+                TaskRunNpmInstall.class)),
+            // local files override the ones copied from jars
+            Map.entry(TaskCopyLocalFrontendFiles.class, List.of(
+                TaskGeneratePackageJson.class,
+                TaskUpdatePackages.class,
+                TaskRunNpmInstall.class,
+                TaskCopyFrontendFiles.class))
+        );
+    // @formatter:on
+
     private final List<FallibleCommand> commands = new ArrayList<>();
 
+    private final boolean parallelExecution;
+
     private NodeTasks(Builder builder) {
+        parallelExecution = builder.parallelExecution;
 
         ClassFinder classFinder = new ClassFinder.CachedClassFinder(
                 builder.classFinder);
@@ -742,10 +815,14 @@ public class NodeTasks implements FallibleCommand {
 
         if (builder.enablePackagesUpdate || builder.enableImportsUpdate
                 || builder.enableWebpackConfigUpdate) {
+            File scanCacheFile = builder.npmFolder == null ? null
+                    : new File(new File(builder.npmFolder,
+                            builder.buildDirectory), SCAN_CACHE_FILE);
             frontendDependencies = new FrontendDependenciesScanner.FrontendDependenciesScannerFactory()
                     .createScanner(!builder.useByteCodeScanner, classFinder,
                             builder.generateEmbeddableWebComponents,
-                            builder.useLegacyV14Bootstrap, featureFlags);
+                            builder.useLegacyV14Bootstrap, featureFlags,
+                            false, scanCacheFile);
 
             if (builder.generateEmbeddableWebComponents) {
                 FrontendWebComponentGenerator generator = new FrontendWebComponentGenerator(
@@ -766,11 +843,15 @@ public class NodeTasks implements FallibleCommand {
             TaskUpdatePackages packageUpdater = null;
             if (builder.enablePackagesUpdate
                     && builder.flowResourcesFolder != null) {
+                File fingerprintFile = builder.npmFolder == null ? null
+                        : new File(new File(builder.npmFolder,
+                                builder.buildDirectory),
+                                PACKAGES_FINGERPRINT_FILE);
                 packageUpdater = new TaskUpdatePackages(classFinder,
                         frontendDependencies, builder.npmFolder,
                         builder.generatedFolder, builder.flowResourcesFolder,
                         builder.cleanNpmFiles, builder.enablePnpm,
-                        builder.buildDirectory, featureFlags);
+                        builder.buildDirectory, featureFlags, fingerprintFile);
                 commands.add(packageUpdater);
 
             }
@@ -833,8 +914,12 @@ public class NodeTasks implements FallibleCommand {
         }
 
         if (builder.jarFiles != null && builder.flowResourcesFolder != null) {
+            File manifestFile = builder.npmFolder == null ? null
+                    : new File(new File(builder.npmFolder,
+                            builder.buildDirectory),
+                            JAR_EXTRACTION_MANIFEST_FILE);
             commands.add(new TaskCopyFrontendFiles(builder.flowResourcesFolder,
-                    builder.jarFiles));
+                    builder.jarFiles, manifestFile));
         }
 
         if (builder.localResourcesFolder != null
@@ -973,11 +1058,115 @@ public class NodeTasks implements FallibleCommand {
     public void execute() throws ExecutionFailedException {
         sortCommands(commands);
 
+        if (parallelExecution && commands.size() > 1) {
+            executeInParallel();
+            return;
+        }
         for (FallibleCommand command : commands) {
             command.execute();
         }
     }
 
+    /**
+     * Executes the commands so that each command is started as soon as the
+     * commands it depends on have completed. Returns when all started commands
+     * have completed.
+     */
+    private void executeInParallel() throws ExecutionFailedException {
+        int threads = Math.min(commands.size(),
+                Math.max(2, Runtime.getRuntime().availableProcessors()));
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                runnable -> {
+                    Thread thread = new Thread(runnable, "vaadin-node-tasks-"
+                            + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>(
+                    commands.size());
+            for (int i = 0; i < commands.size(); i++) {
+                FallibleCommand command = commands.get(i);
+                List<CompletableFuture<Void>> prerequisites = new ArrayList<>();
+                for (int j = 0; j < i; j++) {
+                    if (dependsOn(command, commands.get(j))) {
+                        prerequisites.add(futures.get(j));
+                    }
+                }
+                futures.add(CompletableFuture
+                        .allOf(prerequisites.toArray(new CompletableFuture[0]))
+                        .thenRunAsync(() -> executeCommand(command),
+                                executor));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .join();
+        } catch (CompletionException exception) {
+            Throwable cause = exception.getCause();
+            if (cause instanceof ExecutionFailedException) {
+                throw (ExecutionFailedException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw exception;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void executeCommand(FallibleCommand command) {
+        try {
+            command.execute();
+        } catch (ExecutionFailedException exception) {
+            throw new CompletionException(exception);
+        }
+    }
+
+    /**
+     * Checks whether the given command must not be started before the other
+     * command, which is executed earlier in the pre-defined order, has
+     * completed.
+     *
+     * @param command
+     *            the command to check
+     * @param earlierCommand
+     *            a command that precedes the command in the pre-defined order
+     * @return <code>true</code> if the command depends on the earlier command
+     */
+    static boolean dependsOn(FallibleCommand command,
+            FallibleCommand earlierCommand) {
+        if (!hasDisjointOutputs(command, earlierCommand)) {
+            return true;
+        }
+        return independentCommands.entrySet().stream()
+                .filter(entry -> entry.getKey()
+                        .isAssignableFrom(command.getClass()))
+                .findFirst()
+                .map(entry -> entry.getValue().stream()
+                        .anyMatch(dependency -> dependency.isAssignableFrom(
+                                earlierCommand.getClass())))
+                .orElse(true);
+    }
+
+    /*
+     * Guards against two generators configured to write the same file, the
+     * outputs of other commands are only known through independentCommands.
+     */
+    private static boolean hasDisjointOutputs(FallibleCommand command,
+            FallibleCommand earlierCommand) {
+        if (command instanceof AbstractTaskClientGenerator
+                && earlierCommand instanceof AbstractTaskClientGenerator) {
+            File generatedFile = ((AbstractTaskClientGenerator) command)
+                    .getGeneratedFile();
+            return generatedFile != null && !generatedFile
+                    .equals(((AbstractTaskClientGenerator) earlierCommand)
+                            .getGeneratedFile());
+        }
+        return true;
+    }
+
     /**
      * Sort command list so we always execute commands in a pre-defined order.
      *
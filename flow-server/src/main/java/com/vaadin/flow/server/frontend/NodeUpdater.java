@@ -556,9 +556,17 @@ public abstract class NodeUpdater implements FallibleCommand {
 
     String writePackageFile(JsonObject json, File packageFile)
             throws IOException {
+        String content = stringify(json, 2) + "\n";
+        if (packageFile.isFile() && content.equals(
+                FileUtils.readFileToString(packageFile, UTF_8.name()))) {
+            // Keep the file untouched so that its timestamp and the
+            // fingerprint of the package update inputs stay the same
+            log().debug("file {} is up to date.",
+                    packageFile.getAbsolutePath());
+            return content;
+        }
         log().debug("writing file {}.", packageFile.getAbsolutePath());
         FileUtils.forceMkdirParent(packageFile);
-        String content = stringify(json, 2) + "\n";
         FileUtils.writeStringToFile(packageFile, content, UTF_8.name());
         return content;
     }
@@ -601,7 +609,7 @@ public abstract class NodeUpdater implements FallibleCommand {
      */
     protected String generateVersionsJson(JsonObject packageJson)
             throws IOException {
-        File versions = new File(generatedFolder, "versions.json");
+        File versions = getVersionsFile();
 
         JsonObject versionsJson = getPlatformPinnedDependencies();
         JsonObject packageJsonVersions = generateVersionsFromPackageJson(
@@ -617,6 +625,14 @@ public abstract class NodeUpdater implements FallibleCommand {
         }
         FileUtils.write(versions, stringify(versionsJson, 2) + "\n",
                 StandardCharsets.UTF_8);
+        return getVersionsPath(versions);
+    }
+
+    File getVersionsFile() {
+        return new File(generatedFolder, "versions.json");
+    }
+
+    String getVersionsPath(File versions) {
         Path versionsPath = versions.toPath();
         if (versions.isAbsolute()) {
             return FrontendUtils.getUnixRelativePath(npmFolder.toPath(),
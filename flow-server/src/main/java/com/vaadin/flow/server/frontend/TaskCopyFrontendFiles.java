@@ -16,8 +16,14 @@
 package com.vaadin.flow.server.frontend;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -41,6 +47,7 @@ public class TaskCopyFrontendFiles implements FallibleCommand {
     private static final String WILDCARD_INCLUSION_APP_THEME_JAR = "**/themes/**/*";
     private File targetDirectory;
     private Set<File> resourceLocations = null;
+    private File manifestFile;
 
     /**
      * Scans the jar files given defined by {@code resourcesToScan}.
@@ -51,13 +58,33 @@ public class TaskCopyFrontendFiles implements FallibleCommand {
      *            folders and jar files to scan.
      */
     TaskCopyFrontendFiles(File targetDirectory, Set<File> resourcesToScan) {
+        this(targetDirectory, resourcesToScan, null);
+    }
+
+    /**
+     * Scans the jar files given defined by {@code resourcesToScan}, skipping
+     * the jars that have not changed since the previous execution.
+     *
+     * @param targetDirectory
+     *            target directory for the discovered files
+     * @param resourcesToScan
+     *            folders and jar files to scan.
+     * @param manifestFile
+     *            file to keep track of the files extracted from jars in, or
+     *            {@code null} to always extract all jars
+     */
+    TaskCopyFrontendFiles(File targetDirectory, Set<File> resourcesToScan,
+            File manifestFile) {
         Objects.requireNonNull(targetDirectory,
                 "Parameter 'targetDirectory' must not be " + "null");
         Objects.requireNonNull(resourcesToScan,
                 "Parameter 'jarFilesToScan' must not be null");
         this.targetDirectory = targetDirectory;
+        // The order is kept, so that the last location wins when several
+        // provide the same file
         resourceLocations = resourcesToScan.stream().filter(File::exists)
-                .collect(Collectors.toSet());
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        this.manifestFile = manifestFile;
     }
 
     @Override
@@ -65,7 +92,10 @@ public class TaskCopyFrontendFiles implements FallibleCommand {
         long start = System.nanoTime();
         log().info("Copying frontend resources from jar files ...");
         TaskCopyLocalFrontendFiles.createTargetFolder(targetDirectory);
-        JarContentsManager jarContentsManager = new JarContentsManager();
+        JarExtractionManifest manifest = JarExtractionManifest
+                .read(manifestFile, targetDirectory);
+        List<File> jarLocations = new ArrayList<>();
+        List<File> jars = new ArrayList<>();
         for (File location : resourceLocations) {
             if (location.isDirectory()) {
                 TaskCopyLocalFrontendFiles.copyLocalResources(
@@ -76,20 +106,65 @@ public class TaskCopyFrontendFiles implements FallibleCommand {
                                 COMPATIBILITY_RESOURCES_FRONTEND_DEFAULT),
                         targetDirectory);
             } else {
-                jarContentsManager.copyIncludedFilesFromJarTrimmingBasePath(
-                        location, RESOURCES_FRONTEND_DEFAULT, targetDirectory,
-                        WILDCARD_INCLUSIONS);
-                jarContentsManager.copyIncludedFilesFromJarTrimmingBasePath(
-                        location, COMPATIBILITY_RESOURCES_FRONTEND_DEFAULT,
-                        targetDirectory, WILDCARD_INCLUSIONS);
-                jarContentsManager.copyIncludedFilesFromJarTrimmingBasePath(
-                        location, RESOURCES_JAR_DEFAULT, targetDirectory,
-                        WILDCARD_INCLUSION_APP_THEME_JAR);
+                jarLocations.add(location);
+                if (!manifest.keepIfUnchanged(location)) {
+                    jars.add(location);
+                }
             }
         }
+        // Jars are mostly independent of each other, extract the changed ones
+        // concurrently
+        JarContentsManager jarContentsManager = new JarContentsManager();
+        jars.parallelStream().forEach(jar -> manifest.update(jar,
+                copyJar(jarContentsManager, jar,
+                        (path, crc) -> manifest.isFileUnchanged(jar, path,
+                                crc))));
+        // Jars providing the same files are extracted again one by one, so
+        // that the last one wins regardless of the order they were extracted
+        // in above
+        List<File> overlapping = getOverlappingJars(jarLocations, manifest);
+        if (overlapping.stream().anyMatch(jars::contains)) {
+            for (File jar : overlapping) {
+                manifest.update(jar, copyJar(jarContentsManager, jar,
+                        (path, crc) -> false));
+            }
+        }
+        manifest.write();
         long ms = (System.nanoTime() - start) / 1000000;
-        log().info("Visited {} resources. Took {} ms.",
-                resourceLocations.size(), ms);
+        log().info("Visited {} resources, {} jars changed. Took {} ms.",
+                resourceLocations.size(), jars.size(), ms);
+    }
+
+    private static List<File> getOverlappingJars(List<File> jars,
+            JarExtractionManifest manifest) {
+        Map<String, Integer> providers = new HashMap<>();
+        for (File jar : jars) {
+            manifest.getFiles(jar)
+                    .forEach(path -> providers.merge(path, 1, Integer::sum));
+        }
+        List<File> overlapping = new ArrayList<>();
+        for (File jar : jars) {
+            if (manifest.getFiles(jar).stream()
+                    .anyMatch(path -> providers.get(path) > 1)) {
+                overlapping.add(jar);
+            }
+        }
+        return overlapping;
+    }
+
+    private Map<String, Long> copyJar(JarContentsManager jarContentsManager,
+            File jar, BiPredicate<String, Long> unchanged) {
+        Map<String, Long> files = new HashMap<>();
+        files.putAll(jarContentsManager.copyIncludedFilesFromJarTrimmingBasePath(
+                jar, RESOURCES_FRONTEND_DEFAULT, targetDirectory, unchanged,
+                WILDCARD_INCLUSIONS));
+        files.putAll(jarContentsManager.copyIncludedFilesFromJarTrimmingBasePath(
+                jar, COMPATIBILITY_RESOURCES_FRONTEND_DEFAULT, targetDirectory,
+                unchanged, WILDCARD_INCLUSIONS));
+        files.putAll(jarContentsManager.copyIncludedFilesFromJarTrimmingBasePath(
+                jar, RESOURCES_JAR_DEFAULT, targetDirectory, unchanged,
+                WILDCARD_INCLUSION_APP_THEME_JAR));
+        return files;
     }
 
     private Logger log() {
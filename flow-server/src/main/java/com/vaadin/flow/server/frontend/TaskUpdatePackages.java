@@ -17,7 +17,9 @@ package com.vaadin.flow.server.frontend;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UncheckedIOException;
+import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -26,14 +28,17 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 
 import com.vaadin.experimental.FeatureFlags;
 import com.vaadin.flow.component.dependency.NpmPackage;
 import com.vaadin.flow.internal.StringUtil;
+import com.vaadin.flow.server.Constants;
 import com.vaadin.flow.server.Platform;
 import com.vaadin.flow.server.frontend.scanner.ClassFinder;
 import com.vaadin.flow.server.frontend.scanner.FrontendDependenciesScanner;
@@ -59,6 +64,7 @@ public class TaskUpdatePackages extends NodeUpdater {
     protected static final String VAADIN_APP_PACKAGE_HASH = "vaadinAppPackageHash";
     private final boolean forceCleanUp;
     private final boolean enablePnpm;
+    private final File fingerprintFile;
 
     /**
      * Create an instance of the updater given all configurable parameters.
@@ -87,15 +93,64 @@ public class TaskUpdatePackages extends NodeUpdater {
             FrontendDependenciesScanner frontendDependencies, File npmFolder,
             File generatedPath, File flowResourcesPath, boolean forceCleanUp,
             boolean enablePnpm, String buildDir, FeatureFlags featureFlags) {
+        this(finder, frontendDependencies, npmFolder, generatedPath,
+                flowResourcesPath, forceCleanUp, enablePnpm, buildDir,
+                featureFlags, null);
+    }
+
+    /**
+     * Create an instance of the updater that skips the update when none of
+     * its inputs have changed since the previous run.
+     *
+     * @param finder
+     *            a reusable class finder
+     * @param frontendDependencies
+     *            a reusable frontend dependencies
+     * @param npmFolder
+     *            folder with the `package.json` file
+     * @param generatedPath
+     *            folder where flow generated files will be placed.
+     * @param flowResourcesPath
+     *            folder where flow dependencies taken from resources files will
+     *            be placed.
+     * @param forceCleanUp
+     *            forces the clean up process to be run. If {@code false}, clean
+     *            up will be performed when platform version update is detected.
+     * @param enablePnpm
+     *            if {@code true} then pnpm is used instead of npm, otherwise
+     *            npm is used
+     * @param buildDir
+     *            the used build directory
+     * @param featureFlags
+     *            FeatureFlags for this build
+     * @param fingerprintFile
+     *            the file to store the fingerprint of the inputs in, or
+     *            {@code null} to always run the update
+     */
+    TaskUpdatePackages(ClassFinder finder,
+            FrontendDependenciesScanner frontendDependencies, File npmFolder,
+            File generatedPath, File flowResourcesPath, boolean forceCleanUp,
+            boolean enablePnpm, String buildDir, FeatureFlags featureFlags,
+            File fingerprintFile) {
         super(finder, frontendDependencies, npmFolder, generatedPath,
                 flowResourcesPath, buildDir, featureFlags);
         this.forceCleanUp = forceCleanUp;
         this.enablePnpm = enablePnpm;
+        this.fingerprintFile = fingerprintFile;
     }
 
     @Override
     public void execute() {
         try {
+            if (isUpToDate()) {
+                modified = false;
+                versionsPath = getVersionsPath(getVersionsFile());
+                log().debug(
+                        "Skipping package.json update, the scanned packages, "
+                                + "platform versions and package.json are "
+                                + "unchanged since the previous build");
+                return;
+            }
             Map<String, String> scannedApplicationDependencies = frontDeps
                     .getPackages();
             JsonObject packageJson = getPackageJson();
@@ -120,12 +175,77 @@ public class TaskUpdatePackages extends NodeUpdater {
                     deletePnpmLockFile();
                 }
             }
-
+            writeFingerprint();
         } catch (IOException e) {
             throw new UncheckedIOException(e);
         }
     }
 
+    private boolean isUpToDate() throws IOException {
+        if (fingerprintFile == null || forceCleanUp
+                || !fingerprintFile.isFile()
+                || !getVersionsFile().isFile()) {
+            return false;
+        }
+        String previous = FileUtils.readFileToString(fingerprintFile,
+                StandardCharsets.UTF_8);
+        return previous.equals(computeFingerprint());
+    }
+
+    private void writeFingerprint() throws IOException {
+        if (fingerprintFile != null) {
+            FileUtils.writeStringToFile(fingerprintFile, computeFingerprint(),
+                    StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Computes a hash of everything the update depends on: the scanned
+     * packages, the default and platform versions, the current package.json
+     * and versions.json contents and the settings of this task. When the hash
+     * equals the one stored after the previous run, running the update again
+     * would not change anything.
+     */
+    private String computeFingerprint() throws IOException {
+        StringBuilder content = new StringBuilder();
+        new TreeMap<>(frontDeps.getPackages()).forEach(
+                (pkg, version) -> content.append(pkg).append('=')
+                        .append(version).append('\n'));
+        content.append(new TreeMap<>(getDefaultDependencies())).append('\n');
+        content.append(new TreeMap<>(getDefaultDevDependencies()))
+                .append('\n');
+        content.append(npmFolder.getAbsolutePath()).append('\n');
+        content.append(flowResourcesFolder == null ? ""
+                : flowResourcesFolder.getAbsolutePath()).append('\n');
+        content.append(buildDir).append('\n');
+        content.append(enablePnpm).append('\n');
+        content.append(Platform.getVaadinVersion().orElse("")).append('\n');
+        content.append(isPlatformVersionUpdated()).append('\n');
+        content.append(readResource(Constants.VAADIN_CORE_VERSIONS_JSON))
+                .append('\n');
+        content.append(readResource(Constants.VAADIN_VERSIONS_JSON))
+                .append('\n');
+        content.append(readFile(getPackageJsonFile())).append('\n');
+        content.append(readFile(getVersionsFile()));
+        return StringUtil.getHash(content.toString());
+    }
+
+    private String readResource(String resource) throws IOException {
+        URL url = finder.getResource(resource);
+        if (url == null) {
+            return "";
+        }
+        try (InputStream stream = url.openStream()) {
+            return IOUtils.toString(stream, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String readFile(File file) throws IOException {
+        return file.isFile()
+                ? FileUtils.readFileToString(file, StandardCharsets.UTF_8)
+                : "";
+    }
+
     boolean lockVersionForNpm(JsonObject packageJson, String versionsPath)
             throws IOException {
         if (enablePnpm) {
@@ -19,11 +19,11 @@ import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.net.URL;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import com.googlecode.gentyref.GenericTypeReflector;
@@ -129,7 +129,7 @@ public interface ClassFinder extends Serializable {
 
         private ClassFinder classFinder;
 
-        private Map<Class<? extends Annotation>, Set<Class<?>>> annotatedClassesMapCache = new HashMap<>();
+        private Map<Class<? extends Annotation>, Set<Class<?>>> annotatedClassesMapCache = new ConcurrentHashMap<>();
 
         /**
          * It uses specified classFinder and caches scanned annotation.
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.frontend.scanner;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The frontend related information found in the byte code of a single class.
+ * <p>
+ * The information does not depend on the end-point the class is visited from,
+ * so it can be collected concurrently and cached between builds.
+ * {@link #applyTo(String, EndPointData, boolean)} interprets the information
+ * in the context of an end-point.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+final class ClassInfo implements Serializable {
+
+    private static final String LAYOUT = "layout";
+    private static final String VARIANT = "variant";
+
+    final Set<String> children = new HashSet<>();
+    final List<String> modules = new ArrayList<>();
+    final List<String> scripts = new ArrayList<>();
+    final List<CssData> css = new ArrayList<>();
+    boolean noTheme;
+
+    // Attributes of @Route annotations and the classes referenced by them
+    // when the class is not the end-point itself
+    final List<String[]> routeAttributes = new ArrayList<>();
+    final Set<String> routeChildren = new HashSet<>();
+
+    // Attributes of @Theme annotations and the classes referenced by them
+    // when the class is neither the end-point nor its layout
+    final List<String[]> themeAttributes = new ArrayList<>();
+    final Set<String> themeChildren = new HashSet<>();
+
+    boolean hasRoute;
+    boolean hasTheme;
+
+    /**
+     * Gets all classes that might be visited after this class, regardless of
+     * the end-point.
+     *
+     * @return the referenced classes
+     */
+    Set<String> getReferencedClasses() {
+        Set<String> all = new HashSet<>(children);
+        all.addAll(routeChildren);
+        all.addAll(themeChildren);
+        routeAttributes.stream().filter(attr -> LAYOUT.equals(attr[0]))
+                .forEach(attr -> all.add(attr[1]));
+        themeAttributes.stream()
+                .filter(attr -> FrontendClassVisitor.THEME_CLASS
+                        .equals(attr[0]))
+                .forEach(attr -> all.add(attr[1]));
+        return all;
+    }
+
+    /**
+     * Updates the end-point with the information of this class.
+     *
+     * @param className
+     *            the name of this class
+     * @param endPoint
+     *            the end-point the class is visited from
+     * @param themeScope
+     *            whether we are visiting from Theme
+     * @return the classes to visit next
+     */
+    Set<String> applyTo(String className, EndPointData endPoint,
+            boolean themeScope) {
+        Set<String> next = new HashSet<>(children);
+
+        if (hasRoute) {
+            if (className.equals(endPoint.name)) {
+                for (String[] attribute : routeAttributes) {
+                    if (LAYOUT.equals(attribute[0])) {
+                        endPoint.layout = attribute[1];
+                        next.add(endPoint.layout);
+                    } else if (FrontendClassVisitor.VALUE
+                            .equals(attribute[0])) {
+                        endPoint.route = attribute[1];
+                    }
+                }
+            } else {
+                next.addAll(routeChildren);
+            }
+        }
+
+        if (themeScope) {
+            endPoint.themeModules.addAll(modules);
+        } else {
+            endPoint.modules.addAll(modules);
+        }
+        endPoint.scripts.addAll(scripts);
+        endPoint.css.addAll(css);
+
+        if (noTheme && className.equals(endPoint.name)) {
+            endPoint.theme.notheme = true;
+        }
+
+        if (hasTheme) {
+            if (className.equals(endPoint.name)) {
+                themeAttributes.forEach(attribute -> setThemeAttribute(
+                        endPoint, attribute[0], attribute[1], next));
+            } else if (className.equals(endPoint.layout)) {
+                for (String[] attribute : themeAttributes) {
+                    String name = attribute[0];
+                    if (FrontendClassVisitor.VALUE.equals(name)
+                            || (FrontendClassVisitor.THEME_CLASS.equals(name)
+                                    && endPoint.theme.themeClass == null)
+                            || (VARIANT.equals(name)
+                                    && endPoint.theme.variant.isEmpty())) {
+                        setThemeAttribute(endPoint, name, attribute[1], next);
+                    }
+                }
+            } else {
+                next.addAll(themeChildren);
+            }
+        }
+        return next;
+    }
+
+    private static void setThemeAttribute(EndPointData endPoint, String name,
+            String value, Set<String> next) {
+        if (FrontendClassVisitor.VALUE.equals(name)) {
+            endPoint.theme.themeName = value;
+        } else if (FrontendClassVisitor.THEME_CLASS.equals(name)) {
+            endPoint.theme.themeClass = value;
+            next.add(value);
+        } else if (VARIANT.equals(name)) {
+            endPoint.theme.variant = value;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.frontend.scanner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.bytebuddy.jar.asm.ClassReader;
+
+/**
+ * Reads the {@link ClassInfo} of classes using byte code inspection.
+ * <p>
+ * When the information of a class is requested for the first time, all the
+ * classes reachable from it are read concurrently on a work-stealing pool, so
+ * that the recursive visit done by {@link FrontendDependencies} only needs to
+ * look up the results.
+ * <p>
+ * If a cache file is given, the information is stored in it together with a
+ * hash of the class file, and classes whose byte code has not changed since
+ * the previous scan are not parsed again.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+final class ClassInfoScanner {
+
+    // Increment when the information collected by FrontendClassVisitor changes
+    private static final int CACHE_FORMAT_VERSION = 1;
+
+    private static final String CACHE_FILTER = "java.lang.*;java.util.*;"
+            + ClassInfoScanner.class.getPackageName() + ".*;!*";
+
+    private static final ClassInfo PENDING = new ClassInfo();
+    private static final ClassInfo NOT_FOUND = new ClassInfo();
+
+    private final ClassFinder finder;
+    private final Predicate<String> visitable;
+    private final File cacheFile;
+
+    private final Map<String, ClassInfo> infos = new ConcurrentHashMap<>();
+    private final Map<String, CacheEntry> previousCache;
+    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    private final AtomicInteger parsed = new AtomicInteger();
+
+    private ForkJoinPool pool;
+
+    private static final class CacheEntry implements Serializable {
+        private final byte[] hash;
+        private final ClassInfo info;
+
+        private CacheEntry(byte[] hash, ClassInfo info) {
+            this.hash = hash;
+            this.info = info;
+        }
+    }
+
+    /**
+     * Creates a new scanner.
+     *
+     * @param finder
+     *            the class finder used to locate class files
+     * @param visitable
+     *            the filter for the classes that should be scanned
+     * @param cacheFile
+     *            the file to read and store the scan results in, or
+     *            {@code null} to not cache the results
+     */
+    ClassInfoScanner(ClassFinder finder, Predicate<String> visitable,
+            File cacheFile) {
+        this.finder = finder;
+        this.visitable = visitable;
+        this.cacheFile = cacheFile;
+        previousCache = readCache(cacheFile);
+    }
+
+    /**
+     * Gets the information of the given class, scanning the class and all
+     * classes reachable from it if it has not been scanned yet.
+     *
+     * @param className
+     *            the name of the class
+     * @return the class information, or {@code null} if the class file cannot
+     *         be found
+     * @throws IOException
+     *             if unable to read a class file
+     */
+    ClassInfo getClassInfo(String className) throws IOException {
+        ClassInfo info = infos.get(className);
+        if (info == null) {
+            scan(className);
+            info = infos.get(className);
+        }
+        return info == NOT_FOUND ? null : info;
+    }
+
+    /**
+     * Gets the number of classes whose byte code has been parsed, i.e. which
+     * were not found in the cache.
+     *
+     * @return the number of parsed classes
+     */
+    int getParsedCount() {
+        return parsed.get();
+    }
+
+    /**
+     * Releases the threads used for scanning and writes the cache file if
+     * the results have changed.
+     */
+    void close() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        if (cacheFile == null || (parsed.get() == 0
+                && cache.keySet().equals(previousCache.keySet()))) {
+            return;
+        }
+        try {
+            writeCache();
+        } catch (IOException e) {
+            getLogger().debug("Unable to write the class scan cache {}",
+                    cacheFile, e);
+        }
+    }
+
+    private void scan(String root) throws IOException {
+        if (pool == null) {
+            pool = new ForkJoinPool(
+                    Runtime.getRuntime().availableProcessors());
+        }
+        AtomicInteger pending = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CompletableFuture<Void> done = new CompletableFuture<>();
+
+        infos.put(root, PENDING);
+        submit(root, pending, failure, done);
+        try {
+            done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Class scanning was interrupted",
+                    e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof UncheckedIOException) {
+            throw ((UncheckedIOException) error).getCause();
+        } else if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error instanceof Error) {
+            throw (Error) error;
+        }
+    }
+
+    private void submit(String className, AtomicInteger pending,
+            AtomicReference<Throwable> failure,
+            CompletableFuture<Void> done) {
+        pending.incrementAndGet();
+        pool.execute(() -> {
+            try {
+                if (failure.get() == null) {
+                    ClassInfo info = read(className);
+                    infos.put(className, info);
+                    for (String child : info.getReferencedClasses()) {
+                        // claim the class so that it is only read once
+                        if (visitable.test(child)
+                                && infos.putIfAbsent(child, PENDING) == null) {
+                            submit(child, pending, failure, done);
+                        }
+                    }
+                }
+            } catch (Throwable throwable) { // NOSONAR
+                failure.compareAndSet(null, throwable);
+            } finally {
+                // children are submitted before, so zero means all is done
+                if (pending.decrementAndGet() == 0) {
+                    done.complete(null);
+                }
+            }
+        });
+    }
+
+    private ClassInfo read(String className) {
+        URL url = finder.getResource(className.replace(".", "/") + ".class");
+        if (url == null) {
+            return NOT_FOUND;
+        }
+        try {
+            byte[] bytes;
+            try (InputStream is = url.openStream()) {
+                bytes = is.readAllBytes();
+            }
+            byte[] hash = cacheFile == null ? null : hash(bytes);
+            CacheEntry cached = previousCache.get(className);
+            if (cached != null && Arrays.equals(cached.hash, hash)) {
+                cache.put(className, cached);
+                return cached.info;
+            }
+
+            FrontendClassVisitor visitor = new FrontendClassVisitor();
+            new ClassReader(bytes).accept(visitor, ClassReader.EXPAND_FRAMES);
+            parsed.incrementAndGet();
+            if (hash != null) {
+                cache.put(className,
+                        new CacheEntry(hash, visitor.getClassInfo()));
+            }
+            return visitor.getClassInfo();
+        } catch (IOException e) {
+            logFailure(className, e);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            logFailure(className, e);
+            throw e;
+        }
+    }
+
+    private void logFailure(String className, Exception e) {
+        getLogger().error(
+                "Visiting class {} failed with {}.\nThis might be a broken class in the project.",
+                className, e.getMessage());
+    }
+
+    private static byte[] hash(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(
+                    "Java standard library is missing SHA-256 message digest",
+                    e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, CacheEntry> readCache(File cacheFile) {
+        if (cacheFile == null || !cacheFile.isFile()) {
+            return Map.of();
+        }
+        try (ObjectInputStream in = new ObjectInputStream(
+                new BufferedInputStream(Files.newInputStream(
+                        cacheFile.toPath())))) {
+            in.setObjectInputFilter(
+                    ObjectInputFilter.Config.createFilter(CACHE_FILTER));
+            if (in.readInt() != CACHE_FORMAT_VERSION) {
+                return Map.of();
+            }
+            return (Map<String, CacheEntry>) in.readObject();
+        } catch (IOException | ClassNotFoundException
+                | ClassCastException e) {
+            getLogger().debug(
+                    "Ignoring unreadable class scan cache {}", cacheFile, e);
+            return Map.of();
+        }
+    }
+
+    private void writeCache() throws IOException {
+        Path target = cacheFile.toPath();
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(),
+                cacheFile.getName(), ".tmp");
+        try {
+            try (ObjectOutputStream out = new ObjectOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(CACHE_FORMAT_VERSION);
+                out.writeObject(new HashMap<>(cache));
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(ClassInfoScanner.class);
+    }
+}
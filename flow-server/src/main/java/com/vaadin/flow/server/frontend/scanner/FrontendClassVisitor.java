@@ -16,7 +16,6 @@
 package com.vaadin.flow.server.frontend.scanner;
 
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Set;
 
 import net.bytebuddy.jar.asm.AnnotationVisitor;
@@ -45,7 +44,6 @@ import com.vaadin.flow.theme.Theme;
  */
 final class FrontendClassVisitor extends ClassVisitor {
 
-    private static final String VARIANT = "variant";
     private static final String LAYOUT = "layout";
     static final String VALUE = "value";
     static final String THEME_CLASS = "themeClass";
@@ -54,16 +52,14 @@ final class FrontendClassVisitor extends ClassVisitor {
     static final String INCLUDE = "include";
     static final String THEME_FOR = "themeFor";
 
-    private final String className;
-    private final EndPointData endPoint;
+    private final ClassInfo info = new ClassInfo();
+    private final Set<String> children = info.children;
     private final MethodVisitor methodVisitor;
     private final AnnotationVisitor annotationVisitor;
     private final AnnotationVisitor routeVisitor;
-    private final AnnotationVisitor themeRouteVisitor;
-    private final AnnotationVisitor themeLayoutVisitor;
+    private final AnnotationVisitor themeVisitor;
     private final AnnotationVisitor jsModuleVisitor;
     private final AnnotationVisitor jScriptVisitor;
-    private final Set<String> children = new HashSet<>();
 
     private final class FrontendMethodVisitor extends MethodVisitor {
         public FrontendMethodVisitor() {
@@ -132,91 +128,62 @@ final class FrontendClassVisitor extends ClassVisitor {
 
     /**
      * Create a new {@link ClassVisitor} that will be used for visiting a
-     * specific class.
-     *
-     * @param className
-     *            the class to visit
-     * @param endPoint
-     *            the end-point object that will be updated during the visit
-     * @param themeScope
-     *            whether we are visiting from Theme
+     * specific class. The information found is collected to a
+     * {@link ClassInfo} which is independent of the end-point the class is
+     * visited from.
      */
-    FrontendClassVisitor(String className, EndPointData endPoint,
-            boolean themeScope) { // NOSONAR
+    FrontendClassVisitor() { // NOSONAR
         super(Opcodes.ASM9);
-        this.className = className;
-        this.endPoint = endPoint;
 
         // Visitor for each method in the class.
         methodVisitor = new FrontendMethodVisitor();
-        // Visitor for each annotation in the class.
+        // Visitor for @Route annotations
         routeVisitor = new RepeatedAnnotationVisitor() {
             @Override
             public void visit(String name, Object value) {
                 if (LAYOUT.equals(name)) {
-                    endPoint.layout = ((Type) value).getClassName();
-                    children.add(endPoint.layout);
-                }
-                if (VALUE.equals(name)) {
-                    endPoint.route = value.toString();
+                    info.routeAttributes.add(new String[] { name,
+                            ((Type) value).getClassName() });
+                } else if (VALUE.equals(name)) {
+                    info.routeAttributes
+                            .add(new String[] { name, value.toString() });
                 }
+                addAnnotationValueToClasses(info.routeChildren, value);
             }
         };
-        // Visitor for @Theme annotations in classes annotated with @Route
-        themeRouteVisitor = new RepeatedAnnotationVisitor() {
+        // Visitor for @Theme annotations
+        themeVisitor = new RepeatedAnnotationVisitor() {
             @Override
             public void visit(String name, Object value) {
-                if (VALUE.equals(name)) {
-                    endPoint.theme.themeName = (String) value;
-                } else if (THEME_CLASS.equals(name)) {
-                    endPoint.theme.themeClass = ((Type) value).getClassName();
-                    children.add(endPoint.theme.themeClass);
-                } else if (VARIANT.equals(name)) {
-                    endPoint.theme.variant = value.toString();
-                }
-            }
-        };
-        // Visitor for @Theme annotations in classes extending RouterLayout
-        themeLayoutVisitor = new RepeatedAnnotationVisitor() {
-            @Override
-            public void visit(String name, Object value) {
-                if (VALUE.equals(name)) {
-                    themeRouteVisitor.visit(name, value);
-                } else if (THEME_CLASS.equals(name)
-                        && endPoint.theme.themeClass == null) {
-                    themeRouteVisitor.visit(name, value);
-                } else if (VARIANT.equals(name)
-                        && endPoint.theme.variant.isEmpty()) {
-                    themeRouteVisitor.visit(name, value);
+                if (THEME_CLASS.equals(name)) {
+                    info.themeAttributes.add(new String[] { name,
+                            ((Type) value).getClassName() });
+                } else {
+                    info.themeAttributes.add(
+                            new String[] { name, String.valueOf(value) });
                 }
+                addAnnotationValueToClasses(info.themeChildren, value);
             }
         };
         // Visitor for @JsModule annotations
         jsModuleVisitor = new RepeatedAnnotationVisitor() {
             @Override
             public void visit(String name, Object value) {
-                if (themeScope) {
-                    endPoint.themeModules.add(value.toString());
-                } else {
-                    endPoint.modules.add(value.toString());
-                }
+                info.modules.add(value.toString());
             }
         };
         // Visitor for @JavaScript annotations
         jScriptVisitor = new RepeatedAnnotationVisitor() {
             @Override
             public void visit(String name, Object value) {
-                endPoint.scripts.add(value.toString());
+                info.scripts.add(value.toString());
             }
         };
         // Visitor all other annotations
         annotationVisitor = new RepeatedAnnotationVisitor() {
             @Override
             public void visit(String name, Object value) {
-                if (value != null && !value.getClass().isPrimitive()
-                        && !value.getClass().equals(String.class)) {
-                    addSignatureToClasses(children, value.toString());
-                }
+                addAnnotationValueToClasses(children, value);
             }
         };
     }
@@ -249,8 +216,8 @@ final class FrontendClassVisitor extends ClassVisitor {
         // We return different visitor implementations depending on the
         // annotation
         String cname = descriptor.replace("/", ".");
-        if (className.equals(endPoint.name)
-                && cname.contains(Route.class.getName())) {
+        if (cname.contains(Route.class.getName())) {
+            info.hasRoute = true;
             return routeVisitor;
         }
         if (cname.contains(JsModule.class.getName())) {
@@ -260,21 +227,15 @@ final class FrontendClassVisitor extends ClassVisitor {
             return jScriptVisitor;
         }
         if (cname.contains(NoTheme.class.getName())) {
-            if (className.equals(endPoint.name)) {
-                endPoint.theme.notheme = true;
-            }
+            info.noTheme = true;
             return null;
         }
         if (cname.contains(Theme.class.getName())) {
-            if (className.equals(endPoint.name)) {
-                return themeRouteVisitor;
-            }
-            if (className.equals(endPoint.layout)) {
-                return themeLayoutVisitor;
-            }
+            info.hasTheme = true;
+            return themeVisitor;
         }
         if (cname.contains(CssImport.class.getName())) {
-            return new CssAnnotationVisitor(endPoint.css);
+            return new CssAnnotationVisitor(info.css);
         }
         // default visitor
         return annotationVisitor;
@@ -297,6 +258,23 @@ final class FrontendClassVisitor extends ClassVisitor {
         return children;
     }
 
+    /**
+     * Return the information collected in the visit.
+     *
+     * @return the class information
+     */
+    ClassInfo getClassInfo() {
+        return info;
+    }
+
+    private void addAnnotationValueToClasses(Set<String> classes,
+            Object value) {
+        if (value != null && !value.getClass().isPrimitive()
+                && !value.getClass().equals(String.class)) {
+            addSignatureToClasses(classes, value.toString());
+        }
+    }
+
     /**
      * Inspects the type description of a java field or a method type visited by
      * the class visitor. It extracts all class names referenced in the
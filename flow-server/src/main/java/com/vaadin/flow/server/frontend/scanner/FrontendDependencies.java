@@ -18,11 +18,10 @@ package com.vaadin.flow.server.frontend.scanner;
 import static com.vaadin.flow.server.frontend.scanner.FrontendClassVisitor.VALUE;
 import static com.vaadin.flow.server.frontend.scanner.FrontendClassVisitor.VERSION;
 
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Modifier;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -56,8 +55,6 @@ import com.vaadin.flow.theme.AbstractTheme;
 import com.vaadin.flow.theme.NoTheme;
 import com.vaadin.flow.theme.ThemeDefinition;
 
-import net.bytebuddy.jar.asm.ClassReader;
-
 /**
  * Represents the class dependency tree of the application.
  * <p>
@@ -74,6 +71,7 @@ public class FrontendDependencies extends AbstractDependenciesScanner {
     private final Set<String> visited = new HashSet<>();
     private final boolean useV14Bootstrap;
     private PwaConfiguration pwaConfiguration;
+    private final transient ClassInfoScanner scanner;
 
     /**
      * Default Constructor.
@@ -121,8 +119,37 @@ public class FrontendDependencies extends AbstractDependenciesScanner {
     public FrontendDependencies(ClassFinder finder,
             boolean generateEmbeddableWebComponents, boolean useV14Bootstrap,
             FeatureFlags featureFlags) {
+        this(finder, generateEmbeddableWebComponents, useV14Bootstrap,
+                featureFlags, null);
+    }
+
+    /**
+     * Constructor which additionally allows declaring a file for caching the
+     * byte code scan results between builds. Only the classes that have
+     * changed since the results were cached are scanned again.
+     *
+     * @param finder
+     *            the class finder
+     * @param generateEmbeddableWebComponents
+     *            {@code true} checks the
+     *            {@link com.vaadin.flow.component.WebComponentExporter} classes
+     *            for dependencies. {@code true} is default for
+     *            {@link FrontendDependencies#FrontendDependencies(ClassFinder)}
+     * @param useV14Bootstrap
+     *            whether we are in legacy V14 bootstrap mode
+     * @param featureFlags
+     *            available feature flags and their status
+     * @param scanCacheFile
+     *            the file to cache the scan results in, or {@code null} to
+     *            not cache the results
+     */
+    public FrontendDependencies(ClassFinder finder,
+            boolean generateEmbeddableWebComponents, boolean useV14Bootstrap,
+            FeatureFlags featureFlags, File scanCacheFile) {
         super(finder, featureFlags);
         this.useV14Bootstrap = useV14Bootstrap;
+        scanner = new ClassInfoScanner(finder, this::isVisitable,
+                scanCacheFile);
         log().info(
                 "Scanning classes to find frontend configurations and dependencies...");
         long start = System.nanoTime();
@@ -136,11 +163,14 @@ public class FrontendDependencies extends AbstractDependenciesScanner {
             computePackages();
             computePwaConfiguration();
             long ms = (System.nanoTime() - start) / 1000000;
-            log().info("Visited {} classes. Took {} ms.", visited.size(), ms);
+            log().info("Visited {} classes ({} parsed). Took {} ms.",
+                    visited.size(), scanner.getParsedCount(), ms);
         } catch (ClassNotFoundException | InstantiationException
                 | IllegalAccessException | IOException e) {
             throw new IllegalStateException(
                     "Unable to compute frontend dependencies", e);
+        } finally {
+            scanner.close();
         }
     }
 
@@ -595,27 +625,19 @@ public class FrontendDependencies extends AbstractDependenciesScanner {
         }
         endPoint.getClasses().add(className);
 
-        URL url = getUrl(className);
-        if (url == null) {
+        // The byte code of the class and all classes reachable from it is
+        // read concurrently on the first request
+        ClassInfo info = scanner.getClassInfo(className);
+        if (info == null) {
             return endPoint;
         }
 
-        FrontendClassVisitor visitor = new FrontendClassVisitor(className,
-                endPoint, themeScope);
-        try (InputStream is = url.openStream()) {
-            ClassReader cr = new ClassReader(is);
-            cr.accept(visitor, ClassReader.EXPAND_FRAMES);
-        } catch (Exception e) {
-            log().error(
-                    "Visiting class {} failed with {}.\nThis might be a broken class in the project.",
-                    className, e.getMessage());
-            throw e;
-        }
+        Set<String> children = info.applyTo(className, endPoint, themeScope);
 
         // all classes visited by the scanner, used for performance (#5933)
         visited.add(className);
 
-        for (String clazz : visitor.getChildren()) {
+        for (String clazz : children) {
             // Since we only have an entry point for the app, it is all right to
             // skip the visit to the the same class in other end-points, because
             // we output all dependencies at once. When we implement
@@ -646,10 +668,6 @@ public class FrontendDependencies extends AbstractDependenciesScanner {
                     + ")"); // @formatter:on
     }
 
-    private URL getUrl(String className) {
-        return getFinder().getResource(className.replace(".", "/") + ".class");
-    }
-
     @Override
     public String toString() {
         return endPoints.toString();
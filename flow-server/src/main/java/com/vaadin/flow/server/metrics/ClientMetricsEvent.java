@@ -0,0 +1,107 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.metrics;
+
+import java.util.Collections;
+import java.util.EventObject;
+import java.util.Map;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.shared.JsonConstants;
+
+/**
+ * Event fired to {@link ClientMetricsListener}s when a browser has reported
+ * the rendering performance it has measured since its previous report.
+ * <p>
+ * The names of the reported metrics are defined in {@link JsonConstants}, e.g.
+ * {@link JsonConstants#CLIENT_METRIC_TREE_APPLY}.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class ClientMetricsEvent extends EventObject {
+
+    private final String location;
+    private final Map<String, ClientTiming> timings;
+    private final Map<String, Long> counters;
+
+    /**
+     * Creates a new event.
+     *
+     * @param ui
+     *            the UI whose browser reported the metrics, not
+     *            <code>null</code>
+     * @param location
+     *            the path of the view that was active when the metrics were
+     *            received, not <code>null</code>
+     * @param timings
+     *            the reported durations by metric name, not <code>null</code>
+     * @param counters
+     *            the reported counters by metric name, not <code>null</code>
+     */
+    public ClientMetricsEvent(UI ui, String location,
+            Map<String, ClientTiming> timings, Map<String, Long> counters) {
+        super(ui);
+        this.location = location;
+        this.timings = Collections.unmodifiableMap(timings);
+        this.counters = Collections.unmodifiableMap(counters);
+    }
+
+    @Override
+    public UI getSource() {
+        return (UI) super.getSource();
+    }
+
+    /**
+     * Gets the UI whose browser reported the metrics.
+     *
+     * @return the UI, not <code>null</code>
+     */
+    public UI getUI() {
+        return getSource();
+    }
+
+    /**
+     * Gets the path of the view that was active in the UI when the metrics
+     * were received. Metrics are collected over a period of time, so some of
+     * them may have been measured in views navigated away from since.
+     *
+     * @return the view path, not <code>null</code>
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * Gets the reported durations.
+     *
+     * @return an unmodifiable map of durations by metric name, not
+     *         <code>null</code>
+     */
+    public Map<String, ClientTiming> getTimings() {
+        return timings;
+    }
+
+    /**
+     * Gets the reported counters.
+     *
+     * @return an unmodifiable map of counter values by metric name, not
+     *         <code>null</code>
+     */
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.metrics;
+
+import java.io.Serializable;
+
+/**
+ * Receives the rendering performance metrics periodically reported by the
+ * browsers of the users.
+ * <p>
+ * Listeners are added using
+ * {@link com.vaadin.flow.server.VaadinService#addClientMetricsListener(ClientMetricsListener)}
+ * and are only called if
+ * {@link com.vaadin.flow.server.InitParameters#CLIENT_METRICS} is enabled. They
+ * are called while the session of the reporting UI is locked, so they should
+ * only hand the metrics over to e.g. a monitoring system.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+@FunctionalInterface
+public interface ClientMetricsListener extends Serializable {
+
+    /**
+     * Invoked when a client has reported metrics.
+     *
+     * @param event
+     *            the event with the reported metrics, not <code>null</code>
+     */
+    void clientMetricsReceived(ClientMetricsEvent event);
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.metrics;
+
+import java.io.Serializable;
+
+/**
+ * Aggregated durations of a single client side metric, as reported by the
+ * browser in a {@link ClientMetricsEvent}.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class ClientTiming implements Serializable {
+
+    private final long count;
+    private final double totalMillis;
+    private final double maxMillis;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param count
+     *            the number of measured durations
+     * @param totalMillis
+     *            the sum of the measured durations in milliseconds
+     * @param maxMillis
+     *            the longest measured duration in milliseconds
+     */
+    public ClientTiming(long count, double totalMillis, double maxMillis) {
+        this.count = count;
+        this.totalMillis = totalMillis;
+        this.maxMillis = maxMillis;
+    }
+
+    /**
+     * Gets the number of measured durations.
+     *
+     * @return the number of durations
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the sum of all measured durations.
+     *
+     * @return the total duration in milliseconds
+     */
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    /**
+     * Gets the longest measured duration.
+     *
+     * @return the longest duration in milliseconds
+     */
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    /**
+     * Gets the mean of the measured durations.
+     *
+     * @return the mean duration in milliseconds, or <code>0</code> if nothing
+     *         has been measured
+     */
+    public double getMeanMillis() {
+        return count == 0 ? 0 : totalMillis / count;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + ", total=" + totalMillis + "ms, max="
+                + maxMillis + "ms";
+    }
+}
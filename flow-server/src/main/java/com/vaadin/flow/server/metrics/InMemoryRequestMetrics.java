@@ -0,0 +1,116 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.metrics;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request metrics that keep latency histograms and counters in memory.
+ * <p>
+ * Recording is lock free and does not allocate once a metric has been seen,
+ * so this implementation can be left enabled in production. The collected
+ * values can be read using {@link #getTimings()} and {@link #getCounters()}.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class InMemoryRequestMetrics implements RequestMetrics {
+
+    private static final int BUCKET_COUNT = 64;
+
+    private final Map<String, Histogram> timings = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    private static class Histogram implements Serializable {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(
+                BUCKET_COUNT);
+
+        private void record(long durationNanos) {
+            long duration = Math.max(0, durationNanos);
+            count.increment();
+            total.add(duration);
+            // Bucket i holds durations in [2^(i-1), 2^i)
+            buckets.incrementAndGet(
+                    BUCKET_COUNT - Long.numberOfLeadingZeros(duration));
+            long currentMax = max.get();
+            while (duration > currentMax
+                    && !max.compareAndSet(currentMax, duration)) {
+                currentMax = max.get();
+            }
+        }
+
+        private TimingStatistics snapshot() {
+            long[] bucketValues = new long[BUCKET_COUNT];
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                bucketValues[i] = buckets.get(i);
+            }
+            return new TimingStatistics(count.sum(), total.sum(), max.get(),
+                    bucketValues);
+        }
+    }
+
+    @Override
+    public void recordTime(String metric, long durationNanos) {
+        timings.computeIfAbsent(metric, key -> new Histogram())
+                .record(durationNanos);
+    }
+
+    @Override
+    public void increment(String metric, long amount) {
+        counters.computeIfAbsent(metric, key -> new LongAdder()).add(amount);
+    }
+
+    /**
+     * Gets a snapshot of the timing statistics collected so far.
+     *
+     * @return timing statistics by metric name, sorted by name
+     */
+    public SortedMap<String, TimingStatistics> getTimings() {
+        SortedMap<String, TimingStatistics> result = new TreeMap<>();
+        timings.forEach((name, histogram) -> result.put(name,
+                histogram.snapshot()));
+        return result;
+    }
+
+    /**
+     * Gets a snapshot of the counters collected so far.
+     *
+     * @return counter values by metric name, sorted by name
+     */
+    public SortedMap<String, Long> getCounters() {
+        SortedMap<String, Long> result = new TreeMap<>();
+        counters.forEach((name, counter) -> result.put(name, counter.sum()));
+        return result;
+    }
+
+    /**
+     * Discards everything collected so far.
+     */
+    public void reset() {
+        timings.clear();
+        counters.clear();
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.metrics;
+
+/**
+ * Request metrics that ignore everything.
+ *
+ * @author Vaadin Ltd
+ * @since
+ * @see RequestMetrics#NO_OP
+ */
+enum NoOpRequestMetrics implements RequestMetrics {
+    INSTANCE;
+
+    @Override
+    public boolean isEnabled() {
+        return false;
+    }
+
+    @Override
+    public void recordTime(String metric, long durationNanos) {
+        // Ignored
+    }
+
+    @Override
+    public void increment(String metric, long amount) {
+        // Ignored
+    }
+}
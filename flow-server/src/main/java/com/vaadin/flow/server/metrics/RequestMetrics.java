@@ -0,0 +1,169 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.metrics;
+
+import java.io.Serializable;
+
+import com.vaadin.flow.server.VaadinService;
+
+/**
+ * Collects timings and counters for the phases of the request handling
+ * pipeline.
+ * <p>
+ * The framework reports to the instance returned by
+ * {@link VaadinService#getRequestMetrics()}. By default nothing is collected.
+ * An in-process implementation is used if
+ * {@link com.vaadin.flow.server.InitParameters#REQUEST_METRICS} is enabled and
+ * any custom implementation can be set using
+ * {@link VaadinService#setRequestMetrics(RequestMetrics)}, e.g. from a
+ * {@link com.vaadin.flow.server.VaadinServiceInitListener}.
+ * <p>
+ * Implementations are called from request threads concurrently and must be
+ * thread safe.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public interface RequestMetrics extends Serializable {
+
+    /**
+     * Metrics implementation that ignores everything.
+     */
+    RequestMetrics NO_OP = NoOpRequestMetrics.INSTANCE;
+
+    /**
+     * Prefix of the timing of a whole request. The simple name of the request
+     * handler that handled the request is appended to the prefix.
+     */
+    String REQUEST = "request.";
+
+    /**
+     * Timing of waiting for a session lock.
+     */
+    String SESSION_LOCK_WAIT = "session.lock.wait";
+
+    /**
+     * Timing of holding a session lock, from the first acquisition until the
+     * ultimate release.
+     */
+    String SESSION_LOCK_HOLD = "session.lock.hold";
+
+    /**
+     * Timing of running the pending access tasks of a session.
+     */
+    String ACCESS_TASKS = "session.accessTasks";
+
+    /**
+     * Counter of access tasks run.
+     */
+    String ACCESS_TASK_COUNT = "session.accessTasks.count";
+
+    /**
+     * Timing of handling all the RPC invocations of a request.
+     */
+    String RPC_INVOCATIONS = "rpc.invocations";
+
+    /**
+     * Prefix of the counter of RPC invocations. The RPC type is appended to the
+     * prefix.
+     */
+    String RPC_INVOCATION_COUNT = "rpc.invocation.";
+
+    /**
+     * Timing of collecting and encoding the state tree changes.
+     */
+    String COLLECT_CHANGES = "uidl.collectChanges";
+
+    /**
+     * Timing of creating a complete UIDL response.
+     */
+    String UIDL_ENCODE = "uidl.encode";
+
+    /**
+     * Timing of creating and sending a push message.
+     */
+    String PUSH_SEND = "push.send";
+
+    /**
+     * Checks whether this instance collects anything. Callers can use this to
+     * avoid computing values that would be ignored.
+     *
+     * @return <code>true</code> if metrics are collected, <code>false</code>
+     *         otherwise
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Records a duration for the given metric.
+     *
+     * @param metric
+     *            the name of the metric, not <code>null</code>
+     * @param durationNanos
+     *            the duration in nanoseconds
+     */
+    void recordTime(String metric, long durationNanos);
+
+    /**
+     * Increments the given counter.
+     *
+     * @param metric
+     *            the name of the counter, not <code>null</code>
+     * @param amount
+     *            the amount to add
+     */
+    void increment(String metric, long amount);
+
+    /**
+     * Gets a start time stamp to be passed to
+     * {@link #recordSince(String, long)}.
+     *
+     * @return the current value of {@link System#nanoTime()}, or
+     *         <code>0</code> if this instance is not enabled
+     */
+    default long start() {
+        return isEnabled() ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time passed since the given start time stamp.
+     *
+     * @param metric
+     *            the name of the metric, not <code>null</code>
+     * @param startNanos
+     *            the time stamp returned by {@link #start()}
+     */
+    default void recordSince(String metric, long startNanos) {
+        if (isEnabled()) {
+            recordTime(metric, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Gets the metrics instance of the given service, falling back to
+     * {@link #NO_OP} if there is no service or it has no metrics.
+     *
+     * @param service
+     *            the service, may be <code>null</code>
+     * @return the metrics instance, not <code>null</code>
+     */
+    static RequestMetrics get(VaadinService service) {
+        RequestMetrics metrics = service == null ? null
+                : service.getRequestMetrics();
+        return metrics == null ? NO_OP : metrics;
+    }
+}
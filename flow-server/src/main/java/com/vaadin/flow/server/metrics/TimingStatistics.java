@@ -0,0 +1,135 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.metrics;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A snapshot of the latency histogram of a single metric collected by
+ * {@link InMemoryRequestMetrics}.
+ * <p>
+ * Durations are bucketed by powers of two, so percentiles are approximations
+ * that are never below the actual value and at most twice the actual value.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class TimingStatistics implements Serializable {
+
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long[] buckets;
+
+    /**
+     * Creates a new snapshot.
+     *
+     * @param count
+     *            the number of recorded durations
+     * @param totalNanos
+     *            the sum of the recorded durations
+     * @param maxNanos
+     *            the longest recorded duration
+     * @param buckets
+     *            the number of durations per bucket, where bucket {@code i}
+     *            contains durations shorter than {@code 2^i} nanoseconds but
+     *            not shorter than {@code 2^(i-1)}
+     */
+    public TimingStatistics(long count, long totalNanos, long maxNanos,
+            long[] buckets) {
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.buckets = Arrays.copyOf(buckets, buckets.length);
+    }
+
+    /**
+     * Gets the number of recorded durations.
+     *
+     * @return the number of durations
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the sum of all recorded durations.
+     *
+     * @return the total duration in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Gets the longest recorded duration.
+     *
+     * @return the longest duration in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Gets the average of the recorded durations.
+     *
+     * @return the mean duration in nanoseconds, or <code>0</code> if nothing
+     *         has been recorded
+     */
+    public long getMeanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    /**
+     * Gets an approximation of the given percentile of the recorded durations.
+     *
+     * @param percentile
+     *            the percentile, between <code>0</code> and <code>100</code>
+     * @return the approximate duration in nanoseconds, or <code>0</code> if
+     *         nothing has been recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException(
+                    "Percentile must be between 0 and 100, got " + percentile);
+        }
+        long total = 0;
+        for (long bucket : buckets) {
+            total += bucket;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                long upperBound = i >= 63 ? Long.MAX_VALUE : (1L << i) - 1;
+                return Math.min(upperBound, maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + ", mean=" + getMeanNanos() + "ns, p50="
+                + getPercentileNanos(50) + "ns, p99=" + getPercentileNanos(99)
+                + "ns, max=" + maxNanos + "ns";
+    }
+}
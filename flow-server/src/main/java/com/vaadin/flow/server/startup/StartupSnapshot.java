@@ -0,0 +1,272 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.startup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.di.Lookup;
+import com.vaadin.flow.server.Constants;
+import com.vaadin.flow.server.InitParameters;
+import com.vaadin.flow.server.VaadinServletContext;
+import com.vaadin.flow.server.frontend.scanner.ClassFinder;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonException;
+import elemental.json.JsonObject;
+
+/**
+ * The classes handled by the startup initializers, collected when the
+ * application is built for production.
+ * <p>
+ * The snapshot is generated by the {@code build-frontend} goal into
+ * {@link #SNAPSHOT_FILE}. In production mode, when enabled with
+ * {@link InitParameters#STARTUP_SNAPSHOT}, the
+ * {@link VaadinServletContextStartupInitializer}s found in the snapshot are
+ * given the classes listed in it instead of the classes found by the servlet
+ * container, so the container does not need to scan the application classes
+ * for them.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public final class StartupSnapshot implements Serializable {
+
+    /**
+     * Location of the snapshot relative to the servlet resources folder
+     * {@code META-INF/VAADIN}.
+     */
+    public static final String SNAPSHOT_FILE = Constants.VAADIN_CONFIGURATION
+            + "startup-snapshot.json";
+
+    private static final String SERVICES_FILE = "META-INF/services/jakarta.servlet.ServletContainerInitializer";
+
+    private static final String HANDLES_TYPES = "jakarta.servlet.annotation.HandlesTypes";
+
+    private final Map<String, List<String>> classes;
+
+    private StartupSnapshot(Map<String, List<String>> classes) {
+        this.classes = classes;
+    }
+
+    /**
+     * Collects the classes handled by the startup initializers registered in
+     * the class path of the given finder.
+     *
+     * @param finder
+     *            the class finder for the application classes
+     * @return the snapshot as JSON
+     */
+    public static JsonObject create(ClassFinder finder) {
+        JsonObject snapshot = Json.createObject();
+        Class<?> startupInitializer;
+        try {
+            startupInitializer = finder.loadClass(
+                    VaadinServletContextStartupInitializer.class.getName());
+        } catch (ClassNotFoundException e) {
+            return snapshot;
+        }
+        for (String initializerName : getRegisteredInitializers(finder)) {
+            Class<?> initializer;
+            try {
+                initializer = finder.loadClass(initializerName);
+            } catch (ClassNotFoundException | LinkageError e) {
+                getLogger().debug("Unable to load initializer {}",
+                        initializerName, e);
+                continue;
+            }
+            Class<?>[] handledTypes = getHandledTypes(initializer);
+            if (!startupInitializer.isAssignableFrom(initializer)
+                    || handledTypes == null) {
+                continue;
+            }
+            Set<String> handled = new TreeSet<>();
+            for (Class<?> type : handledTypes) {
+                if (type.isAnnotation()) {
+                    finder.getAnnotatedClasses(
+                            type.asSubclass(Annotation.class))
+                            .forEach(clazz -> handled.add(clazz.getName()));
+                } else {
+                    finder.getSubTypesOf(type)
+                            .forEach(clazz -> handled.add(clazz.getName()));
+                }
+            }
+            JsonArray array = Json.createArray();
+            handled.forEach(name -> array.set(array.length(), name));
+            snapshot.put(initializerName, array);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gets the classes to pass to the given initializer.
+     * <p>
+     * In production mode with {@link InitParameters#STARTUP_SNAPSHOT}
+     * enabled, if the snapshot contains the classes for the initializer, they
+     * are returned instead of the classes found by the servlet container.
+     *
+     * @param initializer
+     *            the initializer
+     * @param classSet
+     *            the classes found by the servlet container, may be
+     *            {@code null}
+     * @param context
+     *            the servlet context
+     * @return the classes to initialize with
+     */
+    static Set<Class<?>> getClasses(Object initializer, Set<Class<?>> classSet,
+            VaadinServletContext context) {
+        if (context.getAttribute(Lookup.class) == null) {
+            return classSet;
+        }
+        ApplicationConfiguration configuration = ApplicationConfiguration
+                .get(context);
+        if (!configuration.isProductionMode() || !configuration
+                .getBooleanProperty(InitParameters.STARTUP_SNAPSHOT, false)) {
+            return classSet;
+        }
+        ClassLoader classLoader = context.getContext().getClassLoader();
+        StartupSnapshot snapshot = context.getAttribute(StartupSnapshot.class,
+                () -> load(classLoader));
+        List<String> names = snapshot.classes
+                .get(initializer.getClass().getName());
+        if (names == null) {
+            return classSet;
+        }
+        Set<Class<?>> snapshotClasses = new LinkedHashSet<>();
+        for (String name : names) {
+            try {
+                snapshotClasses.add(Class.forName(name, false, classLoader));
+            } catch (ClassNotFoundException | LinkageError e) {
+                getLogger().warn(
+                        "Class {} from the startup snapshot is not available, "
+                                + "using the classes found by the servlet container instead",
+                        name, e);
+                return classSet;
+            }
+        }
+        getLogger().debug("Initializing {} with the classes of the startup "
+                + "snapshot", initializer.getClass().getName());
+        return snapshotClasses;
+    }
+
+    static StartupSnapshot load(ClassLoader classLoader) {
+        String resource = Constants.VAADIN_SERVLET_RESOURCES + SNAPSHOT_FILE;
+        try {
+            List<URL> resources = Collections
+                    .list(classLoader.getResources(resource));
+            if (resources.size() != 1) {
+                if (resources.size() > 1) {
+                    getLogger().warn(
+                            "Found several startup snapshots {}, ignoring them",
+                            resources);
+                }
+                return new StartupSnapshot(Collections.emptyMap());
+            }
+            String json;
+            try (InputStream stream = resources.get(0).openStream()) {
+                json = IOUtils.toString(stream, StandardCharsets.UTF_8);
+            }
+            getLogger().info(
+                    "Using the startup snapshot {} instead of the classes found by the servlet container",
+                    resources.get(0));
+            JsonObject snapshot = Json.parse(json);
+            Map<String, List<String>> classes = new HashMap<>();
+            for (String initializer : snapshot.keys()) {
+                JsonArray array = snapshot.getArray(initializer);
+                List<String> names = new ArrayList<>(array.length());
+                for (int i = 0; i < array.length(); i++) {
+                    names.add(array.getString(i));
+                }
+                classes.put(initializer, names);
+            }
+            return new StartupSnapshot(classes);
+        } catch (IOException | JsonException | ClassCastException e) {
+            getLogger().warn("Unable to read the startup snapshot {}",
+                    resource, e);
+            return new StartupSnapshot(Collections.emptyMap());
+        }
+    }
+
+    private static Set<String> getRegisteredInitializers(ClassFinder finder) {
+        Set<String> initializers = new LinkedHashSet<>();
+        try {
+            Enumeration<URL> services = finder.getClassLoader()
+                    .getResources(SERVICES_FILE);
+            while (services.hasMoreElements()) {
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(
+                                services.nextElement().openStream(),
+                                StandardCharsets.UTF_8))) {
+                    initializers.addAll(reader.lines()
+                            .map(line -> line.replaceFirst("#.*", "").trim())
+                            .filter(line -> !line.isEmpty())
+                            .collect(Collectors.toList()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return initializers;
+    }
+
+    private static Class<?>[] getHandledTypes(Class<?> initializer) {
+        // Matched by name since the servlet API may be loaded by another
+        // class loader than the initializer
+        for (Annotation annotation : initializer.getAnnotations()) {
+            if (HANDLES_TYPES.equals(annotation.annotationType().getName())) {
+                try {
+                    return (Class<?>[]) annotation.annotationType()
+                            .getMethod("value").invoke(annotation);
+                } catch (IllegalAccessException | InvocationTargetException
+                        | NoSuchMethodException e) {
+                    getLogger().debug("Unable to read {} of {}",
+                            HANDLES_TYPES, initializer, e);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(StartupSnapshot.class);
+    }
+}
@@ -38,8 +38,10 @@ public interface VaadinServletContextStartupInitializer
     @Override
     default void process(Set<Class<?>> classSet, ServletContext context)
             throws ServletException {
+        VaadinServletContext vaadinContext = new VaadinServletContext(context);
         try {
-            initialize(classSet, new VaadinServletContext(context));
+            initialize(StartupSnapshot.getClasses(this, classSet, vaadinContext),
+                    vaadinContext);
         } catch (VaadinInitializerException e) {
             throw new ServletException(e);
         }
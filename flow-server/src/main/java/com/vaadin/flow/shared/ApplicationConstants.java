@@ -128,6 +128,12 @@ public class ApplicationConstants implements Serializable {
      */
     public static final String RESYNCHRONIZE_ID = "resynchronize";
 
+    /**
+     * The name of the parameter used to transmit client side performance
+     * metrics.
+     */
+    public static final String CLIENT_METRICS_ID = "metrics";
+
     /**
      * Content type to use for text/html responses (should always be UTF-8).
      */
@@ -182,6 +188,12 @@ public class ApplicationConstants implements Serializable {
      */
     public static final String REQUEST_TYPE_PUSH = "push";
 
+    /**
+     * Request type parameter value indicating a server-sent events push
+     * request.
+     */
+    public static final String REQUEST_TYPE_SSE = "sse";
+
     /**
      * Attribute name for marking internal router link anchors.
      */
@@ -203,4 +215,16 @@ public class ApplicationConstants implements Serializable {
      */
     public static final String DEV_TOOLS_ENABLED = "devToolsEnabled";
 
+    /**
+     * Boolean client configuration parameter enabling time-sliced processing
+     * of large messages from the server.
+     */
+    public static final String UIDL_TIME_SLICING = "uidlTimeSlicing";
+
+    /**
+     * Boolean client configuration parameter enabling collecting and reporting
+     * client side performance metrics to the server.
+     */
+    public static final String CLIENT_METRICS = "clientMetrics";
+
 }
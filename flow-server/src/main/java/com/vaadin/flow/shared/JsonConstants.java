@@ -40,45 +40,119 @@ public class JsonConstants implements Serializable {
 
     /**
      * Key holding the type of a change.
+     *
+     * @deprecated changes are no longer sent with a string type,
+     *             {@link #CHANGE_TYPE_CODE} holds the type of a change
+     *             instead
      */
+    @Deprecated
     public static final String CHANGE_TYPE = "type";
 
     /**
      * Change type for empty change (populate the feature on the client side
      * only).
+     *
+     * @deprecated changes are no longer sent with a string type, use
+     *             {@link #CHANGE_TYPE_CODE_NOOP} instead
      */
+    @Deprecated
     public static final String CHANGE_TYPE_NOOP = "empty";
 
     /**
      * Change type for attaching nodes.
+     *
+     * @deprecated changes are no longer sent with a string type, use
+     *             {@link #CHANGE_TYPE_CODE_ATTACH} instead
      */
+    @Deprecated
     public static final String CHANGE_TYPE_ATTACH = "attach";
 
     /**
      * Change type for detaching nodes.
+     *
+     * @deprecated changes are no longer sent with a string type, use
+     *             {@link #CHANGE_TYPE_CODE_DETACH} instead
      */
+    @Deprecated
     public static final String CHANGE_TYPE_DETACH = "detach";
 
     /**
      * Change type for list splice changes.
+     *
+     * @deprecated changes are no longer sent with a string type, use
+     *             {@link #CHANGE_TYPE_CODE_SPLICE} instead
      */
+    @Deprecated
     public static final String CHANGE_TYPE_SPLICE = "splice";
 
     /**
      * Change type for map put changes.
+     *
+     * @deprecated changes are no longer sent with a string type, use
+     *             {@link #CHANGE_TYPE_CODE_PUT} instead
      */
+    @Deprecated
     public static final String CHANGE_TYPE_PUT = "put";
 
     /**
      * Change type for map remove changes.
+     *
+     * @deprecated changes are no longer sent with a string type, use
+     *             {@link #CHANGE_TYPE_CODE_REMOVE} instead
      */
+    @Deprecated
     public static final String CHANGE_TYPE_REMOVE = "remove";
 
     /**
      * Change type for list clear changes.
+     *
+     * @deprecated changes are no longer sent with a string type, use
+     *             {@link #CHANGE_TYPE_CODE_CLEAR} instead
      */
+    @Deprecated
     public static final String CHANGE_TYPE_CLEAR = "clear";
 
+    /**
+     * Key holding the numeric code of the type of a change.
+     */
+    public static final String CHANGE_TYPE_CODE = "t";
+
+    /**
+     * Type code for empty changes (populate the feature on the client side
+     * only).
+     */
+    public static final int CHANGE_TYPE_CODE_NOOP = 0;
+
+    /**
+     * Type code for attaching nodes.
+     */
+    public static final int CHANGE_TYPE_CODE_ATTACH = 1;
+
+    /**
+     * Type code for detaching nodes.
+     */
+    public static final int CHANGE_TYPE_CODE_DETACH = 2;
+
+    /**
+     * Type code for list splice changes.
+     */
+    public static final int CHANGE_TYPE_CODE_SPLICE = 3;
+
+    /**
+     * Type code for map put changes.
+     */
+    public static final int CHANGE_TYPE_CODE_PUT = 4;
+
+    /**
+     * Type code for map remove changes.
+     */
+    public static final int CHANGE_TYPE_CODE_REMOVE = 5;
+
+    /**
+     * Type code for list clear changes.
+     */
+    public static final int CHANGE_TYPE_CODE_CLEAR = 6;
+
     /**
      * Key holding the feature of a change.
      */
@@ -165,6 +239,20 @@ public class JsonConstants implements Serializable {
      */
     public static final String UIDL_KEY_EXECUTE = "execute";
 
+    /**
+     * Key used in place of the script of a
+     * {@link Page#executeJs(String, Serializable...)} invocation to refer to a
+     * script in the constant pool.
+     */
+    public static final String UIDL_KEY_EXECUTE_SCRIPT_ID = "scriptId";
+
+    /**
+     * Key used for messages published to the UI through a shared broadcast
+     * topic in UIDL messages. Each message is an array holding the topic name
+     * and the published value.
+     */
+    public static final String UIDL_KEY_BROADCAST = "broadcast";
+
     /**
      * Key used to hold the feature id when synchronizing node values.
      */
@@ -344,4 +432,45 @@ public class JsonConstants implements Serializable {
      */
     public static final String RPC_CHANNEL_ARGUMENTS = "args";
 
+    /**
+     * Key for the aggregated durations in a client metrics report. Each
+     * duration is an array of the count, the total milliseconds and the
+     * maximum milliseconds.
+     */
+    public static final String CLIENT_METRICS_TIMINGS = "timings";
+
+    /**
+     * Key for the counters in a client metrics report.
+     */
+    public static final String CLIENT_METRICS_COUNTERS = "counters";
+
+    /**
+     * Client metric for the time spent parsing messages from the server.
+     */
+    public static final String CLIENT_METRIC_MESSAGE_PARSE = "messageParse";
+
+    /**
+     * Client metric for the time spent applying the state tree changes of a
+     * message from the server.
+     */
+    public static final String CLIENT_METRIC_TREE_APPLY = "treeApply";
+
+    /**
+     * Client metric for the time spent flushing the bindings to the DOM after
+     * a message from the server.
+     */
+    public static final String CLIENT_METRIC_BINDING_FLUSH = "bindingFlush";
+
+    /**
+     * Client metric for the main thread tasks that blocked the browser for 50
+     * ms or more.
+     */
+    public static final String CLIENT_METRIC_LONG_TASK = "longTask";
+
+    /**
+     * Client metric counting the nodes inserted into the DOM when rendering
+     * changes from the server.
+     */
+    public static final String CLIENT_METRIC_DOM_INSERTS = "domInserts";
+
 }
@@ -35,7 +35,12 @@ public enum Transport {
     /**
      * HTTP long polling.
      */
-    LONG_POLLING("long-polling");
+    LONG_POLLING("long-polling"),
+    /**
+     * Server-sent events for server to client, XHR for client to server. Does
+     * not use Atmosphere and can only be used as the primary transport.
+     */
+    SSE("sse");
 
     private String identifier;
 
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BoundedResourceCacheTest {
+
+    @Test
+    public void putIfAbsent_valueCached_existingValueReturned() {
+        BoundedResourceCache<String> cache = new BoundedResourceCache<>();
+
+        Assert.assertNull(cache.putIfAbsent("key", "first"));
+        Assert.assertEquals("first", cache.putIfAbsent("key", "second"));
+        Assert.assertEquals("first", cache.get("key"));
+    }
+
+    @Test
+    public void putIfAbsent_full_evictedValuesReported() {
+        List<Integer> evicted = new ArrayList<>();
+        BoundedResourceCache<Integer> cache = new BoundedResourceCache<>(
+                evicted::add);
+        for (int i = 0; i < BoundedResourceCache.MAX_ENTRIES; i++) {
+            cache.putIfAbsent("key" + i, i);
+        }
+        Assert.assertTrue(evicted.isEmpty());
+
+        cache.putIfAbsent("new", -1);
+
+        Assert.assertEquals(BoundedResourceCache.MAX_ENTRIES, evicted.size());
+        Assert.assertNull(cache.get("key0"));
+        Assert.assertEquals(Integer.valueOf(-1), cache.get("new"));
+    }
+}
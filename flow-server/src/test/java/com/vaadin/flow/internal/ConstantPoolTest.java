@@ -72,6 +72,32 @@ public class ConstantPoolTest {
         Assert.assertTrue(constantPool.hasNewConstants());
     }
 
+    @Test
+    public void repeatedConstant_registeredOnSecondOccurrence() {
+        Assert.assertNull(constantPool.getRepeatedConstantId(
+                new ConstantPoolKey(Json.create("$0.focus()"))));
+        Assert.assertFalse(constantPool.hasNewConstants());
+
+        String constantId = constantPool.getRepeatedConstantId(
+                new ConstantPoolKey(Json.create("$0.focus()")));
+
+        Assert.assertNotNull(constantId);
+        Assert.assertEquals("\"$0.focus()\"",
+                constantPool.dumpConstants().get(constantId).toJson());
+        Assert.assertEquals(constantId, constantPool.getRepeatedConstantId(
+                new ConstantPoolKey(Json.create("$0.focus()"))));
+        Assert.assertFalse(constantPool.hasNewConstants());
+    }
+
+    @Test
+    public void repeatedConstant_alreadyRegistered_idReturned() {
+        ConstantPoolKey reference = new ConstantPoolKey(Json.createObject());
+        String constantId = constantPool.getConstantId(reference);
+
+        Assert.assertEquals(constantId, constantPool.getRepeatedConstantId(
+                new ConstantPoolKey(Json.createObject())));
+    }
+
     @Test
     public void constantPoolKey_exportedDirectly_idCreated() {
         final ConstantPoolKey constantPoolKey = new ConstantPoolKey(
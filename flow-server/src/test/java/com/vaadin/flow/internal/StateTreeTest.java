@@ -35,7 +35,9 @@ import org.mockito.Mockito;
 
 import com.vaadin.flow.component.Tag;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.DomListenerRegistration;
 import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.internal.StateTree.ExecutionRegistration;
 import com.vaadin.flow.internal.change.ListAddChange;
 import com.vaadin.flow.internal.change.ListRemoveChange;
 import com.vaadin.flow.internal.change.MapPutChange;
@@ -46,6 +48,7 @@ import com.vaadin.flow.internal.change.NodeFeatureChange;
 import com.vaadin.flow.internal.nodefeature.ElementAttributeMap;
 import com.vaadin.flow.internal.nodefeature.ElementChildrenList;
 import com.vaadin.flow.internal.nodefeature.ElementData;
+import com.vaadin.flow.internal.nodefeature.ElementListenerMap;
 import com.vaadin.flow.internal.nodefeature.ElementPropertyMap;
 import com.vaadin.flow.internal.nodefeature.NodeFeature;
 import com.vaadin.flow.internal.nodefeature.PushConfigurationMap.PushConfigurationParametersMap;
@@ -673,4 +676,74 @@ public class StateTreeTest {
                 remaining.hasFeature(PushConfigurationParametersMap.class));
 
     }
+
+    @Test
+    public void nodeCount_attachAndDetach_countUpdated() {
+        int initialCount = tree.getNodeCount();
+
+        StateNode child = new StateNode(ElementChildrenList.class);
+        StateNodeTest.setParent(child, tree.getRootNode());
+        StateNode grandChild = StateNodeTest.createEmptyNode();
+        StateNodeTest.setParent(grandChild, child);
+
+        Assert.assertEquals(initialCount + 2, tree.getNodeCount());
+
+        StateNodeTest.setParent(child, null);
+
+        Assert.assertEquals(initialCount, tree.getNodeCount());
+    }
+
+    @Test
+    public void domListenerCount_listenersAddedBeforeAndAfterAttach_countUpdated() {
+        int initialCount = tree.getDomListenerCount();
+
+        StateNode node = new StateNode(ElementListenerMap.class);
+        ElementListenerMap listeners = node
+                .getFeature(ElementListenerMap.class);
+        listeners.add("click", event -> {
+        });
+
+        Assert.assertEquals(initialCount, tree.getDomListenerCount());
+
+        StateNodeTest.setParent(node, tree.getRootNode());
+        Assert.assertEquals(initialCount + 1, tree.getDomListenerCount());
+
+        DomListenerRegistration registration = listeners.add("input",
+                event -> {
+                });
+        Assert.assertEquals(initialCount + 2, tree.getDomListenerCount());
+
+        registration.remove();
+        registration.remove();
+        Assert.assertEquals(initialCount + 1, tree.getDomListenerCount());
+
+        StateNodeTest.setParent(node, null);
+        Assert.assertEquals(initialCount, tree.getDomListenerCount());
+
+        listeners.add("change", event -> {
+        });
+        Assert.assertEquals(initialCount, tree.getDomListenerCount());
+    }
+
+    @Test
+    public void pendingBeforeClientResponseCount_registeredAndRun_countUpdated() {
+        StateNode node = new StateNode(ElementChildrenList.class);
+        StateNodeTest.setParent(node, tree.getRootNode());
+        tree.runExecutionsBeforeClientResponse();
+
+        tree.beforeClientResponse(node, context -> {
+        });
+        ExecutionRegistration registration = tree.beforeClientResponse(node,
+                context -> {
+                });
+        tree.beforeClientResponse(tree.getRootNode(), context -> {
+        });
+        Assert.assertEquals(3, tree.getPendingBeforeClientResponseCount());
+
+        registration.remove();
+        Assert.assertEquals(2, tree.getPendingBeforeClientResponseCount());
+
+        tree.runExecutionsBeforeClientResponse();
+        Assert.assertEquals(0, tree.getPendingBeforeClientResponseCount());
+    }
 }
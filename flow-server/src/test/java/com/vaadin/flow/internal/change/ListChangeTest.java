@@ -49,8 +49,8 @@ public class ListChangeTest {
                 (int) json.getNumber(JsonConstants.CHANGE_NODE));
         Assert.assertEquals(NodeFeatureRegistry.getId(feature.getClass()),
                 (int) json.getNumber(JsonConstants.CHANGE_FEATURE));
-        Assert.assertEquals(JsonConstants.CHANGE_TYPE_SPLICE,
-                json.getString(JsonConstants.CHANGE_TYPE));
+        Assert.assertEquals(JsonConstants.CHANGE_TYPE_CODE_SPLICE,
+                (int) json.getNumber(JsonConstants.CHANGE_TYPE_CODE));
         Assert.assertEquals(0,
                 (int) json.getNumber(JsonConstants.CHANGE_SPLICE_INDEX));
 
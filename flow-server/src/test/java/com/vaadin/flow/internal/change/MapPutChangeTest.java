@@ -46,14 +46,30 @@ public class MapPutChangeTest {
                 (int) json.getNumber(JsonConstants.CHANGE_NODE));
         Assert.assertEquals(NodeFeatureRegistry.getId(feature.getClass()),
                 (int) json.getNumber(JsonConstants.CHANGE_FEATURE));
-        Assert.assertEquals(JsonConstants.CHANGE_TYPE_PUT,
-                json.getString(JsonConstants.CHANGE_TYPE));
+        Assert.assertEquals(JsonConstants.CHANGE_TYPE_CODE_PUT,
+                (int) json.getNumber(JsonConstants.CHANGE_TYPE_CODE));
         Assert.assertEquals("some",
                 json.getString(JsonConstants.CHANGE_MAP_KEY));
         Assert.assertEquals("string",
                 json.getString(JsonConstants.CHANGE_PUT_VALUE));
     }
 
+    @Test
+    public void testJson_onlyTypeCodeSent() {
+        MapPutChange change = new MapPutChange(feature, "some", "string");
+
+        JsonObject json = change.toJson(null);
+
+        Assert.assertEquals(5, json.keys().length);
+        String expected = "{\"node\":" + change.getNode().getId()
+                + ",\"t\":" + JsonConstants.CHANGE_TYPE_CODE_PUT
+                + ",\"key\":\"some\",\"feat\":"
+                + NodeFeatureRegistry.getId(feature.getClass())
+                + ",\"value\":\"string\"}";
+        // Keys may be in any order, but the payload must not be any larger
+        Assert.assertEquals(expected.length(), json.toJson().length());
+    }
+
     @Test
     public void testJsonValueTypes() {
         JsonValue stringValue = getValue("string");
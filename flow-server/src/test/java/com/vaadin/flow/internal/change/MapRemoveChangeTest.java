@@ -41,8 +41,8 @@ public class MapRemoveChangeTest {
                 (int) json.getNumber(JsonConstants.CHANGE_NODE));
         Assert.assertEquals(NodeFeatureRegistry.getId(feature.getClass()),
                 (int) json.getNumber(JsonConstants.CHANGE_FEATURE));
-        Assert.assertEquals(JsonConstants.CHANGE_TYPE_REMOVE,
-                json.getString(JsonConstants.CHANGE_TYPE));
+        Assert.assertEquals(JsonConstants.CHANGE_TYPE_CODE_REMOVE,
+                (int) json.getNumber(JsonConstants.CHANGE_TYPE_CODE));
         Assert.assertEquals("some",
                 json.getString(JsonConstants.CHANGE_MAP_KEY));
     }
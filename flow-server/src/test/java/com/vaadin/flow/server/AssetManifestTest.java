@@ -0,0 +1,150 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.impl.JsonUtil;
+
+public class AssetManifestTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File webappFolder;
+    private File assetsFolder;
+
+    @Before
+    public void setUp() throws IOException {
+        webappFolder = temporaryFolder.newFolder("webapp");
+        assetsFolder = new File(webappFolder, AssetManifest.ASSETS_FOLDER);
+        Assert.assertTrue(assetsFolder.mkdirs());
+    }
+
+    @Test
+    public void create_largeScript_gzipVariantWrittenAndListed()
+            throws IOException {
+        File script = new File(assetsFolder, "index-1a2b3c.js");
+        FileUtils.write(script, "console.log('hello');\n".repeat(200),
+                StandardCharsets.UTF_8);
+        FileUtils.write(new File(assetsFolder, "index-1a2b3c.js.br"), "br",
+                StandardCharsets.UTF_8);
+
+        JsonObject manifest = AssetManifest.create(webappFolder);
+
+        Assert.assertEquals(1, manifest.keys().length);
+        JsonObject asset = manifest.getObject("VAADIN/build/index-1a2b3c.js");
+        Assert.assertFalse(asset.hasKey("size"));
+        Assert.assertTrue(
+                new File(assetsFolder, "index-1a2b3c.js.gz").exists());
+        JsonArray encodings = asset.getArray("encodings");
+        Assert.assertEquals(2, encodings.length());
+        Assert.assertEquals(Set.of(AssetManifest.BROTLI, AssetManifest.GZIP),
+                Set.of(encodings.getString(0), encodings.getString(1)));
+    }
+
+    @Test
+    public void create_smallOrBinaryAsset_noVariantWritten()
+            throws IOException {
+        FileUtils.write(new File(assetsFolder, "small-1a2b3c.js"), "x",
+                StandardCharsets.UTF_8);
+        FileUtils.writeByteArrayToFile(
+                new File(assetsFolder, "image-1a2b3c.png"), new byte[4096]);
+
+        JsonObject manifest = AssetManifest.create(webappFolder);
+
+        Assert.assertEquals(2, manifest.keys().length);
+        Assert.assertEquals(2, assetsFolder.list().length);
+        Assert.assertEquals(0, manifest.getObject("VAADIN/build/small-1a2b3c.js")
+                .getArray("encodings").length());
+    }
+
+    @Test
+    public void load_createdManifest_assetsFoundByRequestPath()
+            throws IOException {
+        FileUtils.write(new File(assetsFolder, "index-1a2b3c.js"),
+                "console.log('hello');\n".repeat(200),
+                StandardCharsets.UTF_8);
+        FileUtils.write(new File(assetsFolder, "other-4d5e6f.js"),
+                "console.log('other');\n", StandardCharsets.UTF_8);
+        File classesFolder = temporaryFolder.newFolder("classes");
+        FileUtils.write(
+                new File(classesFolder, Constants.VAADIN_SERVLET_RESOURCES
+                        + AssetManifest.MANIFEST_FILE),
+                JsonUtil.stringify(AssetManifest.create(webappFolder)),
+                StandardCharsets.UTF_8);
+
+        AssetManifest manifest;
+        try (URLClassLoader loader = new URLClassLoader(
+                new URL[] { classesFolder.toURI().toURL() }, null)) {
+            manifest = AssetManifest.load(loader);
+        }
+
+        AssetManifest.Asset asset = manifest
+                .getAsset("/VAADIN/build/index-1a2b3c.js");
+        Assert.assertNotNull(asset);
+        Assert.assertEquals(Set.of(AssetManifest.GZIP), asset.getEncodings());
+        Assert.assertTrue(asset.getEtag().startsWith("\""));
+        Assert.assertNotEquals(asset.getEtag(),
+                manifest.getAsset("VAADIN/build/other-4d5e6f.js").getEtag());
+        Assert.assertNull(manifest.getAsset("/VAADIN/build/missing.js"));
+    }
+
+    @Test
+    public void isHashed_bundlerHashInName_hashed() {
+        Assert.assertTrue(
+                AssetManifest.isHashed("VAADIN/build/indexhtml-5b8c0d9e.js"));
+        Assert.assertTrue(
+                AssetManifest.isHashed("VAADIN/build/index-DrBx_3kq.js.map"));
+        Assert.assertTrue(AssetManifest
+                .isHashed("VAADIN/build/vendor.5f3c2a1b9d0e8f7a.js"));
+        Assert.assertTrue(
+                AssetManifest.isHashed("VAADIN/build/assets/logo-4bd2a1f0.svg"));
+    }
+
+    @Test
+    public void isHashed_plainName_notHashed() {
+        Assert.assertFalse(AssetManifest.isHashed("VAADIN/build/sw.js"));
+        Assert.assertFalse(AssetManifest
+                .isHashed("VAADIN/build/sw-runtime-resources-precache.js"));
+        Assert.assertFalse(
+                AssetManifest.isHashed("VAADIN/build/index-1a2b3c.js"));
+        Assert.assertFalse(
+                AssetManifest.isHashed("VAADIN/build/1a2b3c4d5e/index.js"));
+    }
+
+    @Test
+    public void load_noManifest_emptyManifest() throws IOException {
+        try (URLClassLoader loader = new URLClassLoader(new URL[0], null)) {
+            Assert.assertNull(AssetManifest.load(loader)
+                    .getAsset("/VAADIN/build/index-1a2b3c.js"));
+        }
+    }
+}
@@ -28,6 +28,7 @@ import com.vaadin.flow.server.MockServletServiceSessionSetup.TestVaadinServletSe
 import com.vaadin.flow.server.communication.AtmospherePushConnection;
 import com.vaadin.flow.server.communication.PushConnection;
 import com.vaadin.flow.server.communication.PushConnectionFactory;
+import com.vaadin.flow.server.communication.SsePushConnection;
 import com.vaadin.flow.shared.communication.PushMode;
 import com.vaadin.flow.shared.ui.Transport;
 
@@ -112,6 +113,13 @@ public class BootstrapHandlerPushConfigurationTest {
                 AtmospherePushConnection.class);
     }
 
+    @Test
+    public void uiInitialization_sseTransport_ssePushConnectionIsUsed()
+            throws InvalidRouteConfigurationException {
+        assertPushConfigurationForComponent(PushSseTest.class,
+                SsePushConnection.class);
+    }
+
     @Test
     public void uiInitialization_customPushConnectionFactoryIsApplied()
             throws Exception {
@@ -234,6 +242,12 @@ public class BootstrapHandlerPushConfigurationTest {
     public static class PushConfiguredTest extends Component {
     }
 
+    @Route("")
+    @Tag(Tag.DIV)
+    @Push(transport = Transport.SSE)
+    public static class PushSseTest extends Component {
+    }
+
     public static class TestPushConnection implements PushConnection {
 
         @Override
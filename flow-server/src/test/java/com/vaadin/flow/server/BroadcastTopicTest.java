@@ -0,0 +1,141 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.flow.shared.Registration;
+import com.vaadin.tests.util.MockUI;
+
+import elemental.json.Json;
+
+public class BroadcastTopicTest {
+
+    private MockVaadinSession session;
+    private BroadcastTopic topic = new BroadcastTopic("ticker");
+
+    @Before
+    public void setUp() {
+        session = new MockVaadinSession(new MockVaadinServletService());
+    }
+
+    @After
+    public void tearDown() {
+        CurrentInstance.clearAll();
+    }
+
+    @Test
+    public void publish_subscribedUIs_sameSerializedMessageQueuedForEach() {
+        UI first = createUI();
+        UI second = createUI();
+        runLocked(() -> {
+            topic.subscribe(first);
+            topic.subscribe(second);
+        });
+
+        topic.publish(Json.create(42));
+
+        runLocked(() -> {
+            List<String> firstBroadcasts = first.getInternals()
+                    .dumpPendingBroadcasts();
+            List<String> secondBroadcasts = second.getInternals()
+                    .dumpPendingBroadcasts();
+            Assert.assertEquals(
+                    Collections.singletonList("[\"ticker\",42]"),
+                    firstBroadcasts);
+            // Serialized only once
+            Assert.assertSame(firstBroadcasts.get(0), secondBroadcasts.get(0));
+        });
+    }
+
+    @Test
+    public void publish_pendingBroadcast_uiIsDirty() {
+        UI ui = createUI();
+        runLocked(() -> {
+            topic.subscribe(ui);
+            ui.getInternals().getStateTree().collectChanges(change -> {
+            });
+            ui.getInternals().dumpPendingJavaScriptInvocations();
+            Assert.assertFalse(ui.getInternals().isDirty());
+        });
+
+        topic.publish(Json.create("value"));
+
+        runLocked(() -> Assert.assertTrue(ui.getInternals().isDirty()));
+    }
+
+    @Test
+    public void publish_unsubscribed_nothingQueued() {
+        UI ui = createUI();
+        runLocked(() -> topic.subscribe(ui).remove());
+
+        topic.publish(Json.create(42));
+
+        Assert.assertEquals(0, topic.getSubscriberCount());
+        runLocked(() -> Assert.assertTrue(
+                ui.getInternals().dumpPendingBroadcasts().isEmpty()));
+    }
+
+    @Test
+    public void detach_subscriptionRemoved() {
+        UI ui = createUI();
+        runLocked(() -> {
+            Registration registration = topic.subscribe(ui);
+            Assert.assertEquals(1, topic.getSubscriberCount());
+
+            ui.getInternals().setSession(null);
+            Assert.assertEquals(0, topic.getSubscriberCount());
+            // Removing afterwards is harmless
+            registration.remove();
+        });
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void subscribe_sessionNotLocked_throws() {
+        topic.subscribe(createUI());
+    }
+
+    private UI createUI() {
+        session.lock();
+        try {
+            MockUI ui = new MockUI(session);
+            ui.doInit(Mockito.mock(VaadinRequest.class),
+                    session.getNextUIid());
+            session.addUI(ui);
+            return ui;
+        } finally {
+            session.unlock();
+        }
+    }
+
+    private void runLocked(Runnable runnable) {
+        session.lock();
+        try {
+            runnable.run();
+        } finally {
+            session.unlock();
+        }
+    }
+}
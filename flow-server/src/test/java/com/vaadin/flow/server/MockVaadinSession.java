@@ -40,6 +40,7 @@ public class MockVaadinSession extends VaadinSession {
 
     public MockVaadinSession(VaadinService service) {
         super(service);
+        lock = new SessionLock(service);
     }
 
     public MockVaadinSession() {
@@ -75,7 +76,7 @@ public class MockVaadinSession extends VaadinSession {
 
     private int closeCount;
 
-    private ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock lock;
 
     public <T> T runWithLock(Callable<T> action) throws Exception {
         Map<Class<?>, CurrentInstance> previous = CurrentInstance
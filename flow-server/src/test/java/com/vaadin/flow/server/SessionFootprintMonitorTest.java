@@ -0,0 +1,178 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.tests.util.AlwaysLockedVaadinSession;
+import com.vaadin.tests.util.MockDeploymentConfiguration;
+import com.vaadin.tests.util.MockUI;
+
+public class SessionFootprintMonitorTest {
+
+    private MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+    private VaadinSession session;
+
+    @Before
+    public void setUp() {
+        session = createSession();
+    }
+
+    @Test
+    public void isEnabled_nothingConfigured_notEnabled() {
+        Assert.assertFalse(SessionFootprintMonitor.isEnabled(configuration));
+    }
+
+    @Test
+    public void isEnabled_limitConfigured_enabled() {
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.FOOTPRINT_MAX_STATE_NODES, "100");
+        Assert.assertTrue(SessionFootprintMonitor.isEnabled(configuration));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void create_invalidLimit_throws() {
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.FOOTPRINT_MAX_STATE_NODES, "many");
+        new SessionFootprintMonitor(configuration);
+    }
+
+    @Test
+    public void update_footprintReflectsUIContent() {
+        UI ui = createUI();
+        int initialNodes = ui.getInternals().getStateTree().getNodeCount();
+
+        Element div = new Element("div");
+        div.addEventListener("click", event -> {
+        });
+        div.appendChild(new Element("span"));
+        ui.getElement().appendChild(div);
+
+        SessionFootprintMonitor monitor = new SessionFootprintMonitor(
+                configuration);
+        SessionFootprint footprint = monitor.update(session);
+
+        Assert.assertEquals(1, footprint.getUis().size());
+        UIFootprint uiFootprint = footprint.getUis().get(0);
+        Assert.assertEquals(ui.getUIId(), uiFootprint.getUiId());
+        Assert.assertEquals(initialNodes + 2, uiFootprint.getStateNodeCount());
+        Assert.assertEquals(1, uiFootprint.getDomListenerCount());
+        Assert.assertEquals(0, footprint.getStreamResourceCount());
+
+        Assert.assertEquals(1, monitor.getSessionCount());
+        Assert.assertEquals(initialNodes + 2,
+                monitor.getTotalStateNodeCount());
+
+        monitor.remove(session);
+        Assert.assertEquals(0, monitor.getSessionCount());
+    }
+
+    @Test
+    public void update_limitExceeded_logAction_uiNotClosed() {
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.FOOTPRINT_MAX_STATE_NODES, "1");
+        UI ui = createUI();
+        ui.getElement().appendChild(new Element("div"), new Element("div"));
+
+        new SessionFootprintMonitor(configuration).update(session);
+
+        Assert.assertFalse(ui.isClosing());
+    }
+
+    @Test
+    public void update_limitExceeded_closeAction_uiClosed() {
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.FOOTPRINT_MAX_DOM_LISTENERS, "1");
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.FOOTPRINT_LIMIT_ACTION, "close");
+        UI ui = createUI();
+        UI smallUI = createUI();
+        ui.getElement().addEventListener("click", event -> {
+        });
+        ui.getElement().addEventListener("input", event -> {
+        });
+
+        new SessionFootprintMonitor(configuration).update(session);
+
+        Assert.assertTrue(ui.isClosing());
+        Assert.assertFalse(smallUI.isClosing());
+    }
+
+    @Test
+    public void getLargestSessions_sortedByStateNodes() {
+        SessionFootprintMonitor monitor = new SessionFootprintMonitor(
+                configuration);
+        createUI();
+        monitor.update(session);
+
+        VaadinSession largerSession = createSession();
+        createUI(largerSession).getElement().appendChild(new Element("div"));
+        SessionFootprint larger = monitor.update(largerSession);
+
+        List<SessionFootprint> largest = monitor.getLargestSessions(1);
+        Assert.assertEquals(1, largest.size());
+        Assert.assertSame(larger, largest.get(0));
+        Assert.assertEquals(2, monitor.getLargestSessions(5).size());
+    }
+
+    @Test
+    public void registerMBean_mbeanRegisteredAndUnregistered()
+            throws MalformedObjectNameException {
+        ObjectName pattern = new ObjectName(
+                "com.vaadin.flow:type=SessionFootprint,*");
+        int initial = ManagementFactory.getPlatformMBeanServer()
+                .queryNames(pattern, null).size();
+
+        SessionFootprintMonitor monitor = new SessionFootprintMonitor(
+                configuration);
+        monitor.registerMBean("test");
+        Assert.assertEquals(initial + 1, ManagementFactory
+                .getPlatformMBeanServer().queryNames(pattern, null).size());
+
+        monitor.unregisterMBean();
+        Assert.assertEquals(initial, ManagementFactory.getPlatformMBeanServer()
+                .queryNames(pattern, null).size());
+    }
+
+    private static VaadinSession createSession() {
+        VaadinService service = Mockito.mock(VaadinService.class);
+        Mockito.when(service.getMainDivId(Mockito.any(), Mockito.any()))
+                .thenReturn("ROOT-1");
+        return new AlwaysLockedVaadinSession(service);
+    }
+
+    private UI createUI() {
+        return createUI(session);
+    }
+
+    private static UI createUI(VaadinSession uiSession) {
+        MockUI ui = new MockUI(uiSession);
+        ui.doInit(Mockito.mock(VaadinRequest.class), uiSession.getNextUIid());
+        uiSession.addUI(ui);
+        return ui;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.server.metrics.InMemoryRequestMetrics;
+import com.vaadin.flow.server.metrics.RequestMetrics;
+import com.vaadin.tests.util.MockDeploymentConfiguration;
+
+public class SessionLockTest {
+
+    private MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+    private InMemoryRequestMetrics metrics = new InMemoryRequestMetrics();
+    private VaadinService service;
+
+    @Before
+    public void setUp() {
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.SESSION_LOCK_SLOW_THRESHOLD, "50");
+        service = new MockVaadinServletService(configuration);
+        service.setRequestMetrics(metrics);
+    }
+
+    @Test
+    public void lockSession_sessionLockCreated() {
+        WrappedSession wrappedSession = Mockito.mock(WrappedSession.class);
+        Object[] attribute = new Object[1];
+        Mockito.doAnswer(invocation -> attribute[0] = invocation
+                .getArgument(1)).when(wrappedSession)
+                .setAttribute(Mockito.anyString(), Mockito.any());
+        Mockito.when(wrappedSession.getAttribute(Mockito.anyString()))
+                .thenAnswer(invocation -> attribute[0]);
+
+        Lock lock = service.lockSession(wrappedSession);
+        try {
+            Assert.assertTrue(lock instanceof SessionLock);
+            Assert.assertSame(Thread.currentThread(),
+                    ((SessionLock) lock).getHolder());
+        } finally {
+            service.unlockSession(wrappedSession, lock);
+        }
+    }
+
+    @Test
+    public void lockAndUnlock_reentrant_waitAndHoldRecordedOnce() {
+        SessionLock lock = new SessionLock(service);
+
+        lock.lock();
+        lock.lock();
+        Assert.assertTrue(lock.getHoldTimeNanos() >= 0);
+        lock.unlock();
+        lock.unlock();
+
+        Assert.assertNull(lock.getHolder());
+        Assert.assertEquals(0, lock.getHoldTimeNanos());
+        Assert.assertEquals(1, metrics.getTimings()
+                .get(RequestMetrics.SESSION_LOCK_WAIT).getCount());
+        Assert.assertEquals(1, metrics.getTimings()
+                .get(RequestMetrics.SESSION_LOCK_HOLD).getCount());
+    }
+
+    @Test
+    public void lock_heldLongerThanThreshold_waiterAcquiresLockEventually()
+            throws InterruptedException {
+        SessionLock lock = new SessionLock(service);
+        CountDownLatch locked = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            lock.lock();
+            try {
+                locked.countDown();
+                Thread.sleep(150);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        });
+        holder.start();
+        Assert.assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        lock.lock();
+        try {
+            Assert.assertTrue(lock.isHeldByCurrentThread());
+            Assert.assertFalse(Thread.currentThread().isInterrupted());
+        } finally {
+            lock.unlock();
+        }
+        holder.join();
+
+        Assert.assertEquals(2, metrics.getTimings()
+                .get(RequestMetrics.SESSION_LOCK_HOLD).getCount());
+        Assert.assertTrue(metrics.getTimings()
+                .get(RequestMetrics.SESSION_LOCK_WAIT)
+                .getMaxNanos() >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void tryLock_heldByOtherThread_notAcquired()
+            throws InterruptedException {
+        SessionLock lock = new SessionLock(null);
+        lock.lock();
+        try {
+            boolean[] acquired = new boolean[1];
+            Thread thread = new Thread(() -> acquired[0] = lock.tryLock());
+            thread.start();
+            thread.join();
+            Assert.assertFalse(acquired[0]);
+        } finally {
+            lock.unlock();
+        }
+        Assert.assertTrue(lock.tryLock());
+        lock.unlock();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void init_invalidSlowThreshold_throws() {
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.SESSION_LOCK_SLOW_THRESHOLD, "slow");
+        new MockVaadinServletService(configuration);
+    }
+}
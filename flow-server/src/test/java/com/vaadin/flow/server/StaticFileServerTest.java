@@ -30,6 +30,7 @@ import java.lang.reflect.Field;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.URLClassLoader;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
 import java.nio.charset.StandardCharsets;
@@ -242,6 +243,21 @@ public class StaticFileServerTest implements Serializable {
         return fileServer.getRequestFilename(request);
     }
 
+    private void useAssetManifest(String manifest) throws IOException {
+        TemporaryFolder folder = TemporaryFolder.builder().build();
+        folder.create();
+        Path manifestFile = folder.getRoot().toPath()
+                .resolve(Constants.VAADIN_SERVLET_RESOURCES
+                        + AssetManifest.MANIFEST_FILE);
+        Files.createDirectories(manifestFile.getParent());
+        Files.writeString(manifestFile, manifest);
+        ClassLoader classLoader = new URLClassLoader(
+                new URL[] { folder.getRoot().toURI().toURL() }, null);
+        Mockito.doReturn(classLoader).when(servletService).getClassLoader();
+        fileServer = new OverrideableStaticFileServer(servletService,
+                configuration);
+    }
+
     private void setupRequestURI(String encodedContextPath, String servletPath,
             String pathInfo) {
         assert !encodedContextPath.equals("/") : "root context is always \"\"";
@@ -829,6 +845,142 @@ public class StaticFileServerTest implements Serializable {
         Assert.assertEquals(fileData, out.getOutputString());
     }
 
+    @Test
+    public void serveStaticResource_cacheEnabled_resourceResolvedOnce()
+            throws IOException {
+        Mockito.when(configuration.getBooleanProperty(
+                InitParameters.STATIC_RESOURCE_CACHE, true)).thenReturn(true);
+        fileServer = new OverrideableStaticFileServer(servletService,
+                configuration);
+        setupRequestURI("", "/some", "/file.js");
+        String fileData = "function() {eval('foo');};";
+
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData));
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+
+        Assert.assertEquals(fileData + fileData, out.getOutputString());
+        Assert.assertEquals(fileData.length(), responseContentLength.get());
+        Mockito.verify(servletService, Mockito.times(1))
+                .getStaticResource("/some/file.js");
+    }
+
+    @Test
+    public void serveStaticResource_hashedAssetNotModified_immutableAndVaryRepeated()
+            throws IOException {
+        useAssetManifest("{\"VAADIN/build/index-1a2b3c4d.js\":"
+                + "{\"etag\":\"\\\"abc\\\"\",\"encodings\":[\"gzip\"]}}");
+        setupRequestURI("", "", "/VAADIN/build/index-1a2b3c4d.js");
+        Mockito.when(servletService
+                .getStaticResource("/VAADIN/build/index-1a2b3c4d.js"))
+                .thenReturn(createFileURLWithDataAndLength(
+                        "/VAADIN/build/index-1a2b3c4d.js", "function() {};"));
+        Mockito.when(request.getHeader("If-None-Match")).thenReturn("\"abc\"");
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+
+        Assert.assertEquals(HttpStatusCode.NOT_MODIFIED.getCode(),
+                responseCode.get());
+        Assert.assertEquals("public, max-age=31536000, immutable",
+                headers.get("Cache-Control"));
+        Assert.assertEquals("\"abc\"", headers.get("ETag"));
+        Assert.assertEquals("Accept-Encoding", headers.get("Vary"));
+    }
+
+    @Test
+    public void serveStaticResource_unhashedAsset_notImmutable()
+            throws IOException {
+        useAssetManifest("{\"VAADIN/build/sw.js\":"
+                + "{\"etag\":\"\\\"abc\\\"\",\"encodings\":[]}}");
+        setupRequestURI("", "", "/VAADIN/build/sw.js");
+        Mockito.when(servletService.getStaticResource("/VAADIN/build/sw.js"))
+                .thenReturn(createFileURLWithDataAndLength(
+                        "/VAADIN/build/sw.js", "function() {};"));
+        Mockito.when(request.getHeader("If-None-Match")).thenReturn("\"abc\"");
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+
+        Assert.assertEquals(HttpStatusCode.NOT_MODIFIED.getCode(),
+                responseCode.get());
+        Assert.assertFalse(
+                headers.get("Cache-Control").contains("immutable"));
+        Assert.assertNull(headers.get("Vary"));
+    }
+
+    @Test
+    public void serveStaticResource_cacheEnabled_modificationTimestampHookCalled()
+            throws IOException {
+        Mockito.when(configuration.getBooleanProperty(
+                InitParameters.STATIC_RESOURCE_CACHE, true)).thenReturn(true);
+        AtomicInteger timestampWrites = new AtomicInteger();
+        fileServer = new OverrideableStaticFileServer(servletService,
+                configuration) {
+            @Override
+            protected long writeModificationTimestamp(URL resourceUrl,
+                    HttpServletRequest request, HttpServletResponse response) {
+                timestampWrites.incrementAndGet();
+                response.setDateHeader("Last-Modified", 1000L);
+                return 1000L;
+            }
+        };
+        setupRequestURI("", "/some", "/file.js");
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        "function() {};"));
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+
+        Assert.assertEquals(2, timestampWrites.get());
+        Assert.assertEquals(Long.valueOf(1000L),
+                dateHeaders.get("Last-Modified"));
+    }
+
+    @Test
+    public void serveStaticResource_cacheEnabled_precompressedVariantResolvedOnce()
+            throws IOException {
+        Mockito.when(configuration.getBooleanProperty(
+                InitParameters.STATIC_RESOURCE_CACHE, true)).thenReturn(true);
+        fileServer = new OverrideableStaticFileServer(servletService,
+                configuration);
+        setupRequestURI("", "/some", "/file.js");
+        Mockito.when(request.getHeader("Accept-Encoding")).thenReturn("gzip");
+
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        "plain"));
+        Mockito.when(servletContext.getResource("/some/file.js.gz"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js.gz",
+                        "gzipped"));
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+
+        Assert.assertEquals("gzippedgzipped", out.getOutputString());
+        Assert.assertEquals("gzip", headers.get("Content-Encoding"));
+        Mockito.verify(servletContext, Mockito.times(1))
+                .getResource("/some/file.js.gz");
+    }
+
+    @Test
+    public void serveStaticResource_cacheEnabled_missingResourceResolvedOnce()
+            throws IOException {
+        Mockito.when(configuration.getBooleanProperty(
+                InitParameters.STATIC_RESOURCE_CACHE, true)).thenReturn(true);
+        fileServer = new OverrideableStaticFileServer(servletService,
+                configuration);
+        setupRequestURI("", "/some", "/missing.js");
+
+        Assert.assertFalse(fileServer.serveStaticResource(request, response));
+        Assert.assertFalse(fileServer.serveStaticResource(request, response));
+
+        Mockito.verify(servletService, Mockito.times(1))
+                .getStaticResource("/some/missing.js");
+    }
+
     @Test
     public void contextAndServletPath_serveStaticBundleBuildResource()
             throws IOException {
@@ -37,6 +37,7 @@ import org.mockito.Mockito;
 
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.di.Instantiator;
 import com.vaadin.flow.di.InstantiatorFactory;
 import com.vaadin.flow.di.Lookup;
@@ -50,6 +51,7 @@ import com.vaadin.flow.server.communication.PwaHandler;
 import com.vaadin.flow.server.communication.StreamRequestHandler;
 import com.vaadin.flow.server.communication.WebComponentBootstrapHandler;
 import com.vaadin.flow.server.communication.WebComponentProvider;
+import com.vaadin.flow.server.metrics.ClientMetricsEvent;
 import com.vaadin.tests.util.MockDeploymentConfiguration;
 
 import static org.hamcrest.CoreMatchers.containsString;
@@ -270,6 +272,24 @@ public class VaadinServiceTest {
                 "Original value", CurrentInstance.get(String.class));
     }
 
+    @Test
+    public void fireClientMetrics_listenerThrows_otherListenersNotified()
+            throws ServiceException {
+        VaadinService service = createService();
+        List<ClientMetricsEvent> events = new ArrayList<>();
+        service.addClientMetricsListener(event -> {
+            throw new IllegalStateException("Listener failure");
+        });
+        service.addClientMetricsListener(events::add);
+
+        ClientMetricsEvent event = new ClientMetricsEvent(
+                Mockito.mock(UI.class), "view", Collections.emptyMap(),
+                Collections.emptyMap());
+        service.fireClientMetrics(event);
+
+        Assert.assertEquals(Collections.singletonList(event), events);
+    }
+
     @Test
     public void testBootstrapListenersCreation() throws ServiceException {
         // in this test the actual behavior of the listeners is not evaluated.
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.server.InitParameters;
+import com.vaadin.flow.server.VaadinServletRequest;
+import com.vaadin.flow.server.VaadinServletService;
+
+public class AsyncResponseWriterTest {
+
+    private VaadinServletRequest request;
+    private DeploymentConfiguration configuration;
+    private AsyncContext asyncContext;
+    private TestOutputStream out;
+
+    private static class TestOutputStream extends ServletOutputStream {
+        private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        private WriteListener listener;
+        private boolean ready = true;
+        private int writesUntilNotReady = Integer.MAX_VALUE;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            listener = writeListener;
+        }
+
+        @Override
+        public void write(int b) {
+            written.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            written.write(b, off, len);
+            if (--writesUntilNotReady == 0) {
+                ready = false;
+            }
+        }
+
+        String getWritten() {
+            return new String(written.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        configuration = Mockito.mock(DeploymentConfiguration.class);
+        Mockito.when(configuration.getBooleanProperty(
+                InitParameters.ASYNC_RESPONSE_WRITES, false)).thenReturn(true);
+        VaadinServletService service = Mockito
+                .mock(VaadinServletService.class);
+        Mockito.when(service.getDeploymentConfiguration())
+                .thenReturn(configuration);
+
+        out = new TestOutputStream();
+        ServletResponse response = Mockito.mock(ServletResponse.class);
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+        asyncContext = Mockito.mock(AsyncContext.class);
+        Mockito.when(asyncContext.getResponse()).thenReturn(response);
+
+        request = Mockito.mock(VaadinServletRequest.class);
+        Mockito.when(request.getService()).thenReturn(service);
+        Mockito.when(request.isAsyncSupported()).thenReturn(true);
+        Mockito.when(request.startAsync()).thenReturn(asyncContext);
+    }
+
+    @Test
+    public void isEnabled_enabledAndSupported_true() {
+        Assert.assertTrue(AsyncResponseWriter.isEnabled(request));
+    }
+
+    @Test
+    public void isEnabled_notConfigured_false() {
+        Mockito.when(configuration.getBooleanProperty(
+                InitParameters.ASYNC_RESPONSE_WRITES, false)).thenReturn(false);
+        Assert.assertFalse(AsyncResponseWriter.isEnabled(request));
+    }
+
+    @Test
+    public void isEnabled_asyncNotSupported_false() {
+        Mockito.when(request.isAsyncSupported()).thenReturn(false);
+        Assert.assertFalse(AsyncResponseWriter.isEnabled(request));
+    }
+
+    @Test
+    public void isEnabled_asyncAlreadyStarted_false() {
+        Mockito.when(request.isAsyncStarted()).thenReturn(true);
+        Assert.assertFalse(AsyncResponseWriter.isEnabled(request));
+    }
+
+    @Test
+    public void write_dataWrittenWhenPossible_completed() throws IOException {
+        AsyncResponseWriter.write(request,
+                "for(;;);[{}]".getBytes(StandardCharsets.UTF_8));
+
+        Assert.assertNotNull(out.listener);
+        Assert.assertEquals("", out.getWritten());
+        Mockito.verify(asyncContext, Mockito.never()).complete();
+
+        out.listener.onWritePossible();
+
+        Assert.assertEquals("for(;;);[{}]", out.getWritten());
+        Mockito.verify(asyncContext).complete();
+    }
+
+    @Test
+    public void transfer_clientNotReady_continuedWhenPossible()
+            throws IOException {
+        byte[] data = new byte[20000];
+        AtomicBoolean closed = new AtomicBoolean();
+        ByteArrayInputStream source = new ByteArrayInputStream(data) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        out.writesUntilNotReady = 1;
+
+        AsyncResponseWriter.transfer(request, source);
+        out.listener.onWritePossible();
+
+        Assert.assertTrue(out.written.size() > 0);
+        Assert.assertTrue(out.written.size() < data.length);
+        Mockito.verify(asyncContext, Mockito.never()).complete();
+        Assert.assertFalse(closed.get());
+
+        out.ready = true;
+        out.listener.onWritePossible();
+
+        Assert.assertEquals(data.length, out.written.size());
+        Mockito.verify(asyncContext).complete();
+        Assert.assertTrue(closed.get());
+    }
+
+    @Test
+    public void transfer_clientGone_sourceClosedAndCompleted()
+            throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        ByteArrayInputStream source = new ByteArrayInputStream(new byte[10]) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        out.ready = false;
+
+        AsyncResponseWriter.transfer(request, source);
+        out.listener.onError(new IOException("Broken pipe"));
+
+        Assert.assertTrue(closed.get());
+        Mockito.verify(asyncContext).complete();
+    }
+}
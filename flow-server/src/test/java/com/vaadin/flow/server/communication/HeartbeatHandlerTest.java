@@ -16,16 +16,32 @@
 package com.vaadin.flow.server.communication;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 
+import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.internal.UIInternals;
+import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.flow.server.HttpStatusCode;
+import com.vaadin.flow.server.MockVaadinServletService;
+import com.vaadin.flow.server.MockVaadinSession;
+import com.vaadin.flow.server.RequestHandler;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinResponse;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.WrappedSession;
+import com.vaadin.flow.shared.ApplicationConstants;
+import com.vaadin.tests.util.MockUI;
 
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
@@ -54,4 +70,76 @@ public class HeartbeatHandlerTest {
         Mockito.verify(ui.getInternals(), times(1))
                 .setLastHeartbeatTimestamp(anyLong());
     }
+
+    @Test
+    public void serviceHandleRequest_sessionLockedByOtherThread_heartbeatRecordedWithoutWaiting()
+            throws Exception {
+        MockVaadinServletService service = new MockVaadinServletService() {
+            @Override
+            protected List<RequestHandler> createRequestHandlers() {
+                return Collections.singletonList(new HeartbeatHandler());
+            }
+        };
+        MockVaadinSession session = new MockVaadinSession(service);
+        Lock lock = session.getLockInstance();
+
+        // The same lock is used for the session and the HTTP session
+        WrappedSession wrappedSession = mock(WrappedSession.class);
+        when(wrappedSession.getAttribute(Mockito.anyString()))
+                .thenAnswer(invocation -> invocation.<String> getArgument(0)
+                        .endsWith(".lock") ? lock : session);
+        VaadinRequest request = mock(VaadinRequest.class);
+        VaadinResponse response = mock(VaadinResponse.class);
+        when(request.getWrappedSession()).thenReturn(wrappedSession);
+        when(request.getWrappedSession(Mockito.anyBoolean()))
+                .thenReturn(wrappedSession);
+
+        session.lock();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            MockUI ui = new MockUI(session);
+            ui.doInit(request, session.getNextUIid());
+            session.addUI(ui);
+            ui.getInternals().setLastHeartbeatTimestamp(0);
+
+            when(request.getParameter(
+                    ApplicationConstants.REQUEST_TYPE_PARAMETER))
+                    .thenReturn(ApplicationConstants.REQUEST_TYPE_HEARTBEAT);
+            when(request.getParameter(ApplicationConstants.UI_ID_PARAMETER))
+                    .thenReturn(String.valueOf(ui.getUIId()));
+
+            // The lock is held by this thread during the whole request
+            Future<?> handled = executor.submit(() -> {
+                service.handleRequest(request, response);
+                return null;
+            });
+
+            handled.get(5, TimeUnit.SECONDS);
+            Assert.assertNotEquals(0,
+                    ui.getInternals().getLastHeartbeatTimestamp());
+            Mockito.verify(response).setHeader("Content-Type", "text/plain");
+        } finally {
+            executor.shutdownNow();
+            session.unlock();
+            CurrentInstance.clearAll();
+        }
+    }
+
+    @Test
+    public void handleRequest_unknownUI_notFound() throws IOException {
+        VaadinSession session = mock(VaadinSession.class);
+        VaadinRequest request = mock(VaadinRequest.class);
+        VaadinResponse response = mock(VaadinResponse.class);
+        when(request.getParameter(ApplicationConstants.REQUEST_TYPE_PARAMETER))
+                .thenReturn(ApplicationConstants.REQUEST_TYPE_HEARTBEAT);
+        when(request.getParameter(ApplicationConstants.UI_ID_PARAMETER))
+                .thenReturn("42");
+
+        Assert.assertTrue(new HeartbeatHandler().handleRequest(session,
+                request, response));
+
+        Mockito.verify(session, Mockito.never()).lock();
+        Mockito.verify(response).sendError(
+                HttpStatusCode.NOT_FOUND.getCode(), "UI not found");
+    }
 }
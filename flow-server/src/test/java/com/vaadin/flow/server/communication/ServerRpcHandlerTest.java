@@ -3,12 +3,18 @@ package com.vaadin.flow.server.communication;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
 import com.vaadin.flow.component.UI;
@@ -17,11 +23,20 @@ import com.vaadin.flow.component.internal.UIInternals;
 import com.vaadin.flow.function.DeploymentConfiguration;
 import com.vaadin.flow.internal.MessageDigestUtil;
 import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.router.Location;
+import com.vaadin.flow.server.InitParameters;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.server.communication.ServerRpcHandler.InvalidUIDLSecurityKeyException;
+import com.vaadin.flow.server.communication.ServerRpcHandler.RpcRequest;
+import com.vaadin.flow.server.communication.rpc.RpcInvocationHandler;
+import com.vaadin.flow.server.metrics.ClientMetricsEvent;
+import com.vaadin.flow.server.metrics.ClientTiming;
 import com.vaadin.flow.shared.ApplicationConstants;
+import com.vaadin.flow.shared.JsonConstants;
+
+import elemental.json.JsonObject;
 
 public class ServerRpcHandlerTest {
     private VaadinRequest request;
@@ -126,4 +141,102 @@ public class ServerRpcHandlerTest {
 
         handler.handleRpc(ui, Mockito.mock(Reader.class), request);
     }
+
+    @Test
+    public void decodeRpc_uiNotAccessed_invocationsHandledWithDecodedRequest()
+            throws InvalidUIDLSecurityKeyException, IOException {
+        List<JsonObject> handled = new ArrayList<>();
+        RpcInvocationHandler eventHandler = new RpcInvocationHandler() {
+            @Override
+            public String getRpcType() {
+                return JsonConstants.RPC_TYPE_EVENT;
+            }
+
+            @Override
+            public Optional<Runnable> handle(UI ui, JsonObject invocationJson) {
+                handled.add(invocationJson);
+                return Optional.empty();
+            }
+        };
+        ServerRpcHandler handler = new ServerRpcHandler() {
+            @Override
+            protected Map<String, RpcInvocationHandler> getInvocationHandlers() {
+                return Collections.singletonMap(JsonConstants.RPC_TYPE_EVENT,
+                        eventHandler);
+            }
+        };
+        String message = "{\"csrfToken\": \"" + csrfToken
+                + "\", \"rpc\":[{\"type\": \"event\", \"node\": 1},"
+                + "{\"type\": \"event\", \"node\": 2}], \"clientId\":1}";
+
+        RpcRequest rpcRequest = handler.decodeRpc(new StringReader(message),
+                request);
+
+        Mockito.verifyNoInteractions(ui);
+        Assert.assertArrayEquals(MessageDigestUtil.sha256(message),
+                rpcRequest.getMessageHash());
+
+        handler.handleRpc(ui, rpcRequest);
+
+        Assert.assertEquals(2, handled.size());
+        Assert.assertEquals(1, (int) handled.get(0).getNumber("node"));
+        Assert.assertEquals(2, (int) handled.get(1).getNumber("node"));
+    }
+
+    @Test
+    public void decodeRpc_emptyMessage_nullReturned() throws IOException {
+        Assert.assertNull(
+                serverRpcHandler.decodeRpc(new StringReader(""), request));
+    }
+
+    @Test
+    public void handleRpc_clientMetrics_firedWithActiveViewLocation()
+            throws InvalidUIDLSecurityKeyException, IOException {
+        Mockito.when(service.getDeploymentConfiguration().getBooleanProperty(
+                InitParameters.CLIENT_METRICS, false)).thenReturn(true);
+        Mockito.when(service.hasClientMetricsListeners()).thenReturn(true);
+        Mockito.when(uiInternals.getActiveViewLocation())
+                .thenReturn(new Location("orders"));
+
+        serverRpcHandler.handleRpc(ui, new StringReader(
+                getClientMetricsMessage()), request);
+
+        ArgumentCaptor<ClientMetricsEvent> captor = ArgumentCaptor
+                .forClass(ClientMetricsEvent.class);
+        Mockito.verify(service).fireClientMetrics(captor.capture());
+        ClientMetricsEvent event = captor.getValue();
+        Assert.assertSame(ui, event.getUI());
+        Assert.assertEquals("orders", event.getLocation());
+
+        ClientTiming treeApply = event.getTimings()
+                .get(JsonConstants.CLIENT_METRIC_TREE_APPLY);
+        Assert.assertEquals(3, treeApply.getCount());
+        Assert.assertEquals(42.5, treeApply.getTotalMillis(), 0);
+        Assert.assertEquals(30, treeApply.getMaxMillis(), 0);
+        Assert.assertEquals(Long.valueOf(120), event.getCounters()
+                .get(JsonConstants.CLIENT_METRIC_DOM_INSERTS));
+    }
+
+    @Test
+    public void handleRpc_clientMetricsNotEnabled_notFired()
+            throws InvalidUIDLSecurityKeyException, IOException {
+        Mockito.when(service.hasClientMetricsListeners()).thenReturn(true);
+
+        serverRpcHandler.handleRpc(ui, new StringReader(
+                getClientMetricsMessage()), request);
+
+        Mockito.verify(service, Mockito.never())
+                .fireClientMetrics(Mockito.any());
+    }
+
+    private String getClientMetricsMessage() {
+        return "{\"csrfToken\": \"" + csrfToken
+                + "\", \"rpc\":[], \"clientId\":1, \""
+                + ApplicationConstants.CLIENT_METRICS_ID + "\": {\""
+                + JsonConstants.CLIENT_METRICS_TIMINGS + "\": {\""
+                + JsonConstants.CLIENT_METRIC_TREE_APPLY
+                + "\": [3, 42.5, 30]}, \""
+                + JsonConstants.CLIENT_METRICS_COUNTERS + "\": {\""
+                + JsonConstants.CLIENT_METRIC_DOM_INSERTS + "\": 120}}}";
+    }
 }
@@ -0,0 +1,330 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.WriteListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.communication.SsePushConnection.Channel;
+
+public class SsePushConnectionTest {
+
+    private UI ui;
+
+    @Before
+    public void setUp() {
+        ui = Mockito.mock(UI.class);
+        Mockito.when(ui.getSession())
+                .thenReturn(Mockito.mock(VaadinSession.class));
+    }
+
+    @Test
+    public void channelSend_writable_eventWrittenAndFlushed()
+            throws IOException {
+        TestOutputStream out = new TestOutputStream();
+        Channel channel = new Channel(mockAsyncContext(out));
+
+        Assert.assertTrue(channel.send("foo\nbar"));
+
+        Assert.assertEquals(":\n\ndata: foo\ndata: bar\n\n", out.getText());
+        Assert.assertTrue(out.flushed);
+    }
+
+    @Test
+    public void channelSend_notWritable_eventWrittenWhenWritePossible()
+            throws IOException {
+        TestOutputStream out = new TestOutputStream();
+        out.ready = false;
+        Channel channel = new Channel(mockAsyncContext(out));
+
+        Assert.assertTrue(channel.send("foo"));
+        Assert.assertEquals("", out.getText());
+
+        out.ready = true;
+        out.writeListener.onWritePossible();
+
+        Assert.assertEquals(":\n\ndata: foo\n\n", out.getText());
+        Assert.assertTrue(out.flushed);
+    }
+
+    @Test
+    public void channelClose_asyncContextCompletedOnce() throws IOException {
+        AsyncContext asyncContext = mockAsyncContext(new TestOutputStream());
+        Channel channel = new Channel(asyncContext);
+
+        channel.close();
+        channel.close();
+
+        Assert.assertFalse(channel.isOpen());
+        Assert.assertFalse(channel.send("foo"));
+        Mockito.verify(asyncContext).complete();
+    }
+
+    @Test
+    public void channelClose_queuedEventsKeptAsUnsent() throws IOException {
+        TestOutputStream out = new TestOutputStream();
+        out.ready = false;
+        Channel channel = new Channel(mockAsyncContext(out));
+        channel.send("foo");
+        channel.send("bar");
+
+        channel.close();
+        out.ready = true;
+        out.writeListener.onWritePossible();
+
+        Assert.assertEquals("", out.getText());
+        Assert.assertEquals(List.of("foo", "bar"), channel.takeUnsent());
+        Assert.assertEquals(List.of(), channel.takeUnsent());
+    }
+
+    @Test
+    public void channelTakeUnsent_writtenEventsNotIncluded()
+            throws IOException {
+        TestOutputStream out = new TestOutputStream();
+        Channel channel = new Channel(mockAsyncContext(out));
+        channel.send("foo");
+        out.ready = false;
+        channel.send("bar");
+
+        channel.onComplete(Mockito.mock(AsyncEvent.class));
+
+        Assert.assertEquals(List.of("bar"), channel.takeUnsent());
+    }
+
+    @Test
+    public void channelListener_completedByContainer_channelClosed()
+            throws IOException {
+        AsyncContext asyncContext = mockAsyncContext(new TestOutputStream());
+        Channel channel = new Channel(asyncContext);
+
+        channel.onComplete(Mockito.mock(AsyncEvent.class));
+
+        Assert.assertFalse(channel.isOpen());
+        Assert.assertFalse(channel.send("foo"));
+        Mockito.verify(asyncContext, Mockito.never()).complete();
+    }
+
+    @Test
+    public void channelListener_timeout_channelClosed() throws IOException {
+        AsyncContext asyncContext = mockAsyncContext(new TestOutputStream());
+        Channel channel = new Channel(asyncContext);
+
+        channel.onTimeout(Mockito.mock(AsyncEvent.class));
+
+        Assert.assertFalse(channel.isOpen());
+        Mockito.verify(asyncContext).complete();
+    }
+
+    @Test
+    public void channelWrite_ioException_channelClosed() throws IOException {
+        TestOutputStream out = new TestOutputStream();
+        AsyncContext asyncContext = mockAsyncContext(out);
+        Channel channel = new Channel(asyncContext);
+
+        out.fail = true;
+
+        channel.send("foo");
+        Assert.assertFalse(channel.isOpen());
+        Mockito.verify(asyncContext).complete();
+        Assert.assertEquals(List.of("foo"), channel.takeUnsent());
+    }
+
+    @Test
+    public void push_notConnected_pushedOnConnect() throws IOException {
+        SsePushConnection connection = Mockito
+                .spy(new SsePushConnection(ui));
+        Mockito.doReturn("message").when(connection).createMessage();
+
+        connection.push();
+        Mockito.verify(connection, Mockito.never()).createMessage();
+        Assert.assertFalse(connection.isConnected());
+
+        TestOutputStream out = new TestOutputStream();
+        connection.connect(new Channel(mockAsyncContext(out)));
+
+        Assert.assertTrue(connection.isConnected());
+        Assert.assertEquals(":\n\ndata: message\n\n", out.getText());
+    }
+
+    @Test
+    public void push_connectedWithoutPendingPush_nothingSentOnConnect()
+            throws IOException {
+        SsePushConnection connection = Mockito
+                .spy(new SsePushConnection(ui));
+
+        TestOutputStream out = new TestOutputStream();
+        connection.connect(new Channel(mockAsyncContext(out)));
+
+        Mockito.verify(connection, Mockito.never()).createMessage();
+        Assert.assertEquals(":\n\n", out.getText());
+    }
+
+    @Test
+    public void push_channelClosedWhileSending_messageSentOnReconnect()
+            throws IOException {
+        SsePushConnection connection = Mockito
+                .spy(new SsePushConnection(ui));
+        Channel first = new Channel(mockAsyncContext(new TestOutputStream()));
+        connection.connect(first);
+
+        Mockito.doAnswer(invocation -> {
+            // The client disconnects after the changes have been collected
+            first.close();
+            return "first";
+        }).doReturn("second").when(connection).createMessage();
+
+        connection.push();
+        Assert.assertFalse(connection.isConnected());
+
+        TestOutputStream out = new TestOutputStream();
+        connection.connect(new Channel(mockAsyncContext(out)));
+
+        Assert.assertEquals(":\n\ndata: first\n\ndata: second\n\n",
+                out.getText());
+    }
+
+    @Test
+    public void push_channelTimedOutBeforeWriting_messageSentOnReconnect()
+            throws IOException {
+        SsePushConnection connection = Mockito
+                .spy(new SsePushConnection(ui));
+        Mockito.doReturn("first").doReturn("second").when(connection)
+                .createMessage();
+        TestOutputStream firstOut = new TestOutputStream();
+        Channel first = new Channel(mockAsyncContext(firstOut));
+        connection.connect(first);
+
+        // The client stops reading, so the event stays queued
+        firstOut.ready = false;
+        connection.push();
+        first.onTimeout(Mockito.mock(AsyncEvent.class));
+        connection.push();
+
+        TestOutputStream out = new TestOutputStream();
+        connection.connect(new Channel(mockAsyncContext(out)));
+
+        Assert.assertEquals(":\n\n", firstOut.getText());
+        Assert.assertEquals(":\n\ndata: first\n\ndata: second\n\n",
+                out.getText());
+    }
+
+    @Test
+    public void disconnect_unwrittenMessageSentOnReconnect()
+            throws IOException {
+        SsePushConnection connection = Mockito
+                .spy(new SsePushConnection(ui));
+        Mockito.doReturn("message").when(connection).createMessage();
+        TestOutputStream firstOut = new TestOutputStream();
+        connection.connect(new Channel(mockAsyncContext(firstOut)));
+
+        firstOut.ready = false;
+        connection.push();
+        connection.disconnect();
+
+        TestOutputStream out = new TestOutputStream();
+        connection.connect(new Channel(mockAsyncContext(out)));
+
+        Assert.assertEquals(":\n\ndata: message\n\n", out.getText());
+        Mockito.verify(connection).createMessage();
+    }
+
+    @Test
+    public void connect_previousChannelClosed() throws IOException {
+        SsePushConnection connection = new SsePushConnection(ui);
+        AsyncContext firstContext = mockAsyncContext(new TestOutputStream());
+        Channel first = new Channel(firstContext);
+        connection.connect(first);
+
+        connection.connect(
+                new Channel(mockAsyncContext(new TestOutputStream())));
+
+        Assert.assertFalse(first.isOpen());
+        Mockito.verify(firstContext).complete();
+        Assert.assertTrue(connection.isConnected());
+    }
+
+    @Test
+    public void disconnect_channelClosed() throws IOException {
+        SsePushConnection connection = new SsePushConnection(ui);
+        AsyncContext asyncContext = mockAsyncContext(new TestOutputStream());
+        connection.connect(new Channel(asyncContext));
+
+        connection.disconnect();
+
+        Assert.assertFalse(connection.isConnected());
+        Mockito.verify(asyncContext).complete();
+    }
+
+    private static AsyncContext mockAsyncContext(ServletOutputStream out)
+            throws IOException {
+        AsyncContext asyncContext = Mockito.mock(AsyncContext.class);
+        ServletResponse response = Mockito.mock(ServletResponse.class);
+        Mockito.when(asyncContext.getResponse()).thenReturn(response);
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+        return asyncContext;
+    }
+
+    private static class TestOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private WriteListener writeListener;
+        private boolean ready = true;
+        private boolean flushed;
+        private boolean fail;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            this.writeListener = writeListener;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (fail) {
+                throw new IOException("Connection reset");
+            }
+            bytes.write(b);
+        }
+
+        @Override
+        public void flush() {
+            flushed = true;
+        }
+
+        private String getText() {
+            return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.ServletResponse;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.internal.UIInternals;
+import com.vaadin.flow.server.HttpStatusCode;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinResponse;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinServletRequest;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.shared.ApplicationConstants;
+
+public class SsePushRequestHandlerTest {
+
+    private static final String PUSH_ID = "push-id";
+
+    private SsePushRequestHandler handler = new SsePushRequestHandler();
+
+    private VaadinSession session;
+    private VaadinServletRequest request;
+    private VaadinResponse response;
+    private UIInternals internals;
+    private AsyncContext asyncContext;
+
+    @Before
+    public void setUp() throws IOException {
+        VaadinService service = Mockito.mock(VaadinService.class);
+        session = Mockito.mock(VaadinSession.class);
+        Mockito.when(session.getService()).thenReturn(service);
+        Mockito.when(session.getPushId()).thenReturn(PUSH_ID);
+
+        request = Mockito.mock(VaadinServletRequest.class);
+        Mockito.when(request
+                .getParameter(ApplicationConstants.REQUEST_TYPE_PARAMETER))
+                .thenReturn(ApplicationConstants.REQUEST_TYPE_SSE);
+        Mockito.when(
+                request.getParameter(ApplicationConstants.PUSH_ID_PARAMETER))
+                .thenReturn(PUSH_ID);
+        Mockito.when(request.isAsyncSupported()).thenReturn(true);
+
+        asyncContext = Mockito.mock(AsyncContext.class);
+        ServletResponse servletResponse = Mockito.mock(ServletResponse.class);
+        Mockito.when(asyncContext.getResponse()).thenReturn(servletResponse);
+        Mockito.when(servletResponse.getOutputStream())
+                .thenReturn(Mockito.mock(ServletOutputStream.class));
+        Mockito.when(request.startAsync()).thenReturn(asyncContext);
+
+        UI ui = Mockito.mock(UI.class);
+        internals = Mockito.mock(UIInternals.class);
+        Mockito.when(ui.getInternals()).thenReturn(internals);
+        Mockito.when(service.findUI(request)).thenReturn(ui);
+
+        response = Mockito.mock(VaadinResponse.class);
+    }
+
+    @Test
+    public void handleRequest_notSseRequest_notHandled() throws IOException {
+        Mockito.when(request
+                .getParameter(ApplicationConstants.REQUEST_TYPE_PARAMETER))
+                .thenReturn(ApplicationConstants.REQUEST_TYPE_UIDL);
+
+        Assert.assertFalse(handler.handleRequest(session, request, response));
+        Mockito.verifyNoInteractions(response);
+    }
+
+    @Test
+    public void handleRequest_sseConnection_streamOpenedAndConnected()
+            throws IOException {
+        SsePushConnection connection = Mockito.mock(SsePushConnection.class);
+        Mockito.when(internals.getPushConnection()).thenReturn(connection);
+
+        Assert.assertTrue(handler.handleRequest(session, request, response));
+
+        Mockito.verify(response)
+                .setContentType(SsePushRequestHandler.CONTENT_TYPE);
+        Mockito.verify(asyncContext)
+                .setTimeout(ArgumentMatchers.longThat(timeout -> timeout > 0));
+        Mockito.verify(connection)
+                .connect(ArgumentMatchers.any(SsePushConnection.Channel.class));
+        Mockito.verify(session).unlock();
+        Mockito.verify(response, Mockito.never())
+                .sendError(ArgumentMatchers.anyInt(), ArgumentMatchers.any());
+    }
+
+    @Test
+    public void handleRequest_invalidPushId_forbidden() throws IOException {
+        Mockito.when(
+                request.getParameter(ApplicationConstants.PUSH_ID_PARAMETER))
+                .thenReturn("other");
+        Mockito.when(internals.getPushConnection())
+                .thenReturn(Mockito.mock(SsePushConnection.class));
+
+        Assert.assertTrue(handler.handleRequest(session, request, response));
+
+        assertErrorSent(HttpStatusCode.FORBIDDEN);
+    }
+
+    @Test
+    public void handleRequest_missingPushId_forbidden() throws IOException {
+        Mockito.when(
+                request.getParameter(ApplicationConstants.PUSH_ID_PARAMETER))
+                .thenReturn(null);
+
+        Assert.assertTrue(handler.handleRequest(session, request, response));
+
+        assertErrorSent(HttpStatusCode.FORBIDDEN);
+    }
+
+    @Test
+    public void handleRequest_unknownUI_notFound() throws IOException {
+        Mockito.when(session.getService().findUI(request)).thenReturn(null);
+
+        Assert.assertTrue(handler.handleRequest(session, request, response));
+
+        assertErrorSent(HttpStatusCode.NOT_FOUND);
+    }
+
+    @Test
+    public void handleRequest_otherPushConnection_conflict()
+            throws IOException {
+        Mockito.when(internals.getPushConnection())
+                .thenReturn(Mockito.mock(AtmospherePushConnection.class));
+
+        Assert.assertTrue(handler.handleRequest(session, request, response));
+
+        assertErrorSent(HttpStatusCode.CONFLICT);
+    }
+
+    @Test
+    public void handleRequest_asyncNotSupported_serviceUnavailable()
+            throws IOException {
+        Mockito.when(request.isAsyncSupported()).thenReturn(false);
+
+        Assert.assertTrue(handler.handleRequest(session, request, response));
+
+        Mockito.verify(response).sendError(
+                ArgumentMatchers.eq(
+                        HttpStatusCode.SERVICE_UNAVAILABLE.getCode()),
+                ArgumentMatchers.anyString());
+        Mockito.verify(session, Mockito.never()).lock();
+    }
+
+    @Test
+    public void handleSessionExpired_sseRequest_sessionExpiredEventSent()
+            throws IOException {
+        StringWriter output = new StringWriter();
+        Mockito.when(response.getWriter())
+                .thenReturn(new PrintWriter(output));
+
+        Assert.assertTrue(handler.handleSessionExpired(request, response));
+
+        Mockito.verify(response)
+                .setContentType(SsePushRequestHandler.CONTENT_TYPE);
+        Assert.assertEquals(
+                "data: " + VaadinService.createSessionExpiredJSON(true)
+                        + "\n\n",
+                output.toString());
+    }
+
+    @Test
+    public void handleSessionExpired_notSseRequest_notHandled()
+            throws IOException {
+        VaadinRequest otherRequest = Mockito.mock(VaadinRequest.class);
+
+        Assert.assertFalse(
+                handler.handleSessionExpired(otherRequest, response));
+        Mockito.verifyNoInteractions(response);
+    }
+
+    private void assertErrorSent(HttpStatusCode status) throws IOException {
+        Mockito.verify(response).sendError(ArgumentMatchers.eq(status.getCode()),
+                ArgumentMatchers.anyString());
+        Mockito.verify(request, Mockito.never()).startAsync();
+        Mockito.verify(session).unlock();
+    }
+}
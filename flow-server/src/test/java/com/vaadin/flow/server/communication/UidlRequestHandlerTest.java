@@ -17,10 +17,15 @@
 
 package com.vaadin.flow.server.communication;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 
 import org.junit.Assert;
@@ -28,6 +33,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.internal.JavaScriptBootstrapUI;
 import com.vaadin.flow.server.DefaultDeploymentConfiguration;
 import com.vaadin.flow.server.HandlerHelper.RequestType;
@@ -38,9 +44,11 @@ import com.vaadin.flow.server.VaadinResponse;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinServletService;
 import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.communication.ServerRpcHandler.RpcRequest;
 import com.vaadin.flow.server.startup.ApplicationConfiguration;
 import com.vaadin.flow.shared.ApplicationConstants;
 
+import elemental.json.Json;
 import elemental.json.JsonObject;
 import elemental.json.impl.JsonUtil;
 
@@ -121,6 +129,74 @@ public class UidlRequestHandlerTest {
                 responseContent);
     }
 
+    @Test
+    public void handleRequest_messageDecodedBeforeSessionLocked()
+            throws IOException {
+        List<String> events = new ArrayList<>();
+        VaadinSession session = mockSession(events);
+        when(session.getService().findUI(request)).thenReturn(null);
+        UidlRequestHandler handler = new UidlRequestHandler() {
+            @Override
+            protected ServerRpcHandler createRpcHandler() {
+                return new ServerRpcHandler() {
+                    @Override
+                    public RpcRequest decodeRpc(Reader reader,
+                            VaadinRequest request) throws IOException {
+                        events.add("decode");
+                        return super.decodeRpc(reader, request);
+                    }
+                };
+            }
+        };
+
+        Assert.assertTrue(handler.handleRequest(session, request, response));
+
+        Assert.assertEquals(List.of("decode", "lock", "unlock"), events);
+    }
+
+    @Test
+    public void handleRequest_readerHandleRpcOverridden_calledWithSessionLocked()
+            throws IOException {
+        List<String> events = new ArrayList<>();
+        VaadinSession session = mockSession(events);
+        UI ui = mock(UI.class);
+        when(session.getService().findUI(request)).thenReturn(ui);
+        UidlRequestHandler handler = spy(new UidlRequestHandler() {
+            @Override
+            protected ServerRpcHandler createRpcHandler() {
+                return new ServerRpcHandler() {
+                    @Override
+                    public void handleRpc(UI ui, Reader reader,
+                            VaadinRequest request) {
+                        events.add("handleRpc");
+                    }
+                };
+            }
+        });
+        doReturn(Json.createObject()).when(handler).createUidl(ui, false);
+        doReturn(Collections.emptyList()).when(handler)
+                .dumpPendingBroadcasts(ui);
+
+        Assert.assertTrue(handler.handleRequest(session, request, response));
+
+        Assert.assertEquals(List.of("lock", "handleRpc", "unlock"), events);
+    }
+
+    private VaadinSession mockSession(List<String> events) throws IOException {
+        when(request.getParameter(ApplicationConstants.REQUEST_TYPE_PARAMETER))
+                .thenReturn(RequestType.UIDL.getIdentifier());
+        when(request.getReader())
+                .thenReturn(new BufferedReader(new StringReader("")));
+
+        VaadinSession session = mock(VaadinSession.class);
+        when(session.getService()).thenReturn(mock(VaadinService.class));
+        Mockito.doAnswer(invocation -> events.add("lock")).when(session)
+                .lock();
+        Mockito.doAnswer(invocation -> events.add("unlock")).when(session)
+                .unlock();
+        return session;
+    }
+
     @Test
     public void should_not_modifyUidl_when_MPR_nonJavaScriptBootstrapUI()
             throws Exception {
@@ -131,6 +207,8 @@ public class UidlRequestHandlerTest {
 
         JsonObject uidl = generateUidl(true, true);
         doReturn(uidl).when(handler).createUidl(ui, false);
+        doReturn(Collections.emptyList()).when(handler)
+                .dumpPendingBroadcasts(ui);
 
         handler.writeUidl(ui, writer, false);
 
@@ -159,6 +237,8 @@ public class UidlRequestHandlerTest {
 
         JsonObject uidl = generateUidl(true, true);
         doReturn(uidl).when(handler).createUidl(ui, false);
+        doReturn(Collections.emptyList()).when(handler)
+                .dumpPendingBroadcasts(ui);
 
         handler.writeUidl(ui, writer, false);
 
@@ -180,6 +260,8 @@ public class UidlRequestHandlerTest {
 
         JsonObject uidl = generateUidl(true, true);
         doReturn(uidl).when(handler).createUidl(ui, false);
+        doReturn(Collections.emptyList()).when(handler)
+                .dumpPendingBroadcasts(ui);
 
         handler.writeUidl(ui, writer, false);
 
@@ -201,6 +283,8 @@ public class UidlRequestHandlerTest {
 
         JsonObject uidl = generateUidl(false, true);
         doReturn(uidl).when(handler).createUidl(ui, false);
+        doReturn(Collections.emptyList()).when(handler)
+                .dumpPendingBroadcasts(ui);
 
         handler.writeUidl(ui, writer, false);
 
@@ -223,6 +307,8 @@ public class UidlRequestHandlerTest {
         uidl.getArray("execute").getArray(2).remove(1);
 
         doReturn(uidl).when(handler).createUidl(ui, false);
+        doReturn(Collections.emptyList()).when(handler)
+                .dumpPendingBroadcasts(ui);
 
         handler.writeUidl(ui, writer, false);
 
@@ -247,6 +333,8 @@ public class UidlRequestHandlerTest {
         JsonObject uidl = getUidlWithNoHashInLocation();
 
         doReturn(uidl).when(handler).createUidl(ui, false);
+        doReturn(Collections.emptyList()).when(handler)
+                .dumpPendingBroadcasts(ui);
 
         handler.writeUidl(ui, writer, false);
 
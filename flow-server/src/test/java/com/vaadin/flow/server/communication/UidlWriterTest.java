@@ -40,6 +40,7 @@ import com.vaadin.flow.component.internal.UIInternals.JavaScriptInvocation;
 import com.vaadin.flow.di.Lookup;
 import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.dom.ElementFactory;
+import com.vaadin.flow.internal.ConstantPool;
 import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.router.ParentLayout;
 import com.vaadin.flow.router.Route;
@@ -53,6 +54,7 @@ import com.vaadin.flow.server.VaadinServletContext;
 import com.vaadin.flow.server.VaadinServletRequest;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.shared.ApplicationConstants;
+import com.vaadin.flow.shared.JsonConstants;
 import com.vaadin.flow.shared.ui.Dependency;
 import com.vaadin.flow.shared.ui.LoadMode;
 
@@ -186,6 +188,31 @@ public class UidlWriterTest {
         assertTrue(JsonUtils.jsonEquals(expectedJson, json));
     }
 
+    @Test
+    public void encodeExecuteJavaScript_repeatedScript_sentAsConstant() {
+        Element element = ElementFactory.createDiv();
+        ConstantPool constantPool = new ConstantPool();
+
+        List<PendingJavaScriptInvocation> executeJavaScriptList = Stream
+                .of("first", "second", "third")
+                .map(value -> new PendingJavaScriptInvocation(
+                        element.getNode(), new JavaScriptInvocation(
+                                "console.log($0)", value)))
+                .collect(Collectors.toList());
+
+        JsonArray json = UidlWriter.encodeExecuteJavaScriptList(
+                executeJavaScriptList, constantPool);
+
+        assertEquals("console.log($0)", json.getArray(0).getString(1));
+        String scriptId = json.getArray(1).getObject(1)
+                .getString(JsonConstants.UIDL_KEY_EXECUTE_SCRIPT_ID);
+        assertEquals(scriptId, json.getArray(2).getObject(1)
+                .getString(JsonConstants.UIDL_KEY_EXECUTE_SCRIPT_ID));
+        assertEquals("second", json.getArray(1).getString(0));
+        assertEquals("console.log($0)",
+                constantPool.dumpConstants().getString(scriptId));
+    }
+
     @Test
     public void componentDependencies_npmMode() throws Exception {
         UI ui = initializeUIForDependenciesTest(new TestUI());
@@ -368,6 +395,31 @@ public class UidlWriterTest {
         assertDependency(CSS_STYLE_NAME, CSS_STYLE_NAME, dependenciesMap);
     }
 
+    @Test
+    public void toJson_noBroadcasts_sameAsJson() {
+        JsonObject uidl = Json.parse("{\"syncId\":1,\"clientId\":2}");
+
+        assertEquals(uidl.toJson(),
+                UidlWriter.toJson(uidl, Collections.emptyList()));
+    }
+
+    @Test
+    public void toJson_broadcasts_includedAsIs() {
+        JsonObject uidl = Json.parse("{\"syncId\":1}");
+
+        String json = UidlWriter.toJson(uidl,
+                List.of("[\"ticker\",1]", "[\"ticker\",{\"a\":2}]"));
+
+        JsonObject parsed = Json.parse(json);
+        assertEquals(1, (int) parsed.getNumber("syncId"));
+        JsonArray broadcasts = parsed
+                .getArray(JsonConstants.UIDL_KEY_BROADCAST);
+        assertEquals(2, broadcasts.length());
+        assertEquals("ticker", broadcasts.getArray(0).getString(0));
+        assertEquals(2, (int) broadcasts.getArray(1).getObject(1)
+                .getNumber("a"));
+    }
+
     private Map<String, JsonObject> getDependenciesMap(JsonObject response) {
         return Stream.of(LoadMode.values())
                 .map(mode -> response.getArray(mode.name()))
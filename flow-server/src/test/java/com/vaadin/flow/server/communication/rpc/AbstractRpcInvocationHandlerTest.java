@@ -291,8 +291,7 @@ public class AbstractRpcInvocationHandlerTest {
 
     private JsonObject createIllegitimatePayloadNoNodeKeyForPollingRpcInvocationPayload() {
         JsonObject payload = Json.createObject();
-        payload.put(JsonConstants.RPC_TYPE, JsonConstants.RPC_TYPE_EVENT);
-        payload.put(JsonConstants.CHANGE_TYPE, "change");
+        payload.put(JsonConstants.RPC_TYPE, "change");
         payload.put(JsonConstants.RPC_EVENT_TYPE, PollEvent.DOM_EVENT_NAME);
         return payload;
     }
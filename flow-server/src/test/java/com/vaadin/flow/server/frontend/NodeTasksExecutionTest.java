@@ -1,5 +1,6 @@
 package com.vaadin.flow.server.frontend;
 
+import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.nio.file.Files;
@@ -7,6 +8,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -43,6 +47,7 @@ public class NodeTasksExecutionTest {
     @Parameterized.Parameter
     public String devServerImpl;
 
+    private NodeTasks.Builder builder;
     private NodeTasks nodeTasks;
     private List<FallibleCommand> commandsMock;
     private List<Class<? extends FallibleCommand>> commandsOrder;
@@ -53,9 +58,10 @@ public class NodeTasksExecutionTest {
     public void init() throws Exception {
 
         // Make a builder that doesn't add any commands.
-        NodeTasks.Builder builder = new NodeTasks.Builder(
-                Mockito.mock(Lookup.class), null, TARGET);
+        builder = new NodeTasks.Builder(Mockito.mock(Lookup.class), null,
+                TARGET);
         builder.withProductionMode(false);
+        builder.enableParallelExecution(false);
 
         if (DEV_SERVER_WEBPACK.equals(devServerImpl)) {
             builder.useV14Bootstrap(true);
@@ -93,6 +99,17 @@ public class NodeTasksExecutionTest {
                 0, commands.size());
     }
 
+    private void replaceNodeTasks(boolean parallelExecution)
+            throws Exception {
+        nodeTasks = builder.enableParallelExecution(parallelExecution).build();
+        Field commandsField = NodeTasks.class.getDeclaredField("commands");
+        commandsField.setAccessible(true);
+        commands = (List<FallibleCommand>) commandsField.get(nodeTasks);
+        commands.clear();
+        executionOrder = Collections.synchronizedList(new ArrayList<>());
+        commandsMock = mockCommandsRandomOrder(commandsOrder, executionOrder);
+    }
+
     private void createFeatureFlagsFile(String contents) throws IOException {
         Files.writeString(temporaryFolder
                 .newFile(FeatureFlags.PROPERTIES_FILENAME).toPath(), contents);
@@ -113,6 +130,104 @@ public class NodeTasksExecutionTest {
                 commandsOrder, executionOrder);
     }
 
+    @Test
+    public void parallelExecution_dependenciesCompletedBeforeDependents()
+            throws Exception {
+        replaceNodeTasks(true);
+        AtomicLong clock = new AtomicLong();
+        Map<Class<? extends FallibleCommand>, long[]> executions = new ConcurrentHashMap<>();
+        List<FallibleCommand> mocks = new ArrayList<>();
+        for (Class<? extends FallibleCommand> command : commandsOrder) {
+            FallibleCommand mock = Mockito.mock(command);
+            Mockito.doAnswer(invocation -> {
+                long start = clock.incrementAndGet();
+                Thread.sleep(5);
+                executions.put(command,
+                        new long[] { start, clock.incrementAndGet() });
+                return null;
+            }).when(mock).execute();
+            mocks.add(mock);
+        }
+        commands.addAll(mocks);
+        Collections.shuffle(commands);
+
+        nodeTasks.execute();
+
+        Assert.assertEquals("All tasks should have been executed",
+                commandsOrder.size(), executions.size());
+        for (int i = 0; i < mocks.size(); i++) {
+            for (int j = 0; j < i; j++) {
+                if (NodeTasks.dependsOn(mocks.get(i), mocks.get(j))) {
+                    Assert.assertTrue(
+                            commandsOrder.get(i).getSimpleName()
+                                    + " was started before "
+                                    + commandsOrder.get(j).getSimpleName()
+                                    + " completed",
+                            executions.get(commandsOrder.get(j))[1] < executions
+                                    .get(commandsOrder.get(i))[0]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void parallelExecution_commandFails_exceptionThrownAndDependentsNotExecuted()
+            throws Exception {
+        replaceNodeTasks(true);
+        commands.addAll(commandsMock);
+        FallibleCommand failing = commandsMock.stream()
+                .filter(TaskRunNpmInstall.class::isInstance).findFirst()
+                .get();
+        Mockito.doThrow(new ExecutionFailedException("npm install failed"))
+                .when(failing).execute();
+
+        ExecutionFailedException exception = Assert.assertThrows(
+                ExecutionFailedException.class, nodeTasks::execute);
+
+        Assert.assertEquals("npm install failed", exception.getMessage());
+        Assert.assertFalse("Dependent task should not have been executed",
+                executionOrder.contains(TaskCopyFrontendFiles.class));
+        Assert.assertFalse("Dependent task should not have been executed",
+                executionOrder.contains(TaskUpdateImports.class));
+    }
+
+    @Test
+    public void dependsOn_generatorsWritingGeneratedFolder_waitForCleaners() {
+        for (Class<? extends FallibleCommand> generator : List.of(
+                TaskGenerateIndexTs.class, TaskGenerateViteDevMode.class,
+                TaskGenerateBootstrap.class,
+                TaskGenerateWebComponentBootstrap.class,
+                TaskGenerateFeatureFlags.class)) {
+            FallibleCommand command = Mockito.mock(generator);
+            Assert.assertTrue(generator.getSimpleName(),
+                    NodeTasks.dependsOn(command,
+                            Mockito.mock(TaskGenerateOpenAPI.class)));
+            Assert.assertTrue(generator.getSimpleName(),
+                    NodeTasks.dependsOn(command,
+                            Mockito.mock(TaskGenerateEndpoint.class)));
+        }
+    }
+
+    @Test
+    public void dependsOn_tsDefinitions_waitsForTsConfig() {
+        Assert.assertTrue(NodeTasks.dependsOn(
+                new TaskGenerateTsDefinitions(temporaryFolder.getRoot()),
+                new TaskGenerateTsConfig(temporaryFolder.getRoot(),
+                        Mockito.mock(FeatureFlags.class))));
+    }
+
+    @Test
+    public void dependsOn_generatorsWithDisjointOutputs_runInParallel() {
+        File frontend = new File(temporaryFolder.getRoot(), "frontend");
+        Assert.assertFalse(NodeTasks.dependsOn(
+                new TaskGenerateTsConfig(temporaryFolder.getRoot(),
+                        Mockito.mock(FeatureFlags.class)),
+                new TaskGenerateIndexHtml(frontend)));
+        Assert.assertFalse(NodeTasks.dependsOn(
+                new TaskGenerateIndexHtml(frontend),
+                Mockito.mock(TaskGeneratePackageJson.class)));
+    }
+
     @Test
     public void nodeTasksContainsUnlistedCommand_throwsUnknownTaskException() {
         // Assemble the command list with random order
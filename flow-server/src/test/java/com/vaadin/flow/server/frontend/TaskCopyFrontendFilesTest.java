@@ -18,12 +18,20 @@
 package com.vaadin.flow.server.frontend;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.apache.commons.io.FileUtils;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
@@ -34,6 +42,7 @@ import org.mockito.Mockito;
 import com.vaadin.experimental.FeatureFlags;
 import com.vaadin.flow.testutil.TestUtils;
 
+import elemental.json.Json;
 import elemental.json.JsonObject;
 
 import static com.vaadin.flow.server.Constants.PACKAGE_JSON;
@@ -83,6 +92,128 @@ public class TaskCopyFrontendFilesTest extends NodeUpdateTestUtil {
         Assert.assertFalse(deps.hasKey("@vaadin/flow-deps"));
     }
 
+    @Test
+    public void should_skipUnchangedJar_when_manifestUsed() throws IOException {
+        File jar = new File(temporaryFolder.newFolder(), "frontend.jar");
+        FileUtils.copyFile(
+                TestUtils.getTestJar("jar-with-modern-frontend.jar"), jar);
+        File manifest = new File(npmFolder, "target/manifest.json");
+
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(jar), manifest)
+                .execute();
+        Assert.assertTrue(manifest.isFile());
+        File extracted = new File(frontendDepsFolder, "example.ts");
+        Assert.assertTrue(extracted.isFile());
+
+        // Same size and modification time, so only a jar that is extracted
+        // again would notice the changed content
+        long lastModified = extracted.lastModified();
+        byte[] content = Files.readAllBytes(extracted.toPath());
+        byte[] modified = content.clone();
+        modified[0] = (byte) (modified[0] == 'x' ? 'y' : 'x');
+        Files.write(extracted.toPath(), modified);
+        Assert.assertTrue(extracted.setLastModified(lastModified));
+
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(jar), manifest)
+                .execute();
+        Assert.assertArrayEquals("Unchanged jar should not be extracted again",
+                modified, Files.readAllBytes(extracted.toPath()));
+
+        Assert.assertTrue(extracted.delete());
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(jar), manifest)
+                .execute();
+        Assert.assertArrayEquals("Missing file should be extracted again",
+                content, Files.readAllBytes(extracted.toPath()));
+    }
+
+    @Test
+    public void should_extractChangedEntries_when_jarChanged()
+            throws IOException {
+        File jar = new File(temporaryFolder.newFolder(), "frontend.jar");
+        FileUtils.copyFile(
+                TestUtils.getTestJar("jar-with-modern-frontend.jar"), jar);
+        File manifest = new File(npmFolder, "target/manifest.json");
+
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(jar), manifest)
+                .execute();
+        File extracted = new File(frontendDepsFolder, "example.ts");
+        byte[] content = Files.readAllBytes(extracted.toPath());
+        FileUtils.write(extracted, "changed", StandardCharsets.UTF_8);
+
+        Assert.assertTrue(jar.setLastModified(jar.lastModified() + 10000));
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(jar), manifest)
+                .execute();
+
+        Assert.assertArrayEquals(content,
+                Files.readAllBytes(extracted.toPath()));
+        Assert.assertEquals(8,
+                TestUtils.listFilesRecursively(frontendDepsFolder).size());
+    }
+
+    @Test
+    public void should_keepFileOfLastJar_when_jarsProvideSameFile()
+            throws IOException {
+        File first = createJar("first.jar", "first");
+        File second = createJar("second.jar", "second");
+        File manifest = new File(npmFolder, "target/manifest.json");
+        File extracted = new File(frontendDepsFolder, "same.js");
+
+        new TaskCopyFrontendFiles(frontendDepsFolder,
+                orderedJars(first, second), manifest).execute();
+        Assert.assertEquals("second",
+                FileUtils.readFileToString(extracted, StandardCharsets.UTF_8));
+
+        // Only the first jar changed, so it is the only one extracted
+        // concurrently
+        Assert.assertTrue(first.setLastModified(first.lastModified() + 10000));
+        new TaskCopyFrontendFiles(frontendDepsFolder,
+                orderedJars(first, second), manifest).execute();
+        Assert.assertEquals("second",
+                FileUtils.readFileToString(extracted, StandardCharsets.UTF_8));
+
+        new TaskCopyFrontendFiles(frontendDepsFolder,
+                orderedJars(second, first)).execute();
+        Assert.assertEquals("first",
+                FileUtils.readFileToString(extracted, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void should_extractJar_when_manifestEntryMalformed()
+            throws IOException {
+        File jar = createJar("frontend.jar", "content");
+        File manifest = new File(npmFolder, "target/manifest.json");
+        JsonObject entry = Json.createObject();
+        entry.put("size", jar.length());
+        entry.put("lastModified", jar.lastModified());
+        entry.put("files", 1);
+        JsonObject jarEntries = Json.createObject();
+        jarEntries.put(jar.getAbsolutePath(), entry);
+        JsonObject content = Json.createObject();
+        content.put("version", 1);
+        content.put("target", frontendDepsFolder.getAbsolutePath());
+        content.put("jars", jarEntries);
+        FileUtils.write(manifest, content.toJson(), StandardCharsets.UTF_8);
+
+        new TaskCopyFrontendFiles(frontendDepsFolder, jars(jar), manifest)
+                .execute();
+
+        Assert.assertEquals("content", FileUtils.readFileToString(
+                new File(frontendDepsFolder, "same.js"),
+                StandardCharsets.UTF_8));
+    }
+
+    private File createJar(String name, String content) throws IOException {
+        File jar = new File(temporaryFolder.getRoot(), name);
+        try (JarOutputStream out = new JarOutputStream(
+                new FileOutputStream(jar))) {
+            out.putNextEntry(
+                    new JarEntry("META-INF/resources/frontend/same.js"));
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+        return jar;
+    }
+
     private void should_collectJsAndCssFilesFromJars(String jarFile,
             String fsDir) throws IOException {
 
@@ -147,4 +278,8 @@ public class TaskCopyFrontendFilesTest extends NodeUpdateTestUtil {
     private static Set<File> jars(File... files) {
         return Stream.of(files).collect(Collectors.toSet());
     }
+
+    private static Set<File> orderedJars(File... files) {
+        return new LinkedHashSet<>(Arrays.asList(files));
+    }
 }
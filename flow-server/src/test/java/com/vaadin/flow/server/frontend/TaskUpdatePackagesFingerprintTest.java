@@ -0,0 +1,193 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.frontend;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import net.jcip.annotations.NotThreadSafe;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import com.vaadin.experimental.FeatureFlags;
+import com.vaadin.flow.server.Constants;
+import com.vaadin.flow.server.ExecutionFailedException;
+import com.vaadin.flow.server.frontend.installer.NodeInstaller;
+import com.vaadin.flow.server.frontend.scanner.ClassFinder;
+import com.vaadin.flow.server.frontend.scanner.FrontendDependenciesScanner;
+import com.vaadin.flow.testcategory.SlowTests;
+import com.vaadin.flow.testutil.FrontendStubs;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+import static com.vaadin.flow.server.Constants.PACKAGE_JSON;
+import static com.vaadin.flow.server.Constants.TARGET;
+import static com.vaadin.flow.server.frontend.FrontendUtils.DEFAULT_FLOW_RESOURCES_FOLDER;
+import static com.vaadin.flow.server.frontend.FrontendUtils.DEFAULT_GENERATED_DIR;
+import static elemental.json.impl.JsonUtil.stringify;
+
+@NotThreadSafe
+@Category(SlowTests.class)
+public class TaskUpdatePackagesFingerprintTest {
+
+    private static final long OLD_TIMESTAMP = 1000000000000L;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File npmFolder;
+    private File generatedFolder;
+    private File flowResourcesFolder;
+    private File fingerprintFile;
+    private ClassFinder finder;
+    private FrontendDependenciesScanner scanner;
+    private FeatureFlags featureFlags;
+    private Map<String, String> packages = new HashMap<>();
+
+    private TaskUpdatePackages packageUpdater;
+
+    @Before
+    public void setUp() throws IOException {
+        Assume.assumeFalse("Stub node is a shell script",
+                FrontendUtils.isWindows());
+
+        npmFolder = temporaryFolder.newFolder();
+        generatedFolder = new File(npmFolder,
+                Paths.get(TARGET, DEFAULT_GENERATED_DIR).toString());
+        flowResourcesFolder = new File(npmFolder,
+                Paths.get(TARGET, DEFAULT_FLOW_RESOURCES_FOLDER).toString());
+        fingerprintFile = new File(new File(npmFolder, TARGET),
+                "packages.hash");
+        FrontendStubs.createStubNode(true, true, npmFolder.getAbsolutePath());
+
+        File versions = temporaryFolder.newFile();
+        FileUtils.write(versions, "{}", StandardCharsets.UTF_8);
+        finder = Mockito.mock(ClassFinder.class);
+        Mockito.when(finder.getResource(Constants.VAADIN_CORE_VERSIONS_JSON))
+                .thenReturn(versions.toURI().toURL());
+
+        packages.put("@polymer/iron-icon", "3.0.1");
+        scanner = Mockito.mock(FrontendDependenciesScanner.class);
+        Mockito.when(scanner.getPackages()).thenAnswer(
+                invocation -> Collections.unmodifiableMap(packages));
+        featureFlags = Mockito.mock(FeatureFlags.class);
+    }
+
+    @Test
+    public void runTwice_nothingChanged_updateAndInstallSkipped()
+            throws Exception {
+        runTasks();
+        Assert.assertTrue(packageUpdater.modified);
+        simulateInstalledPackage();
+
+        File packageJson = new File(npmFolder, PACKAGE_JSON);
+        File versionsJson = packageUpdater.getVersionsFile();
+        File vaadinJson = packageUpdater.getVaadinJsonFile();
+        Assert.assertTrue(vaadinJson.setLastModified(OLD_TIMESTAMP));
+        Assert.assertTrue(packageJson.setLastModified(OLD_TIMESTAMP));
+        Assert.assertTrue(versionsJson.setLastModified(OLD_TIMESTAMP));
+
+        runTasks();
+
+        Assert.assertFalse(packageUpdater.modified);
+        Assert.assertEquals("package.json should not be written again",
+                OLD_TIMESTAMP, packageJson.lastModified());
+        Assert.assertEquals("versions.json should not be generated again",
+                OLD_TIMESTAMP, versionsJson.lastModified());
+        Assert.assertEquals("npm install should not be run again",
+                OLD_TIMESTAMP, vaadinJson.lastModified());
+        Assert.assertEquals("versions.json path should still be available",
+                packageUpdater.getVersionsPath(versionsJson),
+                packageUpdater.versionsPath);
+    }
+
+    @Test
+    public void runTwice_packageAdded_packageJsonUpdatedAndInstalled()
+            throws Exception {
+        runTasks();
+        simulateInstalledPackage();
+        File vaadinJson = packageUpdater.getVaadinJsonFile();
+        Assert.assertTrue(vaadinJson.setLastModified(OLD_TIMESTAMP));
+
+        packages.put("@vaadin/something", "1.0.0");
+        runTasks();
+
+        Assert.assertTrue(packageUpdater.modified);
+        Assert.assertTrue(packageUpdater.getPackageJson()
+                .getObject(NodeUpdater.DEPENDENCIES)
+                .hasKey("@vaadin/something"));
+        Assert.assertNotEquals("npm install should be run", OLD_TIMESTAMP,
+                vaadinJson.lastModified());
+    }
+
+    @Test
+    public void runTwice_packageJsonEditedByUser_updateNotSkipped()
+            throws Exception {
+        runTasks();
+        simulateInstalledPackage();
+
+        File packageJson = new File(npmFolder, PACKAGE_JSON);
+        JsonObject json = Json.parse(FileUtils.readFileToString(packageJson,
+                StandardCharsets.UTF_8));
+        json.getObject(NodeUpdater.DEPENDENCIES).put("my-dependency",
+                "1.2.3");
+        FileUtils.write(packageJson, stringify(json, 2) + "\n",
+                StandardCharsets.UTF_8);
+        File versionsJson = packageUpdater.getVersionsFile();
+        Assert.assertTrue(versionsJson.setLastModified(OLD_TIMESTAMP));
+
+        runTasks();
+
+        Assert.assertNotEquals("versions.json should be generated again",
+                OLD_TIMESTAMP, versionsJson.lastModified());
+        Assert.assertTrue(FileUtils
+                .readFileToString(versionsJson, StandardCharsets.UTF_8)
+                .contains("my-dependency"));
+    }
+
+    private void runTasks() throws ExecutionFailedException {
+        new TaskGeneratePackageJson(npmFolder, generatedFolder,
+                flowResourcesFolder, TARGET, featureFlags).execute();
+        packageUpdater = new TaskUpdatePackages(finder, scanner, npmFolder,
+                generatedFolder, flowResourcesFolder, false, false, TARGET,
+                featureFlags, fingerprintFile);
+        packageUpdater.execute();
+        new TaskRunNpmInstall(packageUpdater, false, false,
+                FrontendTools.DEFAULT_NODE_VERSION,
+                URI.create(NodeInstaller.DEFAULT_NODEJS_DOWNLOAD_ROOT), false,
+                false, Collections.emptyList()).execute();
+    }
+
+    private void simulateInstalledPackage() {
+        // The stub npm does not install anything
+        Assert.assertTrue(new File(packageUpdater.nodeModulesFolder,
+                "@polymer/iron-icon").mkdirs());
+    }
+}
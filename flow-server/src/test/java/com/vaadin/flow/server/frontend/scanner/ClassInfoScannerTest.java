@@ -0,0 +1,129 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.frontend.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.vaadin.flow.server.frontend.scanner.ClassFinder.DefaultClassFinder;
+import com.vaadin.flow.server.frontend.scanner.samples.RouteComponent;
+import com.vaadin.flow.server.frontend.scanner.samples.RouteComponentWithLayout;
+
+public class ClassInfoScannerTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ClassFinder finder;
+    private File cacheFile;
+
+    @Before
+    public void setUp() throws IOException {
+        finder = new DefaultClassFinder(
+                Collections.singleton(RouteComponentWithLayout.class));
+        cacheFile = new File(temporaryFolder.newFolder("target"),
+                "scan-cache.bin");
+    }
+
+    @Test
+    public void getClassInfo_referencedClassesScanned() throws IOException {
+        ClassInfoScanner scanner = new ClassInfoScanner(finder, this::isSample,
+                null);
+        try {
+            ClassInfo info = scanner
+                    .getClassInfo(RouteComponent.class.getName());
+            Assert.assertEquals(Collections.singletonList("foo.js"),
+                    info.modules);
+            Assert.assertEquals(Collections.singletonList("bar.js"),
+                    info.scripts);
+            Assert.assertTrue(info.hasRoute);
+
+            int parsed = scanner.getParsedCount();
+            Assert.assertSame(info,
+                    scanner.getClassInfo(RouteComponent.class.getName()));
+            Assert.assertEquals(
+                    "Already scanned class should not be parsed again", parsed,
+                    scanner.getParsedCount());
+            Assert.assertNull(scanner.getClassInfo("com.example.Missing"));
+        } finally {
+            scanner.close();
+        }
+        Assert.assertFalse(cacheFile.exists());
+    }
+
+    @Test
+    public void getClassInfo_cacheFile_unchangedClassesNotParsedAgain()
+            throws IOException {
+        ClassInfoScanner scanner = new ClassInfoScanner(finder,
+                this::isSample, cacheFile);
+        ClassInfo info = scanner
+                .getClassInfo(RouteComponentWithLayout.class.getName());
+        Assert.assertTrue(scanner.getParsedCount() > 0);
+        scanner.close();
+        Assert.assertTrue(cacheFile.isFile());
+
+        scanner = new ClassInfoScanner(finder, this::isSample, cacheFile);
+        ClassInfo cached = scanner
+                .getClassInfo(RouteComponentWithLayout.class.getName());
+        scanner.close();
+
+        Assert.assertEquals(0, scanner.getParsedCount());
+        Assert.assertEquals(info.getReferencedClasses(),
+                cached.getReferencedClasses());
+        Assert.assertEquals(info.modules, cached.modules);
+    }
+
+    @Test
+    public void getClassInfo_corruptCacheFile_classesParsed()
+            throws IOException {
+        Files.write(cacheFile.toPath(), new byte[] { 1, 2, 3 });
+
+        ClassInfoScanner scanner = new ClassInfoScanner(finder,
+                this::isSample, cacheFile);
+        Assert.assertNotNull(
+                scanner.getClassInfo(RouteComponent.class.getName()));
+        scanner.close();
+
+        Assert.assertTrue(scanner.getParsedCount() > 0);
+        Assert.assertTrue(cacheFile.length() > 3);
+    }
+
+    @Test
+    public void frontendDependencies_cacheFile_sameResultAsWithoutCache() {
+        FrontendDependencies expected = new FrontendDependencies(finder, false,
+                false, null, null);
+        new FrontendDependencies(finder, false, false, null, cacheFile);
+        FrontendDependencies cached = new FrontendDependencies(finder, false,
+                false, null, cacheFile);
+
+        Assert.assertEquals(expected.getModules(), cached.getModules());
+        Assert.assertEquals(expected.getScripts(), cached.getScripts());
+        Assert.assertEquals(expected.getCss(), cached.getCss());
+        Assert.assertEquals(expected.getClasses(), cached.getClasses());
+    }
+
+    private boolean isSample(String className) {
+        return className.startsWith(RouteComponent.class.getPackageName());
+    }
+}
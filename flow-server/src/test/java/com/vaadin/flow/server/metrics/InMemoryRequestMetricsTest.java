@@ -0,0 +1,158 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.metrics;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.server.InitParameters;
+import com.vaadin.flow.server.MockVaadinServletService;
+import com.vaadin.flow.server.MockVaadinSession;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.tests.util.MockDeploymentConfiguration;
+
+public class InMemoryRequestMetricsTest {
+
+    private InMemoryRequestMetrics metrics = new InMemoryRequestMetrics();
+
+    @Test
+    public void recordTime_statisticsComputed() {
+        metrics.recordTime("foo", 100);
+        metrics.recordTime("foo", 300);
+        metrics.recordTime("foo", 1000);
+        metrics.recordTime("foo", 5000);
+
+        TimingStatistics statistics = metrics.getTimings().get("foo");
+        Assert.assertEquals(4, statistics.getCount());
+        Assert.assertEquals(6400, statistics.getTotalNanos());
+        Assert.assertEquals(5000, statistics.getMaxNanos());
+        Assert.assertEquals(1600, statistics.getMeanNanos());
+
+        // Power of two buckets: the percentile is never below the actual
+        // value and less than twice the actual value
+        long median = statistics.getPercentileNanos(50);
+        Assert.assertTrue(median >= 300 && median < 600);
+        Assert.assertEquals(5000, statistics.getPercentileNanos(100));
+        Assert.assertTrue(statistics.getPercentileNanos(0) >= 100);
+    }
+
+    @Test
+    public void recordTime_zeroAndNegativeDurations_countedAsZero() {
+        metrics.recordTime("foo", 0);
+        metrics.recordTime("foo", -5);
+
+        TimingStatistics statistics = metrics.getTimings().get("foo");
+        Assert.assertEquals(2, statistics.getCount());
+        Assert.assertEquals(0, statistics.getTotalNanos());
+        Assert.assertEquals(0, statistics.getPercentileNanos(99));
+    }
+
+    @Test
+    public void increment_countersSummed() {
+        metrics.increment("bar", 1);
+        metrics.increment("bar", 4);
+        metrics.increment("baz", 2);
+
+        Assert.assertEquals(Long.valueOf(5), metrics.getCounters().get("bar"));
+        Assert.assertEquals(Long.valueOf(2), metrics.getCounters().get("baz"));
+
+        metrics.reset();
+        Assert.assertTrue(metrics.getCounters().isEmpty());
+        Assert.assertTrue(metrics.getTimings().isEmpty());
+    }
+
+    @Test
+    public void recordTime_concurrentThreads_nothingLost()
+            throws InterruptedException {
+        int threads = 8;
+        int iterations = 10000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch latch = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < iterations; j++) {
+                    metrics.recordTime("foo", j);
+                    metrics.increment("bar", 1);
+                }
+                latch.countDown();
+            });
+        }
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        Assert.assertEquals(threads * iterations,
+                metrics.getTimings().get("foo").getCount());
+        Assert.assertEquals(Long.valueOf(threads * iterations),
+                metrics.getCounters().get("bar"));
+        Assert.assertEquals(iterations - 1,
+                metrics.getTimings().get("foo").getMaxNanos());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getPercentile_outOfRange_throws() {
+        metrics.recordTime("foo", 1);
+        metrics.getTimings().get("foo").getPercentileNanos(101);
+    }
+
+    @Test
+    public void get_noServiceOrNoMetrics_noOp() {
+        Assert.assertSame(RequestMetrics.NO_OP, RequestMetrics.get(null));
+        Assert.assertFalse(RequestMetrics.NO_OP.isEnabled());
+        Assert.assertEquals(0, RequestMetrics.NO_OP.start());
+    }
+
+    @Test
+    public void serviceInit_requestMetricsEnabled_inMemoryMetricsUsed() {
+        MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+        Assert.assertSame(RequestMetrics.NO_OP,
+                new MockVaadinServletService(configuration)
+                        .getRequestMetrics());
+
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.REQUEST_METRICS, "true");
+        Assert.assertTrue(new MockVaadinServletService(configuration)
+                .getRequestMetrics() instanceof InMemoryRequestMetrics);
+    }
+
+    @Test
+    public void sessionLockAndUnlock_waitAndHoldRecorded() {
+        VaadinService service = new MockVaadinServletService();
+        service.setRequestMetrics(metrics);
+        MockVaadinSession session = new MockVaadinSession(service);
+
+        session.lock();
+        long locked = System.nanoTime();
+        session.lock();
+        session.unlock();
+        long held = System.nanoTime() - locked;
+        session.unlock();
+
+        // Reentrant locking is recorded once per acquisition of the lock
+        TimingStatistics wait = metrics.getTimings()
+                .get(RequestMetrics.SESSION_LOCK_WAIT);
+        Assert.assertEquals(1, wait.getCount());
+        Assert.assertTrue(wait.getTotalNanos() >= 0);
+        TimingStatistics hold = metrics.getTimings()
+                .get(RequestMetrics.SESSION_LOCK_HOLD);
+        Assert.assertEquals(1, hold.getCount());
+        Assert.assertTrue(hold.getTotalNanos() >= held);
+    }
+}
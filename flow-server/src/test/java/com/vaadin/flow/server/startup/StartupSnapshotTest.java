@@ -0,0 +1,179 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.startup;
+
+import jakarta.servlet.ServletContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.di.Lookup;
+import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.Constants;
+import com.vaadin.flow.server.InitParameters;
+import com.vaadin.flow.server.VaadinServletContext;
+import com.vaadin.flow.server.frontend.scanner.ClassFinder;
+
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.impl.JsonUtil;
+
+public class StartupSnapshotTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private VaadinServletContext context;
+    private ApplicationConfiguration configuration;
+
+    @Tag("div")
+    @Route("snapshot")
+    public static class SnapshotRoute extends Component {
+    }
+
+    @Tag("div")
+    @Route("other")
+    public static class OtherRoute extends Component {
+    }
+
+    @Before
+    public void setUp() {
+        context = Mockito.mock(VaadinServletContext.class);
+        configuration = Mockito.mock(ApplicationConfiguration.class);
+        Mockito.when(context.getAttribute(Lookup.class))
+                .thenReturn(Mockito.mock(Lookup.class));
+        Mockito.when(context.getAttribute(
+                Mockito.eq(ApplicationConfiguration.class), Mockito.any()))
+                .thenReturn(configuration);
+        Mockito.when(context.getAttribute(Mockito.eq(StartupSnapshot.class),
+                Mockito.any())).thenAnswer(
+                        invocation -> ((Supplier<?>) invocation.getArgument(1))
+                                .get());
+    }
+
+    @Test
+    public void create_routeClassesCollectedForRouteInitializer() {
+        ClassFinder finder = new ClassFinder.DefaultClassFinder(
+                Set.of(SnapshotRoute.class, OtherRoute.class));
+
+        JsonObject snapshot = StartupSnapshot.create(finder);
+
+        JsonArray routes = snapshot
+                .getArray(RouteRegistryInitializer.class.getName());
+        Assert.assertNotNull(routes);
+        Assert.assertEquals(2, routes.length());
+        Assert.assertEquals(OtherRoute.class.getName(), routes.getString(0));
+        Assert.assertEquals(SnapshotRoute.class.getName(),
+                routes.getString(1));
+        Assert.assertFalse("Lookup initializer does not handle startup classes",
+                snapshot.hasKey(
+                        LookupServletContainerInitializer.class.getName()));
+    }
+
+    @Test
+    public void getClasses_productionModeSnapshotEnabled_snapshotClassesUsed()
+            throws IOException {
+        mockSnapshot(SnapshotRoute.class);
+        Mockito.when(configuration.isProductionMode()).thenReturn(true);
+        enableSnapshot();
+
+        Set<Class<?>> classes = StartupSnapshot.getClasses(
+                new RouteRegistryInitializer(), Set.of(OtherRoute.class),
+                context);
+
+        Assert.assertEquals(Set.of(SnapshotRoute.class), classes);
+    }
+
+    @Test
+    public void getClasses_snapshotNotEnabled_containerClassesUsed()
+            throws IOException {
+        mockSnapshot(SnapshotRoute.class);
+        Mockito.when(configuration.isProductionMode()).thenReturn(true);
+
+        Set<Class<?>> containerClasses = Set.of(OtherRoute.class);
+        Assert.assertSame(containerClasses,
+                StartupSnapshot.getClasses(new RouteRegistryInitializer(),
+                        containerClasses, context));
+    }
+
+    @Test
+    public void getClasses_developmentMode_containerClassesUsed()
+            throws IOException {
+        mockSnapshot(SnapshotRoute.class);
+        Mockito.when(configuration.isProductionMode()).thenReturn(false);
+        enableSnapshot();
+
+        Set<Class<?>> containerClasses = Set.of(OtherRoute.class);
+        Assert.assertSame(containerClasses,
+                StartupSnapshot.getClasses(new RouteRegistryInitializer(),
+                        containerClasses, context));
+    }
+
+    @Test
+    public void getClasses_noSnapshot_containerClassesUsed() {
+        mockClassLoader(new URLClassLoader(new URL[0],
+                getClass().getClassLoader()));
+        Mockito.when(configuration.isProductionMode()).thenReturn(true);
+        enableSnapshot();
+
+        Set<Class<?>> containerClasses = Collections.emptySet();
+        Assert.assertSame(containerClasses,
+                StartupSnapshot.getClasses(new RouteRegistryInitializer(),
+                        containerClasses, context));
+    }
+
+    private void enableSnapshot() {
+        Mockito.when(configuration
+                .getBooleanProperty(InitParameters.STARTUP_SNAPSHOT, false))
+                .thenReturn(true);
+    }
+
+    private void mockSnapshot(Class<?>... routes) throws IOException {
+        File root = temporaryFolder.newFolder();
+        ClassFinder finder = new ClassFinder.DefaultClassFinder(Set.of(routes));
+        FileUtils.write(
+                new File(root,
+                        Constants.VAADIN_SERVLET_RESOURCES
+                                + StartupSnapshot.SNAPSHOT_FILE),
+                JsonUtil.stringify(StartupSnapshot.create(finder)),
+                StandardCharsets.UTF_8);
+        mockClassLoader(new URLClassLoader(
+                new URL[] { root.toURI().toURL() },
+                getClass().getClassLoader()));
+    }
+
+    private void mockClassLoader(ClassLoader classLoader) {
+        ServletContext servletContext = Mockito.mock(ServletContext.class);
+        Mockito.when(servletContext.getClassLoader()).thenReturn(classLoader);
+        Mockito.when(context.getContext()).thenReturn(servletContext);
+    }
+}
@@ -29,7 +29,7 @@ class HelloWorld extends Simulation {
     val storeSecurityKey =
       regex(""""Vaadin-Security-Key":\s"([^"]*)""")
         .saveAs("securityKey")
-    val hello = regex(""""type":"put","key":"text","feat":7,"value":"Hello!"""")
+    val hello = regex(""""t":4,"key":"text","feat":7,"value":"Hello!"""")
 
     val bootstrap = exec(http("Open index page")
       .get(url)
@@ -18,15 +18,25 @@ package com.vaadin.base.devserver;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.UncheckedIOException;
 import java.net.HttpURLConnection;
 import java.net.InetAddress;
 import java.net.ServerSocket;
+import java.net.URI;
 import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -102,6 +112,10 @@ public abstract class AbstractDevServerRunner implements DevModeHandler {
     private static final Pattern WEBPACK_ILLEGAL_CHAR_PATTERN = Pattern
             .compile("\"|%22");
 
+    // Headers that are set by the proxy client itself
+    private static final Set<String> PROXY_RESTRICTED_HEADERS = Set.of(
+            "connection", "content-length", "expect", "host", "upgrade");
+
     private static final int DEFAULT_BUFFER_SIZE = 32 * 1024;
     private static final int DEFAULT_TIMEOUT = 120 * 1000;
 
@@ -125,6 +139,8 @@ public abstract class AbstractDevServerRunner implements DevModeHandler {
 
     private String failedOutput = null;
 
+    private HttpClient proxyClient;
+
     /**
      * Craete an instance that waits for the given task to complete before
      * starting or connecting to the server.
@@ -607,11 +623,25 @@ public abstract class AbstractDevServerRunner implements DevModeHandler {
         removeRunningDevServerPort();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The requests proxied by
+     * {@link #serveDevModeRequest(HttpServletRequest, HttpServletResponse)}
+     * do not use this method, so overriding it does not affect them.
+     *
+     * @deprecated override {@link #getDevServerRequestPath(String)} to change
+     *             the path requested from the dev server instead, this method
+     *             is only kept for the {@link DevModeHandler} contract and
+     *             for the internal requests to the dev server
+     */
+    @Deprecated
     @Override
     public HttpURLConnection prepareConnection(String path, String method)
             throws IOException {
         // path should have been checked at this point for any outside requests
-        URL uri = new URL(DEV_SERVER_HOST + ":" + getPort() + path);
+        URL uri = new URL(DEV_SERVER_HOST + ":" + getPort()
+                + getDevServerRequestPath(path));
         HttpURLConnection connection = (HttpURLConnection) uri.openConnection();
         connection.setRequestMethod(method);
         connection.setReadTimeout(DEFAULT_TIMEOUT);
@@ -709,53 +739,74 @@ public abstract class AbstractDevServerRunner implements DevModeHandler {
         if (request.getQueryString() != null) {
             devServerRequestPath += "?" + request.getQueryString();
         }
-        HttpURLConnection connection = prepareConnection(devServerRequestPath,
-                request.getMethod());
+        URI devServerUri;
+        try {
+            devServerUri = URI.create(DEV_SERVER_HOST + ":" + getPort()
+                    + getDevServerRequestPath(devServerRequestPath));
+        } catch (IllegalArgumentException e) {
+            // The raw query string may contain characters not allowed in a URI
+            getLogger().info("Blocked request with an invalid URI: {}",
+                    devServerRequestPath);
+            response.setStatus(HttpStatusCode.BAD_REQUEST.getCode());
+            return true;
+        }
+        HttpRequest.Builder proxyRequest = HttpRequest.newBuilder(devServerUri)
+                .method(request.getMethod(), BodyPublishers.noBody())
+                .timeout(Duration.ofMillis(DEFAULT_TIMEOUT));
 
-        // Copies all the headers from the original request
+        // Copies the headers from the original request, connections to the
+        // dev server are managed by the client
         Enumeration<String> headerNames = request.getHeaderNames();
         while (headerNames.hasMoreElements()) {
             String header = headerNames.nextElement();
-            connection.setRequestProperty(header,
-                    // Exclude keep-alive
-                    "Connect".equals(header) ? "close"
-                            : request.getHeader(header));
+            if (!PROXY_RESTRICTED_HEADERS
+                    .contains(header.toLowerCase(Locale.ENGLISH))) {
+                proxyRequest.header(header, request.getHeader(header));
+            }
         }
 
         // Send the request
         getLogger().debug("Requesting resource from {} {}", getServerName(),
-                connection.getURL());
-        int responseCode = connection.getResponseCode();
-        if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
-            getLogger().debug("Resource not served by {} {}", getServerName(),
-                    devServerRequestPath);
-            // the dev server cannot access the resource, return false so Flow
-            // can
-            // handle it
-            return false;
+                devServerRequestPath);
+        HttpResponse<InputStream> proxyResponse;
+        try {
+            proxyResponse = getProxyClient().send(proxyRequest.build(),
+                    BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(
+                    "Interrupted while requesting " + devServerRequestPath);
         }
-        getLogger().debug("Served resource by {}: {} {}", getServerName(),
-                responseCode, devServerRequestPath);
-
-        // Copies response headers
-        connection.getHeaderFields().forEach((header, values) -> {
-            if (header != null) {
-                if ("Transfer-Encoding".equals(header)) {
-                    return;
+        try (InputStream body = proxyResponse.body()) {
+            int responseCode = proxyResponse.statusCode();
+            if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
+                getLogger().debug("Resource not served by {} {}",
+                        getServerName(), devServerRequestPath);
+                // the dev server cannot access the resource, return false so
+                // Flow can handle it
+                return false;
+            }
+            getLogger().debug("Served resource by {}: {} {}", getServerName(),
+                    responseCode, devServerRequestPath);
+
+            // Copies response headers
+            proxyResponse.headers().map().forEach((header, values) -> {
+                if (!"Transfer-Encoding".equalsIgnoreCase(header)
+                        && !header.startsWith(":")) {
+                    response.addHeader(header, values.get(0));
                 }
-                response.addHeader(header, values.get(0));
+            });
+
+            if (responseCode == HttpURLConnection.HTTP_OK) {
+                // Copies response payload, the body is read from the
+                // connection while it is written
+                writeStream(response.getOutputStream(), body);
+            } else if (responseCode < 400) {
+                response.setStatus(responseCode);
+            } else {
+                // Copies response code
+                response.sendError(responseCode);
             }
-        });
-
-        if (responseCode == HttpURLConnection.HTTP_OK) {
-            // Copies response payload
-            writeStream(response.getOutputStream(),
-                    connection.getInputStream());
-        } else if (responseCode < 400) {
-            response.setStatus(responseCode);
-        } else {
-            // Copies response code
-            response.sendError(responseCode);
         }
 
         // Close request to avoid issues in CI and Chrome
@@ -764,6 +815,30 @@ public abstract class AbstractDevServerRunner implements DevModeHandler {
         return true;
     }
 
+    /**
+     * Gets the path on the dev server for the given request path.
+     *
+     * @param path
+     *            the request path, starting with {@code /}
+     * @return the path to request from the dev server
+     */
+    protected String getDevServerRequestPath(String path) {
+        return path;
+    }
+
+    private synchronized HttpClient getProxyClient() {
+        if (proxyClient == null) {
+            // A single client keeps the connections to the dev server alive
+            // and shares them between concurrent requests
+            proxyClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .connectTimeout(Duration.ofMillis(DEFAULT_TIMEOUT))
+                    .build();
+        }
+        return proxyClient;
+    }
+
     private RuntimeException getCause(Throwable exception) {
         if (exception instanceof CompletionException) {
             return getCause(exception.getCause());
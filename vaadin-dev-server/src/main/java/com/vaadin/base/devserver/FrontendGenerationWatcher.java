@@ -0,0 +1,227 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.base.devserver;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Watches the folders that the generated frontend files are based on and
+ * reports what has changed, so that only the affected files need to be
+ * generated again.
+ * <p>
+ * Changes are collected until no new changes have been seen for the debounce
+ * period, so that a compilation writing many class files results in a single
+ * update. Updates are run one at a time on the watcher thread.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class FrontendGenerationWatcher implements Closeable {
+
+    private static final String CLASS_EXTENSION = ".class";
+
+    /**
+     * The kind of a watched folder, which determines the generated files
+     * affected by a change in it.
+     */
+    public enum Source {
+        /**
+         * Compiled classes. Only class files are considered, they may change
+         * the frontend imports and the npm packages.
+         */
+        CLASSES,
+
+        /**
+         * Local frontend resources that are copied to the flow resources
+         * folder.
+         */
+        LOCAL_RESOURCES
+    }
+
+    private final WatchService watchService;
+    private final Map<WatchKey, Watched> keys = new ConcurrentHashMap<>();
+    private final Consumer<Set<Source>> update;
+    private final long debounceMillis;
+    private final Thread thread;
+
+    private static final class Watched {
+        private final Path directory;
+        private final Source source;
+
+        private Watched(Path directory, Source source) {
+            this.directory = directory;
+            this.source = source;
+        }
+    }
+
+    /**
+     * Creates a watcher for the given folders and starts watching them.
+     *
+     * @param folders
+     *            the folders to watch recursively and their kinds, folders
+     *            that do not exist are ignored
+     * @param update
+     *            called with the kinds of the changed folders when the changes
+     *            have settled
+     * @param debounceMillis
+     *            the time in milliseconds without further changes to wait
+     *            before running the update
+     * @throws IOException
+     *             if the folders cannot be watched
+     */
+    public FrontendGenerationWatcher(Map<File, Source> folders,
+            Consumer<Set<Source>> update, long debounceMillis)
+            throws IOException {
+        this.update = update;
+        this.debounceMillis = debounceMillis;
+        watchService = FileSystems.getDefault().newWatchService();
+        try {
+            for (Map.Entry<File, Source> folder : folders.entrySet()) {
+                if (folder.getKey().isDirectory()) {
+                    registerAll(folder.getKey().toPath(), folder.getValue());
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            watchService.close();
+            throw e;
+        }
+        thread = new Thread(this::watch, "vaadin-frontend-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching the folders.
+     */
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            getLogger().debug("Unable to close the watch service", e);
+        }
+        thread.interrupt();
+    }
+
+    private void watch() {
+        Set<Source> pending = EnumSet.noneOf(Source.class);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = pending.isEmpty() ? watchService.take()
+                        : watchService.poll(debounceMillis,
+                                TimeUnit.MILLISECONDS);
+                if (key == null) {
+                    runUpdate(EnumSet.copyOf(pending));
+                    pending.clear();
+                } else {
+                    handleEvents(key, pending);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Closed by close()
+        }
+    }
+
+    private void handleEvents(WatchKey key, Set<Source> pending) {
+        Watched watched = keys.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (watched == null) {
+                continue;
+            }
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                pending.add(watched.source);
+                continue;
+            }
+            Path changed = watched.directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE
+                    && Files.isDirectory(changed)) {
+                // Files may have been written before the new folder was
+                // registered, treat it as a change
+                try {
+                    registerAll(changed, watched.source);
+                } catch (IOException | UncheckedIOException e) {
+                    getLogger().debug("Unable to watch {}", changed, e);
+                }
+                pending.add(watched.source);
+            } else if (isRelevant(changed, watched.source)) {
+                pending.add(watched.source);
+            }
+        }
+        if (!key.reset()) {
+            keys.remove(key);
+        }
+    }
+
+    private void runUpdate(Set<Source> changes) {
+        getLogger().debug("Updating generated frontend files for {}", changes);
+        try {
+            update.accept(changes);
+        } catch (RuntimeException e) {
+            getLogger().error(
+                    "Unable to update the generated frontend files", e);
+        }
+    }
+
+    private static boolean isRelevant(Path changed, Source source) {
+        return source != Source.CLASSES
+                || changed.getFileName().toString().endsWith(CLASS_EXTENSION);
+    }
+
+    private void registerAll(Path root, Source source) throws IOException {
+        try (Stream<Path> directories = Files.walk(root)) {
+            directories.filter(Files::isDirectory).forEach(directory -> {
+                try {
+                    keys.put(directory.register(watchService,
+                            StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_DELETE,
+                            StandardWatchEventKinds.ENTRY_MODIFY),
+                            new Watched(directory, source));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(FrontendGenerationWatcher.class);
+    }
+}
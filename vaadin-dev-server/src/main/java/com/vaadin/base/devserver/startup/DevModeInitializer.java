@@ -40,20 +40,29 @@ import java.io.UncheckedIOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.URLClassLoader;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.CodeSource;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -63,6 +72,8 @@ import java.util.zip.ZipOutputStream;
 
 import jakarta.servlet.annotation.HandlesTypes;
 
+import com.vaadin.base.devserver.FrontendGenerationWatcher;
+import com.vaadin.base.devserver.FrontendGenerationWatcher.Source;
 import com.vaadin.base.devserver.ViteHandler;
 import com.vaadin.base.devserver.WebpackHandler;
 import com.vaadin.base.devserver.stats.DevModeUsageStatistics;
@@ -113,6 +124,12 @@ public class DevModeInitializer implements Serializable {
             super(classes);
         }
 
+        DevModeClassFinder(ClassLoader classLoader, Set<Class<?>> classes) {
+            super(classLoader, classes.stream()
+                    .sorted(Comparator.comparing(Class::getName))
+                    .toArray(Class<?>[]::new));
+        }
+
         @Override
         public Set<Class<?>> getAnnotatedClasses(
                 Class<? extends Annotation> annotation) {
@@ -144,6 +161,107 @@ public class DevModeInitializer implements Serializable {
         }
     }
 
+    /**
+     * Child first class loader for the compiled classes folder of the
+     * project. Used to read the current annotations of the recompiled classes
+     * when the frontend files are regenerated, the classes loaded at startup
+     * are never reloaded by the webapp class loader.
+     */
+    static class ClassesFolderLoader extends URLClassLoader {
+
+        private final Path classesFolder;
+
+        ClassesFolderLoader(File classesFolder, ClassLoader parent)
+                throws MalformedURLException {
+            super(new URL[] { classesFolder.toURI().toURL() }, parent);
+            this.classesFolder = classesFolder.toPath().toAbsolutePath()
+                    .normalize();
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve)
+                throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> clazz = findLoadedClass(name);
+                if (clazz == null) {
+                    try {
+                        clazz = findClass(name);
+                    } catch (ClassNotFoundException e) {
+                        return super.loadClass(name, resolve);
+                    }
+                }
+                if (resolve) {
+                    resolveClass(clazz);
+                }
+                return clazz;
+            }
+        }
+
+        @Override
+        public URL getResource(String name) {
+            URL url = findResource(name);
+            return url == null ? super.getResource(name) : url;
+        }
+
+        /**
+         * Loads all the classes of the classes folder with this class loader.
+         *
+         * @param startupClasses
+         *            the classes passed to the initializer at startup
+         * @return the startup classes not compiled to the classes folder
+         *         together with the current classes of the folder
+         * @throws IOException
+         *             if the classes folder can't be read
+         */
+        Set<Class<?>> reloadClasses(Set<Class<?>> startupClasses)
+                throws IOException {
+            Set<Class<?>> classes = startupClasses.stream()
+                    .filter(clazz -> !isInClassesFolder(clazz))
+                    .collect(Collectors.toCollection(HashSet::new));
+            if (!Files.isDirectory(classesFolder)) {
+                return classes;
+            }
+            List<String> classNames;
+            try (Stream<Path> files = Files.walk(classesFolder)) {
+                classNames = files.filter(Files::isRegularFile)
+                        .map(file -> classesFolder.relativize(file).toString())
+                        .filter(file -> file.endsWith(".class"))
+                        .map(file -> file
+                                .substring(0, file.length() - ".class".length())
+                                .replace(File.separatorChar, '.'))
+                        .filter(name -> !name.endsWith("module-info")
+                                && !name.endsWith("package-info"))
+                        .collect(Collectors.toList());
+            }
+            for (String className : classNames) {
+                try {
+                    classes.add(Class.forName(className, false, this));
+                } catch (ClassNotFoundException | LinkageError e) {
+                    log().debug("Unable to load class {} from {}", className,
+                            classesFolder, e);
+                }
+            }
+            return classes;
+        }
+
+        private boolean isInClassesFolder(Class<?> clazz) {
+            CodeSource codeSource = clazz.getProtectionDomain()
+                    .getCodeSource();
+            if (codeSource == null || codeSource.getLocation() == null) {
+                return false;
+            }
+            try {
+                return classesFolder.equals(Paths
+                        .get(codeSource.getLocation().toURI()).toAbsolutePath()
+                        .normalize());
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                return false;
+            }
+        }
+    }
+
+    private static final long FRONTEND_WATCHER_DEBOUNCE_MS = 300;
+
     private static final Pattern JAR_FILE_REGEX = Pattern
             .compile(".*file:(.+\\.jar).*");
 
@@ -210,11 +328,10 @@ public class DevModeInitializer implements Serializable {
 
         featureFlags.setPropertiesLocation(config.getJavaResourceFolder());
 
-        String baseDir = config.getStringProperty(FrontendUtils.PROJECT_BASEDIR,
-                null);
-        if (baseDir == null) {
-            baseDir = getBaseDirectoryFallback();
-        }
+        String baseDirProperty = config
+                .getStringProperty(FrontendUtils.PROJECT_BASEDIR, null);
+        String baseDir = baseDirProperty == null ? getBaseDirectoryFallback()
+                : baseDirProperty;
 
         // Initialize the usage statistics if enabled
         if (config.isUsageStatisticsEnabled()) {
@@ -236,70 +353,11 @@ public class DevModeInitializer implements Serializable {
         Lookup lookupForClassFinder = Lookup.of(new DevModeClassFinder(classes),
                 ClassFinder.class);
         Lookup lookup = Lookup.compose(lookupForClassFinder, lookupFromContext);
-        Builder builder = new NodeTasks.Builder(lookup, new File(baseDir),
-                new File(generatedDir), new File(frontendFolder),
-                config.getBuildFolder());
-
-        log().info("Starting dev-mode updaters in {} folder.",
-                builder.getNpmFolder());
-
-        if (!builder.getGeneratedFolder().exists()) {
-            try {
-                FileUtils.forceMkdir(builder.getGeneratedFolder());
-            } catch (IOException e) {
-                throw new UncheckedIOException(
-                        String.format("Failed to create directory '%s'",
-                                builder.getGeneratedFolder()),
-                        e);
-            }
-        }
-
-        File generatedPackages = new File(builder.getGeneratedFolder(),
-                PACKAGE_JSON);
 
-        // Regenerate webpack configuration, as it may be necessary to
-        // update it
         // TODO: make sure target directories are aligned with build
         // config,
         // see https://github.com/vaadin/flow/issues/9082
         File target = new File(baseDir, config.getBuildFolder());
-        builder.withWebpack(
-                Paths.get(target.getPath(), "classes", VAADIN_WEBAPP_RESOURCES)
-                        .toFile(),
-                Paths.get(target.getPath(), "classes", VAADIN_SERVLET_RESOURCES)
-                        .toFile());
-
-        builder.useV14Bootstrap(config.useV14Bootstrap());
-
-        if (!config.useV14Bootstrap() && isEndpointServiceAvailable(lookup)) {
-            String connectJavaSourceFolder = config.getStringProperty(
-                    CONNECT_JAVA_SOURCE_FOLDER_TOKEN,
-                    Paths.get(baseDir, DEFAULT_CONNECT_JAVA_SOURCE_FOLDER)
-                            .toString());
-            String connectApplicationProperties = config.getStringProperty(
-                    CONNECT_APPLICATION_PROPERTIES_TOKEN,
-                    Paths.get(baseDir, DEFAULT_CONNECT_APPLICATION_PROPERTIES)
-                            .toString());
-            String connectOpenApiJsonFile = config
-                    .getStringProperty(CONNECT_OPEN_API_FILE_TOKEN,
-                            Paths.get(baseDir, config.getBuildFolder(),
-                                    DEFAULT_CONNECT_OPENAPI_JSON_FILE)
-                                    .toString());
-
-            builder.withEndpointSourceFolder(new File(connectJavaSourceFolder))
-                    .withApplicationProperties(
-                            new File(connectApplicationProperties))
-                    .withEndpointGeneratedOpenAPIFile(
-                            new File(connectOpenApiJsonFile));
-        }
-
-        // If we are missing either the base or generated package json
-        // files
-        // generate those
-        if (!new File(builder.getNpmFolder(), PACKAGE_JSON).exists()
-                || !generatedPackages.exists()) {
-            builder.createMissingPackageJson(true);
-        }
 
         Set<File> frontendLocations = getFrontendLocationsFromClassloader(
                 DevModeStartupListener.class.getClassLoader());
@@ -328,25 +386,135 @@ public class DevModeInitializer implements Serializable {
                         .toString());
 
         JsonObject tokenFileData = Json.createObject();
+
+        // Settings shared by the startup run and the runs triggered by the
+        // frontend watcher, each run only adds the tasks it needs
+        Function<Lookup, Builder> builderFactory = tasksLookup -> {
+            Builder tasksBuilder = new NodeTasks.Builder(tasksLookup,
+                    new File(baseDir), new File(generatedDir),
+                    new File(frontendFolder), config.getBuildFolder());
+
+            // Regenerate webpack configuration, as it may be necessary to
+            // update it
+            tasksBuilder.withWebpack(
+                    Paths.get(target.getPath(), "classes",
+                            VAADIN_WEBAPP_RESOURCES).toFile(),
+                    Paths.get(target.getPath(), "classes",
+                            VAADIN_SERVLET_RESOURCES).toFile());
+
+            tasksBuilder.useV14Bootstrap(config.useV14Bootstrap());
+
+            if (!config.useV14Bootstrap()
+                    && isEndpointServiceAvailable(tasksLookup)) {
+                String connectJavaSourceFolder = config.getStringProperty(
+                        CONNECT_JAVA_SOURCE_FOLDER_TOKEN,
+                        Paths.get(baseDir, DEFAULT_CONNECT_JAVA_SOURCE_FOLDER)
+                                .toString());
+                String connectApplicationProperties = config.getStringProperty(
+                        CONNECT_APPLICATION_PROPERTIES_TOKEN,
+                        Paths.get(baseDir,
+                                DEFAULT_CONNECT_APPLICATION_PROPERTIES)
+                                .toString());
+                String connectOpenApiJsonFile = config.getStringProperty(
+                        CONNECT_OPEN_API_FILE_TOKEN,
+                        Paths.get(baseDir, config.getBuildFolder(),
+                                DEFAULT_CONNECT_OPENAPI_JSON_FILE).toString());
+
+                tasksBuilder
+                        .withEndpointSourceFolder(
+                                new File(connectJavaSourceFolder))
+                        .withApplicationProperties(
+                                new File(connectApplicationProperties))
+                        .withEndpointGeneratedOpenAPIFile(
+                                new File(connectOpenApiJsonFile));
+            }
+
+            // If we are missing either the base or generated package json
+            // files
+            // generate those
+            if (!new File(tasksBuilder.getNpmFolder(), PACKAGE_JSON).exists()
+                    || !new File(tasksBuilder.getGeneratedFolder(),
+                            PACKAGE_JSON).exists()) {
+                tasksBuilder.createMissingPackageJson(true);
+            }
+
+            return tasksBuilder.useByteCodeScanner(useByteCodeScanner)
+                    .withFlowResourcesFolder(flowResourcesFolder)
+                    .withFrontendGeneratedFolder(
+                            new File(frontendGeneratedFolder))
+                    .copyResources(frontendLocations)
+                    .populateTokenFileData(tokenFileData)
+                    .withEmbeddableWebComponents(true).enablePnpm(enablePnpm)
+                    .useGlobalPnpm(useGlobalPnpm)
+                    .withHomeNodeExecRequired(useHomeNodeExec)
+                    .withProductionMode(config.isProductionMode())
+                    .withPostinstallPackages(
+                            Arrays.asList(additionalPostinstallPackages));
+        };
+
+        Builder builder = builderFactory.apply(lookup);
+
+        log().info("Starting dev-mode updaters in {} folder.",
+                builder.getNpmFolder());
+
+        if (!builder.getGeneratedFolder().exists()) {
+            try {
+                FileUtils.forceMkdir(builder.getGeneratedFolder());
+            } catch (IOException e) {
+                throw new UncheckedIOException(
+                        String.format("Failed to create directory '%s'",
+                                builder.getGeneratedFolder()),
+                        e);
+            }
+        }
+
+        File localResourcesFolder = new File(baseDir,
+                Constants.LOCAL_FRONTEND_RESOURCES_PATH);
         NodeTasks tasks = builder.enablePackagesUpdate(true)
-                .useByteCodeScanner(useByteCodeScanner)
-                .withFlowResourcesFolder(flowResourcesFolder)
-                .withFrontendGeneratedFolder(new File(frontendGeneratedFolder))
-                .copyResources(frontendLocations)
-                .copyLocalResources(new File(baseDir,
-                        Constants.LOCAL_FRONTEND_RESOURCES_PATH))
-                .enableImportsUpdate(true).runNpmInstall(true)
-                .populateTokenFileData(tokenFileData)
-                .withEmbeddableWebComponents(true).enablePnpm(enablePnpm)
-                .useGlobalPnpm(useGlobalPnpm)
-                .withHomeNodeExecRequired(useHomeNodeExec)
-                .withProductionMode(config.isProductionMode())
-                .withPostinstallPackages(
-                        Arrays.asList(additionalPostinstallPackages))
-                .build();
+                .copyLocalResources(localResourcesFolder)
+                .enableImportsUpdate(true).runNpmInstall(true).build();
+
+        boolean watchFrontend = config
+                .getBooleanProperty(InitParameters.FRONTEND_WATCHER, true);
+        File classesFolder = new File(target, "classes");
+        ClassLoader webappClassLoader = getWebappClassLoader();
+        Consumer<Set<Source>> updateFrontend = changes -> {
+            if (!changes.contains(Source.CLASSES)) {
+                runNodeTasks(context, tokenFileData,
+                        builderFactory.apply(lookup)
+                                .copyLocalResources(localResourcesFolder)
+                                .build());
+                return;
+            }
+            // The startup classes keep the annotations they were loaded
+            // with, so the recompiled classes are read from the classes
+            // folder for every run
+            try (ClassesFolderLoader classLoader = new ClassesFolderLoader(
+                    classesFolder, webappClassLoader)) {
+                Lookup updateLookup = Lookup.compose(Lookup.of(
+                        new DevModeClassFinder(classLoader,
+                                classLoader.reloadClasses(classes)),
+                        ClassFinder.class), lookupFromContext);
+                // Imports and packages depend on the annotations of the
+                // classes, npm install is skipped if packages did not change
+                Builder updateBuilder = builderFactory.apply(updateLookup)
+                        .enablePackagesUpdate(true).enableImportsUpdate(true)
+                        .runNpmInstall(true);
+                if (changes.contains(Source.LOCAL_RESOURCES)) {
+                    updateBuilder.copyLocalResources(localResourcesFolder);
+                }
+                runNodeTasks(context, tokenFileData, updateBuilder.build());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
 
         Runnable runnable = () -> {
             runNodeTasks(context, tokenFileData, tasks);
+            if (watchFrontend) {
+                startFrontendWatcher(context, updateFrontend, classesFolder,
+                        localResourcesFolder);
+            }
             if (!featureFlags.isEnabled(FeatureFlags.WEBPACK)) {
                 // For Vite, wait until a VaadinServlet is deployed so we know
                 // which frontend servlet path to use
@@ -378,6 +546,13 @@ public class DevModeInitializer implements Serializable {
         }
     }
 
+    private static ClassLoader getWebappClassLoader() {
+        ClassLoader classLoader = Thread.currentThread()
+                .getContextClassLoader();
+        return classLoader == null ? DevModeInitializer.class.getClassLoader()
+                : classLoader;
+    }
+
     private static boolean isEndpointServiceAvailable(Lookup lookup) {
         if (lookup == null) {
             return false;
@@ -430,6 +605,29 @@ public class DevModeInitializer implements Serializable {
         return frontendFiles;
     }
 
+    private static void startFrontendWatcher(VaadinContext context,
+            Consumer<Set<Source>> updateFrontend, File classesFolder,
+            File localResourcesFolder) {
+        Map<File, Source> folders = new HashMap<>();
+        folders.put(classesFolder, Source.CLASSES);
+        folders.put(localResourcesFolder, Source.LOCAL_RESOURCES);
+        try {
+            FrontendGenerationWatcher watcher = new FrontendGenerationWatcher(
+                    folders, changes -> {
+                        long start = System.nanoTime();
+                        updateFrontend.accept(changes);
+                        log().info(
+                                "Updated generated frontend files for {} in {} ms",
+                                changes,
+                                (System.nanoTime() - start) / 1000000);
+                    }, FRONTEND_WATCHER_DEBOUNCE_MS);
+            context.setAttribute(FrontendGenerationWatcher.class, watcher);
+        } catch (IOException | UncheckedIOException e) {
+            log().warn("Unable to watch {} and {} for changes", classesFolder,
+                    localResourcesFolder, e);
+        }
+    }
+
     private static void runNodeTasks(VaadinContext vaadinContext,
             JsonObject tokenFileData, NodeTasks tasks) {
         try {
@@ -23,6 +23,7 @@ import jakarta.servlet.ServletContextListener;
 import jakarta.servlet.annotation.HandlesTypes;
 import jakarta.servlet.annotation.WebListener;
 
+import com.vaadin.base.devserver.FrontendGenerationWatcher;
 import com.vaadin.flow.component.WebComponentExporter;
 import com.vaadin.flow.component.WebComponentExporterFactory;
 import com.vaadin.flow.component.dependency.CssImport;
@@ -82,10 +83,15 @@ public class DevModeStartupListener
 
     @Override
     public void contextDestroyed(ServletContextEvent ctx) {
-        DevModeHandlerManager
-                .getDevModeHandler(
-                        new VaadinServletContext(ctx.getServletContext()))
+        VaadinServletContext context = new VaadinServletContext(
+                ctx.getServletContext());
+        DevModeHandlerManager.getDevModeHandler(context)
                 .ifPresent(DevModeHandler::stop);
+        FrontendGenerationWatcher watcher = context
+                .getAttribute(FrontendGenerationWatcher.class);
+        if (watcher != null) {
+            watcher.close();
+        }
     }
 
 }
@@ -1,33 +1,42 @@
 package com.vaadin.base.devserver;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.Inet4Address;
 import java.net.Inet6Address;
 import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
 import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import com.vaadin.base.devserver.startup.AbstractDevModeTest;
-import com.vaadin.flow.internal.DevModeHandler;
 import com.vaadin.flow.server.ExecutionFailedException;
+import com.vaadin.flow.server.HttpStatusCode;
 import com.vaadin.flow.server.frontend.FrontendTools;
 import com.vaadin.flow.server.frontend.FrontendToolsSettings;
 
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
 import org.junit.Assert;
 import org.junit.AssumptionViolatedException;
 import org.junit.Test;
@@ -38,7 +47,11 @@ public class AbstractDevServerRunnerTest extends AbstractDevModeTest {
     private class DummyRunner extends AbstractDevServerRunner {
 
         protected DummyRunner() {
-            super(lookup, 0, npmFolder,
+            this(0);
+        }
+
+        protected DummyRunner(int port) {
+            super(lookup, port, npmFolder,
                     CompletableFuture.completedFuture(null));
         }
 
@@ -99,28 +112,146 @@ public class AbstractDevServerRunnerTest extends AbstractDevModeTest {
 
     @Test
     public void shouldPassEncodedUrlToDevServer() throws Exception {
-        handler = new DummyRunner();
-        DevModeHandler devServer = Mockito.spy(handler);
+        AtomicReference<String> requestedPath = new AtomicReference<>();
+        HttpServer server = startStandInServer(exchange -> {
+            requestedPath.set(exchange.getRequestURI().getRawPath());
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, -1);
+            exchange.close();
+        });
+        try {
+            handler = new DummyRunner(server.getAddress().getPort());
+            waitForDevServer();
+
+            HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+            Mockito.when(request.getRequestURI()).thenReturn("/foo%20bar");
+            Mockito.when(request.getPathInfo()).thenReturn("/foo bar");
+            Mockito.when(request.getMethod()).thenReturn("GET");
+            Mockito.when(request.getHeaderNames())
+                    .thenReturn(Collections.emptyEnumeration());
+
+            Assert.assertTrue("Dev server should have served the resource",
+                    handler.serveDevModeRequest(request, mockResponse()));
+            Assert.assertEquals("/foo%20bar", requestedPath.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void serveDevModeRequest_illegalQueryCharacters_badRequest()
+            throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = startStandInServer(exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, -1);
+            exchange.close();
+        });
+        try {
+            handler = new DummyRunner(server.getAddress().getPort());
+            waitForDevServer();
+
+            HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+            Mockito.when(request.getPathInfo()).thenReturn("/VAADIN/foo.js");
+            Mockito.when(request.getQueryString()).thenReturn("a=b|c d");
+            Mockito.when(request.getMethod()).thenReturn("GET");
+            Mockito.when(request.getHeaderNames())
+                    .thenReturn(Collections.emptyEnumeration());
+            HttpServletResponse response = mockResponse();
+
+            Assert.assertTrue(handler.serveDevModeRequest(request, response));
+            Mockito.verify(response)
+                    .setStatus(HttpStatusCode.BAD_REQUEST.getCode());
+            Assert.assertEquals(0, requests.get());
+        } finally {
+            server.stop(0);
+        }
+    }
 
+    @Test
+    public void serveDevModeRequest_pageWithManyModules_connectionsReused()
+            throws Exception {
+        Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+        AtomicInteger requests = new AtomicInteger();
+        byte[] module = "export const foo = 'bar';"
+                .getBytes(StandardCharsets.UTF_8);
+        HttpServer server = startStandInServer(exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type",
+                    "text/javascript");
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK,
+                    module.length);
+            exchange.getResponseBody().write(module);
+            exchange.close();
+        });
+        try {
+            handler = new DummyRunner(server.getAddress().getPort());
+            waitForDevServer();
+
+            int modules = 200;
+            for (int i = 0; i < modules; i++) {
+                HttpServletRequest request = Mockito
+                        .mock(HttpServletRequest.class);
+                Mockito.when(request.getPathInfo())
+                        .thenReturn("/VAADIN/module-" + i + ".js");
+                Mockito.when(request.getMethod()).thenReturn("GET");
+                Mockito.when(request.getHeaderNames()).thenReturn(
+                        Collections.enumeration(List.of("Connection")));
+                Mockito.when(request.getHeader("Connection"))
+                        .thenReturn("keep-alive");
+                ByteArrayOutputStream body = new ByteArrayOutputStream();
+                HttpServletResponse response = mockResponse(body);
+
+                Assert.assertTrue(
+                        handler.serveDevModeRequest(request, response));
+                Assert.assertArrayEquals(module, body.toByteArray());
+                Mockito.verify(response).addHeader("Content-Type",
+                        "text/javascript");
+            }
+
+            Assert.assertEquals(modules, requests.get());
+            Assert.assertTrue(
+                    "Expected connections to the dev server to be reused, but "
+                            + clientPorts.size() + " connections were opened",
+                    clientPorts.size() < modules / 10);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private HttpServer startStandInServer(HttpHandler httpHandler)
+            throws IOException {
+        HttpServer server = HttpServer
+                .create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", httpHandler);
+        server.start();
+        return server;
+    }
+
+    private HttpServletResponse mockResponse() throws IOException {
+        return mockResponse(new ByteArrayOutputStream());
+    }
+
+    private HttpServletResponse mockResponse(ByteArrayOutputStream body)
+            throws IOException {
         HttpServletResponse response = Mockito.mock(HttpServletResponse.class);
         Mockito.when(response.getOutputStream())
-                .thenReturn(Mockito.mock(ServletOutputStream.class));
-        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
-        Mockito.when(request.getRequestURI()).thenReturn("/foo%20bar");
-        Mockito.when(request.getPathInfo()).thenReturn("foo bar");
-        Mockito.when(request.getHeaderNames())
-                .thenReturn(Collections.emptyEnumeration());
+                .thenReturn(new ServletOutputStream() {
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
 
-        AtomicReference<String> requestedPath = new AtomicReference<>();
-        Mockito.when(devServer.prepareConnection(Mockito.any(), Mockito.any()))
-                .then(invocation -> {
-                    requestedPath.set((String) invocation.getArguments()[0]);
-                    return Mockito.mock(HttpURLConnection.class);
-                });
-        Assert.assertTrue("Dev server should have served the resource",
-                devServer.serveDevModeRequest(request, response));
-        Assert.assertEquals("foo%20bar", requestedPath.get());
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                    }
 
+                    @Override
+                    public void write(int b) {
+                        body.write(b);
+                    }
+                });
+        return response;
     }
 
     @Test
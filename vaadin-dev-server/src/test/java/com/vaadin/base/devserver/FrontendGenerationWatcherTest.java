@@ -0,0 +1,92 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.base.devserver;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.vaadin.base.devserver.FrontendGenerationWatcher.Source;
+
+public class FrontendGenerationWatcherTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final BlockingQueue<Set<Source>> updates = new LinkedBlockingQueue<>();
+
+    private File classes;
+    private File resources;
+    private FrontendGenerationWatcher watcher;
+
+    @Before
+    public void setUp() throws IOException {
+        classes = temporaryFolder.newFolder("classes");
+        resources = temporaryFolder.newFolder("resources");
+        watcher = new FrontendGenerationWatcher(
+                Map.of(classes, Source.CLASSES, resources,
+                        Source.LOCAL_RESOURCES),
+                updates::add, 100);
+    }
+
+    @After
+    public void tearDown() {
+        watcher.close();
+    }
+
+    @Test
+    public void severalClassFilesWritten_singleUpdate() throws Exception {
+        File pkg = new File(classes, "com/example");
+        Files.createDirectories(pkg.toPath());
+        for (int i = 0; i < 10; i++) {
+            Files.write(new File(pkg, "View" + i + ".class").toPath(),
+                    new byte[] { 1 });
+        }
+
+        Assert.assertEquals(Set.of(Source.CLASSES),
+                updates.poll(10, TimeUnit.SECONDS));
+        Assert.assertNull(updates.poll(500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void nonClassFileWritten_noUpdate() throws Exception {
+        Files.writeString(new File(classes, "application.properties").toPath(),
+                "foo=bar");
+
+        Assert.assertNull(updates.poll(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void localResourceWritten_localResourcesUpdated() throws Exception {
+        Files.writeString(new File(resources, "my-component.js").toPath(),
+                "export {};");
+
+        Assert.assertEquals(Set.of(Source.LOCAL_RESOURCES),
+                updates.poll(10, TimeUnit.SECONDS));
+    }
+}
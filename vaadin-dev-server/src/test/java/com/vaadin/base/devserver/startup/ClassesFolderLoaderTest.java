@@ -0,0 +1,108 @@
+/*
+ * Copyright 2000-2022 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.base.devserver.startup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import com.vaadin.base.devserver.startup.DevModeInitializer.ClassesFolderLoader;
+import com.vaadin.base.devserver.startup.DevModeInitializer.DevModeClassFinder;
+import com.vaadin.flow.server.frontend.scanner.FrontendDependenciesScanner;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ClassesFolderLoaderTest {
+
+    private static final String CLASS_NAME = "com.example.ReloadedView";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void annotationChangedAfterStartup_rescannedModulesChange()
+            throws Exception {
+        File sources = temporaryFolder.newFolder("sources");
+        File classesFolder = temporaryFolder.newFolder("classes");
+
+        compile(sources, classesFolder, "./a.js");
+        Set<Class<?>> startupClasses;
+        try (ClassesFolderLoader loader = new ClassesFolderLoader(
+                classesFolder, getClass().getClassLoader())) {
+            startupClasses = loader.reloadClasses(Collections.emptySet());
+            Assert.assertTrue(scanModules(loader, startupClasses)
+                    .contains("./a.js"));
+        }
+
+        compile(sources, classesFolder, "./b.js");
+        try (ClassesFolderLoader loader = new ClassesFolderLoader(
+                classesFolder, getClass().getClassLoader())) {
+            Set<Class<?>> classes = loader.reloadClasses(startupClasses);
+            Assert.assertEquals(1, classes.size());
+            Assert.assertNotSame(startupClasses.iterator().next(),
+                    classes.iterator().next());
+
+            List<String> modules = scanModules(loader, classes);
+            Assert.assertTrue(modules.contains("./b.js"));
+            Assert.assertFalse(modules.contains("./a.js"));
+        }
+    }
+
+    @Test
+    public void startupClassOutsideClassesFolder_kept() throws IOException {
+        File classesFolder = temporaryFolder.newFolder("classes");
+
+        try (ClassesFolderLoader loader = new ClassesFolderLoader(
+                classesFolder, getClass().getClassLoader())) {
+            Set<Class<?>> classes = loader
+                    .reloadClasses(Collections.singleton(String.class));
+            Assert.assertEquals(Collections.singleton(String.class), classes);
+        }
+    }
+
+    private static List<String> scanModules(ClassLoader loader,
+            Set<Class<?>> classes) {
+        return new FrontendDependenciesScanner.FrontendDependenciesScannerFactory()
+                .createScanner(true, new DevModeClassFinder(loader, classes),
+                        false)
+                .getModules();
+    }
+
+    private static void compile(File sources, File classesFolder,
+            String module) throws IOException {
+        File source = new File(sources, "ReloadedView.java");
+        Files.write(source.toPath(), ("package com.example;\n"
+                + "@com.vaadin.flow.component.dependency.JsModule(\"" + module
+                + "\")\n" + "public class ReloadedView {}\n")
+                .getBytes(StandardCharsets.UTF_8));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int result = compiler.run(null, null, null, "-classpath",
+                System.getProperty("java.class.path"), "-d",
+                classesFolder.getPath(), source.getPath());
+        Assert.assertEquals("Unable to compile " + CLASS_NAME, 0, result);
+    }
+}